@@ -0,0 +1,258 @@
+package com.itau.banking.transaction.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache em dois níveis dos dados cadastrais das contas ({@link AccountReference}): Caffeine local (L1) na frente de um
+ * hash por conta no Redis (L2), compartilhado entre as instâncias.
+ *
+ * Cada entrada guarda a versão (coluna version) em que foi lida. Uma alteração da conta sobe no Redis um piso de versão
+ * para ela, apaga o L2 e publica a invalidação no canal configurado, que cada instância aplica ao próprio L1. Leituras
+ * feitas antes da alteração têm versão abaixo do piso e não voltam ao cache. Sem Redis, as invalidações não chegam às
+ * demais instâncias: o L1 vale no máximo local-ttl-seconds.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.cache.account", name = "enabled", havingValue = "true")
+@Slf4j
+public class AccountCache implements MessageListener {
+
+    private static final List<String> FIELDS = List.of("v", "n", "l", "s", "c");
+
+    // ARGV: versão, ttl (ms), número, limite diário, status, cliente. Grava só se a versão não estiver abaixo do piso
+    // ("m") nem da versão já gravada
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            local version = tonumber(ARGV[1])
+            local floor = tonumber(redis.call('HGET', KEYS[1], 'm')) or -1
+            local current = tonumber(redis.call('HGET', KEYS[1], 'v')) or -1
+            if version < floor or version < current then return 0 end
+            redis.call('HSET', KEYS[1], 'v', ARGV[1], 'n', ARGV[3], 'l', ARGV[4], 's', ARGV[5], 'c', ARGV[6])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    // ARGV: nova versão, ttl (ms), canal, mensagem. Sobe o piso, apaga dados mais antigos e publica no mesmo script
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>("""
+            local version = tonumber(ARGV[1])
+            local floor = tonumber(redis.call('HGET', KEYS[1], 'm')) or -1
+            if version > floor then redis.call('HSET', KEYS[1], 'm', ARGV[1]) end
+            local current = tonumber(redis.call('HGET', KEYS[1], 'v'))
+            if current and current < version then redis.call('HDEL', KEYS[1], 'v', 'n', 'l', 's', 'c') end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('PUBLISH', ARGV[3], ARGV[4])
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<Long, AccountReference> local;
+    // Maior versão invalidada por conta, para que uma leitura anterior à alteração não volte ao L1
+    private final Cache<Long, Long> floors;
+    private final String prefix;
+    private final String channel;
+    private final Duration ttl;
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+
+    public AccountCache(BankingProperties bankingProperties,
+                        RedisTemplate<String, String> redisTemplate,
+                        RedisConnectionFactory connectionFactory,
+                        MeterRegistry meterRegistry) {
+        BankingProperties.Cache.Account properties = bankingProperties.getCache().getAccount();
+        this.redisTemplate = redisTemplate;
+        this.prefix = properties.getPrefix();
+        this.channel = properties.getChannel();
+        this.ttl = Duration.ofMinutes(properties.getTtlMinutes());
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(properties.getLocalTtlSeconds()))
+                .build();
+        this.floors = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(properties.getLocalTtlSeconds()))
+                .build();
+
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+
+        this.localHits = Counter.builder("banking.account.cache").tag("result", "local")
+                .description("Contas encontradas no cache local").register(meterRegistry);
+        this.remoteHits = Counter.builder("banking.account.cache").tag("result", "remote")
+                .description("Contas encontradas no Redis").register(meterRegistry);
+        this.misses = Counter.builder("banking.account.cache").tag("result", "miss")
+                .description("Contas lidas do banco").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    /**
+     * Dados cadastrais das contas pedidas. As ausentes do L1 são buscadas no Redis em um único pipeline e as que
+     * faltarem, em uma única chamada ao loader. Contas inexistentes não aparecem no resultado.
+     */
+    public Map<Long, AccountReference> getAll(Collection<Long> accountIds, Function<Collection<Long>, List<Account>> loader) {
+        Map<Long, AccountReference> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long accountId : accountIds) {
+            AccountReference reference = local.getIfPresent(accountId);
+            if (reference != null) {
+                found.put(accountId, reference);
+                localHits.increment();
+            } else {
+                missing.add(accountId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Long, AccountReference> remote = readRemote(missing);
+        List<Long> notCached = new ArrayList<>();
+        for (Long accountId : missing) {
+            AccountReference reference = remote.get(accountId);
+            if (reference != null) {
+                found.put(accountId, reference);
+                remember(reference);
+                remoteHits.increment();
+            } else {
+                notCached.add(accountId);
+            }
+        }
+        if (notCached.isEmpty()) {
+            return found;
+        }
+
+        misses.increment(notCached.size());
+        for (Account account : loader.apply(notCached)) {
+            AccountReference reference = AccountReference.of(account);
+            found.put(reference.id(), reference);
+            if (writeRemote(reference)) {
+                remember(reference);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Invalida a conta em todas as instâncias a partir da versão informada, a versão gravada pela alteração.
+     */
+    public void invalidate(Long accountId, long version) {
+        evictLocal(accountId, version);
+        try {
+            redisTemplate.execute(INVALIDATE_SCRIPT, List.of(key(accountId)),
+                    String.valueOf(version), String.valueOf(ttl.toMillis()), channel, accountId + ":" + version);
+        } catch (Exception e) {
+            log.warn("[AccountCache].[invalidate] - Falha ao invalidar conta no Redis, demais instâncias seguem com o cache local até expirar - Conta: {} - Erro: {}",
+                    accountId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        evictLocal(Long.valueOf(body.substring(0, separator)), Long.parseLong(body.substring(separator + 1)));
+    }
+
+    private void evictLocal(Long accountId, long version) {
+        floors.asMap().merge(accountId, version, Math::max);
+        local.asMap().computeIfPresent(accountId, (id, current) -> current.version() < version ? null : current);
+    }
+
+    private void remember(AccountReference reference) {
+        local.asMap().compute(reference.id(), (id, current) -> {
+            Long floor = floors.getIfPresent(id);
+            if (floor != null && reference.version() < floor) {
+                return current;
+            }
+            return current != null && current.version() >= reference.version() ? current : reference;
+        });
+    }
+
+    private Map<Long, AccountReference> readRemote(List<Long> accountIds) {
+        Map<Long, AccountReference> found = new HashMap<>();
+        try {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    accountIds.forEach(accountId -> ops.<String, String>opsForHash().multiGet(key(accountId), FIELDS));
+                    return null;
+                }
+            });
+            for (int i = 0; i < accountIds.size(); i++) {
+                @SuppressWarnings("unchecked")
+                List<String> values = (List<String>) results.get(i);
+                if (values != null && values.get(0) != null) {
+                    found.put(accountIds.get(i), new AccountReference(accountIds.get(i), values.get(1), new BigDecimal(values.get(2)),
+                            AccountStatus.valueOf(values.get(3)), Long.valueOf(values.get(4)), Long.parseLong(values.get(0))));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[AccountCache].[readRemote] - Erro no Redis, contas lidas do banco - Contas: {} - Erro: {}", accountIds, e.getMessage());
+        }
+        return found;
+    }
+
+    // Sem Redis a entrada fica só no L1, que expira sozinho
+    private boolean writeRemote(AccountReference reference) {
+        try {
+            Long written = redisTemplate.execute(PUT_SCRIPT, List.of(key(reference.id())),
+                    String.valueOf(reference.version()), String.valueOf(ttl.toMillis()), reference.accountNumber(),
+                    reference.dailyLimit().toPlainString(), reference.status().name(), String.valueOf(reference.customerId()));
+            return written != null && written == 1L;
+        } catch (Exception e) {
+            log.warn("[AccountCache].[writeRemote] - Erro no Redis ao gravar conta - Conta: {} - Erro: {}", reference.id(), e.getMessage());
+            return true;
+        }
+    }
+
+    private String key(Long accountId) {
+        return prefix + accountId;
+    }
+}
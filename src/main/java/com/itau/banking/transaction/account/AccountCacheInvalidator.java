@@ -0,0 +1,49 @@
+package com.itau.banking.transaction.account;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de {@link Account}: toda alteração pela entidade invalida o {@link AccountCache} depois do commit. Os
+ * UPDATEs nativos de saldo do {@link AccountRepository} não passam por aqui; o saldo não fica no cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountCacheInvalidator {
+
+    private final ObjectProvider<AccountCache> accountCache;
+
+    @PostUpdate
+    void onUpdate(Account account) {
+        // A versão já é a gravada pela alteração: leituras anteriores ficam abaixo dela
+        invalidateAfterCommit(account.getId(), account.getVersion() != null ? account.getVersion() : Long.MAX_VALUE);
+    }
+
+    // Ids não são reaproveitados: a conta removida não volta ao cache em nenhuma versão
+    @PostRemove
+    void onRemove(Account account) {
+        invalidateAfterCommit(account.getId(), Long.MAX_VALUE);
+    }
+
+    private void invalidateAfterCommit(Long accountId, long version) {
+        AccountCache cache = accountCache.getIfAvailable();
+        if (cache == null || accountId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(accountId, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(accountId, version);
+            }
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.itau.banking.transaction.account;
+
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Dados cadastrais de uma conta, que quase nunca mudam, junto da versão (coluna version) em que foram lidos. O saldo
+ * fica de fora: ele muda a cada transferência e sempre vem do banco.
+ */
+public record AccountReference(Long id, String accountNumber, BigDecimal dailyLimit, AccountStatus status, Long customerId,
+                               long version) {
+
+    public static AccountReference of(Account account) {
+        return new AccountReference(account.getId(), account.getAccountNumber(), account.getDailyLimit(), account.getStatus(),
+                account.getCustomerId(), account.getVersion() != null ? account.getVersion() : 0);
+    }
+
+    /**
+     * Conta desanexada para validação e resposta, com o saldo informado (null quando ele só é conferido na escrita).
+     */
+    public Account toAccount(BigDecimal balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setAccountNumber(accountNumber);
+        account.setDailyLimit(dailyLimit);
+        account.setStatus(status);
+        account.setCustomerId(customerId);
+        account.setVersion(version);
+        account.setBalance(balance);
+        return account;
+    }
+}
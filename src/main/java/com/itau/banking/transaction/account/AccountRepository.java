@@ -1,10 +1,19 @@
 package com.itau.banking.transaction.account;
 
+import jakarta.persistence.LockModeType;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +23,45 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Override
     @NotNull
     Optional<Account> findById(@NotNull Long id);
+
+    @Query("SELECT a.balance FROM Account a WHERE a.id = :accountId")
+    Optional<BigDecimal> findBalanceById(@Param("accountId") Long accountId);
+
+    /**
+     * Debita o valor somente se o saldo cobrir a transferência, em um único UPDATE condicional.
+     * Retorna a quantidade de linhas afetadas: 0 indica saldo insuficiente ou conta inexistente.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE accounts SET balance = balance - :amount, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :accountId AND balance >= :amount", nativeQuery = true)
+    int debitIfSufficientBalance(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE accounts SET balance = balance + :amount, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :accountId", nativeQuery = true)
+    int credit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Clientes das contas em uma consulta escalar, sem carregar as entidades no contexto de persistência.
+     */
+    @Query("SELECT DISTINCT a.customerId FROM Account a WHERE a.id IN :ids")
+    List<Long> findCustomerIdsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Carrega e trava as contas em ordem crescente de id, evitando deadlock entre lotes concorrentes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Aplica a variação líquida de saldo. Só deve ser usado com as linhas já travadas e o saldo validado.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE accounts SET balance = balance + :delta, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :accountId", nativeQuery = true)
+    int adjustBalance(@Param("accountId") Long accountId, @Param("delta") BigDecimal delta);
 }
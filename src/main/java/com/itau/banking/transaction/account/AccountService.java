@@ -3,9 +3,11 @@ package com.itau.banking.transaction.account;
 import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -14,23 +16,105 @@ import java.util.List;
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final ObjectProvider<AccountCache> accountCache;
 
+    /**
+     * Com o cache de contas, os dados cadastrais vêm do cache e só o saldo é lido do banco.
+     */
     public Account findById(Long accountId) {
         log.info("[AccountService].[findById] - Buscando conta: {}", accountId);
-        return accountRepository.findById(accountId)
+        AccountCache cache = accountCache.getIfAvailable();
+        if (cache == null) {
+            return accountRepository.findById(accountId)
+                    .orElseThrow(() -> new AccountNotFoundException(accountId));
+        }
+        AccountReference reference = findReference(cache, accountId);
+        BigDecimal balance = accountRepository.findBalanceById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
+        return reference.toAccount(balance);
     }
 
-    public void debit(Account account, BigDecimal amount) {
-        log.info("[AccountService].[debit] - Debitando {} da conta {}", amount, account.getId());
-        account.setBalance(account.getBalance().subtract(amount));
-        accountRepository.save(account);
+    /**
+     * Conta de origem de uma transferência cujo saldo é conferido na escrita. Com o cache de contas, vem sem ir ao
+     * banco e com o saldo null.
+     */
+    public Account findForTransfer(Long accountId) {
+        AccountCache cache = accountCache.getIfAvailable();
+        if (cache == null) {
+            return findById(accountId);
+        }
+        log.info("[AccountService].[findForTransfer] - Buscando conta no cache: {}", accountId);
+        return findReference(cache, accountId).toAccount(null);
     }
 
-    public void credit(Account account, BigDecimal amount) {
-        log.info("[AccountService].[credit] - Creditando {} na conta {}", amount, account.getId());
-        account.setBalance(account.getBalance().add(amount));
-        accountRepository.save(account);
+    /**
+     * Contas de uma transferência, como {@link #findAllById}. Com o cache de contas, vêm do cache com o saldo null: a
+     * escrita (débito condicional ou linhas travadas) é quem confere o saldo.
+     */
+    public List<Account> findAllForTransfer(Collection<Long> accountIds) {
+        AccountCache cache = accountCache.getIfAvailable();
+        if (cache == null) {
+            return findAllById(accountIds);
+        }
+        log.info("[AccountService].[findAllForTransfer] - Buscando contas no cache: {}", accountIds);
+        return cache.getAll(accountIds, accountRepository::findAllById).values().stream()
+                .map(reference -> reference.toAccount(null))
+                .toList();
+    }
+
+    /**
+     * Busca várias contas em uma única consulta (IN); contas inexistentes simplesmente não aparecem no resultado.
+     */
+    public List<Account> findAllById(Collection<Long> accountIds) {
+        log.info("[AccountService].[findAllById] - Buscando contas: {}", accountIds);
+        return accountRepository.findAllById(accountIds);
+    }
+
+    /**
+     * Debita atomicamente no banco. Retorna false quando o saldo não cobre o valor,
+     * sem carregar a entidade nem depender do lock otimista.
+     */
+    public boolean debit(Long accountId, BigDecimal amount) {
+        log.info("[AccountService].[debit] - Debitando {} da conta {}", amount, accountId);
+        return accountRepository.debitIfSufficientBalance(accountId, amount) == 1;
+    }
+
+    public boolean credit(Long accountId, BigDecimal amount) {
+        log.info("[AccountService].[credit] - Creditando {} na conta {}", amount, accountId);
+        return accountRepository.credit(accountId, amount) == 1;
+    }
+
+    /**
+     * Clientes das contas sem trazê-las para o contexto de persistência: uma leitura travada feita depois na mesma
+     * transação carrega as contas com o estado corrente, e não o lido antes do lock.
+     */
+    public List<Long> findCustomerIds(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        log.info("[AccountService].[findCustomerIds] - Buscando clientes das contas: {}", accountIds);
+        return accountRepository.findCustomerIdsByIds(accountIds);
+    }
+
+    public List<Account> findAllForUpdate(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        log.info("[AccountService].[findAllForUpdate] - Travando {} contas", accountIds.size());
+        return accountRepository.findAllByIdForUpdate(accountIds);
+    }
+
+    public void applyNetChange(Long accountId, BigDecimal delta) {
+        log.info("[AccountService].[applyNetChange] - Aplicando variação líquida {} na conta {}", delta, accountId);
+        accountRepository.adjustBalance(accountId, delta);
+    }
+
+    private AccountReference findReference(AccountCache cache, Long accountId) {
+        AccountReference reference = cache.getAll(List.of(accountId), accountRepository::findAllById).get(accountId);
+        if (reference == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return reference;
     }
 
     public List<Account> findAll(){
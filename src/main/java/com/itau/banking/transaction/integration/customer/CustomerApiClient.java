@@ -1,6 +1,7 @@
 package com.itau.banking.transaction.integration.customer;
 
 import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.RedisKeyLayout;
 import com.itau.banking.transaction.shared.exception.CustomerNotFoundException;
 import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -67,7 +68,7 @@ public class CustomerApiClient {
     }
 
     public CustomerDto findCustomerById(Long customerId) {
-        String cacheKey = bankingProperties.getCache().getCustomer().getPrefix() + customerId;
+        String cacheKey = buildCacheKey(customerId);
         CustomerDto cachedCustomer = (CustomerDto) redisTemplate.opsForValue().get(cacheKey);
         
         if (cachedCustomer != null) {
@@ -100,6 +101,14 @@ public class CustomerApiClient {
         return customer;
     }
 
+    // Cache puro: na troca de layout uma chave antiga só causa um miss, então não há leitura dos dois layouts
+    private String buildCacheKey(Long customerId) {
+        BankingProperties.Cache cache = bankingProperties.getCache();
+        RedisKeyLayout layout = cache.getKeyLayout();
+        String prefix = layout != null && layout.writesCompact() ? cache.getCustomer().getCompactPrefix() : cache.getCustomer().getPrefix();
+        return prefix + customerId;
+    }
+
     private CustomerDto findCustomerByIdFallback(Long customerId, Exception ex) {
         log.error("[CustomerApiClient].[findCustomerByIdFallback] - Erro ao buscar cliente {}: {}", customerId, ex.getMessage());
         throw new CustomerNotFoundException(customerId);
@@ -0,0 +1,69 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.money.Money;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Estado em memória de uma conta, com saldo e limite em centavos. Só é acessado pela thread do shard dono da conta,
+ * por isso não usa sincronização.
+ */
+@Getter
+class LedgerAccount {
+
+    private final Long id;
+    private final Long customerId;
+    private final boolean inactive;
+    private final long dailyLimit;
+    private long balance;
+    private long dailyUsed;
+    private LocalDate dailyDate;
+
+    LedgerAccount(Account account) {
+        this.id = account.getId();
+        this.customerId = account.getCustomerId();
+        this.inactive = account.isInactive();
+        this.dailyLimit = Money.of(account.getDailyLimit()).cents();
+        this.balance = Money.of(account.getBalance()).cents();
+    }
+
+    void resetDaily(LocalDate date, Money used) {
+        this.dailyDate = date;
+        this.dailyUsed = used.cents();
+    }
+
+    void debit(Money amount) {
+        long cents = amount.cents();
+        if (balance < cents) {
+            throw new InsufficientBalanceException(toBigDecimal(balance), amount.toBigDecimal());
+        }
+        if (dailyUsed + cents > dailyLimit) {
+            throw new DailyLimitExceededException(toBigDecimal(dailyLimit), toBigDecimal(dailyUsed), amount.toBigDecimal());
+        }
+        balance -= cents;
+        dailyUsed += cents;
+    }
+
+    void credit(Money amount) {
+        balance += amount.cents();
+    }
+
+    void revertDebit(Money amount) {
+        balance += amount.cents();
+        dailyUsed = Math.max(0, dailyUsed - amount.cents());
+    }
+
+    void revertCredit(Money amount) {
+        balance -= amount.cents();
+    }
+
+    // Só nas rejeições: as mensagens das exceções continuam em reais
+    private static BigDecimal toBigDecimal(long cents) {
+        return Money.ofCents(cents).toBigDecimal();
+    }
+}
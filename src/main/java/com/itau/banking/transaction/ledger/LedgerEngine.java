@@ -0,0 +1,173 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.MinimumAmountException;
+import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.Transaction;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+/**
+ * Motor de transferências em memória (banking.transfer.mode=LEDGER).
+ *
+ * As contas são particionadas por id entre shards single-thread que mantêm saldo e limite diário.
+ * Toda transferência segue o mesmo protocolo em dois passos: débito no shard da origem e, só depois,
+ * crédito no shard do destino; se o segundo passo falhar o débito é compensado. A persistência é feita
+ * pelo {@link LedgerJournal}. O UPDATE condicional do débito continua sendo a proteção final no banco,
+ * mas o modo assume que esta instância é a única escrevendo nas contas que atende.
+ *
+ * Cada espera por shard ou journal é limitada a ledger.write-timeout-ms. Passo não aplicado no prazo é descartado;
+ * entrada que já estava em um lote do journal fica com o desfecho do commit e só é compensada se ele falhar.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.transfer", name = "mode", havingValue = "LEDGER")
+@Slf4j
+public class LedgerEngine {
+
+    private final List<LedgerShard> shards;
+    private final ExecutorService loader;
+    private final LedgerJournal journal;
+    private final CustomerApiClient customerApiClient;
+    private final BankingProperties bankingProperties;
+    private final long writeTimeoutMs;
+
+    public LedgerEngine(AccountRepository accountRepository,
+                        DailyLimitService dailyLimitService,
+                        LedgerJournal journal,
+                        CustomerApiClient customerApiClient,
+                        BankingProperties bankingProperties) {
+        this.journal = journal;
+        this.customerApiClient = customerApiClient;
+        this.bankingProperties = bankingProperties;
+        this.writeTimeoutMs = bankingProperties.getLedger().getWriteTimeoutMs();
+        this.loader = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ledger-loader-", 0).factory());
+        this.shards = IntStream.range(0, bankingProperties.getLedger().getShards())
+                .mapToObj(index -> new LedgerShard(index, accountRepository, dailyLimitService, loader))
+                .toList();
+        log.info("[LedgerEngine] - Motor de ledger iniciado com {} shards", shards.size());
+    }
+
+    public LedgerReceipt transfer(TransferRequest request, String idempotencyKey) {
+        validateRequest(request);
+
+        Long sourceId = request.sourceAccountId();
+        Long destinationId = request.destinationAccountId();
+        BigDecimal amount = request.amount();
+        // Os shards trabalham em centavos; o BigDecimal segue só para o journal
+        Money value = Money.of(amount);
+        LedgerShard sourceShard = shardOf(sourceId);
+        LedgerShard destinationShard = shardOf(destinationId);
+
+        Long customerId = await(sourceShard.debit(sourceId, value));
+        try {
+            await(destinationShard.credit(destinationId, value));
+        } catch (RuntimeException e) {
+            sourceShard.revertDebit(sourceId, value);
+            throw e;
+        }
+
+        Runnable compensation = () -> {
+            sourceShard.revertDebit(sourceId, value);
+            destinationShard.revertCredit(destinationId, value);
+        };
+        CustomerDto customer;
+        CompletableFuture<Transaction> written;
+        try {
+            customer = customerApiClient.findCustomerById(customerId);
+            written = journal.append(new LedgerJournalEntry(
+                    sourceId, destinationId, amount, request.description(), idempotencyKey, customer));
+        } catch (RuntimeException e) {
+            log.warn("[LedgerEngine].[transfer] - Falha após aplicar em memória, compensando - Origem: {} - Destino: {} - Erro: {}",
+                    sourceId, destinationId, e.getMessage());
+            compensation.run();
+            throw e;
+        }
+        return new LedgerReceipt(awaitJournal(written, idempotencyKey, compensation), customer);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shards.forEach(LedgerShard::shutdown);
+        loader.shutdownNow();
+    }
+
+    private void validateRequest(TransferRequest request) {
+        if (request.sourceAccountId().equals(request.destinationAccountId())) {
+            throw new SelfTransferException();
+        }
+        BigDecimal minimumAmount = bankingProperties.getTransfer().getMinimumAmount();
+        if (request.amount().compareTo(minimumAmount) < 0) {
+            throw new MinimumAmountException("O valor da transferência deve ser maior ou igual R$" + minimumAmount);
+        }
+    }
+
+    private LedgerShard shardOf(Long accountId) {
+        return shards.get((int) Math.floorMod(accountId, (long) shards.size()));
+    }
+
+    // No timeout o shard descarta o passo ainda não aplicado (ver LedgerShard#submit)
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.orTimeout(writeTimeoutMs, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Ledger sem resposta em " + writeTimeoutMs + "ms, transferência não aplicada");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Transaction awaitJournal(CompletableFuture<Transaction> written, String idempotencyKey, Runnable compensation) {
+        try {
+            return written.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            log.warn("[LedgerEngine].[awaitJournal] - Falha no journal, compensando - Idempotency Key: {} - Erro: {}",
+                    idempotencyKey, e.getCause().getMessage());
+            compensation.run();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Ainda na fila, sai dela e é compensada; já em um lote, o desfecho fica com o commit dele
+            boolean withdrawn = journal.withdraw(written);
+            log.error("[LedgerEngine].[awaitJournal] - Journal sem commit em {}ms - Idempotency Key: {} - Retirada da fila: {}",
+                    writeTimeoutMs, idempotencyKey, withdrawn);
+            if (withdrawn) {
+                compensation.run();
+                throw new IllegalStateException("Journal do ledger sem resposta em " + writeTimeoutMs + "ms, transferência não gravada");
+            }
+            written.whenComplete((transaction, error) -> {
+                if (error != null) {
+                    compensation.run();
+                }
+            });
+            throw new IllegalStateException("Journal do ledger sem resposta em " + writeTimeoutMs + "ms, transferência em gravação");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.transaction.Transaction;
+import com.itau.banking.transaction.transaction.TransferWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Journal write-behind do ledger: acumula as transferências já aplicadas em memória e as persiste
+ * em lote, em uma única transação do PostgreSQL. O futuro de cada entrada só completa após o commit.
+ *
+ * Depois do stop, novas entradas são recusadas e as que ficaram na fila falham em vez de aguardar para sempre.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.transfer", name = "mode", havingValue = "LEDGER")
+@Slf4j
+public class LedgerJournal {
+
+    private final AccountRepository accountRepository;
+    private final TransferWriter transferWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<PendingEntry> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public LedgerJournal(AccountRepository accountRepository,
+                         TransferWriter transferWriter,
+                         TransactionTemplate transactionTemplate,
+                         BankingProperties bankingProperties) {
+        this.accountRepository = accountRepository;
+        this.transferWriter = transferWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = bankingProperties.getLedger().getJournalBatchSize();
+        this.flushIntervalMs = bankingProperties.getLedger().getJournalFlushIntervalMs();
+        this.queue = new ArrayBlockingQueue<>(bankingProperties.getLedger().getJournalQueueCapacity());
+        this.writer = new Thread(this::drain, "ledger-journal");
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        // Sobras de um writer que não terminou a tempo ou de entradas que chegaram junto com o stop
+        List<PendingEntry> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            log.warn("[LedgerJournal].[stop] - {} transferências na fila não persistidas no desligamento", leftover.size());
+            leftover.forEach(pending -> pending.result().completeExceptionally(stopped()));
+        }
+    }
+
+    public CompletableFuture<Transaction> append(LedgerJournalEntry entry) {
+        CompletableFuture<Transaction> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(stopped());
+            return result;
+        }
+        PendingEntry pending = new PendingEntry(entry, result);
+        if (!queue.offer(pending)) {
+            log.error("[LedgerJournal].[append] - Journal cheio, transferência rejeitada - Idempotency Key: {}", entry.idempotencyKey());
+            result.completeExceptionally(new IllegalStateException("Journal do ledger cheio"));
+        }
+        // O stop pode ter começado entre a conferência e o offer: se ainda está na fila, ninguém mais vai persisti-la
+        if (!running && queue.remove(pending)) {
+            result.completeExceptionally(stopped());
+        }
+        return result;
+    }
+
+    /**
+     * Retira da fila a entrada ainda não incluída em um lote. Retorna false se ela já está sendo persistida.
+     */
+    public boolean withdraw(CompletableFuture<Transaction> result) {
+        return queue.removeIf(pending -> pending.result() == result);
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("Journal do ledger parado, transferência não persistida");
+    }
+
+    private void drain() {
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Sem writer, ninguém mais esvazia a fila: novas entradas passam a ser recusadas
+                Thread.currentThread().interrupt();
+                running = false;
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            } catch (Exception e) {
+                log.error("[LedgerJournal].[drain] - Erro inesperado no journal: {}", e.getMessage(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingEntry> batch) {
+        try {
+            List<Transaction> saved = transactionTemplate.execute(status ->
+                    persist(batch.stream().map(PendingEntry::entry).toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+            log.debug("[LedgerJournal].[flush] - Lote de {} transferências persistido", batch.size());
+        } catch (Exception e) {
+            log.warn("[LedgerJournal].[flush] - Falha no lote de {} transferências, persistindo individualmente: {}",
+                    batch.size(), e.getMessage());
+            batch.forEach(this::flushSingle);
+        }
+    }
+
+    private void flushSingle(PendingEntry pending) {
+        try {
+            pending.result().complete(transactionTemplate.execute(status -> persist(List.of(pending.entry())).get(0)));
+        } catch (Exception e) {
+            log.error("[LedgerJournal].[flushSingle] - Falha ao persistir transferência - Idempotency Key: {} - Erro: {}",
+                    pending.entry().idempotencyKey(), e.getMessage());
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private List<Transaction> persist(List<LedgerJournalEntry> entries) {
+        // Uma única consulta (IN) para todas as contas do lote
+        Set<Long> ids = new HashSet<>();
+        entries.forEach(entry -> {
+            ids.add(entry.sourceAccountId());
+            ids.add(entry.destinationAccountId());
+        });
+        Map<Long, Account> accounts = accountRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        return entries.stream()
+                .map(entry -> transferWriter.write(entry.customer(),
+                        account(accounts, entry.sourceAccountId()),
+                        account(accounts, entry.destinationAccountId()),
+                        entry.amount(), entry.description(), entry.idempotencyKey()))
+                .toList();
+    }
+
+    private static Account account(Map<Long, Account> accounts, Long id) {
+        Account account = accounts.get(id);
+        if (account == null) {
+            throw new AccountNotFoundException(id);
+        }
+        return account;
+    }
+
+    private record PendingEntry(LedgerJournalEntry entry, CompletableFuture<Transaction> result) { }
+}
@@ -0,0 +1,14 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+
+import java.math.BigDecimal;
+
+public record LedgerJournalEntry(
+        Long sourceAccountId,
+        Long destinationAccountId,
+        BigDecimal amount,
+        String description,
+        String idempotencyKey,
+        CustomerDto customer
+) { }
@@ -0,0 +1,6 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.transaction.Transaction;
+
+public record LedgerReceipt(Transaction transaction, CustomerDto customer) { }
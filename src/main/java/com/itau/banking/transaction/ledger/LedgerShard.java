@@ -0,0 +1,157 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.InactiveAccountException;
+import com.itau.banking.transaction.shared.money.Money;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Worker single-thread dono de uma partição das contas. Todas as operações de uma conta são
+ * aplicadas sequencialmente na mesma thread, sem locks.
+ *
+ * A primeira operação de uma conta fria a carrega do banco no executor de leitura, fora da thread do shard, para que
+ * a espera não pare as demais contas da partição; o resultado volta para a thread do shard antes de ser aplicado.
+ */
+@Slf4j
+class LedgerShard {
+
+    private final int index;
+    private final ExecutorService worker;
+    private final Map<Long, LedgerAccount> accounts = new HashMap<>();
+    private final Map<Long, CompletableFuture<LedgerAccount>> loading = new HashMap<>();
+    private final AccountRepository accountRepository;
+    private final DailyLimitService dailyLimitService;
+    private final Executor loader;
+
+    LedgerShard(int index, AccountRepository accountRepository, DailyLimitService dailyLimitService, Executor loader) {
+        this.index = index;
+        this.accountRepository = accountRepository;
+        this.dailyLimitService = dailyLimitService;
+        this.loader = loader;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "ledger-shard-" + index));
+    }
+
+    /**
+     * Debita em memória e retorna o customerId da conta, para que o estado mutável não saia da thread do shard.
+     * Se o chamador já desistiu do futuro (timeout), o débito não é aplicado ou é desfeito.
+     */
+    CompletableFuture<Long> debit(Long accountId, Money amount) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        submit(result, accountId, account -> {
+            if (account.isInactive()) {
+                throw new InactiveAccountException("Conta de origem inativa: " + accountId);
+            }
+            refreshDailyWindow(account);
+            account.debit(amount);
+            if (!result.complete(account.getCustomerId())) {
+                account.revertDebit(amount);
+            }
+        });
+        return result;
+    }
+
+    CompletableFuture<Void> credit(Long accountId, Money amount) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        submit(result, accountId, account -> {
+            if (account.isInactive()) {
+                throw new InactiveAccountException("Conta de destino inativa: " + accountId);
+            }
+            account.credit(amount);
+            if (!result.complete(null)) {
+                account.revertCredit(amount);
+            }
+        });
+        return result;
+    }
+
+    void revertDebit(Long accountId, Money amount) {
+        worker.execute(() -> {
+            LedgerAccount account = accounts.get(accountId);
+            if (account != null) {
+                account.revertDebit(amount);
+            }
+        });
+    }
+
+    void revertCredit(Long accountId, Money amount) {
+        worker.execute(() -> {
+            LedgerAccount account = accounts.get(accountId);
+            if (account != null) {
+                account.revertCredit(amount);
+            }
+        });
+    }
+
+    void shutdown() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("[LedgerShard].[shutdown] - Shard {} não finalizou no tempo esperado", index);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(CompletableFuture<?> result, Long accountId, Consumer<LedgerAccount> operation) {
+        worker.execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            LedgerAccount account = accounts.get(accountId);
+            if (account != null) {
+                apply(result, account, operation);
+                return;
+            }
+            // Operações que chegam durante a carga aguardam a mesma leitura
+            CompletableFuture<LedgerAccount> pending = loading.computeIfAbsent(accountId, this::load);
+            pending.whenComplete((loaded, error) -> worker.execute(() -> {
+                loading.remove(accountId, pending);
+                if (error != null) {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    return;
+                }
+                if (!result.isDone()) {
+                    apply(result, accounts.computeIfAbsent(accountId, id -> loaded), operation);
+                }
+            }));
+        });
+    }
+
+    private void apply(CompletableFuture<?> result, LedgerAccount account, Consumer<LedgerAccount> operation) {
+        try {
+            operation.accept(account);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private CompletableFuture<LedgerAccount> load(Long accountId) {
+        return CompletableFuture.supplyAsync(() -> {
+            log.info("[LedgerShard].[load] - Carregando conta {} no shard {}", accountId, index);
+            return accountRepository.findById(accountId)
+                    .map(LedgerAccount::new)
+                    .orElseThrow(() -> new AccountNotFoundException(accountId));
+        }, loader);
+    }
+
+    private void refreshDailyWindow(LedgerAccount account) {
+        LocalDate today = dailyLimitService.today();
+        if (!today.equals(account.getDailyDate())) {
+            account.resetDaily(today, dailyLimitService.getCurrentDailyTotal(account.getId()));
+        }
+    }
+}
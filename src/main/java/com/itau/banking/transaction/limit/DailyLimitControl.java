@@ -1,12 +1,13 @@
 package com.itau.banking.transaction.limit;
 
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.shared.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -21,7 +22,8 @@ import java.time.LocalDateTime;
 public class DailyLimitControl {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_limit_control_id_seq")
+    @SequenceGenerator(name = "daily_limit_control_id_seq", sequenceName = "daily_limit_control_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -31,7 +33,8 @@ public class DailyLimitControl {
     private LocalDate date;
 
     @Column(nullable = false, precision = 15, scale = 2)
-    private BigDecimal totalAmount = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money totalAmount = Money.ZERO;
 
     @Column(nullable = false)
     private Integer transactionCount = 0;
@@ -1,12 +1,44 @@
 package com.itau.banking.transaction.limit;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Optional;
 
 @Repository
 public interface DailyLimitControlRepository extends JpaRepository<DailyLimitControl, Long> {
     Optional<DailyLimitControl> findByAccountIdAndDate(Long accountId, LocalDate date);
+
+    Slice<DailyLimitControl> findByDate(LocalDate date, Pageable pageable);
+
+    /**
+     * Soma o valor ao total do dia em um único comando, sem a janela de lost update entre ler e gravar, e retorna o
+     * novo total. Sem linha para o dia, o valor vira o total inicial.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO daily_limit_control (account_id, date, total_amount, transaction_count, last_updated_at) " +
+            "VALUES (:accountId, :date, :amount, :transfers, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (account_id, date) DO UPDATE SET total_amount = daily_limit_control.total_amount + EXCLUDED.total_amount, " +
+            "transaction_count = daily_limit_control.transaction_count + EXCLUDED.transaction_count, " +
+            "last_updated_at = EXCLUDED.last_updated_at " +
+            "RETURNING total_amount", nativeQuery = true)
+    BigDecimal addToDailyTotal(@Param("accountId") Long accountId, @Param("date") LocalDate date,
+                               @Param("amount") BigDecimal amount, @Param("transfers") int transfers);
+
+    /**
+     * Grava o total calculado das transações só se o dia ainda não tiver linha e retorna o total que prevaleceu.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO daily_limit_control (account_id, date, total_amount, transaction_count, last_updated_at) " +
+            "VALUES (:accountId, :date, :total, 0, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (account_id, date) DO UPDATE SET total_amount = daily_limit_control.total_amount " +
+            "RETURNING total_amount", nativeQuery = true)
+    BigDecimal initializeDailyTotal(@Param("accountId") Long accountId, @Param("date") LocalDate date, @Param("total") BigDecimal total);
 }
@@ -0,0 +1,123 @@
+package com.itau.banking.transaction.limit;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lote do limite diário de uma conta retirado do Redis por esta instância (lease) e gasto localmente, sem ida ao Redis
+ * por transferência.
+ *
+ * No Redis o lote inteiro conta como usado até ser devolvido: o que foi gasto entra no total confirmado e a sobra volta
+ * a ficar disponível para as outras instâncias. Depois de fechado, o lote não aceita novos gastos e é devolvido assim
+ * que as transferências em andamento terminarem.
+ */
+final class DailyLimitLease {
+
+    private final Long accountId;
+    private final LocalDate date;
+    private final String member;
+    private final AtomicLong available;
+    // Valor retirado do lote por transferências ainda não confirmadas nem devolvidas
+    private final AtomicLong inFlight;
+    private final AtomicLong recordedTotal = new AtomicLong(-1);
+    // Confirmado sem total do banco conhecido: vai somado ao total confirmado na devolução
+    private final AtomicLong unrecorded = new AtomicLong();
+    private final AtomicBoolean returned = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile long lastUsedMillis = System.currentTimeMillis();
+
+    /**
+     * O lote já nasce com o valor da transferência que o pediu em andamento.
+     */
+    DailyLimitLease(Long accountId, LocalDate date, String member, long grantedCents, long firstCents) {
+        this.accountId = accountId;
+        this.date = date;
+        this.member = member;
+        this.available = new AtomicLong(grantedCents - firstCents);
+        this.inFlight = new AtomicLong(firstCents);
+    }
+
+    Long getAccountId() {
+        return accountId;
+    }
+
+    LocalDate getDate() {
+        return date;
+    }
+
+    String getMember() {
+        return member;
+    }
+
+    long getInFlight() {
+        return inFlight.get();
+    }
+
+    long getLastUsedMillis() {
+        return lastUsedMillis;
+    }
+
+    /**
+     * Maior total do banco devolvido pelas transferências confirmadas com o lote, ou -1 se nenhuma.
+     */
+    long getRecordedTotal() {
+        return recordedTotal.get();
+    }
+
+    long getUnrecorded() {
+        return unrecorded.get();
+    }
+
+    /**
+     * O valor entra em andamento antes de o fechamento ser conferido: ou o fechamento vê a transferência em andamento
+     * e espera por ela, ou a transferência vê o lote fechado e desiste.
+     */
+    boolean tryTake(long cents) {
+        inFlight.addAndGet(cents);
+        if (!closed) {
+            long current;
+            while ((current = available.get()) >= cents) {
+                if (available.compareAndSet(current, current - cents)) {
+                    lastUsedMillis = System.currentTimeMillis();
+                    return true;
+                }
+            }
+        }
+        inFlight.addAndGet(-cents);
+        return false;
+    }
+
+    void commit(long cents, long recordedCents) {
+        if (recordedCents >= 0) {
+            recordedTotal.accumulateAndGet(recordedCents, Math::max);
+        } else {
+            unrecorded.addAndGet(cents);
+        }
+        inFlight.addAndGet(-cents);
+    }
+
+    void release(long cents) {
+        available.addAndGet(cents);
+        inFlight.addAndGet(-cents);
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Verdadeiro para um único chamador, quando o lote está fechado e sem transferências em andamento.
+     */
+    boolean claimReturn() {
+        return closed && inFlight.get() == 0 && returned.compareAndSet(false, true);
+    }
+
+    /**
+     * Devolução forçada (ex.: desligamento): o que ainda estiver em andamento é levado como gasto.
+     */
+    boolean claimForcedReturn() {
+        closed = true;
+        return returned.compareAndSet(false, true);
+    }
+}
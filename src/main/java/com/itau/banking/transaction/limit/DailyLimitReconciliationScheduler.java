@@ -0,0 +1,39 @@
+package com.itau.banking.transaction.limit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Corrige no Redis os totais diários que divergiram do banco (ex.: confirmação de reserva perdida por queda do Redis)
+ * e mantém os leases locais do limite.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.cache.daily-limit", name = "reservation-enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class DailyLimitReconciliationScheduler {
+
+    private final DailyLimitService dailyLimitService;
+
+    @Scheduled(fixedDelayString = "${banking.cache.daily-limit.reconcile-interval-ms}")
+    public void reconcile() {
+        try {
+            int reconciled = dailyLimitService.reconcile(dailyLimitService.today());
+            log.debug("[DailyLimitReconciliationScheduler].[reconcile] - {} totais diários regravados no Redis", reconciled);
+        } catch (Exception e) {
+            log.error("[DailyLimitReconciliationScheduler].[reconcile] - Erro ao reconciliar limites diários: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.cache.daily-limit.lease.renew-interval-ms}")
+    public void maintainLeases() {
+        try {
+            dailyLimitService.maintainLeases();
+        } catch (Exception e) {
+            log.error("[DailyLimitReconciliationScheduler].[maintainLeases] - Erro ao renovar leases do limite: {}", e.getMessage(), e);
+        }
+    }
+}
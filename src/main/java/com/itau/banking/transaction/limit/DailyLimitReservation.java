@@ -0,0 +1,120 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.shared.money.Money;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parte do limite diário reservada por {@link DailyLimitService#reserve}.
+ *
+ * A reserva fica pendente no Redis até ser confirmada ({@link #commit()}, depois do commit da transferência no banco)
+ * ou devolvida ({@link #release()}, se a transferência não for gravada); só a primeira das duas tem efeito. Reservas
+ * nunca confirmadas nem devolvidas (ex.: queda da instância) expiram após reservation-ttl-seconds e passam a contar
+ * como gastas até a reconciliação. Reservas tiradas de um {@link DailyLimitLease} são confirmadas e devolvidas só
+ * localmente.
+ */
+public final class DailyLimitReservation {
+
+    private final DailyLimitService service;
+    private final Long accountId;
+    private final LocalDate date;
+    private final Money amount;
+    private final String member;
+    private final DailyLimitLease lease;
+    private final AtomicBoolean settled = new AtomicBoolean();
+    private volatile Money recordedTotal;
+
+    DailyLimitReservation(DailyLimitService service, Long accountId, LocalDate date, Money amount, String member) {
+        this.service = service;
+        this.accountId = accountId;
+        this.date = date;
+        this.amount = amount;
+        this.member = member;
+        this.lease = null;
+    }
+
+    DailyLimitReservation(DailyLimitService service, DailyLimitLease lease, Money amount) {
+        this.service = service;
+        this.accountId = lease.getAccountId();
+        this.date = lease.getDate();
+        this.amount = amount;
+        this.member = null;
+        this.lease = lease;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    Money getRecordedTotal() {
+        return recordedTotal;
+    }
+
+    // Regravações (ex.: lote do group commit desfeito e refeito item a item) substituem o total anterior
+    void setRecordedTotal(Money recordedTotal) {
+        this.recordedTotal = recordedTotal;
+    }
+
+    String getMember() {
+        return member;
+    }
+
+    DailyLimitLease getLease() {
+        return lease;
+    }
+
+    /**
+     * Falso quando a reserva foi decidida sem o Redis (fallback para o banco): não há nada pendente a confirmar.
+     */
+    boolean isHeld() {
+        return member != null || lease != null;
+    }
+
+    public void commit() {
+        if (settled.compareAndSet(false, true) && isHeld()) {
+            if (lease != null) {
+                service.settleLeased(this, true);
+            } else {
+                service.commitReservation(this);
+            }
+        }
+    }
+
+    public void release() {
+        if (settled.compareAndSet(false, true) && isHeld()) {
+            if (lease != null) {
+                service.settleLeased(this, false);
+            } else {
+                service.releaseReservation(this);
+            }
+        }
+    }
+
+    /**
+     * Confirma ou devolve a reserva conforme o desfecho da transação corrente, para fluxos que refazem a validação a
+     * cada tentativa (ex.: o worker assíncrono).
+     */
+    public void settleWithTransaction() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    commit();
+                } else {
+                    release();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.itau.banking.transaction.limit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inicializa em zero, pouco antes da meia-noite do dia de negócio, os totais do dia seguinte das contas que
+ * movimentaram no dia, evitando que todas elas caiam no banco na virada.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.cache.daily-limit", name = "rollover-enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class DailyLimitRolloverScheduler {
+
+    private final DailyLimitService dailyLimitService;
+
+    @Scheduled(cron = "${banking.cache.daily-limit.rollover-cron}", zone = "${banking.cache.daily-limit.time-zone:}")
+    public void initializeNextDay() {
+        try {
+            int initialized = dailyLimitService.initializeNextDay(dailyLimitService.today());
+            log.info("[DailyLimitRolloverScheduler].[initializeNextDay] - {} totais do próximo dia iniciados em zero", initialized);
+        } catch (Exception e) {
+            log.error("[DailyLimitRolloverScheduler].[initializeNextDay] - Erro ao iniciar totais do próximo dia: {}", e.getMessage(), e);
+        }
+    }
+}
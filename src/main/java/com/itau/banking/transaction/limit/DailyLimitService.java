@@ -1,68 +1,673 @@
 package com.itau.banking.transaction.limit;
 
 import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.RedisKeyLayout;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.money.Money;
 import com.itau.banking.transaction.transaction.TransactionRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DailyLimitService {
 
+    private static final String RESERVE_MISS = "MISS";
+    private static final String RESERVE_REJECTED = "LIMIT:";
+    private static final String LEASE_GRANTED = "LEASE:";
+    private static final String LEASE_GONE = "GONE";
+    private static final int RECONCILE_PAGE_SIZE = 1_000;
+
+    // Total confirmado em KEYS[1] (string no layout legado; campo ARGV[1] do hash do bucket no compacto), no mesmo
+    // texto do MoneyRedisSerializer. Reservas e leases pendentes em KEYS[2], um sorted set "id:centavos" com
+    // score = expiração. Pendentes expirados (instância que caiu antes de confirmar) não se sabe se foram gravados:
+    // vão para o membro "folded:centavos" (score +inf), que segue contando no uso até a reconciliação levar o total
+    // confirmado ao do banco e zerá-lo. O total confirmado em si nunca diminui.
+    private static final String TOTAL_FUNCTIONS = """
+            local function cents(value)
+              local negative = string.sub(value, 1, 1) == '-'
+              if negative then value = string.sub(value, 2) end
+              local units, fraction = string.match(value, '^(%d*)%.?(%d*)$')
+              local result = tonumber(units ~= '' and units or '0') * 100 + tonumber(string.sub(fraction .. '00', 1, 2))
+              if negative then return -result end
+              return result
+            end
+            local function money(value)
+              local sign = ''
+              if value < 0 then sign = '-'; value = -value end
+              return string.format('%s%d.%02d', sign, math.floor(value / 100), value % 100)
+            end
+            local function readTotal(field)
+              if field == '' then return redis.call('GET', KEYS[1]) end
+              return redis.call('HGET', KEYS[1], field)
+            end
+            local function writeTotal(field, value, expireAt)
+              if field == '' then
+                redis.call('SET', KEYS[1], value, 'EXAT', expireAt)
+              else
+                redis.call('HSET', KEYS[1], field, value)
+                redis.call('EXPIREAT', KEYS[1], expireAt)
+              end
+            end
+            local function memberCents(member)
+              return tonumber(string.match(member, ':(%d+)$'))
+            end
+            local function fold(amount, expireAt)
+              for _, member in ipairs(redis.call('ZRANGEBYSCORE', KEYS[2], '+inf', '+inf')) do
+                amount = amount + memberCents(member)
+                redis.call('ZREM', KEYS[2], member)
+              end
+              redis.call('ZADD', KEYS[2], '+inf', string.format('folded:%d', amount))
+              redis.call('EXPIREAT', KEYS[2], expireAt)
+            end
+            local function usage(total, now, expireAt)
+              local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now)
+              if #expired > 0 then
+                local amount = 0
+                for _, member in ipairs(expired) do amount = amount + memberCents(member) end
+                redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now)
+                fold(amount, expireAt)
+              end
+              local used = cents(total)
+              for _, member in ipairs(redis.call('ZRANGE', KEYS[2], 0, -1)) do used = used + memberCents(member) end
+              return used
+            end
+            """;
+
+    // ARGV: campo, limite, valor, membro, agora (ms), ttl da reserva (ms), total inicial ('' se desconhecido), expiração do total
+    private static final RedisScript<String> RESERVE_SCRIPT = new DefaultRedisScript<>(TOTAL_FUNCTIONS + """
+            local total = readTotal(ARGV[1])
+            if not total then
+              if ARGV[7] == '' then return 'MISS' end
+              total = ARGV[7]
+              writeTotal(ARGV[1], total, ARGV[8])
+            end
+            local now = tonumber(ARGV[5])
+            local used = usage(total, now, ARGV[8])
+            if used + tonumber(ARGV[3]) > tonumber(ARGV[2]) then return string.format('LIMIT:%d', used) end
+            redis.call('ZADD', KEYS[2], now + tonumber(ARGV[6]), ARGV[4])
+            redis.call('EXPIREAT', KEYS[2], ARGV[8])
+            return 'OK'
+            """, String.class);
+
+    // ARGV: campo, limite, valor, id do lease, agora (ms), ttl do lease (ms), total inicial ('' se desconhecido),
+    // expiração do total, tamanho do lote. Concede o lote pedido limitado à metade do que resta (deixando margem para
+    // as outras instâncias), mas nunca menos que o valor da transferência que motivou o pedido
+    private static final RedisScript<String> LEASE_SCRIPT = new DefaultRedisScript<>(TOTAL_FUNCTIONS + """
+            local total = readTotal(ARGV[1])
+            if not total then
+              if ARGV[7] == '' then return 'MISS' end
+              total = ARGV[7]
+              writeTotal(ARGV[1], total, ARGV[8])
+            end
+            local now = tonumber(ARGV[5])
+            local used = usage(total, now, ARGV[8])
+            local remaining = tonumber(ARGV[2]) - used
+            local amount = tonumber(ARGV[3])
+            if amount > remaining then return string.format('LIMIT:%d', used) end
+            local granted = math.max(amount, math.min(tonumber(ARGV[9]), math.floor(remaining / 2)))
+            redis.call('ZADD', KEYS[2], now + tonumber(ARGV[6]), string.format('%s:%d', ARGV[4], granted))
+            redis.call('EXPIREAT', KEYS[2], ARGV[8])
+            return string.format('LEASE:%d', granted)
+            """, String.class);
+
+    // ARGV: membro, nova expiração (ms). Um lease que já expirou foi somado aos pendentes expirados e não volta
+    private static final RedisScript<String> RENEW_LEASE_SCRIPT = new DefaultRedisScript<>("""
+            if not redis.call('ZSCORE', KEYS[1], ARGV[1]) then return 'GONE' end
+            redis.call('ZADD', KEYS[1], 'XX', ARGV[2], ARGV[1])
+            return 'OK'
+            """, String.class);
+
+    // ARGV: campo, membro, maior total devolvido pelo banco ('' se nenhum), valor em andamento ou confirmado sem total
+    // do banco, expiração do total. Remove o lease (a sobra volta a ficar disponível), leva o total confirmado ao do
+    // banco e conta o valor sem desfecho conhecido como os pendentes expirados, até a reconciliação
+    private static final RedisScript<String> RETURN_LEASE_SCRIPT = new DefaultRedisScript<>(TOTAL_FUNCTIONS + """
+            redis.call('ZREM', KEYS[2], ARGV[2])
+            if tonumber(ARGV[4]) > 0 then fold(tonumber(ARGV[4]), ARGV[5]) end
+            local total = readTotal(ARGV[1])
+            if ARGV[3] ~= '' and (not total or cents(total) < tonumber(ARGV[3])) then
+              writeTotal(ARGV[1], money(tonumber(ARGV[3])), ARGV[5])
+            end
+            return 'OK'
+            """, String.class);
+
+    // ARGV: campo, membro, valor, expiração do total, total devolvido pelo banco ('' se desconhecido). O total do banco
+    // só cresce ao longo do dia, então prevalece o maior e confirmações fora de ordem não o fazem regredir. Sem ele e
+    // sem total no Redis, a próxima reserva recarrega o total do banco
+    private static final RedisScript<String> COMMIT_SCRIPT = new DefaultRedisScript<>(TOTAL_FUNCTIONS + """
+            redis.call('ZREM', KEYS[2], ARGV[2])
+            local total = readTotal(ARGV[1])
+            if ARGV[5] ~= '' then
+              local recorded = tonumber(ARGV[5])
+              if not total or cents(total) < recorded then writeTotal(ARGV[1], money(recorded), ARGV[4]) end
+            elseif total then
+              writeTotal(ARGV[1], money(cents(total) + tonumber(ARGV[3])), ARGV[4])
+            end
+            return 'OK'
+            """, String.class);
+
+    // ARGV: campo, total do banco (centavos), expiração do total, '1' para zerar os pendentes expirados. Como no commit,
+    // prevalece o maior: um total lido do banco antes de uma confirmação concorrente não apaga o valor dela
+    private static final RedisScript<String> MERGE_TOTAL_SCRIPT = new DefaultRedisScript<>(TOTAL_FUNCTIONS + """
+            local total = readTotal(ARGV[1])
+            local recorded = tonumber(ARGV[2])
+            if not total or cents(total) < recorded then writeTotal(ARGV[1], money(recorded), ARGV[3]) end
+            if ARGV[4] == '1' then
+              for _, member in ipairs(redis.call('ZRANGEBYSCORE', KEYS[2], '+inf', '+inf')) do redis.call('ZREM', KEYS[2], member) end
+            end
+            return 'OK'
+            """, String.class);
+
+    private static final RedisScript<String> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            return 'OK'
+            """, String.class);
+
     private final TransactionRepository transactionRepository;
     private final DailyLimitControlRepository dailyLimitRepository;
-    private final RedisTemplate<String, BigDecimal> redisTemplate;
+    private final RedisTemplate<String, Money> redisTemplate;
     private final BankingProperties bankingProperties;
+    private final ConcurrentMap<Long, DailyLimitLease> leases = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Money>> loads = new ConcurrentHashMap<>();
 
-    public boolean canTransfer(Long accountId, BigDecimal accountDailyLimit, BigDecimal transferAmount) {
-        BigDecimal currentTotal = getCurrentDailyTotal(accountId);
-        BigDecimal newTotal = currentTotal.add(transferAmount);
-        return newTotal.compareTo(accountDailyLimit) <= 0;
+    public boolean canTransfer(Long accountId, Money accountDailyLimit, Money transferAmount) {
+        return !getCurrentDailyTotal(accountId).plus(transferAmount).isGreaterThan(accountDailyLimit);
     }
 
-    public BigDecimal getCurrentDailyTotal(Long accountId) {
-        LocalDate today = LocalDate.now();
+    public Money getCurrentDailyTotal(Long accountId) {
+        LocalDate today = today();
 
-        BigDecimal cached = getFromRedis(accountId, today);
+        Money cached = getFromRedis(accountId, today);
         if (cached != null) {
             log.debug("[DailyLimitService].[getCurrentDailyTotal] - Limite diário encontrado no Redis - Conta: {}", accountId);
             return cached;
         }
 
-        cached = getFromDatabase(accountId, today);
-        if (cached != null) {
-            log.debug("[DailyLimitService].[getCurrentDailyTotal] - Limite diário encontrado no banco - Conta: {}", accountId);
-            saveToRedis(accountId, today, cached);
-            return cached;
+        return loadOnce(accountId, today, true);
+    }
+
+    /**
+     * Dia de negócio corrente, no fuso de banking.cache.daily-limit.time-zone (a virada do limite não segue o servidor).
+     */
+    public LocalDate today() {
+        return LocalDate.now(zone());
+    }
+
+    /**
+     * Um único upsert no banco; o total que ele devolve vai direto para o Redis, sem reler o total atual. Prevalece o
+     * maior: a resposta de um upsert anterior que chegue depois não baixa o total.
+     */
+    public void updateAfterTransfer(Long accountId, Money amount) {
+        LocalDate today = today();
+        Money newTotal = addToDatabase(accountId, today, amount, 1);
+
+        saveToRedis(accountId, today, newTotal);
+    }
+
+    public boolean isReservationEnabled() {
+        return bankingProperties.getCache().getDailyLimit().isReservationEnabled();
+    }
+
+    /**
+     * Confere o limite e reserva o valor em um único script no Redis, o que impede que transferências concorrentes da
+     * mesma conta passem juntas pela validação. O total usado é o confirmado mais as reservas pendentes.
+     * Sem o Redis, a decisão cai para o total do banco e a reserva devolvida não tem efeito no Redis.
+     * Contas de alto volume (lease habilitado) gastam de um lote local e só vão ao Redis para retirar um novo lote.
+     */
+    public DailyLimitReservation reserve(Long accountId, Money dailyLimit, Money amount) {
+        LocalDate today = today();
+        if (usesLease(dailyLimit)) {
+            DailyLimitReservation leased = reserveFromLease(accountId, today, dailyLimit, amount);
+            if (leased != null) {
+                return leased;
+            }
         }
+        String member = UUID.randomUUID().toString() + ':' + amount.cents();
 
-        cached = calculateFromTransactions(accountId, today);
-        log.debug("[DailyLimitService].[getCurrentDailyTotal] - Limite diário calculado das transações - Conta: {}", accountId);
+        String result;
+        try {
+            result = executeReserve(accountId, today, dailyLimit, amount, member, null);
+            if (RESERVE_MISS.equals(result)) {
+                result = executeReserve(accountId, today, dailyLimit, amount, member, loadTotal(accountId, today));
+            }
+        } catch (Exception e) {
+            log.warn("[DailyLimitService].[reserve] - Erro no Redis, validando limite pelo banco: {}", e.getMessage());
+            Money currentTotal = getCurrentDailyTotal(accountId);
+            if (currentTotal.plus(amount).isGreaterThan(dailyLimit)) {
+                throw exceeded(accountId, dailyLimit, currentTotal, amount);
+            }
+            return new DailyLimitReservation(this, accountId, today, amount, null);
+        }
 
-        saveToDatabase(accountId, today, cached);
-        saveToRedis(accountId, today, cached);
+        if (result.startsWith(RESERVE_REJECTED)) {
+            throw exceeded(accountId, dailyLimit, Money.ofCents(Long.parseLong(result.substring(RESERVE_REJECTED.length()))), amount);
+        }
+        return new DailyLimitReservation(this, accountId, today, amount, member);
+    }
 
-        return cached;
+    /**
+     * Soma a transferência reservada ao total do banco. Roda dentro da transação da transferência; o Redis só é
+     * atualizado por {@link DailyLimitReservation#commit()}, após o commit, com o total devolvido aqui.
+     */
+    public void recordReservedTransfer(DailyLimitReservation reservation) {
+        reservation.setRecordedTotal(addToDatabase(reservation.getAccountId(), reservation.getDate(), reservation.getAmount(), 1));
     }
 
-    public void updateAfterTransfer(Long accountId, BigDecimal amount) {
-        LocalDate today = LocalDate.now();
-        BigDecimal newTotal = getCurrentDailyTotal(accountId).add(amount);
+    /**
+     * Versão em lote de {@link #recordReservedTransfer}: um upsert por conta e dia com a soma das reservas, e o total
+     * devolvido vale para todas elas (o commit de cada uma leva o Redis ao maior total gravado).
+     */
+    public void recordReservedTransfers(List<DailyLimitReservation> reservations) {
+        Map<LocalDate, Map<Long, List<DailyLimitReservation>>> byDate = reservations.stream()
+                .collect(Collectors.groupingBy(DailyLimitReservation::getDate, Collectors.groupingBy(DailyLimitReservation::getAccountId)));
+        byDate.forEach((date, byAccount) -> byAccount.forEach((accountId, accountReservations) -> {
+            Money amount = accountReservations.stream().map(DailyLimitReservation::getAmount).reduce(Money.ZERO, Money::plus);
+            Money total = addToDatabase(accountId, date, amount, accountReservations.size());
+            accountReservations.forEach(reservation -> reservation.setRecordedTotal(total));
+        }));
+    }
 
-        saveToDatabase(accountId, today, newTotal);
-        saveToRedis(accountId, today, newTotal);
+    void commitReservation(DailyLimitReservation reservation) {
+        Money recorded = reservation.getRecordedTotal();
+        try {
+            redisTemplate.execute(COMMIT_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    reservationKeys(reservation.getAccountId(), reservation.getDate()),
+                    totalField(reservation.getAccountId()), reservation.getMember(),
+                    String.valueOf(reservation.getAmount().cents()), String.valueOf(expireAt(reservation.getDate())),
+                    recorded != null ? String.valueOf(recorded.cents()) : "");
+        } catch (Exception e) {
+            log.warn("[DailyLimitService].[commitReservation] - Falha ao confirmar reserva no Redis, a reconciliação corrige o total - Conta: {} - Erro: {}",
+                    reservation.getAccountId(), e.getMessage());
+        }
+    }
+
+    void releaseReservation(DailyLimitReservation reservation) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    List.of(buildPendingKey(reservation.getAccountId(), reservation.getDate())), reservation.getMember());
+        } catch (Exception e) {
+            log.warn("[DailyLimitService].[releaseReservation] - Falha ao devolver reserva, ela expira e conta como gasta até a reconciliação - Conta: {} - Erro: {}",
+                    reservation.getAccountId(), e.getMessage());
+        }
+    }
+
+    void settleLeased(DailyLimitReservation reservation, boolean committed) {
+        DailyLimitLease lease = reservation.getLease();
+        long cents = reservation.getAmount().cents();
+        if (committed) {
+            Money recorded = reservation.getRecordedTotal();
+            lease.commit(cents, recorded != null ? recorded.cents() : -1);
+        } else {
+            lease.release(cents);
+        }
+        if (lease.claimReturn()) {
+            returnLease(lease);
+        }
+    }
+
+    /**
+     * Renova no Redis os leases em uso e devolve os ociosos ou de outro dia.
+     */
+    public void maintainLeases() {
+        long now = System.currentTimeMillis();
+        LocalDate today = today();
+        BankingProperties.Cache.DailyLimit.Lease properties = leaseProperties();
+        String expiresAt = String.valueOf(now + properties.getTtlSeconds() * 1000L);
+
+        leases.forEach((accountId, lease) -> {
+            if (!lease.getDate().equals(today) || now - lease.getLastUsedMillis() >= properties.getIdleSeconds() * 1000L) {
+                discardLease(lease);
+                return;
+            }
+            try {
+                String result = redisTemplate.execute(RENEW_LEASE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                        List.of(buildPendingKey(accountId, lease.getDate())), lease.getMember(), expiresAt);
+                if (LEASE_GONE.equals(result)) {
+                    log.warn("[DailyLimitService].[maintainLeases] - Lease expirado no Redis, descartando lote local - Conta: {}", accountId);
+                    discardLease(lease);
+                }
+            } catch (Exception e) {
+                log.warn("[DailyLimitService].[maintainLeases] - Falha ao renovar lease - Conta: {} - Erro: {}", accountId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Devolve todos os lotes no desligamento; o que ainda estiver em andamento é levado como gasto.
+     */
+    @PreDestroy
+    public void returnLeases() {
+        leases.forEach((accountId, lease) -> {
+            leases.remove(accountId, lease);
+            if (lease.claimForcedReturn()) {
+                returnLease(lease);
+            }
+        });
+    }
+
+    /**
+     * Leva ao Redis os totais confirmados do dia de daily_limit_control, sem baixar um total maior (confirmação
+     * concorrente à leitura da página), e zera os pendentes expirados já somados ao uso. Reservas e leases em
+     * andamento não são afetados.
+     */
+    public int reconcile(LocalDate date) {
+        Pageable pageable = PageRequest.of(0, RECONCILE_PAGE_SIZE, Sort.by("id"));
+        int reconciled = 0;
+        Slice<DailyLimitControl> page;
+        do {
+            page = dailyLimitRepository.findByDate(date, pageable);
+            Map<Long, Money> totals = new HashMap<>();
+            page.forEach(control -> totals.put(control.getAccountId(), control.getTotalAmount()));
+            if (!totals.isEmpty()) {
+                mergeTotals(totals, date, true);
+            }
+            reconciled += totals.size();
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        return reconciled;
     }
 
-    private BigDecimal getFromRedis(Long accountId, LocalDate date) {
+    /**
+     * Grava zero como total do dia seguinte para as contas que movimentaram em {@code date}, antes da virada, para que
+     * a primeira transferência do novo dia não precise ir ao banco. Não sobrescreve totais já gravados.
+     */
+    public int initializeNextDay(LocalDate date) {
+        LocalDate nextDay = date.plusDays(1);
+        Pageable pageable = PageRequest.of(0, RECONCILE_PAGE_SIZE, Sort.by("id"));
+        int initialized = 0;
+        Slice<DailyLimitControl> page;
+        do {
+            page = dailyLimitRepository.findByDate(date, pageable);
+            List<Long> accountIds = page.getContent().stream().map(DailyLimitControl::getAccountId).toList();
+            if (!accountIds.isEmpty()) {
+                writeZeroTotals(accountIds, nextDay);
+            }
+            initialized += accountIds.size();
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        return initialized;
+    }
+
+    /**
+     * Atualiza apenas o Redis com um total já persistido no banco (ex.: pela função transfer_funds) para o dia informado.
+     */
+    public void refreshCachedTotal(Long accountId, LocalDate date, Money total) {
+        saveToRedis(accountId, date, total);
+    }
+
+    /**
+     * Versão não bloqueante de {@link #refreshCachedTotal}, para a stack reativa: o mesmo script pelo Lettuce reativo.
+     * Falhas no Redis só são registradas, como no envio síncrono.
+     */
+    public Mono<Void> refreshCachedTotal(ReactiveStringRedisTemplate reactiveRedisTemplate, Long accountId, LocalDate date, Money total) {
+        return reactiveRedisTemplate.execute(MERGE_TOTAL_SCRIPT, reservationKeys(accountId, date),
+                        List.of(totalField(accountId), String.valueOf(total.cents()), String.valueOf(expireAt(date)), "0"))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("[DailyLimitService].[refreshCachedTotal] - Falha ao salvar no Redis: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Versão em lote de {@link #getCurrentDailyTotal}: um único MGET no Redis e fallback individual só para as contas ausentes.
+     */
+    public Map<Long, Money> getCurrentDailyTotals(List<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+
+        LocalDate today = today();
+        Map<Long, Money> totals = new HashMap<>();
+
+        List<Money> cached = null;
         try {
+            cached = layout().writesCompact()
+                    ? getFromBuckets(accountIds, today)
+                    : redisTemplate.opsForValue().multiGet(accountIds.stream().map(id -> buildRedisKey(id, today)).toList());
+        } catch (Exception e) {
+            log.warn("[DailyLimitService].[getCurrentDailyTotals] - Erro no Redis, usando fallback para banco: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < accountIds.size(); i++) {
+            Money total = cached != null ? cached.get(i) : null;
+            totals.put(accountIds.get(i), total != null ? total : getCurrentDailyTotal(accountIds.get(i)));
+        }
+        return totals;
+    }
+
+    /**
+     * Soma os valores transferidos por um lote: um upsert por conta no banco e uma única ida ao Redis (pipeline) com os
+     * totais devolvidos por eles.
+     */
+    public void updateAfterTransfers(Map<Long, Money> amounts, Map<Long, Integer> transferCounts) {
+        LocalDate today = today();
+
+        Map<Long, Money> newTotals = new HashMap<>();
+        amounts.forEach((accountId, amount) ->
+                newTotals.put(accountId, addToDatabase(accountId, today, amount, transferCounts.getOrDefault(accountId, 1))));
+
+        try {
+            mergeTotals(newTotals, today, false);
+        } catch (Exception e) {
+            log.warn("[DailyLimitService].[updateAfterTransfers] - Falha ao salvar no Redis: {}", e.getMessage());
+        }
+    }
+
+    private void mergeTotals(Map<Long, Money> totals, LocalDate date, boolean clearFolded) {
+        RedisSerializer<String> serializer = RedisSerializer.string();
+        byte[] expireAt = serializer.serialize(String.valueOf(expireAt(date)));
+        byte[] clear = serializer.serialize(clearFolded ? "1" : "0");
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            // Na mesma conexão o SCRIPT LOAD é processado antes dos EVALSHA seguintes
+            connection.scriptingCommands().scriptLoad(serializer.serialize(MERGE_TOTAL_SCRIPT.getScriptAsString()));
+            totals.forEach((accountId, total) -> {
+                List<String> keys = reservationKeys(accountId, date);
+                connection.scriptingCommands().evalSha(MERGE_TOTAL_SCRIPT.getSha1(), ReturnType.VALUE, keys.size(),
+                        serializer.serialize(keys.get(0)), serializer.serialize(keys.get(1)),
+                        serializer.serialize(totalField(accountId)), serializer.serialize(String.valueOf(total.cents())),
+                        expireAt, clear);
+            });
+            return null;
+        }, serializer);
+    }
+
+    private boolean usesLease(Money dailyLimit) {
+        BankingProperties.Cache.DailyLimit.Lease properties = leaseProperties();
+        return properties.isEnabled() && !dailyLimit.isLessThan(Money.of(properties.getMinDailyLimit()));
+    }
+
+    /**
+     * Gasta do lote local da conta; se ele não cobre o valor, devolve a sobra e retira um novo lote do Redis.
+     * Devolve null se o Redis falhar, para a decisão seguir pela reserva comum.
+     */
+    private DailyLimitReservation reserveFromLease(Long accountId, LocalDate today, Money dailyLimit, Money amount) {
+        DailyLimitLease lease = leases.get(accountId);
+        if (lease != null && lease.getDate().equals(today) && lease.tryTake(amount.cents())) {
+            return new DailyLimitReservation(this, lease, amount);
+        }
+        if (lease != null) {
+            discardLease(lease);
+        }
+
+        String leaseId = "lease:" + UUID.randomUUID();
+        long chunk = Math.max(amount.cents(), (long) (dailyLimit.cents() * leaseProperties().getChunkFraction()));
+        String result;
+        try {
+            result = executeLease(accountId, today, dailyLimit, amount, leaseId, chunk, null);
+            if (RESERVE_MISS.equals(result)) {
+                result = executeLease(accountId, today, dailyLimit, amount, leaseId, chunk, loadTotal(accountId, today));
+            }
+        } catch (Exception e) {
+            log.warn("[DailyLimitService].[reserveFromLease] - Erro no Redis ao retirar lote do limite - Conta: {} - Erro: {}", accountId, e.getMessage());
+            return null;
+        }
+
+        if (result.startsWith(RESERVE_REJECTED)) {
+            throw exceeded(accountId, dailyLimit, Money.ofCents(Long.parseLong(result.substring(RESERVE_REJECTED.length()))), amount);
+        }
+        long granted = Long.parseLong(result.substring(LEASE_GRANTED.length()));
+        DailyLimitLease acquired = new DailyLimitLease(accountId, today, leaseId + ':' + granted, granted, amount.cents());
+        // Outra thread pode ter retirado um lote ao mesmo tempo: o substituído é devolvido quando esvaziar
+        DailyLimitLease replaced = leases.put(accountId, acquired);
+        if (replaced != null) {
+            discardLease(replaced);
+        }
+        log.debug("[DailyLimitService].[reserveFromLease] - Lote do limite retirado - Conta: {} - Valor: {}", accountId, Money.ofCents(granted));
+        return new DailyLimitReservation(this, acquired, amount);
+    }
+
+    private String executeLease(Long accountId, LocalDate date, Money dailyLimit, Money amount, String leaseId, long chunk, Money seed) {
+        long ttlMillis = leaseProperties().getTtlSeconds() * 1000L;
+        return redisTemplate.execute(LEASE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                reservationKeys(accountId, date),
+                totalField(accountId), String.valueOf(dailyLimit.cents()), String.valueOf(amount.cents()), leaseId,
+                String.valueOf(System.currentTimeMillis()), String.valueOf(ttlMillis),
+                seed != null ? seed.toString() : "", String.valueOf(expireAt(date)), String.valueOf(chunk));
+    }
+
+    // Fecha o lote para novos gastos; a devolução ao Redis acontece quando a última transferência em andamento terminar
+    private void discardLease(DailyLimitLease lease) {
+        leases.remove(lease.getAccountId(), lease);
+        lease.close();
+        if (lease.claimReturn()) {
+            returnLease(lease);
+        }
+    }
+
+    private void returnLease(DailyLimitLease lease) {
+        long recorded = lease.getRecordedTotal();
+        try {
+            redisTemplate.execute(RETURN_LEASE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    reservationKeys(lease.getAccountId(), lease.getDate()),
+                    totalField(lease.getAccountId()), lease.getMember(), recorded >= 0 ? String.valueOf(recorded) : "",
+                    String.valueOf(lease.getInFlight() + lease.getUnrecorded()), String.valueOf(expireAt(lease.getDate())));
+        } catch (Exception e) {
+            log.warn("[DailyLimitService].[returnLease] - Falha ao devolver lote do limite, ele expira e conta como gasto até a reconciliação - Conta: {} - Erro: {}",
+                    lease.getAccountId(), e.getMessage());
+        }
+    }
+
+    private BankingProperties.Cache.DailyLimit.Lease leaseProperties() {
+        return bankingProperties.getCache().getDailyLimit().getLease();
+    }
+
+    private String executeReserve(Long accountId, LocalDate date, Money dailyLimit, Money amount, String member, Money seed) {
+        long ttlMillis = bankingProperties.getCache().getDailyLimit().getReservationTtlSeconds() * 1000L;
+        return redisTemplate.execute(RESERVE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                reservationKeys(accountId, date),
+                totalField(accountId), String.valueOf(dailyLimit.cents()), String.valueOf(amount.cents()), member,
+                String.valueOf(System.currentTimeMillis()), String.valueOf(ttlMillis),
+                seed != null ? seed.toString() : "", String.valueOf(expireAt(date)));
+    }
+
+    // Mesma cascata de getCurrentDailyTotal, sem gravar no Redis: o total inicial é gravado pelo script só se ausente
+    private Money loadTotal(Long accountId, LocalDate date) {
+        Money total = getFromRedis(accountId, date);
+        return total != null ? total : loadOnce(accountId, date, false);
+    }
+
+    /**
+     * Single-flight por conta e dia: chamadas concorrentes que não acharam o total no Redis aguardam a mesma leitura do
+     * banco em vez de repeti-la (ex.: todas as contas perdem o total à meia-noite).
+     */
+    private Money loadOnce(Long accountId, LocalDate date, boolean cache) {
+        String key = buildRedisKey(accountId, date);
+        CompletableFuture<Money> load = new CompletableFuture<>();
+        CompletableFuture<Money> running = loads.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            Money total = loadFromDatabase(accountId, date);
+            if (cache) {
+                saveToRedis(accountId, date, total);
+            }
+            load.complete(total);
+            return total;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    // Sem linha no banco, o dia ainda não teve transferências: começa em zero, sem somar as transações
+    private Money loadFromDatabase(Long accountId, LocalDate date) {
+        Money total = getFromDatabase(accountId, date);
+        if (total != null) {
+            log.debug("[DailyLimitService].[loadFromDatabase] - Limite diário encontrado no banco - Conta: {}", accountId);
+            return total;
+        }
+        if (bankingProperties.getCache().getDailyLimit().isRecomputeOnMiss()) {
+            log.debug("[DailyLimitService].[loadFromDatabase] - Limite diário calculado das transações - Conta: {}", accountId);
+            return initializeFromTransactions(accountId, date);
+        }
+        log.debug("[DailyLimitService].[loadFromDatabase] - Limite diário iniciado em zero - Conta: {}", accountId);
+        return Money.ZERO;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private DailyLimitExceededException exceeded(Long accountId, Money dailyLimit, Money used, Money amount) {
+        log.error("[DailyLimitService].[reserve] - Limite diário excedido - Conta: {} - Limite Diário: {} - Utilizado: {} - Valor da Transferência: {}",
+                accountId, dailyLimit, used, amount);
+        return new DailyLimitExceededException(dailyLimit.toBigDecimal(), used.toBigDecimal(), amount.toBigDecimal());
+    }
+
+    private Money getFromRedis(Long accountId, LocalDate date) {
+        try {
+            if (layout().writesCompact()) {
+                return getFromBuckets(List.of(accountId), date).get(0);
+            }
             String key = buildRedisKey(accountId, date);
             return redisTemplate.opsForValue().get(key);
         } catch (Exception e) {
@@ -71,46 +676,140 @@ public class DailyLimitService {
         }
     }
 
-    private void saveToRedis(Long accountId, LocalDate date, BigDecimal amount) {
+    private void saveToRedis(Long accountId, LocalDate date, Money amount) {
         try {
-            String key = buildRedisKey(accountId, date);
-            LocalDateTime midnight = date.plusDays(1).atStartOfDay();
-            Duration ttl = Duration.between(LocalDateTime.now(), midnight);
-
-            redisTemplate.opsForValue().set(key, amount, ttl);
+            redisTemplate.execute(MERGE_TOTAL_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    reservationKeys(accountId, date), totalField(accountId), String.valueOf(amount.cents()),
+                    String.valueOf(expireAt(date)), "0");
         } catch (Exception e) {
             log.warn("[DailyLimitService].[saveToRedis] - Falha ao salvar no Redis: {}", e.getMessage());
         }
     }
 
-    private BigDecimal getFromDatabase(Long accountId, LocalDate date) {
+    /**
+     * Layout compacto: um hash por dia e bucket, com o total de cada conta em um campo. O hash inteiro expira à
+     * meia-noite, então não há TTL por conta. Em migração, a chave legada é lida no mesmo pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Money> getFromBuckets(List<Long> accountIds, LocalDate date) {
+        boolean migrating = layout() == RedisKeyLayout.MIGRATING;
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                RedisOperations<String, Money> ops = (RedisOperations<String, Money>) operations;
+                accountIds.forEach(accountId -> ops.opsForHash().get(buildBucketKey(accountId, date), accountId.toString()));
+                if (migrating) {
+                    accountIds.forEach(accountId -> ops.opsForValue().get(buildRedisKey(accountId, date)));
+                }
+                return null;
+            }
+        });
+
+        List<Money> totals = new ArrayList<>(accountIds.size());
+        for (int i = 0; i < accountIds.size(); i++) {
+            Object total = results.get(i) != null || !migrating ? results.get(i) : results.get(accountIds.size() + i);
+            totals.add((Money) total);
+        }
+        return totals;
+    }
+
+    private void writeZeroTotals(List<Long> accountIds, LocalDate date) {
+        Instant midnight = endOfDay(date);
+        boolean compact = layout().writesCompact();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                RedisOperations<String, Money> ops = (RedisOperations<String, Money>) operations;
+                Set<String> buckets = new HashSet<>();
+                accountIds.forEach(accountId -> {
+                    if (compact) {
+                        String bucket = buildBucketKey(accountId, date);
+                        ops.opsForHash().putIfAbsent(bucket, accountId.toString(), Money.ZERO);
+                        buckets.add(bucket);
+                    } else {
+                        ops.opsForValue().setIfAbsent(buildRedisKey(accountId, date), Money.ZERO, Duration.between(Instant.now(), midnight));
+                    }
+                });
+                buckets.forEach(bucket -> ops.expireAt(bucket, midnight));
+                return null;
+            }
+        });
+    }
+
+    private Money getFromDatabase(Long accountId, LocalDate date) {
         return dailyLimitRepository
                 .findByAccountIdAndDate(accountId, date)
                 .map(DailyLimitControl::getTotalAmount)
                 .orElse(null);
     }
 
-    private void saveToDatabase(Long accountId, LocalDate date, BigDecimal amount) {
-        DailyLimitControl control = dailyLimitRepository
-                .findByAccountIdAndDate(accountId, date)
-                .orElse(new DailyLimitControl());
-
-        control.setAccountId(accountId);
-        control.setDate(date);
-        control.setTotalAmount(amount);
-        control.setTransactionCount(control.getTransactionCount() + 1);
-        control.setLastUpdatedAt(LocalDateTime.now());
+    private Money addToDatabase(Long accountId, LocalDate date, Money amount, int transfers) {
+        return Money.of(dailyLimitRepository.addToDailyTotal(accountId, date, amount.toBigDecimal(), transfers));
+    }
 
-        dailyLimitRepository.save(control);
+    // Se outra transferência criou a linha do dia entre a soma e o insert, prevalece o total dela
+    private Money initializeFromTransactions(Long accountId, LocalDate date) {
+        Money calculated = calculateFromTransactions(accountId, date);
+        return Money.of(dailyLimitRepository.initializeDailyTotal(accountId, date, calculated.toBigDecimal()));
     }
 
-    private BigDecimal calculateFromTransactions(Long accountId, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
-        return transactionRepository.sumDailyTransactionsByAccountId(accountId, startOfDay, endOfDay);
+    private Money calculateFromTransactions(Long accountId, LocalDate date) {
+        // transaction_date é gravado no fuso do servidor
+        LocalDateTime startOfDay = date.atStartOfDay(zone()).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        LocalDateTime endOfDay = endOfDay(date).atZone(ZoneId.systemDefault()).toLocalDateTime();
+        BigDecimal total = transactionRepository.sumDailyTransactionsByAccountId(accountId, startOfDay, endOfDay);
+        return total != null ? Money.of(total) : Money.ZERO;
     }
 
     private String buildRedisKey(Long accountId, LocalDate date) {
         return String.format("%s%d:%s", bankingProperties.getCache().getDailyLimit().getPrefix(), accountId, date);
     }
+
+    private String buildBucketKey(Long accountId, LocalDate date) {
+        BankingProperties.Cache.DailyLimit dailyLimit = bankingProperties.getCache().getDailyLimit();
+        return dailyLimit.getCompactPrefix() + date.format(DateTimeFormatter.BASIC_ISO_DATE) + ':' + Math.floorMod(accountId, dailyLimit.getBuckets());
+    }
+
+    private List<String> reservationKeys(Long accountId, LocalDate date) {
+        return List.of(totalKey(accountId, date), buildPendingKey(accountId, date));
+    }
+
+    private String totalKey(Long accountId, LocalDate date) {
+        return layout().writesCompact() ? buildBucketKey(accountId, date) : buildRedisKey(accountId, date);
+    }
+
+    private String totalField(Long accountId) {
+        return layout().writesCompact() ? accountId.toString() : "";
+    }
+
+    /**
+     * A chave do total vai como hash tag: os scripts usam as duas chaves juntas e no Redis Cluster elas precisam cair no
+     * mesmo slot (a chave do total, sem chaves, é distribuída pelo nome inteiro, igual ao conteúdo da tag).
+     */
+    private String buildPendingKey(Long accountId, LocalDate date) {
+        BankingProperties.Cache.DailyLimit dailyLimit = bankingProperties.getCache().getDailyLimit();
+        String totalKey = totalKey(accountId, date);
+        return layout().writesCompact()
+                ? dailyLimit.getCompactPrefix() + "p:{" + totalKey + "}:" + accountId
+                : dailyLimit.getPrefix() + "pending:{" + totalKey + "}";
+    }
+
+    private long expireAt(LocalDate date) {
+        return endOfDay(date).getEpochSecond();
+    }
+
+    private Instant endOfDay(LocalDate date) {
+        return date.plusDays(1).atStartOfDay(zone()).toInstant();
+    }
+
+    private ZoneId zone() {
+        ZoneId zone = bankingProperties.getCache().getDailyLimit().getTimeZone();
+        return zone != null ? zone : ZoneId.systemDefault();
+    }
+
+    private RedisKeyLayout layout() {
+        RedisKeyLayout layout = bankingProperties.getCache().getKeyLayout();
+        return layout != null ? layout : RedisKeyLayout.LEGACY;
+    }
 }
@@ -0,0 +1,249 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.RollingWindow;
+import com.itau.banking.transaction.shared.enums.TransferMode;
+import com.itau.banking.transaction.shared.exception.RollingLimitExceededException;
+import com.itau.banking.transaction.shared.money.Money;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Limites em janelas móveis (últimas 24h, última hora, transferências por minuto), ao lado do limite do dia de
+ * calendário do {@link DailyLimitService}.
+ *
+ * Cada janela de cada conta é um anel de buckets em um hash no Redis ({@code <prefixo><janela>:{<conta>}}, com a conta
+ * como hash tag para as janelas caírem no mesmo slot do script): um campo por bucket, a soma da janela em "s" e o
+ * bucket mais recente em "h". A soma é mantida incrementalmente, zerando só os buckets que saem da janela, sem SUM
+ * sobre transactions. Um espelho local com a mesma estrutura guarda as transferências desta instância.
+ *
+ * As janelas são conferidas pela cadeia de validações; os modos LEDGER e DB_FUNCTION e a stack reativa validam fora
+ * dela, então não sobem com os limites móveis ligados.
+ */
+@Service
+@ConditionalOnProperty(prefix = "banking.rolling-limit", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RollingLimitService {
+
+    private static final String REJECTED = "LIMIT:";
+
+    // ARGV: agora (ms), '1' para somar ou '0' só para conferir e, por janela (na ordem de KEYS): duração do bucket (ms),
+    // número de buckets, limite, valor. Ou todas as janelas recebem a transferência, ou nenhuma
+    private static final RedisScript<String> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local function window(i)
+              local base = 2 + (i - 1) * 4
+              return tonumber(ARGV[base + 1]), tonumber(ARGV[base + 2]), tonumber(ARGV[base + 3]), tonumber(ARGV[base + 4])
+            end
+            for i, key in ipairs(KEYS) do
+              local bucketMillis, size, limit, value = window(i)
+              local bucket = math.floor(now / bucketMillis)
+              local head = tonumber(redis.call('HGET', key, 'h'))
+              local sum = tonumber(redis.call('HGET', key, 's')) or 0
+              if not head or bucket - head >= size then
+                redis.call('DEL', key)
+                sum = 0
+                head = bucket
+              elseif bucket > head then
+                for next = head + 1, bucket do
+                  local slot = tostring(next % size)
+                  sum = sum - (tonumber(redis.call('HGET', key, slot)) or 0)
+                  redis.call('HDEL', key, slot)
+                end
+                head = bucket
+              end
+              redis.call('HSET', key, 'h', string.format('%d', head), 's', string.format('%d', sum))
+              if sum + value > limit then return string.format('LIMIT:%d:%d', i, sum) end
+            end
+            if ARGV[2] == '1' then
+              for i, key in ipairs(KEYS) do
+                local bucketMillis, size, limit, value = window(i)
+                redis.call('HINCRBY', key, tostring(math.floor(now / bucketMillis) % size), value)
+                redis.call('HINCRBY', key, 's', value)
+                redis.call('PEXPIRE', key, bucketMillis * size)
+              end
+            end
+            return 'OK'
+            """, String.class);
+
+    // ARGV: instante da soma (ms) e, por janela: duração do bucket (ms), número de buckets, valor. Buckets que já saíram
+    // da janela foram zerados e ficam como estão
+    private static final RedisScript<String> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local at = tonumber(ARGV[1])
+            for i, key in ipairs(KEYS) do
+              local base = 1 + (i - 1) * 3
+              local bucketMillis, size, value = tonumber(ARGV[base + 1]), tonumber(ARGV[base + 2]), tonumber(ARGV[base + 3])
+              local bucket = math.floor(at / bucketMillis)
+              local head = tonumber(redis.call('HGET', key, 'h'))
+              if head and bucket > head - size then
+                redis.call('HINCRBY', key, tostring(bucket % size), -value)
+                redis.call('HINCRBY', key, 's', -value)
+              end
+            end
+            return 'OK'
+            """, String.class);
+
+    private final RedisTemplate<String, Money> redisTemplate;
+    private final BankingProperties bankingProperties;
+    private final ConcurrentMap<Long, RollingWindowCounter[]> mirror = new ConcurrentHashMap<>();
+
+    // Melhor não subir do que aceitar transferências sem conferir as janelas
+    @PostConstruct
+    void checkTransferMode() {
+        TransferMode mode = bankingProperties.getTransfer().getMode();
+        if (mode == TransferMode.LEDGER || mode == TransferMode.DB_FUNCTION) {
+            throw new IllegalStateException("banking.rolling-limit.enabled=true não é suportado com banking.transfer.mode=" + mode
+                    + ": as validações desse modo não passam pelas janelas móveis");
+        }
+        if (bankingProperties.getReactive().isEnabled()) {
+            throw new IllegalStateException("banking.rolling-limit.enabled=true não é suportado com banking.reactive.enabled=true"
+                    + ": a stack reativa valida na função transfer_funds, sem as janelas móveis");
+        }
+    }
+
+    /**
+     * Confere as janelas e, se a transferência couber em todas, soma a ela em um único script no Redis.
+     */
+    public RollingLimitUsage reserve(Long accountId, Money dailyLimit, Money amount) {
+        return apply(accountId, dailyLimit, amount, true);
+    }
+
+    /**
+     * Só confere as janelas, para fluxos sem quem desfaça a soma se a transferência não for gravada.
+     */
+    public void check(Long accountId, Money dailyLimit, Money amount) {
+        apply(accountId, dailyLimit, amount, false);
+    }
+
+    void release(RollingLimitUsage usage) {
+        // As janelas ativas não dependem do limite da conta
+        List<RollingWindow> windows = new ArrayList<>(limits(Money.ZERO).keySet());
+        RollingWindowCounter[] counters = mirror.get(usage.getAccountId());
+        if (counters != null) {
+            windows.forEach(window -> counters[window.ordinal()].add(usage.getAtMillis(), -window.valueOf(usage.getAmountCents())));
+        }
+        if (!usage.isHeld()) {
+            return;
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(usage.getAtMillis()));
+        windows.forEach(window -> {
+            args.add(String.valueOf(window.bucketMillis()));
+            args.add(String.valueOf(window.getBuckets()));
+            args.add(String.valueOf(window.valueOf(usage.getAmountCents())));
+        });
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    keys(usage.getAccountId(), windows), args.toArray());
+        } catch (Exception e) {
+            log.warn("[RollingLimitService].[release] - Falha ao desfazer soma nas janelas móveis, ela sai da janela sozinha - Conta: {} - Erro: {}",
+                    usage.getAccountId(), e.getMessage());
+        }
+    }
+
+    private RollingLimitUsage apply(Long accountId, Money dailyLimit, Money amount, boolean record) {
+        long now = System.currentTimeMillis();
+        Map<RollingWindow, Long> limits = limits(dailyLimit);
+        List<RollingWindow> windows = new ArrayList<>(limits.keySet());
+
+        // O espelho só tem transferências desta instância, que também estão no Redis: é um piso do uso real e pode
+        // rejeitar sem ir ao Redis
+        RollingWindowCounter[] counters = mirror(accountId);
+        if (counters != null) {
+            for (RollingWindow window : windows) {
+                long used = counters[window.ordinal()].sum(now);
+                if (used + window.valueOf(amount.cents()) > limits.get(window)) {
+                    throw exceeded(accountId, window, limits.get(window), used, amount);
+                }
+            }
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(now));
+        args.add(record ? "1" : "0");
+        windows.forEach(window -> {
+            args.add(String.valueOf(window.bucketMillis()));
+            args.add(String.valueOf(window.getBuckets()));
+            args.add(String.valueOf(limits.get(window)));
+            args.add(String.valueOf(window.valueOf(amount.cents())));
+        });
+
+        String result = null;
+        try {
+            result = redisTemplate.execute(RESERVE_SCRIPT, RedisSerializer.string(), RedisSerializer.string(),
+                    keys(accountId, windows), args.toArray());
+        } catch (Exception e) {
+            log.warn("[RollingLimitService].[reserve] - Erro no Redis, janelas móveis validadas só pelo espelho local: {}", e.getMessage());
+        }
+        if (result != null && result.startsWith(REJECTED)) {
+            String[] rejection = result.substring(REJECTED.length()).split(":");
+            RollingWindow window = windows.get(Integer.parseInt(rejection[0]) - 1);
+            throw exceeded(accountId, window, limits.get(window), Long.parseLong(rejection[1]), amount);
+        }
+
+        if (!record) {
+            return null;
+        }
+        if (counters != null) {
+            windows.forEach(window -> counters[window.ordinal()].add(now, window.valueOf(amount.cents())));
+        }
+        return new RollingLimitUsage(this, accountId, now, amount.cents(), result != null);
+    }
+
+    // Sem valor configurado, a janela de 24h usa o limite diário da conta; as demais ficam desligadas
+    private Map<RollingWindow, Long> limits(Money dailyLimit) {
+        BankingProperties.RollingLimit properties = bankingProperties.getRollingLimit();
+        Map<RollingWindow, Long> limits = new EnumMap<>(RollingWindow.class);
+        limits.put(RollingWindow.AMOUNT_24H, properties.getDayAmount() != null ? Money.of(properties.getDayAmount()).cents() : dailyLimit.cents());
+        if (properties.getHourAmount() != null) {
+            limits.put(RollingWindow.AMOUNT_1H, Money.of(properties.getHourAmount()).cents());
+        }
+        if (properties.getMinuteCount() > 0) {
+            limits.put(RollingWindow.COUNT_1M, (long) properties.getMinuteCount());
+        }
+        return limits;
+    }
+
+    // Limitado a mirrored-accounts contas; além disso as janelas são conferidas só no Redis
+    private RollingWindowCounter[] mirror(Long accountId) {
+        RollingWindowCounter[] counters = mirror.get(accountId);
+        if (counters == null && mirror.size() < bankingProperties.getRollingLimit().getMirroredAccounts()) {
+            counters = mirror.computeIfAbsent(accountId, id -> Arrays.stream(RollingWindow.values())
+                    .map(RollingWindowCounter::new)
+                    .toArray(RollingWindowCounter[]::new));
+        }
+        return counters;
+    }
+
+    private List<String> keys(Long accountId, List<RollingWindow> windows) {
+        String prefix = bankingProperties.getRollingLimit().getPrefix();
+        return windows.stream().map(window -> prefix + window.getKey() + ":{" + accountId + '}').toList();
+    }
+
+    private RollingLimitExceededException exceeded(Long accountId, RollingWindow window, long limit, long used, Money amount) {
+        log.error("[RollingLimitService].[reserve] - Limite móvel excedido - Conta: {} - Janela: {} - Limite: {} - Utilizado: {} - Valor da Transferência: {}",
+                accountId, window, limit, used, amount);
+        String message = window.isCounting()
+                ? String.format("Limite %s excedido. Limite: %d, Já realizadas: %d", window.getDescription(), limit, used)
+                : String.format("Limite %s excedido. Limite: R$ %.2f, Já utilizado: R$ %.2f, Solicitado: R$ %.2f", window.getDescription(),
+                        Money.ofCents(limit).toBigDecimal(), Money.ofCents(used).toBigDecimal(), amount.toBigDecimal());
+        return new RollingLimitExceededException(message);
+    }
+}
@@ -0,0 +1,67 @@
+package com.itau.banking.transaction.limit;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transferência já somada às janelas móveis por {@link RollingLimitService#reserve}. Se ela não for gravada,
+ * {@link #release()} desfaz a soma nos buckets em que entrou; depois que eles saem da janela não há o que desfazer.
+ */
+public final class RollingLimitUsage {
+
+    private final RollingLimitService service;
+    private final Long accountId;
+    private final long atMillis;
+    private final long amountCents;
+    private final boolean held;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    RollingLimitUsage(RollingLimitService service, Long accountId, long atMillis, long amountCents, boolean held) {
+        this.service = service;
+        this.accountId = accountId;
+        this.atMillis = atMillis;
+        this.amountCents = amountCents;
+        this.held = held;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    long getAtMillis() {
+        return atMillis;
+    }
+
+    long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * Falso quando a soma foi feita só no espelho local (Redis indisponível).
+     */
+    boolean isHeld() {
+        return held;
+    }
+
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            service.release(this);
+        }
+    }
+
+    /**
+     * Desfaz a soma se a transação corrente não for confirmada.
+     */
+    public void settleWithTransaction() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release();
+                }
+            }
+        });
+    }
+}
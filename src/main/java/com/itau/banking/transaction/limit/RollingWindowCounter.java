@@ -0,0 +1,60 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.shared.enums.RollingWindow;
+
+import java.util.Arrays;
+
+/**
+ * Anel de buckets de tempo de tamanho fixo com a soma da janela mantida incrementalmente: avançar o tempo zera só os
+ * buckets que saíram da janela (O(1) amortizado, cada bucket é zerado uma vez por volta), sem somar o anel inteiro.
+ * Mesma estrutura do hash mantido no Redis por {@link RollingLimitService}.
+ */
+public final class RollingWindowCounter {
+
+    private final long bucketMillis;
+    private final long[] values;
+    private long sum;
+    // Índice absoluto (tempo / bucketMillis) do bucket mais recente
+    private long head = Long.MIN_VALUE;
+
+    public RollingWindowCounter(RollingWindow window) {
+        this.bucketMillis = window.bucketMillis();
+        this.values = new long[window.getBuckets()];
+    }
+
+    public synchronized long sum(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        return sum;
+    }
+
+    /**
+     * Soma o valor ao bucket do instante informado; valores negativos desfazem uma soma anterior. Instantes que já
+     * saíram da janela são ignorados.
+     */
+    public synchronized void add(long atMillis, long value) {
+        long bucket = atMillis / bucketMillis;
+        advance(bucket);
+        if (bucket <= head - values.length) {
+            return;
+        }
+        values[(int) Math.floorMod(bucket, (long) values.length)] += value;
+        sum += value;
+    }
+
+    private void advance(long bucket) {
+        if (bucket <= head) {
+            return;
+        }
+        if (head == Long.MIN_VALUE || bucket - head >= values.length) {
+            Arrays.fill(values, 0);
+            sum = 0;
+        } else {
+            for (long next = head + 1; next <= bucket; next++) {
+                int slot = (int) Math.floorMod(next, (long) values.length);
+                sum -= values[slot];
+                values[slot] = 0;
+            }
+        }
+        head = bucket;
+    }
+}
@@ -0,0 +1,156 @@
+package com.itau.banking.transaction.notification;
+
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.transaction.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Envio da notificação BACEN fora da thread da requisição.
+ *
+ * A notificação é agendada para depois do commit da transação corrente e executada em um pool dedicado, de modo
+ * que a resposta HTTP não espera pelo BACEN. Se a fila do pool estiver cheia, ou se a notificação esperar na fila
+ * mais que o orçamento de latência configurado, o envio síncrono é descartado e a notificação segue direto pelo
+ * Kafka. O resultado é gravado na linha da Outbox pelo próprio {@link BacenNotificationService}.
+ *
+ * O orçamento vale também para a chamada ao BACEN: ela recebe apenas o que sobrou após a espera na fila e, se não
+ * responder nesse prazo, é interrompida e a notificação segue pelo Kafka. Se a chamada interrompida ainda chegar a
+ * marcar a linha como SENT, o consumidor Kafka a descarta.
+ */
+@Component
+@Slf4j
+public class BacenDispatcher {
+
+    private static final String DISPATCH_METRIC = "banking.bacen.dispatch";
+
+    private final BacenNotificationService bacenNotificationService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService callExecutor;
+    private final long latencyBudgetNanos;
+
+    public BacenDispatcher(BacenNotificationService bacenNotificationService,
+                           MeterRegistry meterRegistry,
+                           BankingProperties bankingProperties,
+                           Environment environment) {
+        BankingProperties.Notification.Dispatch dispatch = bankingProperties.getNotification().getDispatch();
+        this.bacenNotificationService = bacenNotificationService;
+        this.meterRegistry = meterRegistry;
+        this.latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(dispatch.getLatencyBudgetMs());
+
+        // Com spring.threads.virtual.enabled o pool continua limitado a 'threads' envios simultâneos, mas sem ocupar threads de plataforma
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("bacen-dispatch-", 0).factory()
+                : Thread.ofPlatform().name("bacen-dispatch-", 0).factory();
+        this.executor = new ThreadPoolExecutor(
+                dispatch.getThreads(), dispatch.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatch.getQueueCapacity()),
+                threadFactory);
+        // Cada thread do pool aguarda no máximo uma chamada por vez, então o número de chamadas ativas segue limitado
+        this.callExecutor = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        callExecutor.shutdownNow();
+    }
+
+    /**
+     * Agenda a notificação para depois do commit. Fora de uma transação ativa, despacha imediatamente.
+     */
+    public void dispatchAfterCommit(Transaction transaction, CustomerDto customer) {
+        dispatchAllAfterCommit(Map.of(transaction, customer));
+    }
+
+    /**
+     * Agenda as notificações de um lote em uma única sincronização; após o commit cada uma segue o mesmo caminho da
+     * transferência individual.
+     */
+    public void dispatchAllAfterCommit(Map<Transaction, CustomerDto> notifications) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifications.forEach(this::dispatch);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifications.forEach(BacenDispatcher.this::dispatch);
+            }
+        });
+    }
+
+    private void dispatch(Transaction transaction, CustomerDto customer) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> send(transaction, customer, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            log.warn("[BacenDispatcher].[dispatch] - Fila de envio BACEN cheia, enviando para Kafka - Transaction: {}", transaction.getId());
+            fallbackToKafka(transaction, customer, "queue_full");
+        }
+    }
+
+    private void send(Transaction transaction, CustomerDto customer, long enqueuedAt) {
+        long remainingNanos = latencyBudgetNanos - (System.nanoTime() - enqueuedAt);
+        if (remainingNanos <= 0) {
+            log.warn("[BacenDispatcher].[send] - Orçamento de latência excedido na fila, enviando para Kafka - Transaction: {}", transaction.getId());
+            fallbackToKafka(transaction, customer, "budget_exceeded");
+            return;
+        }
+
+        Future<?> call = null;
+        try {
+            call = callExecutor.submit(() -> bacenNotificationService.sendSync(transaction, customer));
+            call.get(remainingNanos, TimeUnit.NANOSECONDS);
+            meterRegistry.counter(DISPATCH_METRIC, "outcome", "sync").increment();
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            log.warn("[BacenDispatcher].[send] - Chamada ao BACEN excedeu o orçamento de latência, enviando para Kafka - Transaction: {}",
+                    transaction.getId());
+            fallbackToKafka(transaction, customer, "call_timeout");
+        } catch (InterruptedException e) {
+            // Desligamento: a notificação continua PENDING na Outbox e será reprocessada pelo scheduler
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            meterRegistry.counter(DISPATCH_METRIC, "outcome", "error").increment();
+        } catch (ExecutionException | RuntimeException e) {
+            // A notificação continua PENDING na Outbox e será reprocessada pelo scheduler
+            log.warn("[BacenDispatcher].[send] - Falha no envio BACEN, processamento via Scheduler - Transaction: {} - Erro: {}",
+                    transaction.getId(), e.getMessage());
+            meterRegistry.counter(DISPATCH_METRIC, "outcome", "error").increment();
+        }
+    }
+
+    private void fallbackToKafka(Transaction transaction, CustomerDto customer, String reason) {
+        try {
+            bacenNotificationService.sendToKafka(transaction, customer);
+            meterRegistry.counter(DISPATCH_METRIC, "outcome", reason).increment();
+        } catch (Exception e) {
+            log.warn("[BacenDispatcher].[fallbackToKafka] - Falha no envio para Kafka, processamento via Scheduler - Transaction: {} - Erro: {}",
+                    transaction.getId(), e.getMessage());
+            meterRegistry.counter(DISPATCH_METRIC, "outcome", "error").increment();
+        }
+    }
+}
@@ -27,7 +27,8 @@ import java.time.LocalDateTime;
 public class BacenNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bacen_notifications_id_seq")
+    @SequenceGenerator(name = "bacen_notifications_id_seq", sequenceName = "bacen_notifications_id_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,44 @@
+package com.itau.banking.transaction.notification;
+
+import com.itau.banking.transaction.shared.enums.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserção em lote na Outbox BACEN via JDBC batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BacenNotificationBatchRepository {
+
+    private static final String INSERT = "INSERT INTO bacen_notifications " +
+            "(transaction_id, idempotency_key, status, payload, retry_count, created_at) VALUES (?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertPending(List<PendingNotification> notifications, LocalDateTime createdAt) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        List<Object[]> args = notifications.stream()
+                .map(notification -> new Object[]{
+                        notification.transactionId(),
+                        notification.idempotencyKey(),
+                        NotificationStatus.PENDING.name(),
+                        notification.payload(),
+                        timestamp
+                })
+                .toList();
+
+        jdbcTemplate.batchUpdate(INSERT, args);
+    }
+
+    public record PendingNotification(Long transactionId, String idempotencyKey, String payload) { }
+}
@@ -16,6 +16,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +29,7 @@ public class BacenNotificationService {
     private final ObjectMapper objectMapper;
     private final BacenNotificationProducer kafkaProducer;
     private final BankingProperties bankingProperties;
+    private final BacenNotificationBatchRepository bacenNotificationBatchRepository;
 
     @Transactional
     public void saveOutbox(Transaction transaction, CustomerDto customer) {
@@ -66,6 +69,29 @@ public class BacenNotificationService {
         }
     }
 
+    /**
+     * Grava as notificações de um lote na Outbox em um único JDBC batch. O envio é feito após o commit pelo
+     * {@link BacenDispatcher}, com o scheduler como rede de segurança.
+     */
+    @Transactional
+    public void saveOutboxBatch(List<BacenNotificationRequest> requests) {
+        log.info("[BacenNotificationService].[saveOutboxBatch] - Salvando {} notificações na Outbox", requests.size());
+
+        try {
+            List<BacenNotificationBatchRepository.PendingNotification> notifications = new ArrayList<>(requests.size());
+            for (BacenNotificationRequest request : requests) {
+                notifications.add(new BacenNotificationBatchRepository.PendingNotification(
+                        request.getTransactionId(),
+                        request.getIdempotencyKey(),
+                        objectMapper.writeValueAsString(request)));
+            }
+            bacenNotificationBatchRepository.insertPending(notifications, LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("[BacenNotificationService].[saveOutboxBatch] - Erro ao salvar notificações na Outbox: {}", e.getMessage(), e);
+            throw new RuntimeException("Falha ao salvar notificações BACEN na Outbox", e);
+        }
+    }
+
     public void sendSync(Transaction transaction, CustomerDto customer) {
         log.info("[BacenNotificationService].[sendSync] - Tentando envio síncrono ao BACEN - Transaction: {}",
                 transaction.getId());
@@ -93,33 +119,36 @@ public class BacenNotificationService {
         } catch (Exception syncException) {
             log.warn("[BacenNotificationService].[sendSync] - Falha no envio síncrono, enviando para Kafka - Error: {}",
                     syncException.getMessage());
-            
-            BacenNotification notification = bacenNotificationRepository
-                    .findByIdempotencyKeyAndStatus(transaction.getIdempotencyKey(), NotificationStatus.PENDING)
-                    .orElseThrow(() -> new RuntimeException("Notification not found in Outbox"));
-            
-            BacenKafkaMessage kafkaMessage = BacenKafkaMessage.builder()
-                    .transactionId(transaction.getId())
-                    .notificationId(notification.getId())
-                    .idempotencyKey(transaction.getIdempotencyKey())
-                    .sourceAccountId(transaction.getSourceAccount().getId())
-                    .sourceAccountNumber(transaction.getSourceAccount().getAccountNumber())
-                    .destinationAccountId(transaction.getDestinationAccount().getId())
-                    .destinationAccountNumber(transaction.getDestinationAccount().getAccountNumber())
-                    .amount(transaction.getAmount())
-                    .customerName(customer.getName())
-                    .customerCpf(customer.getCpf())
-                    .transactionDate(transaction.getCreatedAt())
-                    .retryCount(0)
-                    .build();
-            
-            kafkaProducer.sendNotification(kafkaMessage);
-            
-            log.info("[BacenNotificationService].[sendSyncWithRetry] - Notificação enviada para Kafka (fallback assíncrono) - Notification: {}", 
-                    notification.getId());
+            sendToKafka(transaction, customer);
         }
     }
 
+    public void sendToKafka(Transaction transaction, CustomerDto customer) {
+        BacenNotification notification = bacenNotificationRepository
+                .findByIdempotencyKeyAndStatus(transaction.getIdempotencyKey(), NotificationStatus.PENDING)
+                .orElseThrow(() -> new RuntimeException("Notification not found in Outbox"));
+
+        BacenKafkaMessage kafkaMessage = BacenKafkaMessage.builder()
+                .transactionId(transaction.getId())
+                .notificationId(notification.getId())
+                .idempotencyKey(transaction.getIdempotencyKey())
+                .sourceAccountId(transaction.getSourceAccount().getId())
+                .sourceAccountNumber(transaction.getSourceAccount().getAccountNumber())
+                .destinationAccountId(transaction.getDestinationAccount().getId())
+                .destinationAccountNumber(transaction.getDestinationAccount().getAccountNumber())
+                .amount(transaction.getAmount())
+                .customerName(customer.getName())
+                .customerCpf(customer.getCpf())
+                .transactionDate(transaction.getCreatedAt())
+                .retryCount(0)
+                .build();
+
+        kafkaProducer.sendNotification(kafkaMessage);
+
+        log.info("[BacenNotificationService].[sendToKafka] - Notificação enviada para Kafka (fallback assíncrono) - Notification: {}",
+                notification.getId());
+    }
+
     @Transactional
     public void updateNotificationToSent(String idempotencyKey, String protocol) {
         BacenNotification notification = bacenNotificationRepository
@@ -0,0 +1,77 @@
+package com.itau.banking.transaction.reactive;
+
+import com.itau.banking.transaction.shared.dto.ErrorResponse;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.CustomerNotFoundException;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.exception.DuplicateTransactionException;
+import com.itau.banking.transaction.shared.exception.InactiveAccountException;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.exception.MinimumAmountException;
+import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Respostas de erro da stack reativa, com o mesmo status e corpo que o {@code GlobalExceptionHandler} devolve para as
+ * exceções que os endpoints reativos podem lançar.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.reactive", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReactiveErrorHandler {
+
+    private static final Map<Class<? extends Throwable>, ErrorStatus> STATUSES = new LinkedHashMap<>();
+
+    static {
+        STATUSES.put(AccountNotFoundException.class, new ErrorStatus(HttpStatus.NOT_FOUND, "Account Not Found"));
+        STATUSES.put(CustomerNotFoundException.class, new ErrorStatus(HttpStatus.NOT_FOUND, "Customer Not Found"));
+        STATUSES.put(InsufficientBalanceException.class, new ErrorStatus(HttpStatus.UNPROCESSABLE_ENTITY, "Insufficient Balance"));
+        STATUSES.put(SelfTransferException.class, new ErrorStatus(HttpStatus.UNPROCESSABLE_ENTITY, "Self Transfer Not Allowed"));
+        STATUSES.put(MinimumAmountException.class, new ErrorStatus(HttpStatus.UNPROCESSABLE_ENTITY, "Minimum Transfer Amount Violation"));
+        STATUSES.put(DailyLimitExceededException.class, new ErrorStatus(HttpStatus.UNPROCESSABLE_ENTITY, "Daily Limit Exceeded"));
+        STATUSES.put(InactiveAccountException.class, new ErrorStatus(HttpStatus.UNPROCESSABLE_ENTITY, "Inactive Account"));
+        STATUSES.put(DuplicateTransactionException.class, new ErrorStatus(HttpStatus.CONFLICT, "Duplicate Transaction"));
+        STATUSES.put(ServerWebInputException.class, new ErrorStatus(HttpStatus.BAD_REQUEST, "Validation Error"));
+    }
+
+    public Mono<ServerResponse> handle(Throwable error, ServerRequest request) {
+        ErrorStatus status = STATUSES.entrySet().stream()
+                .filter(entry -> entry.getKey().isInstance(error))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+
+        String message;
+        if (status == null) {
+            log.error("[ReactiveErrorHandler].[handle] - Erro inesperado: ", error);
+            status = new ErrorStatus(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error");
+            message = "Ocorreu um erro inesperado. Tente novamente mais tarde.";
+        } else {
+            log.error("[ReactiveErrorHandler].[handle] - {}: {}", status.error(), error.getMessage());
+            message = error instanceof ServerWebInputException input ? input.getReason() : error.getMessage();
+        }
+
+        ErrorResponse body = ErrorResponse.builder()
+                .status(status.status().value())
+                .error(status.error())
+                .message(message)
+                .path(request.path())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ServerResponse.status(status.status()).bodyValue(body);
+    }
+
+    private record ErrorStatus(HttpStatus status, String error) { }
+}
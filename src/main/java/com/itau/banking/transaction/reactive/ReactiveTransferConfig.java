@@ -0,0 +1,45 @@
+package com.itau.banking.transaction.reactive;
+
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Pool R2DBC da stack reativa, separado do Hikari usado pela stack MVC/JPA.
+ *
+ * A autoconfiguração R2DBC do Spring Boot fica desligada (spring.autoconfigure.exclude): com ela, o gerenciador de
+ * transações reativo disputaria com o JPA o papel de TransactionManager padrão.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "banking.reactive", name = "enabled", havingValue = "true")
+public class ReactiveTransferConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionFactory(BankingProperties bankingProperties) {
+        BankingProperties.Reactive reactive = bankingProperties.getReactive();
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(reactive.getR2dbcUrl()).mutate();
+        if (reactive.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, reactive.getUsername());
+        }
+        if (reactive.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, reactive.getPassword());
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("BankingReactivePool")
+                .maxSize(reactive.getPoolMaxSize())
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionFactory reactiveConnectionFactory) {
+        return DatabaseClient.create(reactiveConnectionFactory);
+    }
+}
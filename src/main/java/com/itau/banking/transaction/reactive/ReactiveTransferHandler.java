@@ -0,0 +1,112 @@
+package com.itau.banking.transaction.reactive;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.notification.BacenDispatcher;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.Transaction;
+import com.itau.banking.transaction.transaction.TransactionService;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.ResultCode;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import com.itau.banking.transaction.transaction.dto.TransferResponse;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Endpoints de transferência e consulta de conta da stack reativa (banking.reactive.enabled).
+ *
+ * As validações sem estado são as mesmas da stack MVC ({@link ValidationStrategyFactory#validateRequest}); as que
+ * dependem das contas e do limite diário rodam na função transfer_funds, como no modo DB_FUNCTION, e as rejeições
+ * viram as mesmas exceções. Banco (R2DBC) e cache do limite diário (Lettuce reativo) não ocupam threads; a consulta
+ * do cliente e o despacho BACEN ainda são bloqueantes e rodam no boundedElastic. A idempotência fica com o índice
+ * único de transactions: uma chave repetida é rejeitada com 409, sem repetir a resposta anterior.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTransferHandler {
+
+    private final ReactiveTransferRepository reactiveTransferRepository;
+    private final ValidationStrategyFactory validationStrategyFactory;
+    private final CustomerApiClient customerApiClient;
+    private final DailyLimitService dailyLimitService;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final BacenDispatcher bacenDispatcher;
+    private final BankingProperties bankingProperties;
+
+    public Mono<ServerResponse> transfer(ServerRequest request) {
+        String idempotencyKey = request.headers().firstHeader("Idempotency-Key");
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return Mono.error(new ServerWebInputException("Header Idempotency-Key obrigatório"));
+        }
+
+        return request.bodyToMono(TransferRequest.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Corpo da requisição obrigatório")))
+                .doOnNext(body -> validationStrategyFactory.validateRequest(body.sourceAccountId(), body.destinationAccountId(), body.amount()))
+                .flatMap(body -> transfer(body, idempotencyKey))
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+
+    public Mono<ServerResponse> getAccount(ServerRequest request) {
+        Long accountId = request.queryParam("accountId")
+                .map(Long::valueOf)
+                .orElseThrow(() -> new ServerWebInputException("Parâmetro accountId obrigatório"));
+
+        return reactiveTransferRepository.findAccount(accountId)
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(accountId)))
+                .flatMap(account -> ServerResponse.ok().bodyValue(account));
+    }
+
+    private Mono<TransferResponse> transfer(TransferRequest request, String idempotencyKey) {
+        return reactiveTransferRepository.findAccount(request.sourceAccountId())
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(request.sourceAccountId())))
+                .flatMap(source -> findCustomer(source.getCustomerId())
+                        .flatMap(customer -> transfer(request, idempotencyKey, source, customer)));
+    }
+
+    private Mono<TransferResponse> transfer(TransferRequest request, String idempotencyKey, Account source, CustomerDto customer) {
+        LocalDate businessDate = dailyLimitService.today();
+        BigDecimal minimumAmount = bankingProperties.getTransfer().getMinimumAmount();
+
+        return reactiveTransferRepository.transfer(source.getId(), request.destinationAccountId(), request.amount(), idempotencyKey,
+                        request.description(), minimumAmount, customer.getName(), customer.getCpf(), businessDate)
+                .flatMap(result -> {
+                    if (result.resultCode() != ResultCode.OK) {
+                        log.error("[ReactiveTransferHandler].[transfer] - Transferência rejeitada pela função transfer_funds - Conta Origem: {} - Conta Destino: {} - Resultado: {}",
+                                source.getId(), request.destinationAccountId(), result.resultCode());
+                        return Mono.error(result.toException(source.getId(), request, idempotencyKey, minimumAmount));
+                    }
+
+                    Transaction transaction = result.toTransaction(source, request, idempotencyKey);
+                    return dailyLimitService.refreshCachedTotal(reactiveStringRedisTemplate, source.getId(), businessDate, Money.of(result.dailyTotal()))
+                            .then(Mono.fromRunnable(() -> bacenDispatcher.dispatchAfterCommit(transaction, customer))
+                                    .subscribeOn(Schedulers.boundedElastic()))
+                            .then(Mono.fromSupplier(() -> {
+                                log.info("[ReactiveTransferHandler].[transfer] - Transferência concluída via transfer_funds - Transaction: {}", transaction.getId());
+                                return TransactionService.buildResponse(transaction, source, transaction.getDestinationAccount(), customer);
+                            }));
+                });
+    }
+
+    private Mono<CustomerDto> findCustomer(Long customerId) {
+        return Mono.fromCallable(() -> customerApiClient.findCustomerById(customerId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,78 @@
+package com.itau.banking.transaction.reactive;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.ResultCode;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.TransferFunctionResult;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Acesso ao banco da stack reativa via R2DBC: a leitura da conta e a mesma função transfer_funds (V10) do modo
+ * DB_FUNCTION, que valida e grava a transferência em um único statement.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "banking.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveTransferRepository {
+
+    private static final String FIND_ACCOUNT = "SELECT id, account_number, balance, daily_limit, status, customer_id, version, " +
+            "created_at, updated_at FROM accounts WHERE id = $1";
+    private static final String CALL = "SELECT * FROM transfer_funds($1, $2, $3, $4, $5, $6, $7, $8, $9)";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    public Mono<Account> findAccount(Long accountId) {
+        return reactiveDatabaseClient.sql(FIND_ACCOUNT)
+                .bind(0, accountId)
+                .map((row, metadata) -> toAccount(row))
+                .one();
+    }
+
+    public Mono<TransferFunctionResult> transfer(Long sourceAccountId, Long destinationAccountId, BigDecimal amount, String idempotencyKey,
+                                                 String description, BigDecimal minimumAmount, String customerName, String customerCpf,
+                                                 LocalDate businessDate) {
+        DatabaseClient.GenericExecuteSpec call = reactiveDatabaseClient.sql(CALL)
+                .bind(0, sourceAccountId)
+                .bind(1, destinationAccountId)
+                .bind(2, amount)
+                .bind(3, idempotencyKey);
+        call = description != null ? call.bind(4, description) : call.bindNull(4, String.class);
+        call = call.bind(5, minimumAmount);
+        call = customerName != null ? call.bind(6, customerName) : call.bindNull(6, String.class);
+        call = customerCpf != null ? call.bind(7, customerCpf) : call.bindNull(7, String.class);
+        return call.bind(8, businessDate)
+                .map((row, metadata) -> new TransferFunctionResult(
+                        ResultCode.valueOf(row.get("result_code", String.class)),
+                        row.get("transaction_id", Long.class),
+                        row.get("current_balance", BigDecimal.class),
+                        row.get("account_daily_limit", BigDecimal.class),
+                        row.get("current_daily_total", BigDecimal.class),
+                        row.get("source_number", String.class),
+                        row.get("destination_number", String.class),
+                        row.get("transaction_created_at", LocalDateTime.class)))
+                .one();
+    }
+
+    private static Account toAccount(Row row) {
+        Account account = new Account();
+        account.setId(row.get("id", Long.class));
+        account.setAccountNumber(row.get("account_number", String.class));
+        account.setBalance(row.get("balance", BigDecimal.class));
+        account.setDailyLimit(row.get("daily_limit", BigDecimal.class));
+        account.setStatus(AccountStatus.valueOf(row.get("status", String.class)));
+        account.setCustomerId(row.get("customer_id", Long.class));
+        account.setVersion(row.get("version", Long.class));
+        account.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        account.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return account;
+    }
+}
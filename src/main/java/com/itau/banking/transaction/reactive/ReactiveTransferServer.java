@@ -0,0 +1,79 @@
+package com.itau.banking.transaction.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Servidor Reactor Netty da stack reativa, em uma porta própria (banking.reactive.port) ao lado do Tomcat.
+ *
+ * Expõe os mesmos caminhos de transferência e consulta de conta da stack MVC, de modo que a mesma simulação de carga
+ * rode contra as duas trocando só a porta. Conexões keep-alive ficam nos event loops do Netty, sem thread por
+ * conexão nem por requisição; as métricas do servidor saem em reactor_netty_http_server_*.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTransferServer implements SmartLifecycle {
+
+    private final ReactiveTransferHandler reactiveTransferHandler;
+    private final ReactiveErrorHandler reactiveErrorHandler;
+    private final ObjectMapper objectMapper;
+    private final BankingProperties bankingProperties;
+    private volatile DisposableServer server;
+
+    RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .POST("/api/v1/transaction/transfer", reactiveTransferHandler::transfer)
+                .GET("/api/v1/account", reactiveTransferHandler::getAccount)
+                .onError(Throwable.class, reactiveErrorHandler::handle)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes(), strategies);
+
+        int port = bankingProperties.getReactive().getPort();
+        server = HttpServer.create()
+                .port(port)
+                .metrics(true, uri -> uri.contains("?") ? uri.substring(0, uri.indexOf('?')) : uri)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("[ReactiveTransferServer].[start] - Stack reativa escutando na porta {}", port);
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            log.info("[ReactiveTransferServer].[stop] - Stack reativa encerrada");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null && !server.isDisposed();
+    }
+}
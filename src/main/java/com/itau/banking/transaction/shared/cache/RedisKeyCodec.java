@@ -0,0 +1,55 @@
+package com.itau.banking.transaction.shared.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Codificação compacta de identificadores para chaves do Redis.
+ *
+ * Um UUID canônico (36 caracteres, minúsculo) vira seus 16 bytes em Base64 URL sem padding: 22 caracteres ASCII, que
+ * seguem compatíveis com o serializer UTF-8 das chaves. Qualquer outro valor é mantido como texto, precedido de '=',
+ * caractere fora do alfabeto Base64 URL, para não colidir com um UUID codificado.
+ */
+public final class RedisKeyCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final char RAW_MARKER = '=';
+
+    private RedisKeyCodec() {
+    }
+
+    public static String compact(String value) {
+        if (!isCanonicalUuid(value)) {
+            return RAW_MARKER + value;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(16)
+                .putLong(parseHex(value, 0, 8) << 32 | parseHex(value, 9, 13) << 16 | parseHex(value, 14, 18))
+                .putLong(parseHex(value, 19, 23) << 48 | parseHex(value, 24, 36));
+        return ENCODER.encodeToString(bytes.array());
+    }
+
+    // UUIDs em maiúsculas ficam como texto: no layout legado "ABC..." e "abc..." eram chaves distintas
+    private static boolean isCanonicalUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean valid = (i == 8 || i == 13 || i == 18 || i == 23)
+                    ? c == '-'
+                    : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | Character.digit(value.charAt(i), 16);
+        }
+        return result;
+    }
+}
@@ -1,11 +1,14 @@
 package com.itau.banking.transaction.shared.config;
 
+import com.itau.banking.transaction.shared.enums.RedisKeyLayout;
+import com.itau.banking.transaction.shared.enums.TransferMode;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.ZoneId;
 
 @Component
 @ConfigurationProperties(prefix = "banking")
@@ -16,6 +19,9 @@ public class BankingProperties {
     private Notification notification = new Notification();
     private Scheduler scheduler = new Scheduler();
     private Transfer transfer = new Transfer();
+    private Ledger ledger = new Ledger();
+    private RollingLimit rollingLimit = new RollingLimit();
+    private Reactive reactive = new Reactive();
 
     
     @Getter @Setter
@@ -23,22 +29,68 @@ public class BankingProperties {
         private Customer customer = new Customer();
         private Idempotency idempotency = new Idempotency();
         private DailyLimit dailyLimit = new DailyLimit();
+        private Account account = new Account();
+        private RedisKeyLayout keyLayout = RedisKeyLayout.LEGACY;
 
         @Getter @Setter
         public static class Customer {
             private String prefix = "customer:";
+            private String compactPrefix = "c:";
             private int ttlHours = 24;
         }
         
         @Getter @Setter
         public static class Idempotency {
             private String prefix = "idempotency:";
+            private String compactPrefix = "i:";
             private int ttlHours = 24;
+            private int inFlightTtlSeconds = 30;
+            private long inFlightWaitMs = 200;
+            private Filter filter = new Filter();
+
+            @Getter @Setter
+            public static class Filter {
+                private boolean enabled = false;
+                private long expectedKeys = 2_000_000;
+                private double falsePositiveRate = 0.01;
+                private int generations = 4;
+                private String channel = "idempotency:registered";
+            }
         }
         
+        @Getter @Setter
+        public static class Account {
+            private boolean enabled = false;
+            private String prefix = "account:";
+            private int ttlMinutes = 60;
+            private long localMaxSize = 100_000;
+            private int localTtlSeconds = 60;
+            private String channel = "account:invalidated";
+        }
+
         @Getter @Setter
         public static class DailyLimit {
             private String prefix = "daily-limit:";
+            private String compactPrefix = "dl:";
+            private int buckets = 1024;
+            private boolean reservationEnabled = false;
+            private int reservationTtlSeconds = 30;
+            private long reconcileIntervalMs = 300_000;
+            private ZoneId timeZone = ZoneId.systemDefault();
+            private boolean recomputeOnMiss = false;
+            private boolean rolloverEnabled = false;
+            private String rolloverCron = "0 55 23 * * *";
+            private Lease lease = new Lease();
+
+            @Getter @Setter
+            public static class Lease {
+                private boolean enabled = false;
+                private BigDecimal minDailyLimit = new BigDecimal("100000.00");
+                private double chunkFraction = 0.05;
+                private int ttlSeconds = 60;
+                private int idleSeconds = 30;
+                private long renewIntervalMs = 10_000;
+            }
         }
     }
     
@@ -47,6 +99,14 @@ public class BankingProperties {
         private int maxRetryAttempts = 3;
         private int maxFailedAttempts = 10;
         private int failedRetryDelayMinutes = 30;
+        private Dispatch dispatch = new Dispatch();
+
+        @Getter @Setter
+        public static class Dispatch {
+            private int threads = 16;
+            private int queueCapacity = 1000;
+            private long latencyBudgetMs = 2000;
+        }
     }
     
     @Getter @Setter
@@ -59,5 +119,63 @@ public class BankingProperties {
     @Getter @Setter
     public static class Transfer {
         private BigDecimal minimumAmount = BigDecimal.valueOf(0.01);
+        private TransferMode mode = TransferMode.STANDARD;
+        private int batchMaxItems = 500;
+        private long lookupDeadlineMs = 2000;
+        private GroupCommit groupCommit = new GroupCommit();
+        private Async async = new Async();
+        private Validation validation = new Validation();
+
+        @Getter @Setter
+        public static class GroupCommit {
+            private long windowMs = 2;
+            private int maxBatchSize = 64;
+            private int flushers = 4;
+            private int queueCapacity = 10000;
+            private long writeTimeoutMs = 5000;
+        }
+
+        @Getter @Setter
+        public static class Async {
+            private boolean enabled = true;
+            private int workers = 2;
+            private int batchSize = 100;
+            private long pollIntervalMs = 50;
+        }
+
+        @Getter @Setter
+        public static class Validation {
+            private boolean adaptiveOrdering = false;
+            private long reorderInterval = 1000;
+        }
+    }
+
+    @Getter @Setter
+    public static class Ledger {
+        private int shards = 4;
+        private int journalBatchSize = 200;
+        private long journalFlushIntervalMs = 5;
+        private int journalQueueCapacity = 10000;
+        private long writeTimeoutMs = 5000;
+    }
+
+    @Getter @Setter
+    public static class RollingLimit {
+        private boolean enabled = false;
+        private String prefix = "rl:";
+        private BigDecimal dayAmount;
+        private BigDecimal hourAmount;
+        private int minuteCount = 0;
+        private int mirroredAccounts = 100_000;
+    }
+
+    @Getter @Setter
+    public static class Reactive {
+        private boolean enabled = false;
+        private int port = 8081;
+        private String r2dbcUrl = "r2dbc:postgresql://localhost:5432/itau_banking";
+        private String username;
+        private String password;
+        private int poolMaxSize = 50;
     }
 }
@@ -1,24 +1,25 @@
 package com.itau.banking.transaction.shared.config;
 
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.shared.money.MoneyRedisSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.GenericToStringSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.math.BigDecimal;
-
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, BigDecimal> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, BigDecimal> template = new RedisTemplate<>();
+    public RedisTemplate<String, Money> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Money> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericToStringSerializer<>(BigDecimal.class));
+        template.setValueSerializer(new MoneyRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new MoneyRedisSerializer());
         return template;
     }
 
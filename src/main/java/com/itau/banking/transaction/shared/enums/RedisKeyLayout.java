@@ -0,0 +1,14 @@
+package com.itau.banking.transaction.shared.enums;
+
+/**
+ * Layout das chaves no Redis. MIGRATING grava no layout compacto e ainda lê o legado, até as chaves antigas expirarem.
+ */
+public enum RedisKeyLayout {
+    LEGACY,
+    MIGRATING,
+    COMPACT;
+
+    public boolean writesCompact() {
+        return this != LEGACY;
+    }
+}
@@ -0,0 +1,58 @@
+package com.itau.banking.transaction.shared.enums;
+
+import java.time.Duration;
+
+/**
+ * Janelas móveis de limite, cada uma um anel de buckets de tamanho fixo. As de valor somam centavos; a de contagem
+ * soma uma unidade por transferência.
+ */
+public enum RollingWindow {
+    AMOUNT_24H("a24h", "das últimas 24 horas", Duration.ofHours(24), 96, false),
+    AMOUNT_1H("a1h", "da última hora", Duration.ofHours(1), 60, false),
+    COUNT_1M("c1m", "de transferências por minuto", Duration.ofMinutes(1), 12, true);
+
+    private final String key;
+    private final String description;
+    private final Duration duration;
+    private final int buckets;
+    private final boolean counting;
+
+    RollingWindow(String key, String description, Duration duration, int buckets, boolean counting) {
+        this.key = key;
+        this.description = description;
+        this.duration = duration;
+        this.buckets = buckets;
+        this.counting = counting;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public boolean isCounting() {
+        return counting;
+    }
+
+    public long bucketMillis() {
+        return duration.toMillis() / buckets;
+    }
+
+    /**
+     * Quanto uma transferência soma à janela.
+     */
+    public long valueOf(long amountCents) {
+        return counting ? 1 : amountCents;
+    }
+}
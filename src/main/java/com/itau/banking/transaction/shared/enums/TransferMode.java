@@ -0,0 +1,8 @@
+package com.itau.banking.transaction.shared.enums;
+
+public enum TransferMode {
+    STANDARD,
+    LEDGER,
+    GROUP_COMMIT,
+    DB_FUNCTION
+}
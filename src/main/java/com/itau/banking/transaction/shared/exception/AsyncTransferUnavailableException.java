@@ -0,0 +1,7 @@
+package com.itau.banking.transaction.shared.exception;
+
+public class AsyncTransferUnavailableException extends RuntimeException {
+    public AsyncTransferUnavailableException() {
+        super("Transferência assíncrona indisponível nesta instância. Utilize o endpoint síncrono.");
+    }
+}
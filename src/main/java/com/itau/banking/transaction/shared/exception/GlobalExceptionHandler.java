@@ -112,6 +112,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
     }
 
+    @ExceptionHandler(RollingLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRollingLimitExceeded(
+            RollingLimitExceededException ex,
+            HttpServletRequest request) {
+
+        log.error("[GlobalExceptionHandler].[handleRollingLimitExceeded] - Limite em janela móvel excedido: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error("Rolling Limit Exceeded")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
     @ExceptionHandler(InactiveAccountException.class)
     public ResponseEntity<ErrorResponse> handleInactiveAccount(
             InactiveAccountException ex,
@@ -148,6 +166,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(TransferOutcomeUnknownException.class)
+    public ResponseEntity<ErrorResponse> handleTransferOutcomeUnknown(
+            TransferOutcomeUnknownException ex,
+            HttpServletRequest request) {
+
+        log.warn("[GlobalExceptionHandler].[handleTransferOutcomeUnknown] - Desfecho da transferência ainda desconhecido: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.ACCEPTED.value())
+                .error("Transfer Outcome Unknown")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(error);
+    }
+
     @ExceptionHandler(CustomerNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleCustomerNotFound(
             CustomerNotFoundException ex,
@@ -166,6 +202,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(TransactionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTransactionNotFound(
+            TransactionNotFoundException ex,
+            HttpServletRequest request) {
+
+        log.error("[GlobalExceptionHandler].[handleTransactionNotFound] - Transação não encontrada: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.NOT_FOUND.value())
+                .error("Transaction Not Found")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
     @ExceptionHandler(BacenApiException.class)
     public ResponseEntity<ErrorResponse> handleBacenApiError(
             BacenApiException ex,
@@ -184,6 +238,60 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
     }
 
+    @ExceptionHandler(TransferDeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleTransferDeadlineExceeded(
+            TransferDeadlineExceededException ex,
+            HttpServletRequest request) {
+
+        log.error("[GlobalExceptionHandler].[handleTransferDeadlineExceeded] - Prazo de preparação da transferência excedido: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Transfer Deadline Exceeded")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    @ExceptionHandler(AsyncTransferUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncTransferUnavailable(
+            AsyncTransferUnavailableException ex,
+            HttpServletRequest request) {
+
+        log.warn("[GlobalExceptionHandler].[handleAsyncTransferUnavailable] - Transferência assíncrona indisponível: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Async Transfer Unavailable")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBatch(
+            InvalidBatchException ex,
+            HttpServletRequest request) {
+
+        log.error("[GlobalExceptionHandler].[handleInvalidBatch] - Lote de transferências inválido: {}", ex.getMessage());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Invalid Batch")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.badRequest().body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(
             MethodArgumentNotValidException ex,
@@ -0,0 +1,7 @@
+package com.itau.banking.transaction.shared.exception;
+
+public class InvalidBatchException extends RuntimeException {
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
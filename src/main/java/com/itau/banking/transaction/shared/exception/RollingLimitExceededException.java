@@ -0,0 +1,7 @@
+package com.itau.banking.transaction.shared.exception;
+
+public class RollingLimitExceededException extends RuntimeException {
+    public RollingLimitExceededException(String message) {
+        super(message);
+    }
+}
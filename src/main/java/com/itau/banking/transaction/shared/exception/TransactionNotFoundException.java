@@ -0,0 +1,7 @@
+package com.itau.banking.transaction.shared.exception;
+
+public class TransactionNotFoundException extends RuntimeException {
+    public TransactionNotFoundException(Long transactionId) {
+        super("Transação não encontrada: " + transactionId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.itau.banking.transaction.shared.exception;
+
+public class TransferDeadlineExceededException extends RuntimeException {
+    public TransferDeadlineExceededException(long deadlineMs) {
+        super("Consultas da transferência não concluídas em " + deadlineMs + "ms. Nenhum valor foi movimentado.");
+    }
+}
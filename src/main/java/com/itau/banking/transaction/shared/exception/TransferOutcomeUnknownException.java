@@ -0,0 +1,8 @@
+package com.itau.banking.transaction.shared.exception;
+
+public class TransferOutcomeUnknownException extends RuntimeException {
+    public TransferOutcomeUnknownException(String idempotencyKey, long timeoutMs) {
+        super("Transferência com a chave de idempotência " + idempotencyKey + " ainda em gravação após " + timeoutMs
+                + "ms. O desfecho será o do commit em andamento; consulte novamente com a mesma chave.");
+    }
+}
@@ -0,0 +1,43 @@
+package com.itau.banking.transaction.shared.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Camada PostgreSQL da idempotência: o índice único de transactions.idempotency_key. Consultada quando o Redis está
+ * degradado e para identificar a transação original após uma violação do índice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyDatabaseStore {
+
+    private static final String FIND_ONE = "SELECT id FROM transactions WHERE idempotency_key = ?";
+    private static final String FIND_MANY = "SELECT idempotency_key, id FROM transactions WHERE idempotency_key = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Long findTransactionId(String idempotencyKey) {
+        return jdbcTemplate.query(FIND_ONE, rs -> rs.next() ? rs.getLong(1) : null, idempotencyKey);
+    }
+
+    public Map<String, Long> findTransactionIds(List<String> idempotencyKeys) {
+        Map<String, Long> found = new HashMap<>();
+        if (idempotencyKeys.isEmpty()) {
+            return found;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_MANY);
+            statement.setArray(1, connection.createArrayOf("varchar", idempotencyKeys.toArray()));
+            return statement;
+        }, rs -> {
+            found.put(rs.getString(1), rs.getLong(2));
+        });
+        return found;
+    }
+}
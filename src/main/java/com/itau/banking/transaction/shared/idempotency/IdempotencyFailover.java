@@ -0,0 +1,113 @@
+package com.itau.banking.transaction.shared.idempotency;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Encaminha as operações de idempotência ao Redis enquanto o circuit breaker redisIdempotency estiver fechado e ao
+ * PostgreSQL quando ele abrir. O retorno ao Redis é automático: o breaker passa a meio-aberto após o tempo configurado
+ * e fecha de novo com as chamadas de teste bem-sucedidas.
+ */
+@Component
+@Slf4j
+public class IdempotencyFailover {
+
+    static final String CIRCUIT_BREAKER = "redisIdempotency";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Timer redisSuccess;
+    private final Timer redisFailure;
+    private final Timer postgresSuccess;
+    private final Timer postgresFailure;
+
+    public IdempotencyFailover(CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER);
+        this.redisSuccess = timer(meterRegistry, "redis", "success");
+        this.redisFailure = timer(meterRegistry, "redis", "failure");
+        this.postgresSuccess = timer(meterRegistry, "postgres", "success");
+        this.postgresFailure = timer(meterRegistry, "postgres", "failure");
+        Gauge.builder("banking.idempotency.store.degraded", circuitBreaker, cb -> isDegraded(cb) ? 1 : 0)
+                .description("1 quando a idempotência está sendo atendida pelo PostgreSQL")
+                .register(meterRegistry);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("[IdempotencyFailover].[onStateTransition] - Idempotência {} -> {}",
+                        event.getStateTransition().getFromState(), event.getStateTransition().getToState()));
+    }
+
+    /**
+     * Executa no Redis; se ele falhar ou o breaker estiver aberto, executa o fallback no PostgreSQL.
+     */
+    public <T> T execute(String operation, Supplier<T> redis, Supplier<T> postgres) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return timed(postgresSuccess, postgresFailure, postgres);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = redis.get();
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            redisSuccess.record(elapsed, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (DataAccessException e) {
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e);
+            redisFailure.record(elapsed, TimeUnit.NANOSECONDS);
+            log.warn("[IdempotencyFailover].[execute] - Redis indisponível em {}, usando PostgreSQL - Erro: {}", operation, e.getMessage());
+            return timed(postgresSuccess, postgresFailure, postgres);
+        } catch (RuntimeException e) {
+            // Erro de aplicação, não do Redis: não conta para o breaker
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+    }
+
+    /**
+     * Escrita só no Redis: com ele degradado a linha em transactions já é o registro da chave, então a escrita é
+     * descartada em vez de falhar a requisição.
+     */
+    public void write(String operation, Runnable redis) {
+        execute(operation, () -> {
+            redis.run();
+            return null;
+        }, () -> null);
+    }
+
+    public boolean isDegraded() {
+        return isDegraded(circuitBreaker);
+    }
+
+    private static boolean isDegraded(CircuitBreaker circuitBreaker) {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private static <T> T timed(Timer success, Timer failure, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String tier, String outcome) {
+        return Timer.builder("banking.idempotency.store")
+                .tag("tier", tier)
+                .tag("outcome", outcome)
+                .description("Latência das operações de idempotência por camada")
+                .register(meterRegistry);
+    }
+}
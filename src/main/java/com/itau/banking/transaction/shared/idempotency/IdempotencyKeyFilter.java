@@ -0,0 +1,158 @@
+package com.itau.banking.transaction.shared.idempotency;
+
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Filtro local das chaves de idempotência registradas nas últimas ttl-hours, consultado antes do Redis na reserva da
+ * chave e no MGET do lote.
+ *
+ * Só o "não contém" é usado, e apenas como atalho: a reserva sai sem token (insert-first) e o lote não consulta a
+ * chave, ficando o índice único de idempotency_key como garantia para chaves ainda não propagadas ao filtro ou em
+ * andamento em outra requisição. Um "talvez contenha" segue para o Redis, que dá a resposta definitiva. Cada
+ * instância alimenta o filtro com as próprias chaves e com as publicadas pelas demais no canal configurado; na subida,
+ * as chaves recentes são carregadas da tabela transactions. Até essa carga terminar, toda consulta vai ao Redis.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.cache.idempotency.filter", name = "enabled", havingValue = "true")
+@Slf4j
+public class IdempotencyKeyFilter implements MessageListener {
+
+    static final char KEY_SEPARATOR = '\n';
+    private static final String WARM_UP_SQL = "SELECT idempotency_key, created_at FROM transactions WHERE created_at >= ?";
+    private static final int WARM_UP_FETCH_SIZE = 10_000;
+
+    private final RecentKeyFilter filter;
+    private final String channel;
+    private final Duration retention;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Counter misses;
+    private final Counter hits;
+    private final Counter falsePositives;
+    private volatile boolean ready;
+
+    public IdempotencyKeyFilter(BankingProperties bankingProperties,
+                                RedisConnectionFactory connectionFactory,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry) {
+        BankingProperties.Cache.Idempotency idempotency = bankingProperties.getCache().getIdempotency();
+        BankingProperties.Cache.Idempotency.Filter properties = idempotency.getFilter();
+        this.retention = Duration.ofHours(idempotency.getTtlHours());
+        this.filter = new RecentKeyFilter(properties.getExpectedKeys(), properties.getFalsePositiveRate(), properties.getGenerations(), retention);
+        this.channel = properties.getChannel();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+
+        this.misses = Counter.builder("banking.idempotency.filter").tag("result", "miss")
+                .description("Consultas dispensadas do Redis pelo filtro local").register(meterRegistry);
+        this.hits = Counter.builder("banking.idempotency.filter").tag("result", "hit")
+                .description("Consultas em que o filtro indicou a chave e o Redis confirmou").register(meterRegistry);
+        this.falsePositives = Counter.builder("banking.idempotency.filter").tag("result", "false_positive")
+                .description("Consultas em que o filtro indicou a chave e o Redis não a tinha").register(meterRegistry);
+        Gauge.builder("banking.idempotency.filter.ready", this, f -> f.ready ? 1 : 0).register(meterRegistry);
+    }
+
+    /**
+     * Assina o canal antes da carga inicial, para que nenhuma chave registrada durante a carga se perca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        Thread.ofVirtual().name("idempotency-filter-warm-up").start(this::warmUp);
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public boolean mightContain(String idempotencyKey) {
+        if (!ready || filter.mightContain(idempotencyKey)) {
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Registra o resultado do Redis para uma chave que passou pelo filtro, alimentando a métrica de falsos positivos.
+     */
+    public void recordRemoteResult(boolean found) {
+        if (!ready) {
+            return;
+        }
+        (found ? hits : falsePositives).increment();
+    }
+
+    public void add(String idempotencyKey) {
+        filter.put(idempotencyKey);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int start = 0;
+        for (int end; (end = body.indexOf(KEY_SEPARATOR, start)) >= 0; start = end + 1) {
+            filter.put(body.substring(start, end));
+        }
+        if (start < body.length()) {
+            filter.put(body.substring(start));
+        }
+    }
+
+    private void warmUp() {
+        long started = System.currentTimeMillis();
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        long[] loaded = {0};
+        try {
+            // Dentro de uma transação o driver do PostgreSQL usa cursor e respeita o fetch size
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(WARM_UP_SQL);
+                statement.setFetchSize(WARM_UP_FETCH_SIZE);
+                statement.setTimestamp(1, since);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                filter.put(rs.getString(1), rs.getTimestamp(2).getTime());
+                loaded[0]++;
+            }));
+            ready = true;
+            log.info("[IdempotencyKeyFilter].[warmUp] - Filtro carregado com {} chaves em {} ms", loaded[0], System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("[IdempotencyKeyFilter].[warmUp] - Falha ao carregar o filtro, consultas seguem direto para o Redis - Erro: {}", e.getMessage());
+        }
+    }
+}
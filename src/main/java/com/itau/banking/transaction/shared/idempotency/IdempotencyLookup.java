@@ -0,0 +1,37 @@
+package com.itau.banking.transaction.shared.idempotency;
+
+/**
+ * Resultado da reserva de uma chave de idempotência.
+ *
+ * ABSENT: chave livre. RESERVED: chave reservada por esta requisição, com o token usado para
+ * liberá-la. IN_FLIGHT: outra requisição com a mesma chave ainda está em andamento. COMPLETED: chave já usada, com o
+ * id da transação e, nas transferências síncronas, a resposta original.
+ */
+public record IdempotencyLookup<T>(State state, String reservationToken, Long transactionId, T response) {
+
+    public enum State { ABSENT, RESERVED, IN_FLIGHT, COMPLETED }
+
+    public static <T> IdempotencyLookup<T> absent() {
+        return new IdempotencyLookup<>(State.ABSENT, null, null, null);
+    }
+
+    public static <T> IdempotencyLookup<T> reserved(String reservationToken) {
+        return new IdempotencyLookup<>(State.RESERVED, reservationToken, null, null);
+    }
+
+    public static <T> IdempotencyLookup<T> inFlight() {
+        return new IdempotencyLookup<>(State.IN_FLIGHT, null, null, null);
+    }
+
+    public static <T> IdempotencyLookup<T> found(Long transactionId, T response) {
+        return new IdempotencyLookup<>(State.COMPLETED, null, transactionId, response);
+    }
+
+    public boolean exists() {
+        return state == State.IN_FLIGHT || state == State.COMPLETED;
+    }
+
+    public boolean hasResponse() {
+        return response != null;
+    }
+}
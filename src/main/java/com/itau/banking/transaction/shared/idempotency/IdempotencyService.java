@@ -1,52 +1,358 @@
 package com.itau.banking.transaction.shared.idempotency;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itau.banking.transaction.shared.cache.RedisKeyCodec;
 import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.RedisKeyLayout;
+import com.itau.banking.transaction.shared.exception.DuplicateTransactionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.sql.SQLException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IdempotencyService {
-    
+
+    // Valor da chave: "IN_FLIGHT:<token>" durante a execução, depois "<transactionId>" ou "<transactionId>|<resposta em JSON>"
+    private static final char RESPONSE_SEPARATOR = '|';
+    private static final String IN_FLIGHT_PREFIX = "IN_FLIGHT:";
+    private static final long IN_FLIGHT_POLL_MS = 10;
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
     private final RedisTemplate<String, String> redisTemplate;
     private final BankingProperties bankingProperties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<IdempotencyKeyFilter> keyFilter;
+    private final IdempotencyFailover failover;
+    private final IdempotencyDatabaseStore databaseStore;
     
-    public boolean isValidIdempotencyKey(String idempotencyKey) {
+    public void registerIdempotencyKey(String idempotencyKey, Long transactionId) {
+        String key = redisKey(idempotencyKey);
+        Duration ttl = Duration.ofHours(bankingProperties.getCache().getIdempotency().getTtlHours());
+        failover.write("registerIdempotencyKey", () -> store(idempotencyKey, key, transactionId.toString(), ttl));
+        log.info("[IdempotencyService].[registerIdempotencyKey] - Chave de idempotência registrada: {} -> Transaction: {}", idempotencyKey, transactionId);
+    }
+
+    /**
+     * Registra a chave só depois do commit da transação corrente. Com ids de sequence o INSERT fica para o flush, então
+     * uma violação do índice único de idempotency_key só aparece no commit e não pode sobrescrever a chave no Redis.
+     */
+    public void registerIdempotencyKeyAfterCommit(String idempotencyKey, Long transactionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registerIdempotencyKey(idempotencyKey, transactionId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registerIdempotencyKey(idempotencyKey, transactionId);
+            }
+        });
+    }
+    
+    /**
+     * Reserva a chave de forma atômica (SET NX com marcador IN_FLIGHT e TTL curto) antes de executar a transferência.
+     *
+     * Se outra requisição com a mesma chave estiver em andamento, aguarda até in-flight-wait-ms pela conclusão dela e
+     * devolve a resposta guardada; passado o prazo, devolve IN_FLIGHT. A reserva é promovida por
+     * {@link #registerResponse}/{@link #registerIdempotencyKey} e desfeita por {@link #release} em caso de falha.
+     *
+     * Com o Redis degradado a reserva é concedida sem token (insert-first): o índice único de idempotency_key barra a
+     * repetição no INSERT e {@link #translateConflict} a converte em 409. Com o filtro local habilitado, o mesmo vale
+     * para uma chave que ele afirma nunca ter visto: a reserva sai sem ir ao Redis, e uma repetição concorrente ou
+     * ainda não propagada ao filtro é barrada pelo índice único.
+     */
+    public <T> IdempotencyLookup<T> reserve(String idempotencyKey, Class<T> responseType) {
         if (idempotencyKey == null || idempotencyKey.isBlank()) {
-            log.warn("[IdempotencyService].[isValidIdempotencyKey] - Chave de idempotência nula ou vazia");
-            return false;
+            log.warn("[IdempotencyService].[reserve] - Chave de idempotência nula ou vazia");
+            return IdempotencyLookup.found(null, null);
         }
-        
-        String key = bankingProperties.getCache().getIdempotency().getPrefix() + idempotencyKey;
-        Boolean exists = redisTemplate.hasKey(key);
-        
-        if (Boolean.TRUE.equals(exists)) {
-            log.warn("[IdempotencyService].[isValidIdempotencyKey] - Chave de idempotência duplicada detectada: {}", idempotencyKey);
-            return false;
+
+        return failover.execute("reserve", () -> reserveInRedis(idempotencyKey, responseType), () -> IdempotencyLookup.reserved(null));
+    }
+
+    /**
+     * Converte a violação do índice único de idempotency_key em {@link DuplicateTransactionException} com o id da
+     * transação original. Outras falhas são devolvidas sem alteração.
+     */
+    public RuntimeException translateConflict(String idempotencyKey, RuntimeException failure) {
+        if (!isUniqueViolation(failure)) {
+            return failure;
+        }
+        Long transactionId = databaseStore.findTransactionId(idempotencyKey);
+        if (transactionId == null) {
+            return failure;
         }
-        
-        return true;
+        log.warn("[IdempotencyService].[translateConflict] - Chave de idempotência barrada pelo índice único: {}", idempotencyKey);
+        return new DuplicateTransactionException(idempotencyKey, transactionId);
     }
-    
-    public void registerIdempotencyKey(String idempotencyKey, Long transactionId) {
-        String key = bankingProperties.getCache().getIdempotency().getPrefix() + idempotencyKey;
+
+    private <T> IdempotencyLookup<T> reserveInRedis(String idempotencyKey, Class<T> responseType) {
+        IdempotencyKeyFilter filter = activeFilter();
+        if (filter != null && !filter.mightContain(idempotencyKey)) {
+            log.debug("[IdempotencyService].[reserve] - Chave ausente no filtro local, reserva sem Redis: {}", idempotencyKey);
+            return IdempotencyLookup.reserved(null);
+        }
+
+        BankingProperties.Cache.Idempotency idempotency = bankingProperties.getCache().getIdempotency();
+        String key = redisKey(idempotencyKey);
+        String token = IN_FLIGHT_PREFIX + UUID.randomUUID();
+        Duration inFlightTtl = Duration.ofSeconds(idempotency.getInFlightTtlSeconds());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(idempotency.getInFlightWaitMs());
+
+        while (true) {
+            // Em migração, uma chave legada (concluída ou em andamento em um nó antigo) tem precedência sobre a reserva
+            String legacy = migrating() ? redisTemplate.opsForValue().get(legacyKey(idempotencyKey)) : null;
+            if (legacy == null && Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, inFlightTtl))) {
+                if (filter != null) {
+                    filter.recordRemoteResult(false);
+                }
+                return IdempotencyLookup.reserved(token);
+            }
+
+            String value = legacy != null ? legacy : redisTemplate.opsForValue().get(key);
+            IdempotencyLookup<T> current = parse(idempotencyKey, value, responseType);
+            if (current.state() == IdempotencyLookup.State.COMPLETED) {
+                if (filter != null) {
+                    filter.recordRemoteResult(true);
+                }
+                return current;
+            }
+            if (System.nanoTime() >= deadline) {
+                log.warn("[IdempotencyService].[reserve] - Chave de idempotência em processamento por outra requisição: {}", idempotencyKey);
+                return IdempotencyLookup.inFlight();
+            }
+            // ABSENT: a reserva foi liberada ou expirou entre o SET NX e o GET, tenta de novo sem esperar
+            if (current.state() == IdempotencyLookup.State.IN_FLIGHT && !pause()) {
+                return IdempotencyLookup.inFlight();
+            }
+        }
+    }
+
+    /**
+     * Libera uma reserva IN_FLIGHT após falha da transferência, só se ela ainda for desta requisição. Se o Redis não
+     * responder, a reserva expira pelo TTL.
+     */
+    public void release(String idempotencyKey, String reservationToken) {
+        if (reservationToken == null) {
+            return;
+        }
+        String key = redisKey(idempotencyKey);
+        failover.write("release", () -> redisTemplate.execute(RELEASE_SCRIPT, List.of(key), reservationToken));
+    }
+
+    /**
+     * Guarda a resposta da transferência junto da chave, para que uma nova tentativa receba o mesmo corpo sem acessar o
+     * banco. Deve ser chamada após o commit. Uma falha no Redis apenas é logada: o índice único de idempotency_key
+     * continua barrando a repetição.
+     */
+    public void registerResponse(String idempotencyKey, Long transactionId, Object response) {
+        try {
+            String key = redisKey(idempotencyKey);
+            Duration ttl = Duration.ofHours(bankingProperties.getCache().getIdempotency().getTtlHours());
+            String value = transactionId.toString() + RESPONSE_SEPARATOR + objectMapper.writeValueAsString(response);
+            failover.write("registerResponse", () -> store(idempotencyKey, key, value, ttl));
+            log.info("[IdempotencyService].[registerResponse] - Resposta registrada para a chave: {} -> Transaction: {}", idempotencyKey, transactionId);
+        } catch (Exception e) {
+            log.warn("[IdempotencyService].[registerResponse] - Falha ao registrar resposta no Redis - Chave: {} - Erro: {}", idempotencyKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Busca em um único MGET quais chaves já foram processadas. Retorna apenas as encontradas. Com o filtro local
+     * habilitado, só as chaves que ele indica seguem para o MGET. Com o Redis degradado, consulta o PostgreSQL.
+     */
+    public Map<String, Long> findProcessedKeys(List<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return Map.of();
+        }
+        return failover.execute("findProcessedKeys", () -> findProcessedKeysInRedis(idempotencyKeys),
+                () -> databaseStore.findTransactionIds(idempotencyKeys));
+    }
+
+    private Map<String, Long> findProcessedKeysInRedis(List<String> idempotencyKeys) {
+        IdempotencyKeyFilter filter = activeFilter();
+        List<String> candidates = filter == null ? idempotencyKeys : idempotencyKeys.stream().filter(filter::mightContain).toList();
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+
+        // Em migração as chaves legadas vão no mesmo MGET, depois das compactas
+        List<String> keys = new ArrayList<>(candidates.size() * 2);
+        candidates.forEach(key -> keys.add(redisKey(key)));
+        if (migrating()) {
+            candidates.forEach(key -> keys.add(legacyKey(key)));
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+
+        Map<String, Long> processed = new HashMap<>();
+        if (values == null) {
+            return processed;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            String value = values.get(i) != null || !migrating() ? values.get(i) : values.get(candidates.size() + i);
+            if (filter != null) {
+                filter.recordRemoteResult(value != null);
+            }
+            if (value != null) {
+                processed.put(candidates.get(i), transactionIdOf(value));
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Registra várias chaves em um único round-trip (pipeline).
+     */
+    public void registerIdempotencyKeys(Map<String, Long> transactionsByKey) {
+        if (transactionsByKey.isEmpty()) {
+            return;
+        }
+
         Duration ttl = Duration.ofHours(bankingProperties.getCache().getIdempotency().getTtlHours());
-        redisTemplate.opsForValue().set(key, transactionId.toString(), ttl);
-        log.info("[IdempotencyService].[registerIdempotencyKey] - Chave de idempotência registrada: {} -> Transaction: {}", idempotencyKey, transactionId);
+        IdempotencyKeyFilter filter = keyFilter.getIfAvailable();
+        if (filter != null) {
+            transactionsByKey.keySet().forEach(filter::add);
+        }
+
+        failover.write("registerIdempotencyKeys", () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                transactionsByKey.forEach((key, transactionId) ->
+                        ops.opsForValue().set(redisKey(key), transactionId.toString(), ttl));
+                if (filter != null) {
+                    ops.convertAndSend(filter.getChannel(), String.join(String.valueOf(IdempotencyKeyFilter.KEY_SEPARATOR), transactionsByKey.keySet()));
+                }
+                return null;
+            }
+        }));
+        log.info("[IdempotencyService].[registerIdempotencyKeys] - {} chaves de idempotência registradas em pipeline", transactionsByKey.size());
     }
-    
-    public Long getTransactionByIdempotencyKey(String idempotencyKey) {
-        String key = bankingProperties.getCache().getIdempotency().getPrefix() + idempotencyKey;
-        String transactionId = redisTemplate.opsForValue().get(key);
-        
-        if (transactionId != null) {
-            return Long.parseLong(transactionId);
-        }
-        
-        return null;
+
+    /**
+     * Grava a chave e, com o filtro local habilitado, publica no mesmo pipeline para as demais instâncias. A chave
+     * entra no filtro local antes de ficar visível no Redis.
+     */
+    private void store(String idempotencyKey, String key, String value, Duration ttl) {
+        IdempotencyKeyFilter filter = keyFilter.getIfAvailable();
+        if (filter == null) {
+            redisTemplate.opsForValue().set(key, value, ttl);
+            return;
+        }
+
+        filter.add(idempotencyKey);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForValue().set(key, value, ttl);
+                ops.convertAndSend(filter.getChannel(), idempotencyKey);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Chave no Redis conforme banking.cache.key-layout: no layout compacto, prefixo curto e UUID em 22 caracteres.
+     */
+    String redisKey(String idempotencyKey) {
+        BankingProperties.Cache cache = bankingProperties.getCache();
+        return layout().writesCompact()
+                ? cache.getIdempotency().getCompactPrefix() + RedisKeyCodec.compact(idempotencyKey)
+                : legacyKey(idempotencyKey);
+    }
+
+    private String legacyKey(String idempotencyKey) {
+        return bankingProperties.getCache().getIdempotency().getPrefix() + idempotencyKey;
+    }
+
+    private boolean migrating() {
+        return layout() == RedisKeyLayout.MIGRATING;
+    }
+
+    private RedisKeyLayout layout() {
+        RedisKeyLayout layout = bankingProperties.getCache().getKeyLayout();
+        return layout != null ? layout : RedisKeyLayout.LEGACY;
+    }
+
+    // Com o Redis degradado o filtro deixa de receber as chaves das outras instâncias
+    private IdempotencyKeyFilter activeFilter() {
+        return failover.isDegraded() ? null : keyFilter.getIfAvailable();
+    }
+
+    // 23505 = unique_violation no PostgreSQL
+    private static boolean isUniqueViolation(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> IdempotencyLookup<T> parse(String idempotencyKey, String value, Class<T> responseType) {
+        if (value == null) {
+            return IdempotencyLookup.absent();
+        }
+        if (value.startsWith(IN_FLIGHT_PREFIX)) {
+            return IdempotencyLookup.inFlight();
+        }
+
+        Long transactionId = transactionIdOf(value);
+        int separator = value.indexOf(RESPONSE_SEPARATOR);
+        if (separator < 0) {
+            return IdempotencyLookup.found(transactionId, null);
+        }
+
+        try {
+            return IdempotencyLookup.found(transactionId, objectMapper.readValue(value.substring(separator + 1), responseType));
+        } catch (JsonProcessingException e) {
+            log.warn("[IdempotencyService].[parse] - Resposta armazenada inválida - Chave: {} - Erro: {}", idempotencyKey, e.getMessage());
+            return IdempotencyLookup.found(transactionId, null);
+        }
+    }
+
+    // Reservas em andamento não têm id de transação
+    private Long transactionIdOf(String value) {
+        if (value.startsWith(IN_FLIGHT_PREFIX)) {
+            return null;
+        }
+        int separator = value.indexOf(RESPONSE_SEPARATOR);
+        return separator < 0 ? Long.parseLong(value) : Long.parseLong(value, 0, separator, 10);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(IN_FLIGHT_POLL_MS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
@@ -0,0 +1,143 @@
+package com.itau.banking.transaction.shared.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Filtro de Bloom particionado no tempo para as chaves registradas na última janela de retenção.
+ *
+ * A retenção é dividida em N gerações de mesmo tamanho; cada chave entra na geração do instante em que foi registrada
+ * e a consulta olha as N + 1 gerações mais recentes, o que cobre ao menos a retenção inteira. Gerações mais antigas
+ * são descartadas ao serem reaproveitadas, sem varredura. Sem falsos negativos dentro da retenção; a taxa de falsos
+ * positivos fica próxima da configurada enquanto cada geração não passar de expectedKeys / N chaves.
+ */
+class RecentKeyFilter {
+
+    private final long windowMillis;
+    private final int generations;
+    private final long bitsPerGeneration;
+    private final int hashFunctions;
+    private final LongSupplier clock;
+    private final AtomicReferenceArray<Generation> ring;
+
+    RecentKeyFilter(long expectedKeys, double falsePositiveRate, int generations, Duration retention) {
+        this(expectedKeys, falsePositiveRate, generations, retention, System::currentTimeMillis);
+    }
+
+    RecentKeyFilter(long expectedKeys, double falsePositiveRate, int generations, Duration retention, LongSupplier clock) {
+        long keysPerGeneration = Math.max(1, expectedKeys / generations);
+        this.generations = generations;
+        this.windowMillis = Math.max(1, retention.toMillis() / generations);
+        this.bitsPerGeneration = Math.max(64, (long) Math.ceil(-keysPerGeneration * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitsPerGeneration / keysPerGeneration * Math.log(2)));
+        this.clock = clock;
+        this.ring = new AtomicReferenceArray<>(generations + 1);
+    }
+
+    void put(String key) {
+        put(key, clock.getAsLong());
+    }
+
+    /**
+     * Registra a chave na geração do instante informado; chaves mais antigas que a retenção são ignoradas.
+     */
+    void put(String key, long registeredAtMillis) {
+        long bucket = registeredAtMillis / windowMillis;
+        if (bucket < currentBucket() - generations) {
+            return;
+        }
+        Generation generation = generationFor(bucket);
+        if (generation != null) {
+            generation.put(hash(key));
+        }
+    }
+
+    boolean mightContain(String key) {
+        long oldestBucket = currentBucket() - generations;
+        long hash = hash(key);
+        for (int i = 0; i < ring.length(); i++) {
+            Generation generation = ring.get(i);
+            if (generation != null && generation.bucket >= oldestBucket && generation.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long currentBucket() {
+        return clock.getAsLong() / windowMillis;
+    }
+
+    private Generation generationFor(long bucket) {
+        int slot = (int) Math.floorMod(bucket, (long) ring.length());
+        while (true) {
+            Generation current = ring.get(slot);
+            if (current != null && current.bucket == bucket) {
+                return current;
+            }
+            // O slot já pertence a uma geração mais nova: a chave está fora da retenção
+            if (current != null && current.bucket > bucket) {
+                return null;
+            }
+            Generation replacement = new Generation(bucket);
+            if (ring.compareAndSet(slot, current, replacement)) {
+                return replacement;
+            }
+        }
+    }
+
+    // FNV-1a de 64 bits seguido do finalizador do MurmurHash3
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private final class Generation {
+
+        private final long bucket;
+        private final AtomicLongArray bits;
+
+        Generation(long bucket) {
+            this.bucket = bucket;
+            this.bits = new AtomicLongArray((int) ((bitsPerGeneration + 63) / 64));
+        }
+
+        // Double hashing (Kirsch-Mitzenmacher): h1 + i * h2
+        void put(long hash) {
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitsPerGeneration);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value;
+                while (((value = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, value, value | mask)) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        boolean mightContain(long hash) {
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitsPerGeneration);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
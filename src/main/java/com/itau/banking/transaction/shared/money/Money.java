@@ -0,0 +1,119 @@
+package com.itau.banking.transaction.shared.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário imutável em centavos ({@code long}), usado no lugar de {@link BigDecimal} nos totais do limite
+ * diário (Redis, daily_limit_control e validação). Saldos, a entidade Transaction e os DTOs seguem em BigDecimal.
+ *
+ * Segue a semântica das colunas DECIMAL(15,2): duas casas decimais, arredondamento HALF_UP na conversão de valores
+ * com mais casas (mesmo comportamento do PostgreSQL) e no máximo 13 dígitos inteiros. Operações que saem desse
+ * intervalo lançam {@link ArithmeticException}.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MAX_CENTS = 999_999_999_999_999L;
+
+    public Money {
+        if (cents > MAX_CENTS || cents < -MAX_CENTS) {
+            throw new ArithmeticException("Valor fora do intervalo DECIMAL(15,2): " + cents + " centavos");
+        }
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal value) {
+        return ofCents(value.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact());
+    }
+
+    /**
+     * Converte o texto de um decimal ("150", "150.5", "-0.05", "150.00") sem passar por {@link BigDecimal};
+     * formatos fora desse padrão (expoente, mais de duas casas) caem na conversão via {@link BigDecimal}.
+     */
+    public static Money parse(CharSequence text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index++;
+        }
+
+        long units = 0;
+        int integerDigits = 0;
+        while (index < length && Character.isDigit(text.charAt(index)) && integerDigits < 13) {
+            units = units * 10 + (text.charAt(index++) - '0');
+            integerDigits++;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (index < length && text.charAt(index) == '.') {
+            index++;
+            while (index < length && Character.isDigit(text.charAt(index)) && fractionDigits < SCALE) {
+                fraction = fraction * 10 + (text.charAt(index++) - '0');
+                fractionDigits++;
+            }
+        }
+
+        if (index != length || integerDigits + fractionDigits == 0) {
+            return of(new BigDecimal(text.toString()));
+        }
+
+        long cents = units * 100 + (fractionDigits == 1 ? fraction * 10 : fraction);
+        return ofCents(negative ? -cents : cents);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * Texto com duas casas ("150.00"), o mesmo formato de {@link BigDecimal#toPlainString()} para escala 2.
+     */
+    @Override
+    public String toString() {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        StringBuilder text = new StringBuilder(20);
+        if (cents < 0) {
+            text.append('-');
+        }
+        return text.append(abs / 100)
+                .append('.')
+                .append(fraction < 10 ? "0" : "")
+                .append(fraction)
+                .toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.itau.banking.transaction.shared.money;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Grava {@link Money} no Redis como texto decimal ("150.00"), o mesmo formato usado antes com BigDecimal, sem
+ * criar BigDecimal na leitura nem na escrita.
+ */
+public class MoneyRedisSerializer implements RedisSerializer<Money> {
+
+    @Override
+    public byte[] serialize(Money value) throws SerializationException {
+        return value == null ? null : value.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public Money deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return Money.parse(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (RuntimeException e) {
+            throw new SerializationException("Valor monetário inválido no Redis", e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return Money.class;
+    }
+}
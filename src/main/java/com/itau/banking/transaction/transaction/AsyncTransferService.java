@@ -0,0 +1,102 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.enums.TransactionType;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.AsyncTransferUnavailableException;
+import com.itau.banking.transaction.shared.exception.MinimumAmountException;
+import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import com.itau.banking.transaction.shared.exception.TransactionNotFoundException;
+import com.itau.banking.transaction.shared.idempotency.IdempotencyService;
+import com.itau.banking.transaction.transaction.dto.AsyncTransferResponse;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import com.itau.banking.transaction.transaction.dto.TransferStatusResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Aceite de transferências assíncronas: validação barata, gravação da transação como PENDING (a própria tabela
+ * transactions é a fila durável) e resposta imediata. A execução fica a cargo do {@link AsyncTransferWorker}.
+ *
+ * Sem worker nesta instância (banking.transfer.async.enabled=false ou modo LEDGER, em que ele gravaria por fora dos
+ * shards) o aceite é recusado com 503 em vez de deixar a transação PENDING para sempre.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncTransferService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final IdempotencyService idempotencyService;
+    private final BankingProperties bankingProperties;
+    private final ObjectProvider<AsyncTransferWorker> asyncTransferWorker;
+
+    public AsyncTransferResponse enqueue(TransferRequest request, String idempotencyKey) {
+        if (asyncTransferWorker.getIfAvailable() == null) {
+            throw new AsyncTransferUnavailableException();
+        }
+        validateRequest(request);
+
+        Transaction transaction = new Transaction();
+        transaction.setSourceAccount(accountRepository.getReferenceById(request.sourceAccountId()));
+        transaction.setDestinationAccount(accountRepository.getReferenceById(request.destinationAccountId()));
+        transaction.setAmount(request.amount());
+        transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setDescription(request.description());
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transactionRepository.save(transaction);
+
+        idempotencyService.registerIdempotencyKeyAfterCommit(idempotencyKey, transaction.getId());
+
+        log.info("[AsyncTransferService].[enqueue] - Transferência aceita para processamento assíncrono - Transaction: {}", transaction.getId());
+
+        return AsyncTransferResponse.builder()
+                .transactionId(transaction.getId())
+                .idempotencyKey(idempotencyKey)
+                .status(TransactionStatus.PENDING.name())
+                .statusUrl("/api/v1/transaction/" + transaction.getId() + "/status")
+                .message("Transfer accepted for processing")
+                .build();
+    }
+
+    public TransferStatusResponse getStatus(Long transactionId) {
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+
+        return TransferStatusResponse.builder()
+                .transactionId(transaction.getId())
+                .idempotencyKey(transaction.getIdempotencyKey())
+                .status(transaction.getStatus().name())
+                .amount(transaction.getAmount())
+                .transactionDate(transaction.getTransactionDate())
+                .failureReason(transaction.getFailureReason())
+                .build();
+    }
+
+    // Apenas regras sem estado e existência das contas; saldo, status e limite são validados pelo worker
+    private void validateRequest(TransferRequest request) {
+        if (request.sourceAccountId().equals(request.destinationAccountId())) {
+            throw new SelfTransferException();
+        }
+        BigDecimal minimumAmount = bankingProperties.getTransfer().getMinimumAmount();
+        if (request.amount().compareTo(minimumAmount) < 0) {
+            throw new MinimumAmountException("O valor da transferência deve ser maior ou igual R$" + minimumAmount);
+        }
+        if (!accountRepository.existsById(request.sourceAccountId())) {
+            throw new AccountNotFoundException(request.sourceAccountId());
+        }
+        if (!accountRepository.existsById(request.destinationAccountId())) {
+            throw new AccountNotFoundException(request.destinationAccountId());
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountService;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.limit.RollingLimitUsage;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.CustomerNotFoundException;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.exception.InactiveAccountException;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.exception.MinimumAmountException;
+import com.itau.banking.transaction.shared.exception.RollingLimitExceededException;
+import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import com.itau.banking.transaction.transaction.validator.ValidationContext;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Workers da fila de transferências assíncronas.
+ *
+ * Cada worker reivindica um lote de transações PENDING com FOR UPDATE SKIP LOCKED, trava as contas envolvidas em
+ * ordem crescente de id e executa as transferências em uma única transação. Os clientes são buscados antes de travar
+ * as contas, por uma consulta que não as carrega: saldo, status e versão validados são os lidos já com o lock, e os
+ * saldos mudam só pelos UPDATEs nativos do {@link TransferWriter}. Regras de negócio violadas marcam apenas o item como FAILED; qualquer outra falha desfaz o lote, que é
+ * reprocessado item a item. No item a item, falhas transitórias (conexão, timeout, deadlock, Redis) deixam a
+ * transferência PENDING para o próximo ciclo e só as demais a marcam como FAILED. Como cada tentativa valida de novo,
+ * a reserva do limite diário é confirmada ou devolvida junto com a transação do lote.
+ *
+ * O worker grava contas e limite diário direto no banco, por fora dos shards do modo LEDGER, que tratam esses valores
+ * em memória como autoritativos; por isso ele não é criado com banking.transfer.mode=LEDGER.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.transfer.async", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnExpression("'${banking.transfer.mode:STANDARD}' != 'LEDGER'")
+@Slf4j
+public class AsyncTransferWorker {
+
+    private static final int MAX_FAILURE_REASON_LENGTH = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final CustomerApiClient customerApiClient;
+    private final ValidationStrategyFactory validationStrategyFactory;
+    private final TransferWriter transferWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final List<Thread> workers;
+    private volatile boolean running = true;
+
+    public AsyncTransferWorker(TransactionRepository transactionRepository,
+                               AccountService accountService,
+                               CustomerApiClient customerApiClient,
+                               ValidationStrategyFactory validationStrategyFactory,
+                               TransferWriter transferWriter,
+                               TransactionTemplate transactionTemplate,
+                               BankingProperties bankingProperties) {
+        BankingProperties.Transfer.Async async = bankingProperties.getTransfer().getAsync();
+        this.transactionRepository = transactionRepository;
+        this.accountService = accountService;
+        this.customerApiClient = customerApiClient;
+        this.validationStrategyFactory = validationStrategyFactory;
+        this.transferWriter = transferWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = async.getBatchSize();
+        this.pollIntervalMs = async.getPollIntervalMs();
+        this.workers = IntStream.range(0, async.getWorkers())
+                .mapToObj(index -> new Thread(this::poll, "async-transfer-" + index))
+                .toList();
+    }
+
+    @PostConstruct
+    void start() {
+        workers.forEach(Thread::start);
+        log.info("[AsyncTransferWorker] - {} workers de transferência assíncrona iniciados - Lote: {}", workers.size(), batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                if (drainOnce() == 0) {
+                    TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("[AsyncTransferWorker].[poll] - Erro inesperado no worker: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Processa um lote da fila e retorna quantas transações foram reivindicadas.
+     */
+    int drainOnce() {
+        List<Long> claimedIds;
+        try {
+            claimedIds = transactionTemplate.execute(status -> process(transactionRepository.claimPending(batchSize)));
+        } catch (Exception e) {
+            log.warn("[AsyncTransferWorker].[drainOnce] - Falha no lote, reprocessando item a item: {}", e.getMessage());
+            List<Long> pendingIds = transactionTemplate.execute(status ->
+                    transactionRepository.claimPending(batchSize).stream().map(Transaction::getId).toList());
+            // Se nenhum item andou (ex.: banco fora), o worker aguarda o intervalo antes de tentar de novo
+            return (int) pendingIds.stream().filter(this::processSingle).count();
+        }
+        return claimedIds.size();
+    }
+
+    // Devolve false quando a transferência ficou PENDING por uma falha transitória
+    private boolean processSingle(Long transactionId) {
+        try {
+            transactionTemplate.execute(status -> process(transactionRepository.claimPendingById(transactionId).stream().toList()));
+            return true;
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                log.warn("[AsyncTransferWorker].[processSingle] - Falha transitória, transferência segue PENDING - Transaction: {} - Erro: {}",
+                        transactionId, e.getMessage());
+                return false;
+            }
+            log.error("[AsyncTransferWorker].[processSingle] - Falha ao processar transferência - Transaction: {} - Erro: {}",
+                    transactionId, e.getMessage());
+            transactionRepository.markFailed(transactionId, truncate(e.getMessage()));
+            return true;
+        }
+    }
+
+    // Infraestrutura indisponível ou disputa de lock: nada que indique que a transferência não possa ser feita
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Long> process(List<Transaction> claimed) {
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+
+        // Só os ids das contas: os proxies não são inicializados antes do lock
+        Set<Long> accountIds = new TreeSet<>();
+        Set<Long> sourceIds = new TreeSet<>();
+        claimed.forEach(transaction -> {
+            sourceIds.add(transaction.getSourceAccount().getId());
+            accountIds.add(transaction.getSourceAccount().getId());
+            accountIds.add(transaction.getDestinationAccount().getId());
+        });
+
+        // Antes dos locks das contas, para a API de cadastro não segurá-los; cliente inexistente rejeita só os itens dele
+        Map<Long, CustomerDto> customers = new HashMap<>();
+        Map<Long, CustomerNotFoundException> missingCustomers = new HashMap<>();
+        accountService.findCustomerIds(sourceIds).forEach(customerId -> {
+            try {
+                customers.put(customerId, customerApiClient.findCustomerById(customerId));
+            } catch (CustomerNotFoundException e) {
+                missingCustomers.put(customerId, e);
+            }
+        });
+
+        Map<Long, Account> accounts = new HashMap<>();
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        accountService.findAllForUpdate(accountIds).forEach(account -> {
+            accounts.put(account.getId(), account);
+            balances.put(account.getId(), account.getBalance());
+        });
+
+        for (Transaction transaction : claimed) {
+            Account source = accounts.get(transaction.getSourceAccount().getId());
+            Account destination = accounts.get(transaction.getDestinationAccount().getId());
+            BigDecimal amount = transaction.getAmount();
+
+            CustomerDto customer;
+            ValidationContext validated = null;
+            DailyLimitReservation reservation = null;
+            try {
+                validated = validationStrategyFactory.validateAll(source, destination, amount);
+                reservation = validated != null ? validated.getDailyLimitReservation() : null;
+                if (reservation != null) {
+                    reservation.settleWithTransaction();
+                }
+                RollingLimitUsage rollingLimitUsage = validated != null ? validated.getRollingLimitUsage() : null;
+                if (rollingLimitUsage != null) {
+                    rollingLimitUsage.settleWithTransaction();
+                }
+                // O saldo carregado não reflete os itens anteriores do mesmo lote
+                BigDecimal balance = balances.get(source.getId());
+                if (balance.compareTo(amount) < 0) {
+                    throw new InsufficientBalanceException(balance, amount);
+                }
+                customer = customers.get(source.getCustomerId());
+                if (customer == null) {
+                    throw missingCustomers.getOrDefault(source.getCustomerId(), new CustomerNotFoundException(source.getCustomerId()));
+                }
+            } catch (InactiveAccountException | SelfTransferException | MinimumAmountException | InsufficientBalanceException
+                     | DailyLimitExceededException | RollingLimitExceededException | AccountNotFoundException
+                     | CustomerNotFoundException e) {
+                if (validated != null) {
+                    validated.releaseLimits();
+                }
+                log.warn("[AsyncTransferWorker].[process] - Transferência rejeitada - Transaction: {} - Motivo: {}",
+                        transaction.getId(), e.getMessage());
+                transaction.setStatus(TransactionStatus.FAILED);
+                transaction.setFailureReason(truncate(e.getMessage()));
+                continue;
+            }
+
+            transferWriter.complete(transaction, customer, reservation);
+            balances.merge(source.getId(), amount.negate(), BigDecimal::add);
+            balances.merge(destination.getId(), amount, BigDecimal::add);
+        }
+
+        log.info("[AsyncTransferWorker].[process] - Lote de {} transferências assíncronas processado", claimed.size());
+        return claimed.stream().map(Transaction::getId).toList();
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_FAILURE_REASON_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_FAILURE_REASON_LENGTH);
+    }
+}
@@ -0,0 +1,447 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountReference;
+import com.itau.banking.transaction.account.AccountService;
+import com.itau.banking.transaction.integration.bacen.dto.BacenNotificationRequest;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.ledger.LedgerEngine;
+import com.itau.banking.transaction.ledger.LedgerReceipt;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.notification.BacenDispatcher;
+import com.itau.banking.transaction.notification.BacenNotificationService;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.enums.TransactionType;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.CustomerNotFoundException;
+import com.itau.banking.transaction.shared.exception.InvalidBatchException;
+import com.itau.banking.transaction.shared.idempotency.IdempotencyDatabaseStore;
+import com.itau.banking.transaction.shared.idempotency.IdempotencyService;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.dto.BatchTransferItem;
+import com.itau.banking.transaction.transaction.dto.BatchTransferRequest;
+import com.itau.banking.transaction.transaction.dto.BatchTransferResponse;
+import com.itau.banking.transaction.transaction.dto.BatchTransferResponse.ItemResult;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import com.itau.banking.transaction.transaction.validator.ValidationContext;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Processa um lote de transferências com as mesmas regras de {@link TransactionService#transfer}, mas agrupando o I/O:
+ * um MGET de idempotência, uma leitura (com lock) de todas as contas, um UPDATE por conta com a variação líquida,
+ * um INSERT multi-linha em transactions, um batch na Outbox e escritas em pipeline no Redis. As notificações do lote
+ * são despachadas ao BACEN após o commit pelo {@link BacenDispatcher}, como na transferência individual.
+ *
+ * Cada item passa pela mesma cadeia de validações ({@link ValidationStrategyFactory}), inclusive as reservas do limite
+ * diário e das janelas móveis, e é aceito ou rejeitado individualmente; os itens aceitos são gravados juntos em uma
+ * única transação, e as reservas deles são confirmadas após o commit ou devolvidas se ela falhar. Os clientes são
+ * buscados antes de travar as contas.
+ *
+ * O MGET no Redis é só o filtro rápido: o INSERT ignora chaves que já existem em transactions (Redis expirado, filtro
+ * local, transferência individual concorrente). Nesse caso a transação do lote é desfeita, esses itens viram DUPLICATE
+ * e os demais são validados e gravados de novo, sem a variação de saldo dos itens descartados.
+ *
+ * No modo LEDGER os shards são donos do saldo e do limite diário em memória: cada item passa pelo {@link LedgerEngine}
+ * (e pelo journal dele) em vez da escrita em lote, que atualizaria as contas por fora dos shards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchTransferService {
+
+    // Tamanho da coluna transactions.idempotency_key; uma chave maior derrubaria o INSERT do lote inteiro
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 36;
+
+    private final AccountService accountService;
+    private final CustomerApiClient customerApiClient;
+    private final DailyLimitService dailyLimitService;
+    private final ValidationStrategyFactory validationStrategyFactory;
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyDatabaseStore idempotencyDatabaseStore;
+    private final BacenNotificationService bacenNotificationService;
+    private final BacenDispatcher bacenDispatcher;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BankingProperties bankingProperties;
+    private final ObjectProvider<LedgerEngine> ledgerEngine;
+
+    public BatchTransferResponse transfer(BatchTransferRequest request) {
+        List<BatchTransferItem> items = validateBatch(request);
+        log.info("[BatchTransferService].[transfer] - Processando lote com {} transferências", items.size());
+
+        ItemResult[] results = new ItemResult[items.size()];
+        List<Integer> candidates = filterIdempotency(items, results);
+        LedgerEngine ledger = ledgerEngine.getIfAvailable();
+        if (ledger != null) {
+            transferViaLedger(ledger, items, candidates, results);
+            return buildResponse(items, results);
+        }
+
+        Map<Long, CustomerDto> customers = resolveCustomers(items, candidates, results);
+        candidates.removeIf(index -> results[index] != null);
+
+        while (!candidates.isEmpty()) {
+            // Limites reservados pelos itens aceitos, no mesmo desfecho da transação do lote
+            List<ValidationContext> limits = new ArrayList<>();
+            Map<String, Long> transactionIds;
+            try {
+                transactionIds = transactionTemplate.execute(status -> process(items, candidates, customers, results, limits));
+            } catch (ExistingKeysException e) {
+                limits.forEach(ValidationContext::releaseLimits);
+                markExisting(items, candidates, results, e.keys);
+                continue;
+            } catch (RuntimeException e) {
+                limits.forEach(ValidationContext::releaseLimits);
+                throw e;
+            }
+            limits.forEach(ValidationContext::commitLimits);
+            registerIdempotencyKeys(transactionIds);
+            break;
+        }
+
+        return buildResponse(items, results);
+    }
+
+    private BatchTransferResponse buildResponse(List<BatchTransferItem> items, ItemResult[] results) {
+        List<ItemResult> resultList = Arrays.asList(results);
+        int succeeded = (int) resultList.stream().filter(result -> "SUCCESS".equals(result.status())).count();
+
+        log.info("[BatchTransferService].[transfer] - Lote processado - Total: {} - Sucesso: {} - Falha: {}",
+                items.size(), succeeded, items.size() - succeeded);
+
+        return BatchTransferResponse.builder()
+                .total(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .results(resultList)
+                .build();
+    }
+
+    // Item a item pelos shards, com as validações e o limite diário do próprio motor
+    private void transferViaLedger(LedgerEngine ledger, List<BatchTransferItem> items, List<Integer> candidates, ItemResult[] results) {
+        Map<String, Long> transactionIds = new HashMap<>();
+        for (int index : candidates) {
+            BatchTransferItem item = items.get(index);
+            try {
+                if (item.sourceAccountId() == null || item.destinationAccountId() == null || item.amount() == null) {
+                    throw new InvalidBatchException("Conta de origem, conta de destino e valor são obrigatórios");
+                }
+                LedgerReceipt receipt = ledger.transfer(new TransferRequest(
+                        item.sourceAccountId(), item.destinationAccountId(), item.amount(), item.description()), item.idempotencyKey());
+                Long transactionId = receipt.transaction().getId();
+                transactionIds.put(item.idempotencyKey(), transactionId);
+                results[index] = ItemResult.success(index, item.idempotencyKey(), transactionId);
+            } catch (RuntimeException e) {
+                log.warn("[BatchTransferService].[transferViaLedger] - Transferência rejeitada - Índice: {} - Motivo: {}", index, e.getMessage());
+                results[index] = ItemResult.rejected(index, item.idempotencyKey(), e.getMessage());
+            }
+        }
+        registerIdempotencyKeys(transactionIds);
+    }
+
+    private List<BatchTransferItem> validateBatch(BatchTransferRequest request) {
+        if (request == null || request.transfers() == null || request.transfers().isEmpty()) {
+            throw new InvalidBatchException("O lote deve conter ao menos uma transferência");
+        }
+        int maxItems = Math.min(bankingProperties.getTransfer().getBatchMaxItems(), TransactionBatchRepository.MAX_ROWS);
+        if (request.transfers().size() > maxItems) {
+            throw new InvalidBatchException("O lote excede o limite de " + maxItems + " transferências");
+        }
+        return request.transfers();
+    }
+
+    // Rejeita chaves ausentes, repetidas dentro do lote ou já processadas (um único MGET no Redis)
+    private List<Integer> filterIdempotency(List<BatchTransferItem> items, ItemResult[] results) {
+        List<String> keys = items.stream()
+                .map(BatchTransferItem::idempotencyKey)
+                .filter(key -> key != null && !key.isBlank())
+                .distinct()
+                .toList();
+        Map<String, Long> processed = idempotencyService.findProcessedKeys(keys);
+
+        Set<String> seen = new HashSet<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            String key = items.get(i).idempotencyKey();
+            if (key == null || key.isBlank()) {
+                results[i] = ItemResult.rejected(i, key, "Idempotency key is required");
+            } else if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                results[i] = ItemResult.rejected(i, key, "Idempotency key must have at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            } else if (processed.containsKey(key)) {
+                results[i] = ItemResult.duplicate(i, key, processed.get(key));
+            } else if (!seen.add(key)) {
+                results[i] = ItemResult.duplicate(i, key, null);
+            } else {
+                candidates.add(i);
+            }
+        }
+        return candidates;
+    }
+
+    // Itens cujas chaves o INSERT encontrou em transactions; os demais candidatos voltam a ser validados
+    private void markExisting(List<BatchTransferItem> items, List<Integer> candidates, ItemResult[] results, Set<String> keys) {
+        Map<String, Long> existing = idempotencyDatabaseStore.findTransactionIds(List.copyOf(keys));
+        log.warn("[BatchTransferService].[markExisting] - Chaves já gravadas em transactions, refazendo o lote sem elas: {}", keys);
+        candidates.removeIf(index -> {
+            String key = items.get(index).idempotencyKey();
+            if (keys.contains(key)) {
+                results[index] = ItemResult.duplicate(index, key, existing.get(key));
+                return true;
+            }
+            results[index] = null;
+            return false;
+        });
+    }
+
+    // Fora da transação, para a API de cadastro não segurar os locks das contas; sem o cliente, os itens da conta são rejeitados
+    private Map<Long, CustomerDto> resolveCustomers(List<BatchTransferItem> items, List<Integer> candidates, ItemResult[] results) {
+        Set<Long> sourceIds = new TreeSet<>();
+        for (int index : candidates) {
+            if (items.get(index).sourceAccountId() != null) {
+                sourceIds.add(items.get(index).sourceAccountId());
+            }
+        }
+        Map<Long, Long> customerIds = accountService.findAllForTransfer(sourceIds).stream()
+                .collect(Collectors.toMap(Account::getId, Account::getCustomerId));
+
+        Map<Long, CustomerDto> customers = new HashMap<>();
+        Map<Long, String> failures = new HashMap<>();
+        for (Long customerId : new HashSet<>(customerIds.values())) {
+            try {
+                customers.put(customerId, customerApiClient.findCustomerById(customerId));
+            } catch (RuntimeException e) {
+                failures.put(customerId, e.getMessage());
+            }
+        }
+
+        for (int index : candidates) {
+            BatchTransferItem item = items.get(index);
+            String failure = failures.get(customerIds.get(item.sourceAccountId()));
+            if (failure != null) {
+                log.warn("[BatchTransferService].[resolveCustomers] - Transferência rejeitada - Índice: {} - Motivo: {}", index, failure);
+                results[index] = ItemResult.rejected(index, item.idempotencyKey(), failure);
+            }
+        }
+        return customers;
+    }
+
+    private Map<String, Long> process(List<BatchTransferItem> items, List<Integer> candidates, Map<Long, CustomerDto> customers,
+                                      ItemResult[] results, List<ValidationContext> limits) {
+        Set<Long> accountIds = new TreeSet<>();
+        Set<Long> sourceIds = new TreeSet<>();
+        for (int index : candidates) {
+            BatchTransferItem item = items.get(index);
+            if (item.sourceAccountId() != null) {
+                accountIds.add(item.sourceAccountId());
+                sourceIds.add(item.sourceAccountId());
+            }
+            if (item.destinationAccountId() != null) {
+                accountIds.add(item.destinationAccountId());
+            }
+        }
+
+        Map<Long, Account> accounts = accountService.findAllForUpdate(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        Map<Long, BigDecimal> balances = accounts.values().stream()
+                .collect(Collectors.toMap(Account::getId, Account::getBalance));
+        // Com reserva, cada item reserva o limite no Redis, onde as reservas anteriores do lote já contam; sem ela, um
+        // único MGET dos totais, somados aos itens aceitos
+        Map<Long, Money> dailyTotals = dailyLimitService.isReservationEnabled()
+                ? null
+                : new HashMap<>(dailyLimitService.getCurrentDailyTotals(sourceIds.stream().filter(accounts::containsKey).toList()));
+
+        List<Integer> accepted = new ArrayList<>();
+        for (int index : candidates) {
+            BatchTransferItem item = items.get(index);
+            try {
+                limits.add(validateItem(item, accounts, customers, balances, dailyTotals));
+
+                balances.merge(item.sourceAccountId(), item.amount().negate(), BigDecimal::add);
+                balances.merge(item.destinationAccountId(), item.amount(), BigDecimal::add);
+                if (dailyTotals != null) {
+                    dailyTotals.merge(item.sourceAccountId(), Money.of(item.amount()), Money::plus);
+                }
+                accepted.add(index);
+            } catch (RuntimeException e) {
+                log.warn("[BatchTransferService].[process] - Transferência rejeitada - Índice: {} - Motivo: {}", index, e.getMessage());
+                results[index] = ItemResult.rejected(index, item.idempotencyKey(), e.getMessage());
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return Map.of();
+        }
+
+        return persist(items, accepted, accounts, customers, limits, results);
+    }
+
+    // A mesma cadeia da transferência individual; o saldo e o total diário já somam os itens aceitos antes no lote
+    private ValidationContext validateItem(BatchTransferItem item, Map<Long, Account> accounts, Map<Long, CustomerDto> customers,
+                                           Map<Long, BigDecimal> balances, Map<Long, Money> dailyTotals) {
+        if (item.sourceAccountId() == null || item.destinationAccountId() == null || item.amount() == null) {
+            throw new InvalidBatchException("Conta de origem, conta de destino e valor são obrigatórios");
+        }
+
+        Account source = accounts.get(item.sourceAccountId());
+        if (source == null) {
+            throw new AccountNotFoundException(item.sourceAccountId());
+        }
+        Account destination = accounts.get(item.destinationAccountId());
+        if (destination == null) {
+            throw new AccountNotFoundException(item.destinationAccountId());
+        }
+        if (!customers.containsKey(source.getCustomerId())) {
+            throw new CustomerNotFoundException(source.getCustomerId());
+        }
+
+        validationStrategyFactory.validateRequest(source.getId(), destination.getId(), item.amount());
+
+        // Cópia desanexada com o saldo corrente do lote: a entidade travada não pode mudar antes do UPDATE líquido
+        ValidationContext context = new ValidationContext(
+                AccountReference.of(source).toAccount(balances.get(source.getId())), destination, item.amount());
+        if (dailyTotals != null) {
+            context.setDailyTotal(dailyTotals.getOrDefault(source.getId(), Money.ZERO));
+        }
+        return validationStrategyFactory.validateStateful(context);
+    }
+
+    private Map<String, Long> persist(List<BatchTransferItem> items, List<Integer> accepted, Map<Long, Account> accounts,
+                                      Map<Long, CustomerDto> customers, List<ValidationContext> limits, ItemResult[] results) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Primeiro o INSERT: uma chave já existente desfaz o lote antes de qualquer saldo ser alterado
+        List<TransactionBatchRepository.NewTransaction> newTransactions = new ArrayList<>(accepted.size());
+        for (int index : accepted) {
+            BatchTransferItem item = items.get(index);
+            newTransactions.add(new TransactionBatchRepository.NewTransaction(
+                    item.idempotencyKey(), item.sourceAccountId(), item.destinationAccountId(), item.amount(), item.description()));
+        }
+        Map<String, Long> transactionIds = transactionBatchRepository.insertCompleted(newTransactions, now);
+        if (transactionIds.size() < newTransactions.size()) {
+            Set<String> existing = newTransactions.stream()
+                    .map(TransactionBatchRepository.NewTransaction::idempotencyKey)
+                    .filter(key -> !transactionIds.containsKey(key))
+                    .collect(Collectors.toSet());
+            throw new ExistingKeysException(existing);
+        }
+
+        // Variação líquida por conta, aplicada em ordem crescente de id
+        Map<Long, BigDecimal> netChanges = new TreeMap<>();
+        Map<Long, Money> transferredAmounts = new HashMap<>();
+        Map<Long, Integer> transferCounts = new HashMap<>();
+        List<DailyLimitReservation> reservations = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            BatchTransferItem item = items.get(accepted.get(i));
+            netChanges.merge(item.sourceAccountId(), item.amount().negate(), BigDecimal::add);
+            netChanges.merge(item.destinationAccountId(), item.amount(), BigDecimal::add);
+            // Itens com reserva gravam nela o total do banco, levado ao Redis pelo commit da reserva
+            DailyLimitReservation reservation = limits.get(i).getDailyLimitReservation();
+            if (reservation != null) {
+                reservations.add(reservation);
+            } else {
+                transferredAmounts.merge(item.sourceAccountId(), Money.of(item.amount()), Money::plus);
+                transferCounts.merge(item.sourceAccountId(), 1, Integer::sum);
+            }
+        }
+
+        netChanges.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                accountService.applyNetChange(accountId, delta);
+            }
+        });
+
+        List<BacenNotificationRequest> notifications = new ArrayList<>(accepted.size());
+        Map<Transaction, CustomerDto> dispatches = new LinkedHashMap<>();
+        for (int index : accepted) {
+            BatchTransferItem item = items.get(index);
+            Account source = accounts.get(item.sourceAccountId());
+            CustomerDto customer = customers.get(source.getCustomerId());
+            Long transactionId = transactionIds.get(item.idempotencyKey());
+
+            notifications.add(BacenNotificationRequest.builder()
+                    .transactionId(transactionId)
+                    .idempotencyKey(item.idempotencyKey())
+                    .sourceAccountNumber(source.getAccountNumber())
+                    .destinationAccountNumber(accounts.get(item.destinationAccountId()).getAccountNumber())
+                    .amount(item.amount())
+                    .customerName(customer.getName())
+                    .customerCpf(customer.getCpf())
+                    .transactionDate(now)
+                    .transactionType(TransactionType.TRANSFER)
+                    .build());
+            dispatches.put(toTransaction(item, transactionId, source, accounts.get(item.destinationAccountId()), now), customer);
+            results[index] = ItemResult.success(index, item.idempotencyKey(), transactionId);
+        }
+        bacenNotificationService.saveOutboxBatch(notifications);
+        bacenDispatcher.dispatchAllAfterCommit(dispatches);
+
+        if (!reservations.isEmpty()) {
+            dailyLimitService.recordReservedTransfers(reservations);
+        }
+        if (!transferredAmounts.isEmpty()) {
+            dailyLimitService.updateAfterTransfers(transferredAmounts, transferCounts);
+        }
+
+        return transactionIds;
+    }
+
+    // Só para o envio ao BACEN: a linha já foi gravada pelo INSERT multi-linha
+    private static Transaction toTransaction(BatchTransferItem item, Long transactionId, Account source, Account destination,
+                                             LocalDateTime now) {
+        Transaction transaction = new Transaction();
+        transaction.setId(transactionId);
+        transaction.setSourceAccount(source);
+        transaction.setDestinationAccount(destination);
+        transaction.setAmount(item.amount());
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setDescription(item.description());
+        transaction.setIdempotencyKey(item.idempotencyKey());
+        transaction.setTransactionDate(now);
+        transaction.setCreatedAt(now);
+        return transaction;
+    }
+
+    // Registrado após o commit; se o Redis falhar o índice único de idempotency_key continua barrando reprocessamento
+    private void registerIdempotencyKeys(Map<String, Long> transactionIds) {
+        try {
+            idempotencyService.registerIdempotencyKeys(transactionIds);
+        } catch (Exception e) {
+            log.warn("[BatchTransferService].[registerIdempotencyKeys] - Falha ao registrar chaves de idempotência no Redis: {}", e.getMessage());
+        }
+    }
+
+    // Desfaz a transação do lote com as chaves que o INSERT encontrou já gravadas
+    private static final class ExistingKeysException extends RuntimeException {
+
+        private final Set<String> keys;
+
+        private ExistingKeysException(Set<String> keys) {
+            super("Chaves de idempotência já gravadas: " + keys);
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountService;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.exception.TransferOutcomeUnknownException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+/**
+ * Group commit (banking.transfer.mode=GROUP_COMMIT): agrupa as chamadas concorrentes de escrita recebidas dentro de
+ * uma janela curta, ou até o tamanho máximo do lote, e as grava em uma única transação do PostgreSQL, pagando um
+ * único commit por lote. Cada chamador só é liberado após o commit do lote em que entrou.
+ *
+ * As contas do lote são travadas de uma vez em ordem crescente de id e o saldo é conferido item a item, de modo que
+ * um saldo insuficiente rejeita apenas aquela transferência. Qualquer outra falha desfaz o lote, que é então
+ * regravado item a item em transações individuais.
+ *
+ * A espera pelo commit é limitada a write-timeout-ms. Depois do stop, novas escritas são recusadas e as que ficaram
+ * na fila falham em vez de aguardar para sempre.
+ *
+ * A reserva do limite diário de cada transferência é confirmada ou devolvida aqui, conforme o desfecho final da
+ * gravação, e não pelo chamador: quem desiste da espera com a transferência já em um lote recebe
+ * {@link TransferOutcomeUnknownException} e a reserva segue o commit desse lote.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.transfer", name = "mode", havingValue = "GROUP_COMMIT")
+@Slf4j
+public class GroupCommitWriter {
+
+    private final AccountService accountService;
+    private final TransferWriter transferWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter fallbackCounter;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long writeTimeoutMs;
+    private final BlockingQueue<PendingTransfer> queue;
+    private final List<Thread> flushers;
+    private volatile boolean running = true;
+
+    public GroupCommitWriter(AccountService accountService,
+                             TransferWriter transferWriter,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             BankingProperties bankingProperties) {
+        BankingProperties.Transfer.GroupCommit groupCommit = bankingProperties.getTransfer().getGroupCommit();
+        this.accountService = accountService;
+        this.transferWriter = transferWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(groupCommit.getWindowMs());
+        this.maxBatchSize = groupCommit.getMaxBatchSize();
+        this.writeTimeoutMs = groupCommit.getWriteTimeoutMs();
+        this.queue = new ArrayBlockingQueue<>(groupCommit.getQueueCapacity());
+        this.batchSizeSummary = DistributionSummary.builder("banking.transfer.group.commit.batch.size")
+                .description("Quantidade de transferências gravadas por commit")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("banking.transfer.group.commit.fallback")
+                .description("Lotes desfeitos e regravados item a item")
+                .register(meterRegistry);
+        this.flushers = IntStream.range(0, groupCommit.getFlushers())
+                .mapToObj(index -> new Thread(this::drain, "group-commit-" + index))
+                .toList();
+    }
+
+    @PostConstruct
+    void start() {
+        flushers.forEach(Thread::start);
+        log.info("[GroupCommitWriter] - Group commit iniciado - Janela: {}ms - Lote máximo: {} - Flushers: {}",
+                TimeUnit.NANOSECONDS.toMillis(windowNanos), maxBatchSize, flushers.size());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread flusher : flushers) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Sobras de flushers que não terminaram a tempo ou de escritas que chegaram junto com o stop
+        List<PendingTransfer> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            log.warn("[GroupCommitWriter].[stop] - {} transferências na fila não gravadas no desligamento", leftover.size());
+            leftover.forEach(pending -> fail(pending, stopped()));
+        }
+    }
+
+    /**
+     * Enfileira a transferência e bloqueia até o commit do lote em que ela foi incluída.
+     */
+    public Transaction write(CustomerDto customer, Account sourceAccount, Account destinationAccount, BigDecimal amount, String description, String idempotencyKey) {
+        return write(customer, sourceAccount, destinationAccount, amount, description, idempotencyKey, null);
+    }
+
+    public Transaction write(CustomerDto customer, Account sourceAccount, Account destinationAccount, BigDecimal amount, String description,
+                             String idempotencyKey, DailyLimitReservation reservation) {
+        if (!running) {
+            throw stopped();
+        }
+        PendingTransfer pending = new PendingTransfer(customer, sourceAccount, destinationAccount, amount, description, idempotencyKey, reservation, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            log.error("[GroupCommitWriter].[write] - Fila do group commit cheia, transferência rejeitada - Idempotency Key: {}", idempotencyKey);
+            throw new IllegalStateException("Fila do group commit cheia");
+        }
+        // O stop pode ter começado entre a conferência e o offer: se ainda está na fila, ninguém mais vai gravá-la
+        if (!running && queue.remove(pending)) {
+            throw stopped();
+        }
+
+        try {
+            return pending.result().get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Ainda na fila, sai dela e não é gravada; já em um lote, o desfecho fica com o commit dele
+            boolean dequeued = queue.remove(pending);
+            log.error("[GroupCommitWriter].[write] - Sem commit em {}ms - Idempotency Key: {} - Retirada da fila: {}",
+                    writeTimeoutMs, idempotencyKey, dequeued);
+            if (!dequeued) {
+                throw new TransferOutcomeUnknownException(idempotencyKey, writeTimeoutMs);
+            }
+            throw new IllegalStateException("Group commit sem resposta em " + writeTimeoutMs + "ms, transferência não gravada");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new IllegalStateException("Escrita no group commit interrompida", e);
+        }
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("Group commit parado, transferência não gravada");
+    }
+
+    private void drain() {
+        List<PendingTransfer> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTransfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collectWindow(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> fail(pending, e));
+                return;
+            } catch (Exception e) {
+                log.error("[GroupCommitWriter].[drain] - Erro inesperado no group commit: {}", e.getMessage(), e);
+                batch.forEach(pending -> fail(pending, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // A janela conta a partir da primeira transferência do lote
+    private void collectWindow(List<PendingTransfer> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingTransfer> batch) {
+        batchSizeSummary.record(batch.size());
+        try {
+            // Um lote desfeito ainda é regravado item a item, então as reservas só são decididas após o commit dele
+            List<Outcome> outcomes = transactionTemplate.execute(status -> writeBatch(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                outcomes.get(i).completeTo(batch.get(i));
+            }
+            log.debug("[GroupCommitWriter].[flush] - Lote de {} transferências gravado em um commit", batch.size());
+        } catch (Exception e) {
+            log.warn("[GroupCommitWriter].[flush] - Falha no lote de {} transferências, gravando individualmente: {}",
+                    batch.size(), e.getMessage());
+            fallbackCounter.increment();
+            batch.forEach(this::flushSingle);
+        }
+    }
+
+    private List<Outcome> writeBatch(List<PendingTransfer> batch) {
+        Set<Long> accountIds = new TreeSet<>();
+        batch.forEach(pending -> {
+            accountIds.add(pending.sourceAccount().getId());
+            accountIds.add(pending.destinationAccount().getId());
+        });
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        accountService.findAllForUpdate(accountIds).forEach(account -> balances.put(account.getId(), account.getBalance()));
+
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        for (PendingTransfer pending : batch) {
+            Long sourceId = pending.sourceAccount().getId();
+            BigDecimal balance = balances.get(sourceId);
+            if (balance == null || balance.compareTo(pending.amount()) < 0) {
+                log.error("[GroupCommitWriter].[writeBatch] - Saldo insuficiente no lote - Conta: {} - Valor: {}", sourceId, pending.amount());
+                outcomes.add(Outcome.rejected(new InsufficientBalanceException("Saldo insuficiente na conta de origem: " + sourceId)));
+                continue;
+            }
+
+            outcomes.add(Outcome.written(write(pending)));
+            balances.merge(sourceId, pending.amount().negate(), BigDecimal::add);
+            balances.merge(pending.destinationAccount().getId(), pending.amount(), BigDecimal::add);
+        }
+        return outcomes;
+    }
+
+    // Última tentativa: a reserva acompanha o desfecho desta transação
+    private void flushSingle(PendingTransfer pending) {
+        try {
+            pending.result().complete(transactionTemplate.execute(status -> {
+                if (pending.reservation() != null) {
+                    pending.reservation().settleWithTransaction();
+                }
+                return write(pending);
+            }));
+        } catch (Exception e) {
+            log.error("[GroupCommitWriter].[flushSingle] - Falha ao gravar transferência - Idempotency Key: {} - Erro: {}",
+                    pending.idempotencyKey(), e.getMessage());
+            fail(pending, e);
+        }
+    }
+
+    private static void fail(PendingTransfer pending, Throwable error) {
+        if (pending.reservation() != null) {
+            pending.reservation().release();
+        }
+        pending.result().completeExceptionally(error);
+    }
+
+    private Transaction write(PendingTransfer pending) {
+        return transferWriter.write(pending.customer(), pending.sourceAccount(), pending.destinationAccount(),
+                pending.amount(), pending.description(), pending.idempotencyKey(), pending.reservation());
+    }
+
+    private record PendingTransfer(
+            CustomerDto customer,
+            Account sourceAccount,
+            Account destinationAccount,
+            BigDecimal amount,
+            String description,
+            String idempotencyKey,
+            DailyLimitReservation reservation,
+            CompletableFuture<Transaction> result
+    ) { }
+
+    private record Outcome(Transaction transaction, RuntimeException error) {
+
+        static Outcome written(Transaction transaction) {
+            return new Outcome(transaction, null);
+        }
+
+        static Outcome rejected(RuntimeException error) {
+            return new Outcome(null, error);
+        }
+
+        void completeTo(PendingTransfer pending) {
+            if (error != null) {
+                fail(pending, error);
+                return;
+            }
+            if (pending.reservation() != null) {
+                pending.reservation().commit();
+            }
+            pending.result().complete(transaction);
+        }
+    }
+}
@@ -28,7 +28,8 @@ import java.time.LocalDateTime;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_seq")
+    @SequenceGenerator(name = "transactions_id_seq", sequenceName = "transactions_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 36)
@@ -56,6 +57,9 @@ public class Transaction {
     @Column(length = 500)
     private String description;
 
+    @Column(length = 500)
+    private String failureReason;
+
     @Column(nullable = false)
     private LocalDateTime transactionDate;
 
@@ -0,0 +1,80 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.enums.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserção de transações em lote com um único INSERT multi-linha, sem passar pelo contexto de persistência do JPA.
+ * O PostgreSQL aceita até 32767 parâmetros por comando, o que limita o lote a {@link #MAX_ROWS} linhas.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO transactions " +
+            "(idempotency_key, source_account_id, destination_account_id, amount, type, status, description, transaction_date, created_at) VALUES ";
+    private static final String VALUES_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String RETURNING = " ON CONFLICT (idempotency_key) DO NOTHING RETURNING id, idempotency_key";
+    private static final int COLUMNS = 9;
+
+    public static final int MAX_ROWS = Short.MAX_VALUE / COLUMNS;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere as transações como COMPLETED e retorna os ids gerados indexados pela chave de idempotência. Chaves que já
+     * existem em transactions não são inseridas e ficam fora do retorno.
+     */
+    public Map<String, Long> insertCompleted(List<NewTransaction> transactions, LocalDateTime transactionDate) {
+        if (transactions.isEmpty()) {
+            return Map.of();
+        }
+        if (transactions.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("O INSERT em lote aceita no máximo " + MAX_ROWS + " transações");
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(transactions.size() * COLUMNS);
+        Timestamp timestamp = Timestamp.valueOf(transactionDate);
+
+        for (int i = 0; i < transactions.size(); i++) {
+            NewTransaction transaction = transactions.get(i);
+            sql.append(i == 0 ? "" : ", ").append(VALUES_ROW);
+            args.add(transaction.idempotencyKey());
+            args.add(transaction.sourceAccountId());
+            args.add(transaction.destinationAccountId());
+            args.add(transaction.amount());
+            args.add(TransactionType.TRANSFER.name());
+            args.add(TransactionStatus.COMPLETED.name());
+            args.add(transaction.description());
+            args.add(timestamp);
+            args.add(timestamp);
+        }
+        sql.append(RETURNING);
+
+        Map<String, Long> ids = new HashMap<>(transactions.size());
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs ->
+                ids.put(rs.getString("idempotency_key"), rs.getLong("id")), args.toArray());
+        return ids;
+    }
+
+    public record NewTransaction(
+            String idempotencyKey,
+            Long sourceAccountId,
+            Long destinationAccountId,
+            BigDecimal amount,
+            String description
+    ) { }
+}
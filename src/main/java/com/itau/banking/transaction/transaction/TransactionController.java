@@ -1,14 +1,23 @@
 package com.itau.banking.transaction.transaction;
 
 import com.itau.banking.transaction.shared.exception.DuplicateTransactionException;
+import com.itau.banking.transaction.shared.exception.TransferOutcomeUnknownException;
+import com.itau.banking.transaction.shared.idempotency.IdempotencyLookup;
 import com.itau.banking.transaction.shared.idempotency.IdempotencyService;
+import com.itau.banking.transaction.transaction.dto.AsyncTransferResponse;
+import com.itau.banking.transaction.transaction.dto.BatchTransferRequest;
+import com.itau.banking.transaction.transaction.dto.BatchTransferResponse;
 import com.itau.banking.transaction.transaction.dto.TransferRequest;
 import com.itau.banking.transaction.transaction.dto.TransferResponse;
+import com.itau.banking.transaction.transaction.dto.TransferStatusResponse;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/transaction")
@@ -17,18 +26,79 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final IdempotencyService idempotencyService;
+    private final BatchTransferService batchTransferService;
+    private final AsyncTransferService asyncTransferService;
+    private final ValidationStrategyFactory validationStrategyFactory;
 
     @PostMapping("/transfer")
     public ResponseEntity<TransferResponse> transfer(
             @RequestHeader(value = "Idempotency-Key") String idempotencyKey,
             @RequestBody TransferRequest request
     ) {
-        if (idempotencyKey != null && !idempotencyService.isValidIdempotencyKey(idempotencyKey)) {
-            Long existingTransactionId = idempotencyService.getTransactionByIdempotencyKey(idempotencyKey);
-            throw new DuplicateTransactionException("Transaction already processed with idempotency key: " + idempotencyKey + ". Transaction ID: " + existingTransactionId);
+        validateRequest(request);
+        IdempotencyLookup<TransferResponse> reservation = idempotencyService.reserve(idempotencyKey, TransferResponse.class);
+        if (reservation.hasResponse()) {
+            return ResponseEntity.ok(reservation.response());
+        }
+        rejectDuplicate(idempotencyKey, reservation);
+
+        TransferResponse response;
+        try {
+            response = transactionService.transfer(request, idempotencyKey);
+        } catch (TransferOutcomeUnknownException e) {
+            // A transferência pode ainda ser gravada: a chave fica reservada para que a repetição não a execute de novo
+            throw e;
+        } catch (RuntimeException e) {
+            idempotencyService.release(idempotencyKey, reservation.reservationToken());
+            throw idempotencyService.translateConflict(idempotencyKey, e);
         }
-        
-        TransferResponse response = transactionService.transfer(request, idempotencyKey);
+        idempotencyService.registerResponse(idempotencyKey, response.transactionId(), response);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@RequestBody BatchTransferRequest request) {
+        BatchTransferResponse response = batchTransferService.transfer(request);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/transfer/async")
+    public ResponseEntity<AsyncTransferResponse> transferAsync(
+            @RequestHeader(value = "Idempotency-Key") String idempotencyKey,
+            @RequestBody TransferRequest request
+    ) {
+        validateRequest(request);
+        IdempotencyLookup<TransferResponse> reservation = idempotencyService.reserve(idempotencyKey, TransferResponse.class);
+        rejectDuplicate(idempotencyKey, reservation);
+
+        // A reserva é promovida com o id da transação PENDING pelo próprio enqueue
+        AsyncTransferResponse response;
+        try {
+            response = asyncTransferService.enqueue(request, idempotencyKey);
+        } catch (RuntimeException e) {
+            idempotencyService.release(idempotencyKey, reservation.reservationToken());
+            throw idempotencyService.translateConflict(idempotencyKey, e);
+        }
+        return ResponseEntity.accepted().location(URI.create(response.statusUrl())).body(response);
+    }
+
+    @GetMapping("/{transactionId}/status")
+    public ResponseEntity<TransferStatusResponse> getTransferStatus(@PathVariable Long transactionId) {
+        return ResponseEntity.ok(asyncTransferService.getStatus(transactionId));
+    }
+
+    // Rejeita requisições trivialmente inválidas antes de qualquer acesso a banco ou Redis
+    private void validateRequest(TransferRequest request) {
+        validationStrategyFactory.validateRequest(request.sourceAccountId(), request.destinationAccountId(), request.amount());
+    }
+
+    // Chaves de lote e assíncronas guardam só o id da transação: sem resposta para repetir, a repetição é rejeitada
+    private void rejectDuplicate(String idempotencyKey, IdempotencyLookup<TransferResponse> previous) {
+        if (previous.state() == IdempotencyLookup.State.IN_FLIGHT) {
+            throw new DuplicateTransactionException("Transaction with idempotency key: " + idempotencyKey + " is already being processed");
+        }
+        if (previous.exists()) {
+            throw new DuplicateTransactionException("Transaction already processed with idempotency key: " + idempotencyKey + ". Transaction ID: " + previous.transactionId());
+        }
+    }
 }
@@ -1,12 +1,15 @@
 package com.itau.banking.transaction.transaction;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -25,4 +28,18 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     );
 
     Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Reivindica um lote da fila de transferências assíncronas. Linhas já travadas por outro worker são puladas.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE status = 'PENDING' ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Transaction> claimPending(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM transactions WHERE id = :id AND status = 'PENDING' FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Transaction> claimPendingById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE transactions SET status = 'FAILED', failure_reason = :reason WHERE id = :id AND status = 'PENDING'", nativeQuery = true)
+    int markFailed(@Param("id") Long id, @Param("reason") String reason);
 }
@@ -5,21 +5,22 @@ import com.itau.banking.transaction.account.Account;
 import com.itau.banking.transaction.account.AccountService;
 import com.itau.banking.transaction.integration.customer.CustomerApiClient;
 import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
-import com.itau.banking.transaction.limit.DailyLimitService;
-import com.itau.banking.transaction.notification.BacenNotificationService;
-import com.itau.banking.transaction.shared.enums.TransactionStatus;
-import com.itau.banking.transaction.shared.enums.TransactionType;
-import com.itau.banking.transaction.shared.idempotency.IdempotencyService;
+import com.itau.banking.transaction.ledger.LedgerEngine;
+import com.itau.banking.transaction.ledger.LedgerReceipt;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.TransferMode;
+import com.itau.banking.transaction.shared.exception.TransferOutcomeUnknownException;
 import com.itau.banking.transaction.transaction.dto.TransferRequest;
 import com.itau.banking.transaction.transaction.dto.TransferResponse;
-import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
@@ -27,30 +28,74 @@ import java.time.LocalDateTime;
 public class TransactionService {
 
     private final AccountService accountService;
-    private final DailyLimitService dailyLimitService;
-    private final TransactionRepository transactionRepository;
-    private final BacenNotificationService bacenNotificationService;
     private final CustomerApiClient customerApiClient;
-    private final ValidationStrategyFactory validationStrategyFactory;
-    private final IdempotencyService idempotencyService;
+    private final TransferContextLoader transferContextLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferWriter transferWriter;
+    private final BankingProperties bankingProperties;
+    private final ObjectProvider<LedgerEngine> ledgerEngine;
+    private final ObjectProvider<GroupCommitWriter> groupCommitWriter;
+    private final ObjectProvider<TransferFunctionExecutor> transferFunctionExecutor;
 
     public TransferResponse transfer(TransferRequest request, String idempotencyKey){
-        Account sourceAccount = accountService.findById(request.sourceAccountId());
-        Account destinationAccount = accountService.findById(request.destinationAccountId());
-        
-        CustomerDto customer = customerApiClient.findCustomerById(sourceAccount.getCustomerId());
+        if (bankingProperties.getTransfer().getMode() == TransferMode.LEDGER) {
+            return transferViaLedger(request, idempotencyKey);
+        }
+        if (bankingProperties.getTransfer().getMode() == TransferMode.DB_FUNCTION) {
+            return transferViaFunction(request, idempotencyKey);
+        }
 
-        validationStrategyFactory.validateAll(sourceAccount, destinationAccount, request.amount());
+        TransferContextLoader.TransferContext context = transferContextLoader.load(request);
+        Account sourceAccount = context.sourceAccount();
+        Account destinationAccount = context.destinationAccount();
+        CustomerDto customer = context.customer();
 
-        Transaction transaction = saveTransaction(customer, sourceAccount, destinationAccount, request.amount(), request.description(), idempotencyKey);
+        DailyLimitReservation reservation = context.dailyLimitReservation();
 
+        // A reserva do limite diário acompanha o desfecho final da escrita, já contando a regravação item a item do group commit
+        Transaction transaction;
         try {
-            bacenNotificationService.sendSync(transaction, customer);
-            log.info("[TransactionService].[transfer] - Notificação BACEN enviada com sucesso (síncrono)");
-        } catch (Exception e) {
-            log.warn("[TransactionService].[transfer] - Falha no envio síncrono ao BACEN, processamento assíncrono via Kafka/Scheduler: {}", e.getMessage());
+            transaction = transferContextLoader.timed("write", () ->
+                    bankingProperties.getTransfer().getMode() == TransferMode.GROUP_COMMIT
+                            ? groupCommitWriter.getObject().write(customer, sourceAccount, destinationAccount, request.amount(), request.description(), idempotencyKey, reservation)
+                            : transactionTemplate.execute(status ->
+                                    saveTransaction(customer, sourceAccount, destinationAccount, request.amount(), request.description(), idempotencyKey, reservation)));
+        } catch (TransferOutcomeUnknownException e) {
+            // A escrita ainda pode ser confirmada pelo lote: a reserva é decidida pelo próprio group commit
+            throw e;
+        } catch (RuntimeException e) {
+            context.releaseLimits();
+            throw e;
         }
+        context.commitLimits();
+
+        return buildResponse(transaction, sourceAccount, destinationAccount, customer);
+    }
+
+    @Transactional
+    public Transaction saveTransaction(CustomerDto customer, Account sourceAccount, Account destinationAccount, BigDecimal amount, String description,
+                                       String idempotencyKey, DailyLimitReservation reservation){
+        return transferWriter.write(customer, sourceAccount, destinationAccount, amount, description, idempotencyKey, reservation);
+    }
+
+    private TransferResponse transferViaLedger(TransferRequest request, String idempotencyKey) {
+        LedgerReceipt receipt = ledgerEngine.getObject().transfer(request, idempotencyKey);
+
+        Transaction transaction = receipt.transaction();
+        return buildResponse(transaction, transaction.getSourceAccount(), transaction.getDestinationAccount(), receipt.customer());
+    }
 
+    // Conta de destino, validações e escritas ficam dentro da função transfer_funds
+    private TransferResponse transferViaFunction(TransferRequest request, String idempotencyKey) {
+        Account sourceAccount = accountService.findForTransfer(request.sourceAccountId());
+        CustomerDto customer = customerApiClient.findCustomerById(sourceAccount.getCustomerId());
+
+        Transaction transaction = transferFunctionExecutor.getObject().transfer(customer, sourceAccount, request, idempotencyKey);
+        return buildResponse(transaction, sourceAccount, transaction.getDestinationAccount(), customer);
+    }
+
+    // Também usada pela stack reativa, para responder no mesmo formato
+    public static TransferResponse buildResponse(Transaction transaction, Account sourceAccount, Account destinationAccount, CustomerDto customer) {
         return TransferResponse.builder()
                 .transactionId(transaction.getId())
                 .idempotencyKey(transaction.getIdempotencyKey())
@@ -70,31 +115,4 @@ public class TransactionService {
                 .message("Transfer completed successfully")
                 .build();
     }
-
-    @Transactional
-    public Transaction saveTransaction(CustomerDto customer, Account sourceAccount, Account destinationAccount, BigDecimal amount, String description, String idempotencyKey){
-        accountService.debit(sourceAccount, amount);
-        accountService.credit(destinationAccount, amount);
-
-        Transaction transaction = new Transaction();
-        transaction.setSourceAccount(sourceAccount);
-        transaction.setDestinationAccount(destinationAccount);
-        transaction.setAmount(amount);
-        transaction.setStatus(TransactionStatus.COMPLETED);
-        transaction.setType(TransactionType.TRANSFER);
-        transaction.setDescription(description);
-        transaction.setIdempotencyKey(idempotencyKey);
-        transaction.setTransactionDate(LocalDateTime.now());
-        transactionRepository.save(transaction);
-
-        if (idempotencyKey != null) {
-            idempotencyService.registerIdempotencyKey(idempotencyKey, transaction.getId());
-        }
-
-        dailyLimitService.updateAfterTransfer(sourceAccount.getId(), amount);
-
-        bacenNotificationService.saveOutbox(transaction, customer);
-        
-        return transaction;
-    }
 }
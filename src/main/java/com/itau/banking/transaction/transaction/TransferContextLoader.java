@@ -0,0 +1,176 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountService;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.limit.RollingLimitUsage;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.TransferDeadlineExceededException;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import com.itau.banking.transaction.transaction.validator.ValidationContext;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Leituras que antecedem a escrita de uma transferência.
+ *
+ * As duas contas vêm de uma única consulta (ou do cache de contas). Em seguida a busca do cliente e as validações (que consultam o limite
+ * diário no Redis) rodam em paralelo em threads virtuais, sob um prazo único contado a partir do início da preparação.
+ * Cada etapa é medida em banking.transfer.stage. O que as validações reservam (limite diário e janelas móveis) é devolvido se a
+ * preparação falhar; caso contrário segue no {@link TransferContext} até o desfecho da escrita.
+ */
+@Component
+@Slf4j
+public class TransferContextLoader {
+
+    static final String STAGE_METRIC = "banking.transfer.stage";
+
+    private final AccountService accountService;
+    private final CustomerApiClient customerApiClient;
+    private final ValidationStrategyFactory validationStrategyFactory;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final long deadlineMs;
+
+    public TransferContextLoader(AccountService accountService,
+                                 CustomerApiClient customerApiClient,
+                                 ValidationStrategyFactory validationStrategyFactory,
+                                 MeterRegistry meterRegistry,
+                                 BankingProperties bankingProperties) {
+        this.accountService = accountService;
+        this.customerApiClient = customerApiClient;
+        this.validationStrategyFactory = validationStrategyFactory;
+        this.meterRegistry = meterRegistry;
+        this.deadlineMs = bankingProperties.getTransfer().getLookupDeadlineMs();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("transfer-lookup-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public TransferContext load(TransferRequest request) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        Map<Long, Account> accounts = timed("accounts", () -> findAccounts(request));
+        Account source = accounts.get(request.sourceAccountId());
+        Account destination = accounts.get(request.destinationAccountId());
+
+        Future<CustomerDto> customer = executor.submit(() ->
+                timed("customer", () -> customerApiClient.findCustomerById(source.getCustomerId())));
+        // Contas do cache vêm sem saldo: quem o confere é a escrita (débito condicional ou linhas travadas)
+        ValidationContext context = new ValidationContext(source, destination, request.amount());
+        context.setBalanceCheckedOnWrite(true);
+        Future<ValidationContext> validation = executor.submit(() -> timed("validation", () ->
+                validationStrategyFactory.validateStateful(context)));
+
+        try {
+            // O cliente é aguardado primeiro para manter a precedência de erros do fluxo sequencial
+            CustomerDto customerDto = await(customer, deadline);
+            ValidationContext validated = await(validation, deadline);
+            return validated != null
+                    ? new TransferContext(source, destination, customerDto, validated.getDailyLimitReservation(), validated.getRollingLimitUsage())
+                    : new TransferContext(source, destination, customerDto, null, null);
+        } catch (RuntimeException e) {
+            releaseLimits(validation);
+            throw e;
+        } finally {
+            customer.cancel(true);
+        }
+    }
+
+    // A validação não é interrompida: uma reserva em andamento precisa terminar para poder ser devolvida
+    private void releaseLimits(Future<ValidationContext> validation) {
+        if (validation.isDone()) {
+            releaseWhenDone(validation);
+        } else {
+            executor.execute(() -> releaseWhenDone(validation));
+        }
+    }
+
+    private void releaseWhenDone(Future<ValidationContext> validation) {
+        try {
+            ValidationContext validated = validation.get();
+            if (validated != null) {
+                validated.releaseLimits();
+            }
+        } catch (Exception e) {
+            // Validação rejeitada ou cancelada: a própria cadeia já devolveu o que reservou
+        }
+    }
+
+    <T> T timed(String stage, Supplier<T> supplier) {
+        return meterRegistry.timer(STAGE_METRIC, "stage", stage).record(supplier);
+    }
+
+    private Map<Long, Account> findAccounts(TransferRequest request) {
+        Map<Long, Account> accounts = accountService
+                .findAllForTransfer(List.of(request.sourceAccountId(), request.destinationAccountId()))
+                .stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        if (!accounts.containsKey(request.sourceAccountId())) {
+            throw new AccountNotFoundException(request.sourceAccountId());
+        }
+        if (!accounts.containsKey(request.destinationAccountId())) {
+            throw new AccountNotFoundException(request.destinationAccountId());
+        }
+        return accounts;
+    }
+
+    private <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.error("[TransferContextLoader].[await] - Prazo de {}ms excedido nas consultas da transferência", deadlineMs);
+            throw new TransferDeadlineExceededException(deadlineMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Preparação da transferência interrompida", e);
+        }
+    }
+
+    public record TransferContext(Account sourceAccount, Account destinationAccount, CustomerDto customer,
+                                  DailyLimitReservation dailyLimitReservation, RollingLimitUsage rollingLimitUsage) {
+
+        // A soma nas janelas móveis já vale desde a validação: não há o que confirmar
+        public void commitLimits() {
+            if (dailyLimitReservation != null) {
+                dailyLimitReservation.commit();
+            }
+        }
+
+        public void releaseLimits() {
+            if (dailyLimitReservation != null) {
+                dailyLimitReservation.release();
+            }
+            if (rollingLimitUsage != null) {
+                rollingLimitUsage.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.notification.BacenDispatcher;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.TransferFunctionResult;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Transferência em uma única ida ao banco (banking.transfer.mode=DB_FUNCTION).
+ *
+ * Validações e escritas rodam dentro da função transfer_funds, em um único statement com autocommit; a aplicação só
+ * traduz o código de resultado para as mesmas exceções das ValidationStrategy. Como o commit já aconteceu quando a
+ * função retorna, o cache do limite diário e o envio BACEN são feitos logo em seguida. O dia do limite é o de
+ * {@link DailyLimitService#today()}, o mesmo da chave do Redis, e não a data da sessão do banco.
+ */
+@Component
+@ConditionalOnProperty(prefix = "banking.transfer", name = "mode", havingValue = "DB_FUNCTION")
+@RequiredArgsConstructor
+@Slf4j
+public class TransferFunctionExecutor {
+
+    private final TransferFunctionRepository transferFunctionRepository;
+    private final DailyLimitService dailyLimitService;
+    private final BacenDispatcher bacenDispatcher;
+    private final BankingProperties bankingProperties;
+
+    public Transaction transfer(CustomerDto customer, Account sourceAccount, TransferRequest request, String idempotencyKey) {
+        LocalDate businessDate = dailyLimitService.today();
+        TransferFunctionResult result = transferFunctionRepository.transfer(
+                sourceAccount.getId(), request.destinationAccountId(), request.amount(), idempotencyKey, request.description(),
+                bankingProperties.getTransfer().getMinimumAmount(), customer.getName(), customer.getCpf(), businessDate);
+
+        if (result.resultCode() != TransferFunctionRepository.ResultCode.OK) {
+            log.error("[TransferFunctionExecutor].[transfer] - Transferência rejeitada pela função transfer_funds - Conta Origem: {} - Conta Destino: {} - Resultado: {}",
+                    sourceAccount.getId(), request.destinationAccountId(), result.resultCode());
+            throw result.toException(sourceAccount.getId(), request, idempotencyKey, bankingProperties.getTransfer().getMinimumAmount());
+        }
+
+        Transaction transaction = result.toTransaction(sourceAccount, request, idempotencyKey);
+
+        dailyLimitService.refreshCachedTotal(sourceAccount.getId(), businessDate, Money.of(result.dailyTotal()));
+        bacenDispatcher.dispatchAfterCommit(transaction, customer);
+
+        log.info("[TransferFunctionExecutor].[transfer] - Transferência concluída via transfer_funds - Transaction: {}", transaction.getId());
+        return transaction;
+    }
+}
@@ -0,0 +1,119 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.enums.TransactionType;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.exception.DuplicateTransactionException;
+import com.itau.banking.transaction.shared.exception.InactiveAccountException;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.exception.MinimumAmountException;
+import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Chamada à função transfer_funds (V10): validação e gravação completas da transferência em um único statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferFunctionRepository {
+
+    private static final String CALL = "SELECT * FROM transfer_funds(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferFunctionResult transfer(Long sourceAccountId, Long destinationAccountId, BigDecimal amount, String idempotencyKey,
+                                           String description, BigDecimal minimumAmount, String customerName, String customerCpf,
+                                           LocalDate businessDate) {
+        return jdbcTemplate.queryForObject(CALL, (rs, rowNum) -> {
+            Timestamp createdAt = rs.getTimestamp("transaction_created_at");
+            return new TransferFunctionResult(
+                    ResultCode.valueOf(rs.getString("result_code")),
+                    rs.getObject("transaction_id", Long.class),
+                    rs.getBigDecimal("current_balance"),
+                    rs.getBigDecimal("account_daily_limit"),
+                    rs.getBigDecimal("current_daily_total"),
+                    rs.getString("source_number"),
+                    rs.getString("destination_number"),
+                    createdAt != null ? createdAt.toLocalDateTime() : null
+            );
+        }, sourceAccountId, destinationAccountId, amount, idempotencyKey, description, minimumAmount, customerName, customerCpf,
+                Date.valueOf(businessDate));
+    }
+
+    public enum ResultCode {
+        OK,
+        DUPLICATE,
+        SOURCE_NOT_FOUND,
+        DESTINATION_NOT_FOUND,
+        SOURCE_INACTIVE,
+        DESTINATION_INACTIVE,
+        SELF_TRANSFER,
+        BELOW_MINIMUM,
+        INSUFFICIENT_BALANCE,
+        DAILY_LIMIT_EXCEEDED
+    }
+
+    public record TransferFunctionResult(
+            ResultCode resultCode,
+            Long transactionId,
+            BigDecimal currentBalance,
+            BigDecimal dailyLimit,
+            BigDecimal dailyTotal,
+            String sourceAccountNumber,
+            String destinationAccountNumber,
+            LocalDateTime createdAt
+    ) {
+
+        /**
+         * Transação COMPLETED gravada pela função, montada sem nova consulta ao banco.
+         */
+        public Transaction toTransaction(Account sourceAccount, TransferRequest request, String idempotencyKey) {
+            Account destinationAccount = new Account();
+            destinationAccount.setId(request.destinationAccountId());
+            destinationAccount.setAccountNumber(destinationAccountNumber);
+
+            Transaction transaction = new Transaction();
+            transaction.setId(transactionId);
+            transaction.setSourceAccount(sourceAccount);
+            transaction.setDestinationAccount(destinationAccount);
+            transaction.setAmount(request.amount());
+            transaction.setStatus(TransactionStatus.COMPLETED);
+            transaction.setType(TransactionType.TRANSFER);
+            transaction.setDescription(request.description());
+            transaction.setIdempotencyKey(idempotencyKey);
+            transaction.setTransactionDate(createdAt);
+            transaction.setCreatedAt(createdAt);
+            return transaction;
+        }
+
+        /**
+         * Traduz a rejeição da função para as mesmas exceções das ValidationStrategy.
+         */
+        public RuntimeException toException(Long sourceAccountId, TransferRequest request, String idempotencyKey, BigDecimal minimumAmount) {
+            BigDecimal amount = request.amount();
+            return switch (resultCode) {
+                case DUPLICATE -> new DuplicateTransactionException(idempotencyKey, transactionId);
+                case SOURCE_NOT_FOUND -> new AccountNotFoundException(sourceAccountId);
+                case DESTINATION_NOT_FOUND -> new AccountNotFoundException(request.destinationAccountId());
+                case SOURCE_INACTIVE -> new InactiveAccountException("Conta de origem inativa: " + sourceAccountId);
+                case DESTINATION_INACTIVE -> new InactiveAccountException("Conta de destino inativa: " + request.destinationAccountId());
+                case SELF_TRANSFER -> new SelfTransferException();
+                case BELOW_MINIMUM -> new MinimumAmountException("O valor da transferência deve ser maior ou igual R$" + minimumAmount);
+                case INSUFFICIENT_BALANCE -> new InsufficientBalanceException(currentBalance, amount);
+                case DAILY_LIMIT_EXCEEDED -> new DailyLimitExceededException(dailyLimit, dailyTotal, amount);
+                case OK -> new IllegalStateException("Resultado OK não é uma rejeição");
+            };
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountService;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.notification.BacenDispatcher;
+import com.itau.banking.transaction.notification.BacenNotificationService;
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.enums.TransactionType;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.money.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Escrita de uma transferência já validada: saldos, registro da transação, limite diário e Outbox BACEN.
+ * Deve ser chamada dentro de uma transação aberta pelo chamador; a notificação BACEN só é enviada após o commit.
+ * Com uma reserva do limite diário, só o total do banco é atualizado aqui: o Redis já contém o valor reservado.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferWriter {
+
+    private final AccountService accountService;
+    private final DailyLimitService dailyLimitService;
+    private final TransactionRepository transactionRepository;
+    private final BacenNotificationService bacenNotificationService;
+    private final BacenDispatcher bacenDispatcher;
+
+    public Transaction write(CustomerDto customer, Account sourceAccount, Account destinationAccount, BigDecimal amount, String description, String idempotencyKey) {
+        return write(customer, sourceAccount, destinationAccount, amount, description, idempotencyKey, null);
+    }
+
+    public Transaction write(CustomerDto customer, Account sourceAccount, Account destinationAccount, BigDecimal amount, String description,
+                             String idempotencyKey, DailyLimitReservation reservation) {
+        moveFunds(sourceAccount.getId(), destinationAccount.getId(), amount);
+
+        Transaction transaction = new Transaction();
+        transaction.setSourceAccount(sourceAccount);
+        transaction.setDestinationAccount(destinationAccount);
+        transaction.setAmount(amount);
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setDescription(description);
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setTransactionDate(LocalDateTime.now());
+        transactionRepository.save(transaction);
+
+        recordSideEffects(transaction, customer, reservation);
+
+        return transaction;
+    }
+
+    /**
+     * Conclui uma transferência assíncrona já registrada como PENDING (a chave de idempotência foi gravada no aceite).
+     */
+    public Transaction complete(Transaction pending, CustomerDto customer) {
+        return complete(pending, customer, null);
+    }
+
+    public Transaction complete(Transaction pending, CustomerDto customer, DailyLimitReservation reservation) {
+        moveFunds(pending.getSourceAccount().getId(), pending.getDestinationAccount().getId(), pending.getAmount());
+
+        pending.setStatus(TransactionStatus.COMPLETED);
+        pending.setTransactionDate(LocalDateTime.now());
+        transactionRepository.save(pending);
+
+        recordSideEffects(pending, customer, reservation);
+
+        return pending;
+    }
+
+    private void recordSideEffects(Transaction transaction, CustomerDto customer, DailyLimitReservation reservation) {
+        if (reservation != null) {
+            dailyLimitService.recordReservedTransfer(reservation);
+        } else {
+            dailyLimitService.updateAfterTransfer(transaction.getSourceAccount().getId(), Money.of(transaction.getAmount()));
+        }
+
+        bacenNotificationService.saveOutbox(transaction, customer);
+        bacenDispatcher.dispatchAfterCommit(transaction, customer);
+    }
+
+    // Atualiza as contas sempre em ordem crescente de id para evitar deadlock entre transferências cruzadas (A->B e B->A)
+    private void moveFunds(Long sourceAccountId, Long destinationAccountId, BigDecimal amount) {
+        if (sourceAccountId < destinationAccountId) {
+            debitOrThrow(sourceAccountId, amount);
+            creditOrThrow(destinationAccountId, amount);
+        } else {
+            creditOrThrow(destinationAccountId, amount);
+            debitOrThrow(sourceAccountId, amount);
+        }
+    }
+
+    private void debitOrThrow(Long accountId, BigDecimal amount) {
+        if (!accountService.debit(accountId, amount)) {
+            log.error("[TransferWriter].[debitOrThrow] - Débito condicional rejeitado, saldo insuficiente - Conta: {} - Valor: {}", accountId, amount);
+            throw new InsufficientBalanceException("Saldo insuficiente na conta de origem: " + accountId);
+        }
+    }
+
+    private void creditOrThrow(Long accountId, BigDecimal amount) {
+        if (!accountService.credit(accountId, amount)) {
+            log.error("[TransferWriter].[creditOrThrow] - Crédito rejeitado, conta não encontrada - Conta: {}", accountId);
+            throw new AccountNotFoundException(accountId);
+        }
+    }
+}
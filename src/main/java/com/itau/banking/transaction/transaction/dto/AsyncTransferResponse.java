@@ -0,0 +1,12 @@
+package com.itau.banking.transaction.transaction.dto;
+
+import lombok.Builder;
+
+@Builder
+public record AsyncTransferResponse(
+        Long transactionId,
+        String idempotencyKey,
+        String status,
+        String statusUrl,
+        String message
+) { }
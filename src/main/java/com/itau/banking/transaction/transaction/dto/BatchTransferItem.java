@@ -0,0 +1,15 @@
+package com.itau.banking.transaction.transaction.dto;
+
+import java.math.BigDecimal;
+
+public record BatchTransferItem(
+        String idempotencyKey,
+        Long sourceAccountId,
+        Long destinationAccountId,
+        BigDecimal amount,
+        String description
+) {
+    public TransferRequest toTransferRequest() {
+        return new TransferRequest(sourceAccountId, destinationAccountId, amount, description);
+    }
+}
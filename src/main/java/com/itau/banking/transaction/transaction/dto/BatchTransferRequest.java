@@ -0,0 +1,5 @@
+package com.itau.banking.transaction.transaction.dto;
+
+import java.util.List;
+
+public record BatchTransferRequest(List<BatchTransferItem> transfers) { }
@@ -0,0 +1,33 @@
+package com.itau.banking.transaction.transaction.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record BatchTransferResponse(
+        int total,
+        int succeeded,
+        int failed,
+        List<ItemResult> results
+) {
+    public record ItemResult(
+            int index,
+            String idempotencyKey,
+            String status,
+            Long transactionId,
+            String message
+    ) {
+        public static ItemResult success(int index, String idempotencyKey, Long transactionId) {
+            return new ItemResult(index, idempotencyKey, "SUCCESS", transactionId, "Transfer completed successfully");
+        }
+
+        public static ItemResult duplicate(int index, String idempotencyKey, Long transactionId) {
+            return new ItemResult(index, idempotencyKey, "DUPLICATE", transactionId, "Transaction already processed with idempotency key: " + idempotencyKey);
+        }
+
+        public static ItemResult rejected(int index, String idempotencyKey, String message) {
+            return new ItemResult(index, idempotencyKey, "REJECTED", null, message);
+        }
+    }
+}
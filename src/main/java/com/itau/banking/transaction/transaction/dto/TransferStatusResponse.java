@@ -0,0 +1,17 @@
+package com.itau.banking.transaction.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Builder
+public record TransferStatusResponse(
+        Long transactionId,
+        String idempotencyKey,
+        String status,
+        BigDecimal amount,
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") LocalDateTime transactionDate,
+        String failureReason
+) { }
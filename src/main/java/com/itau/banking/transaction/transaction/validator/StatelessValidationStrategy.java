@@ -0,0 +1,19 @@
+package com.itau.banking.transaction.transaction.validator;
+
+import com.itau.banking.transaction.account.Account;
+
+import java.math.BigDecimal;
+
+/**
+ * Validação que depende apenas dos dados da requisição. Roda no controller, antes de qualquer acesso a banco ou
+ * Redis, e por isso não recebe as contas carregadas.
+ */
+public interface StatelessValidationStrategy extends ValidationStrategy {
+
+    void validateRequest(Long sourceAccountId, Long destinationAccountId, BigDecimal amount);
+
+    @Override
+    default void validate(Account source, Account destination, BigDecimal amount) {
+        validateRequest(source.getId(), destination.getId(), amount);
+    }
+}
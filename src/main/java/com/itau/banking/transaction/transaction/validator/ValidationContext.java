@@ -0,0 +1,64 @@
+package com.itau.banking.transaction.transaction.validator;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.limit.RollingLimitUsage;
+import com.itau.banking.transaction.shared.money.Money;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+/**
+ * Dados de uma execução da cadeia de validações, compartilhados entre as estratégias para que uma consulta feita por
+ * uma delas (ex.: o total diário no Redis) não seja repetida. Usado por uma única thread.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ValidationContext {
+
+    private final Account source;
+    private final Account destination;
+    private final BigDecimal amount;
+    // Pode vir preenchido pelo chamador (ex.: o lote, com os itens já aceitos somados), dispensando a leitura no Redis
+    @Setter
+    private Money dailyTotal;
+    @Setter
+    private DailyLimitReservation dailyLimitReservation;
+    @Setter
+    private RollingLimitUsage rollingLimitUsage;
+    // Marcado por fluxos cuja escrita confere o saldo (débito condicional ou linhas travadas): só neles a conta de
+    // origem pode vir sem saldo, montada pelo cache de contas
+    @Setter
+    private boolean balanceCheckedOnWrite;
+
+    public Money dailyTotal(Supplier<Money> loader) {
+        if (dailyTotal == null) {
+            dailyTotal = loader.get();
+        }
+        return dailyTotal;
+    }
+
+    /**
+     * Confirma a reserva do limite diário depois do commit; a soma nas janelas móveis já vale desde a validação.
+     */
+    public void commitLimits() {
+        if (dailyLimitReservation != null) {
+            dailyLimitReservation.commit();
+        }
+    }
+
+    /**
+     * Devolve o que a validação reservou: o limite diário e a soma nas janelas móveis.
+     */
+    public void releaseLimits() {
+        if (dailyLimitReservation != null) {
+            dailyLimitReservation.release();
+        }
+        if (rollingLimitUsage != null) {
+            rollingLimitUsage.release();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.itau.banking.transaction.transaction.validator;
 
+import org.springframework.http.HttpStatus;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -9,4 +11,10 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 public @interface ValidationOrder {
     int value();
+
+    /**
+     * Status HTTP com que a rejeição da validação é respondida; a ordenação adaptativa só troca de posição validações
+     * vizinhas com o mesmo status.
+     */
+    HttpStatus status() default HttpStatus.UNPROCESSABLE_ENTITY;
 }
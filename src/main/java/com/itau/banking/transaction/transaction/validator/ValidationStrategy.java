@@ -5,4 +5,11 @@ import java.math.BigDecimal;
 
 public interface ValidationStrategy {
     void validate(Account source, Account destination, BigDecimal amount);
+
+    /**
+     * Variante usada pela cadeia; estratégias que consultam dados compartilháveis sobrescrevem para usar o contexto.
+     */
+    default void validate(ValidationContext context) {
+        validate(context.getSource(), context.getDestination(), context.getAmount());
+    }
 }
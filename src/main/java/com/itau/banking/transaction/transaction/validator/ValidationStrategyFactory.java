@@ -1,22 +1,57 @@
 package com.itau.banking.transaction.transaction.validator;
 
 import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Pipeline de validações.
+ *
+ * Cada estratégia tem latência (banking.validation.duration) e rejeições (banking.validation.rejections) medidas por
+ * validador. A ordem padrão é a do {@link ValidationOrder}; com banking.transfer.validation.adaptive-ordering a cadeia
+ * é reordenada a cada reorder-interval execuções pelo custo médio dividido pela taxa de rejeição, colocando à frente
+ * as validações baratas que mais rejeitam. A ordem declarada continua sendo a precedência entre status: só trocam de
+ * posição validações vizinhas cujas rejeições têm o mesmo {@link ValidationOrder#status()}, então quando mais de uma
+ * regra falha o status da resposta não muda, apenas o detalhe do erro.
+ */
 @Component
+@Slf4j
 public class ValidationStrategyFactory {
-    private final List<ValidationStrategy> orderedValidators;
+
+    private static final String DURATION_METRIC = "banking.validation.duration";
+    private static final String REJECTION_METRIC = "banking.validation.rejections";
+
+    private final List<InstrumentedValidator> staticOrder;
+    private final List<List<InstrumentedValidator>> sameStatusSegments;
+    private final boolean adaptiveOrdering;
+    private final long reorderInterval;
+    private final AtomicLong executions = new AtomicLong();
+    private volatile Chain chain;
 
     @Autowired
-    public ValidationStrategyFactory(List<ValidationStrategy> validators){
-        this.orderedValidators = validators.stream()
-                .sorted(Comparator.comparingInt(this::getOrder))
+    public ValidationStrategyFactory(List<ValidationStrategy> validators, MeterRegistry meterRegistry, BankingProperties bankingProperties){
+        BankingProperties.Transfer.Validation validation = bankingProperties.getTransfer().getValidation();
+        this.adaptiveOrdering = validation.isAdaptiveOrdering();
+        this.reorderInterval = Math.max(1, validation.getReorderInterval());
+        this.staticOrder = validators.stream()
+                .map(validator -> new InstrumentedValidator(validator, getOrder(validator), meterRegistry))
+                .sorted(Comparator.comparingInt(InstrumentedValidator::order))
                 .toList();
+        this.sameStatusSegments = segmentByStatus(staticOrder);
+        this.chain = Chain.of(staticOrder);
     }
 
     private int getOrder(ValidationStrategy validator) {
@@ -25,7 +60,172 @@ public class ValidationStrategyFactory {
         return annotation != null ? annotation.value() : Integer.MAX_VALUE;
     }
 
-    public void validateAll(Account source, Account destination, BigDecimal amount) {
-        orderedValidators.forEach(v -> v.validate(source, destination, amount));
+    private static HttpStatus getStatus(ValidationStrategy validator) {
+        ValidationOrder annotation = validator.getClass()
+                .getAnnotation(ValidationOrder.class);
+        return annotation != null ? annotation.status() : HttpStatus.UNPROCESSABLE_ENTITY;
+    }
+
+    // Trechos consecutivos da ordem declarada com o mesmo status de rejeição
+    private static List<List<InstrumentedValidator>> segmentByStatus(List<InstrumentedValidator> ordered) {
+        List<List<InstrumentedValidator>> segments = new ArrayList<>();
+        List<InstrumentedValidator> current = new ArrayList<>();
+        for (InstrumentedValidator validator : ordered) {
+            if (!current.isEmpty() && current.get(0).status() != validator.status()) {
+                segments.add(List.copyOf(current));
+                current.clear();
+            }
+            current.add(validator);
+        }
+        if (!current.isEmpty()) {
+            segments.add(List.copyOf(current));
+        }
+        return List.copyOf(segments);
+    }
+
+    /**
+     * Devolve o contexto da execução, com a reserva do limite diário quando houver; cabe ao chamador confirmá-la ou
+     * devolvê-la.
+     */
+    public ValidationContext validateAll(Account source, Account destination, BigDecimal amount) {
+        return run(currentChain().all(), new ValidationContext(source, destination, amount));
+    }
+
+    /**
+     * Validações sem estado, só com os dados da requisição. Deve ser chamada antes de qualquer I/O.
+     */
+    public void validateRequest(Long sourceAccountId, Long destinationAccountId, BigDecimal amount) {
+        currentChain().stateless().forEach(v -> v.validateRequest(sourceAccountId, destinationAccountId, amount));
+    }
+
+    /**
+     * Validações que dependem das contas carregadas ou do limite diário, para fluxos que já passaram por {@link #validateRequest}.
+     */
+    public ValidationContext validateStateful(Account source, Account destination, BigDecimal amount) {
+        return run(currentChain().stateful(), new ValidationContext(source, destination, amount));
+    }
+
+    /**
+     * Como {@link #validateStateful(Account, Account, BigDecimal)}, sobre um contexto montado pelo chamador.
+     */
+    public ValidationContext validateStateful(ValidationContext context) {
+        return run(currentChain().stateful(), context);
+    }
+
+    // Uma validação que falha depois da reserva dos limites os devolve
+    private ValidationContext run(List<InstrumentedValidator> validators, ValidationContext context) {
+        try {
+            validators.forEach(v -> v.validate(context));
+        } catch (RuntimeException e) {
+            context.releaseLimits();
+            throw e;
+        }
+        return context;
+    }
+
+    private Chain currentChain() {
+        if (adaptiveOrdering && executions.incrementAndGet() % reorderInterval == 0) {
+            reorder();
+        }
+        return chain;
+    }
+
+    // Ordem ótima para filtros independentes: custo / probabilidade de rejeição, crescente, dentro de cada status
+    private void reorder() {
+        List<InstrumentedValidator> ranked = sameStatusSegments.stream()
+                .flatMap(segment -> segment.stream()
+                        .sorted(Comparator.comparingDouble(InstrumentedValidator::rank)
+                                .thenComparingInt(InstrumentedValidator::order)))
+                .toList();
+        chain = Chain.of(ranked);
+        log.debug("[ValidationStrategyFactory].[reorder] - Cadeia de validações reordenada: {}",
+                ranked.stream().map(InstrumentedValidator::name).toList());
+    }
+
+    private record Chain(
+            List<InstrumentedValidator> all,
+            List<InstrumentedValidator> stateless,
+            List<InstrumentedValidator> stateful
+    ) {
+        static Chain of(List<InstrumentedValidator> ordered) {
+            return new Chain(
+                    ordered,
+                    ordered.stream().filter(InstrumentedValidator::isStateless).toList(),
+                    ordered.stream().filter(validator -> !validator.isStateless()).toList());
+        }
+    }
+
+    private static final class InstrumentedValidator {
+
+        // Priori da taxa de rejeição (1 em 100): evita rank infinito antes da primeira rejeição e taxa 100% após uma só
+        private static final double PRIOR_REJECTIONS = 1;
+        private static final double PRIOR_EXECUTIONS = 100;
+
+        private final ValidationStrategy strategy;
+        private final int order;
+        private final HttpStatus status;
+        private final String name;
+        private final Timer timer;
+        private final Counter rejections;
+
+        InstrumentedValidator(ValidationStrategy strategy, int order, MeterRegistry meterRegistry) {
+            this.strategy = strategy;
+            this.order = order;
+            this.status = getStatus(strategy);
+            this.name = strategy.getClass().getSimpleName();
+            this.timer = Timer.builder(DURATION_METRIC)
+                    .description("Latência de cada validação da transferência")
+                    .tag("validator", name)
+                    .register(meterRegistry);
+            this.rejections = Counter.builder(REJECTION_METRIC)
+                    .description("Transferências rejeitadas por cada validação")
+                    .tag("validator", name)
+                    .register(meterRegistry);
+        }
+
+        void validate(ValidationContext context) {
+            long start = System.nanoTime();
+            try {
+                strategy.validate(context);
+            } catch (RuntimeException e) {
+                rejections.increment();
+                throw e;
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void validateRequest(Long sourceAccountId, Long destinationAccountId, BigDecimal amount) {
+            long start = System.nanoTime();
+            try {
+                ((StatelessValidationStrategy) strategy).validateRequest(sourceAccountId, destinationAccountId, amount);
+            } catch (RuntimeException e) {
+                rejections.increment();
+                throw e;
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        double rank() {
+            double rejectionRate = (rejections.count() + PRIOR_REJECTIONS) / (timer.count() + PRIOR_EXECUTIONS);
+            return timer.mean(TimeUnit.NANOSECONDS) / rejectionRate;
+        }
+
+        boolean isStateless() {
+            return strategy instanceof StatelessValidationStrategy;
+        }
+
+        int order() {
+            return order;
+        }
+
+        HttpStatus status() {
+            return status;
+        }
+
+        String name() {
+            return name;
+        }
     }
 }
@@ -2,6 +2,9 @@ package com.itau.banking.transaction.transaction.validator.concrete;
 
 import com.itau.banking.transaction.account.Account;
 import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.validator.ValidationContext;
 import com.itau.banking.transaction.transaction.validator.ValidationOrder;
 import com.itau.banking.transaction.transaction.validator.ValidationStrategy;
 import lombok.RequiredArgsConstructor;
@@ -20,15 +23,40 @@ public class DailyLimitValidationStrategy implements ValidationStrategy {
 
     @Override
     public void validate(Account sourceAccount, Account destinationAccount, BigDecimal amount) {
+        // Sem contexto não há quem confirme ou devolva uma reserva: só confere o total
+        checkCurrentTotal(new ValidationContext(sourceAccount, destinationAccount, amount));
+    }
+
+    @Override
+    public void validate(ValidationContext context) {
+        Account sourceAccount = context.getSource();
+        BigDecimal amount = context.getAmount();
         log.info("[DailyLimitValidator].[doValidate] - Validando limite diário da conta de origem - Conta: {} - Limite Diário: {} - Valor da Transferência: {}",
                 sourceAccount.getId(), sourceAccount.getDailyLimit(), amount);
 
-        if(!dailyLimitService.canTransfer(sourceAccount.getId(), sourceAccount.getDailyLimit(), amount)){
+        // Confere e reserva em uma única ida ao Redis; a reserva segue no contexto até o desfecho da escrita
+        if (dailyLimitService.isReservationEnabled() && context.getDailyLimitReservation() == null) {
+            context.setDailyLimitReservation(dailyLimitService.reserve(
+                    sourceAccount.getId(), Money.of(sourceAccount.getDailyLimit()), Money.of(amount)));
+            log.info("[DailyLimitValidator].[doValidate] - Limite diário reservado com sucesso na conta de origem");
+            return;
+        }
+
+        checkCurrentTotal(context);
+    }
+
+    private void checkCurrentTotal(ValidationContext context) {
+        Account sourceAccount = context.getSource();
+        BigDecimal amount = context.getAmount();
+
+        // Uma única leitura do total, reaproveitada na mensagem de erro
+        Money currentTotal = context.dailyTotal(() -> dailyLimitService.getCurrentDailyTotal(sourceAccount.getId()));
+
+        if(currentTotal.plus(Money.of(amount)).isGreaterThan(Money.of(sourceAccount.getDailyLimit()))){
             log.error("[DailyLimitValidator].[doValidate] - Limite diário excedido na conta de origem - Conta: {} - Limite Diário: {} - Valor da Transferência: {}",
                     sourceAccount.getId(), sourceAccount.getDailyLimit(), amount);
 
-            BigDecimal currentTotal = dailyLimitService.getCurrentDailyTotal(sourceAccount.getId());
-            throw new com.itau.banking.transaction.shared.exception.DailyLimitExceededException(sourceAccount.getDailyLimit(), currentTotal, amount);
+            throw new DailyLimitExceededException(sourceAccount.getDailyLimit(), currentTotal.toBigDecimal(), amount);
         }
 
         log.info("[DailyLimitValidator].[doValidate] - Limite diário validado com sucesso na conta de origem");
@@ -1,10 +1,9 @@
 package com.itau.banking.transaction.transaction.validator.concrete;
 
-import com.itau.banking.transaction.account.Account;
 import com.itau.banking.transaction.shared.config.BankingProperties;
 import com.itau.banking.transaction.shared.exception.MinimumAmountException;
+import com.itau.banking.transaction.transaction.validator.StatelessValidationStrategy;
 import com.itau.banking.transaction.transaction.validator.ValidationOrder;
-import com.itau.banking.transaction.transaction.validator.ValidationStrategy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -15,12 +14,12 @@ import java.math.BigDecimal;
 @Slf4j
 @RequiredArgsConstructor
 @ValidationOrder(3)
-public class MinimumAmountValidationStrategy implements ValidationStrategy {
+public class MinimumAmountValidationStrategy implements StatelessValidationStrategy {
 
     private final BankingProperties bankingProperties;
 
     @Override
-    public void validate(Account source, Account destination, BigDecimal amount) {
+    public void validateRequest(Long sourceAccountId, Long destinationAccountId, BigDecimal amount) {
         log.info("[MinimumAmountValidator].[doValidate] - Validando valor mínimo da transferência - Valor da Transferência: {}", amount);
 
         if(amount.compareTo(bankingProperties.getTransfer().getMinimumAmount()) < 0){
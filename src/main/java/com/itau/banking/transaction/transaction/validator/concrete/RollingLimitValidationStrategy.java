@@ -0,0 +1,45 @@
+package com.itau.banking.transaction.transaction.validator.concrete;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.limit.RollingLimitService;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.validator.ValidationContext;
+import com.itau.banking.transaction.transaction.validator.ValidationOrder;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+@ConditionalOnProperty(prefix = "banking.rolling-limit", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@ValidationOrder(6)
+public class RollingLimitValidationStrategy implements ValidationStrategy {
+
+    private final RollingLimitService rollingLimitService;
+
+    @Override
+    public void validate(Account sourceAccount, Account destinationAccount, BigDecimal amount) {
+        // Sem contexto não há quem desfaça a soma nas janelas: só confere
+        rollingLimitService.check(sourceAccount.getId(), Money.of(sourceAccount.getDailyLimit()), Money.of(amount));
+    }
+
+    @Override
+    public void validate(ValidationContext context) {
+        Account sourceAccount = context.getSource();
+        log.info("[RollingLimitValidator].[doValidate] - Validando limites em janelas móveis da conta de origem - Conta: {} - Valor da Transferência: {}",
+                sourceAccount.getId(), context.getAmount());
+
+        // A soma nas janelas segue no contexto e é desfeita se a transferência não for gravada
+        if (context.getRollingLimitUsage() == null) {
+            context.setRollingLimitUsage(rollingLimitService.reserve(
+                    sourceAccount.getId(), Money.of(sourceAccount.getDailyLimit()), Money.of(context.getAmount())));
+        }
+
+        log.info("[RollingLimitValidator].[doValidate] - Limites em janelas móveis validados com sucesso na conta de origem");
+    }
+}
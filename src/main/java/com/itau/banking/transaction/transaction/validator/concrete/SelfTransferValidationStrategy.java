@@ -1,9 +1,8 @@
 package com.itau.banking.transaction.transaction.validator.concrete;
 
-import com.itau.banking.transaction.account.Account;
 import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import com.itau.banking.transaction.transaction.validator.StatelessValidationStrategy;
 import com.itau.banking.transaction.transaction.validator.ValidationOrder;
-import com.itau.banking.transaction.transaction.validator.ValidationStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -12,15 +11,15 @@ import java.math.BigDecimal;
 @Component
 @Slf4j
 @ValidationOrder(2)
-public class SelfTransferValidationStrategy implements ValidationStrategy {
+public class SelfTransferValidationStrategy implements StatelessValidationStrategy {
     @Override
-    public void validate(Account source, Account destination, BigDecimal amount) {
+    public void validateRequest(Long sourceAccountId, Long destinationAccountId, BigDecimal amount) {
         log.info("[SelfTransferValidator].[doValidate] - Validando transferência para a mesma conta - Conta de Origem: {} - Conta de Destino: {}",
-                source.getId(), destination.getId());
+                sourceAccountId, destinationAccountId);
 
-        if(source.getId().equals(destination.getId())){
+        if(sourceAccountId.equals(destinationAccountId)){
             log.error("[SelfTransferValidator].[doValidate] - Transferência para a mesma conta não é permitida - Conta: {}",
-                    source.getId());
+                    sourceAccountId);
             throw new SelfTransferException();
         }
 
@@ -1,6 +1,7 @@
 package com.itau.banking.transaction.transaction.validator.concrete;
 
 import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.transaction.validator.ValidationContext;
 import com.itau.banking.transaction.transaction.validator.ValidationOrder;
 import com.itau.banking.transaction.transaction.validator.ValidationStrategy;
 import lombok.extern.slf4j.Slf4j;
@@ -13,8 +14,26 @@ import java.math.BigDecimal;
 @ValidationOrder(4)
 public class SufficientBalanceValidationStrategy implements ValidationStrategy {
 
+    /**
+     * A conta de origem sem saldo (montada pelo cache de contas) só é aceita quando o contexto indica que a escrita
+     * confere o saldo; fora desses fluxos é erro de quem buscou a conta, e não uma validação a pular.
+     */
+    @Override
+    public void validate(ValidationContext context) {
+        if (context.getSource().getBalance() == null && context.isBalanceCheckedOnWrite()) {
+            log.info("[SufficientBalanceValidator].[doValidate] - Saldo da conta de origem será conferido na escrita - Conta: {}",
+                    context.getSource().getId());
+            return;
+        }
+        validate(context.getSource(), context.getDestination(), context.getAmount());
+    }
+
     @Override
     public void validate(Account source, Account destination, BigDecimal amount) {
+        if (source.getBalance() == null) {
+            throw new IllegalStateException("Saldo da conta de origem não carregado: " + source.getId());
+        }
+
         log.info("[SufficientBalanceValidator].[doValidate] - Validando saldo suficiente na conta de origem - Conta: {} - Saldo: {} - Valor da Transferência: {}",
                 source.getId(), source.getBalance(), amount);
 
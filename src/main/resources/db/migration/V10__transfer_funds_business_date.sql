@@ -0,0 +1,151 @@
+-- transfer_funds passa a receber o dia de negócio calculado pela aplicação (banking.cache.daily-limit.time-zone), em
+-- vez de CURRENT_DATE no fuso da sessão do banco: a linha de daily_limit_control e a chave do Redis atualizada em
+-- seguida são do mesmo dia também perto da meia-noite. Sem linha para o dia, o total é inicializado pelas transações em
+-- um único upsert que preserva a linha criada por outra escrita concorrente, e a transferência soma sobre ele.
+DROP FUNCTION IF EXISTS transfer_funds(BIGINT, BIGINT, DECIMAL, VARCHAR, VARCHAR, DECIMAL, VARCHAR, VARCHAR);
+
+CREATE OR REPLACE FUNCTION transfer_funds(
+    p_source_account_id BIGINT,
+    p_destination_account_id BIGINT,
+    p_amount DECIMAL(15, 2),
+    p_idempotency_key VARCHAR(36),
+    p_description VARCHAR(500),
+    p_minimum_amount DECIMAL(15, 2),
+    p_customer_name VARCHAR(255),
+    p_customer_cpf VARCHAR(20),
+    p_business_date DATE,
+    OUT result_code VARCHAR(30),
+    OUT transaction_id BIGINT,
+    OUT current_balance DECIMAL(15, 2),
+    OUT account_daily_limit DECIMAL(15, 2),
+    OUT current_daily_total DECIMAL(15, 2),
+    OUT source_number VARCHAR(20),
+    OUT destination_number VARCHAR(20),
+    OUT transaction_created_at TIMESTAMP
+)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_source accounts%ROWTYPE;
+    v_destination accounts%ROWTYPE;
+    v_now TIMESTAMP := LOCALTIMESTAMP;
+BEGIN
+    SELECT t.id INTO transaction_id FROM transactions t WHERE t.idempotency_key = p_idempotency_key;
+    IF FOUND THEN
+        result_code := 'DUPLICATE';
+        RETURN;
+    END IF;
+
+    -- Mesma ordem de travamento dos fluxos em lote (id crescente), evitando deadlock entre transferências cruzadas
+    PERFORM 1 FROM accounts a
+    WHERE a.id IN (p_source_account_id, p_destination_account_id)
+    ORDER BY a.id
+    FOR UPDATE;
+
+    SELECT * INTO v_source FROM accounts a WHERE a.id = p_source_account_id;
+    IF NOT FOUND THEN
+        result_code := 'SOURCE_NOT_FOUND';
+        RETURN;
+    END IF;
+
+    SELECT * INTO v_destination FROM accounts a WHERE a.id = p_destination_account_id;
+    IF NOT FOUND THEN
+        result_code := 'DESTINATION_NOT_FOUND';
+        RETURN;
+    END IF;
+
+    current_balance := v_source.balance;
+    account_daily_limit := v_source.daily_limit;
+    source_number := v_source.account_number;
+    destination_number := v_destination.account_number;
+
+    IF v_source.status = 'INACTIVE' THEN
+        result_code := 'SOURCE_INACTIVE';
+        RETURN;
+    END IF;
+
+    IF v_destination.status = 'INACTIVE' THEN
+        result_code := 'DESTINATION_INACTIVE';
+        RETURN;
+    END IF;
+
+    IF p_source_account_id = p_destination_account_id THEN
+        result_code := 'SELF_TRANSFER';
+        RETURN;
+    END IF;
+
+    IF p_amount < p_minimum_amount THEN
+        result_code := 'BELOW_MINIMUM';
+        RETURN;
+    END IF;
+
+    IF v_source.balance < p_amount THEN
+        result_code := 'INSUFFICIENT_BALANCE';
+        RETURN;
+    END IF;
+
+    SELECT d.total_amount INTO current_daily_total
+    FROM daily_limit_control d
+    WHERE d.account_id = p_source_account_id AND d.date = p_business_date;
+
+    -- Mesmo upsert de DailyLimitControlRepository.initializeDailyTotal: se outra escrita criou a linha, prevalece ela
+    IF NOT FOUND THEN
+        INSERT INTO daily_limit_control (account_id, date, total_amount, transaction_count, last_updated_at)
+        SELECT p_source_account_id, p_business_date, COALESCE(SUM(t.amount), 0), 0, v_now
+        FROM transactions t
+        WHERE t.source_account_id = p_source_account_id
+          AND t.status = 'COMPLETED'
+          AND t.transaction_date >= p_business_date
+          AND t.transaction_date < p_business_date + 1
+        ON CONFLICT (account_id, date) DO UPDATE SET total_amount = daily_limit_control.total_amount
+        RETURNING total_amount INTO current_daily_total;
+    END IF;
+
+    IF current_daily_total + p_amount > v_source.daily_limit THEN
+        result_code := 'DAILY_LIMIT_EXCEEDED';
+        RETURN;
+    END IF;
+
+    UPDATE accounts SET balance = balance - p_amount, version = version + 1, updated_at = v_now
+    WHERE id = p_source_account_id;
+
+    UPDATE accounts SET balance = balance + p_amount, version = version + 1, updated_at = v_now
+    WHERE id = p_destination_account_id;
+
+    -- A linha do dia já existe; a soma é feita sobre o valor gravado, sem sobrescrever escritas de outros fluxos
+    UPDATE daily_limit_control
+    SET total_amount = total_amount + p_amount,
+        transaction_count = transaction_count + 1,
+        last_updated_at = v_now
+    WHERE account_id = p_source_account_id AND date = p_business_date
+    RETURNING total_amount INTO current_daily_total;
+
+    INSERT INTO transactions (idempotency_key, source_account_id, destination_account_id, amount, type, status,
+                              description, transaction_date, created_at)
+    VALUES (p_idempotency_key, p_source_account_id, p_destination_account_id, p_amount, 'TRANSFER', 'COMPLETED',
+            p_description, v_now, v_now)
+    RETURNING id INTO transaction_id;
+
+    -- Mesmo formato JSON do BacenNotificationRequest serializado pelo BacenNotificationService
+    INSERT INTO bacen_notifications (transaction_id, idempotency_key, status, payload, retry_count, created_at)
+    VALUES (transaction_id, p_idempotency_key, 'PENDING', json_build_object(
+                'transactionId', transaction_id,
+                'idempotencyKey', p_idempotency_key,
+                'sourceAccountNumber', v_source.account_number,
+                'destinationAccountNumber', v_destination.account_number,
+                'amount', p_amount,
+                'transactionType', 'TRANSFER',
+                'customerName', p_customer_name,
+                'customerCpf', p_customer_cpf,
+                'transactionDate', to_char(v_now, 'YYYY-MM-DD"T"HH24:MI:SS.US')
+            )::TEXT, 0, v_now);
+
+    transaction_created_at := v_now;
+    result_code := 'OK';
+EXCEPTION
+    -- Corrida entre duas requisições com a mesma chave: a segunda é desfeita e tratada como duplicada
+    WHEN unique_violation THEN
+        result_code := 'DUPLICATE';
+        SELECT t.id INTO transaction_id FROM transactions t WHERE t.idempotency_key = p_idempotency_key;
+END;
+$$;
@@ -0,0 +1,4 @@
+ALTER TABLE transactions ADD COLUMN failure_reason VARCHAR(500);
+
+-- Fila de transferências assíncronas: só as linhas PENDING entram no índice
+CREATE INDEX idx_transaction_pending ON transactions(id) WHERE status = 'PENDING';
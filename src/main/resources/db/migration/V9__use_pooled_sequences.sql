@@ -0,0 +1,7 @@
+-- Ids gerados por sequence com pooled optimizer (allocationSize = 50 nas entidades): o Hibernate reserva 50 ids por
+-- nextval e pode agrupar os INSERTs em batch, o que IDENTITY impede. O DEFAULT nextval das colunas continua valendo
+-- para os INSERTs via JdbcTemplate e para a função transfer_funds.
+ALTER SEQUENCE accounts_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE bacen_notifications_id_seq INCREMENT BY 50;
+ALTER SEQUENCE daily_limit_control_id_seq INCREMENT BY 50;
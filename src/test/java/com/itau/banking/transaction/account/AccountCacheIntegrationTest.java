@@ -0,0 +1,158 @@
+package com.itau.banking.transaction.account;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Cada {@link AccountCache} criado aqui faz o papel de uma instância da aplicação, com o próprio cache local, todas
+ * compartilhando o mesmo Redis e o mesmo banco. O repositório é envolvido para contar as leituras que chegam ao banco.
+ */
+@DisplayName("AccountCache - Integration Tests")
+class AccountCacheIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    private final List<AccountCache> instances = new ArrayList<>();
+    private AccountRepository countingRepository;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        countingRepository = mock(AccountRepository.class, delegatesTo(accountRepository));
+        account = new Account();
+        account.setAccountNumber(UUID.randomUUID().toString().substring(0, 20));
+        account.setBalance(new BigDecimal("1000.00"));
+        account.setDailyLimit(new BigDecimal("1000.00"));
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setCustomerId(1L);
+        account = accountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AccountCache instance : instances) {
+            instance.stop();
+        }
+    }
+
+    private AccountCache instance() {
+        BankingProperties properties = new BankingProperties();
+        properties.getCache().getAccount().setEnabled(true);
+        AccountCache instance = new AccountCache(properties, redisTemplate, connectionFactory, new SimpleMeterRegistry());
+        instance.start();
+        instances.add(instance);
+        return instance;
+    }
+
+    private AccountReference get(AccountCache instance) {
+        return instance.getAll(List.of(account.getId()), countingRepository::findAllById).get(account.getId());
+    }
+
+    @Test
+    @DisplayName("Deve ler a conta do banco uma única vez entre as instâncias")
+    void shouldReadAccountFromDatabaseOnce_AcrossInstances() {
+        // Arrange
+        AccountCache first = instance();
+        AccountCache second = instance();
+
+        // Act - banco na primeira leitura, cache local na segunda e Redis na outra instância
+        AccountReference loaded = get(first);
+        AccountReference local = get(first);
+        AccountReference remote = get(second);
+
+        // Assert
+        assertThat(loaded).isEqualTo(AccountReference.of(account));
+        assertThat(local).isEqualTo(loaded);
+        assertThat(remote).isEqualTo(loaded);
+        verify(countingRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache local das demais instâncias quando a conta muda")
+    void shouldInvalidateOtherInstances_WhenAccountChanges() {
+        // Arrange
+        AccountCache first = instance();
+        AccountCache second = instance();
+        get(first);
+        get(second);
+
+        // Act - o que o listener da entidade faz após o commit da alteração
+        account.setStatus(AccountStatus.INACTIVE);
+        account = accountRepository.save(account);
+        first.invalidate(account.getId(), account.getVersion());
+
+        // Assert
+        assertThat(get(first).status()).isEqualTo(AccountStatus.INACTIVE);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(get(second).status()).isEqualTo(AccountStatus.INACTIVE));
+        assertThat(get(second).version()).isEqualTo(account.getVersion());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar leitura com versão anterior à invalidação")
+    void shouldNotCacheRead_WhenVersionIsBelowInvalidation() {
+        // Arrange - a invalidação chega antes de a leitura ver a nova versão (alteração ainda não confirmada)
+        AccountCache instance = instance();
+        instance.invalidate(account.getId(), account.getVersion() + 1);
+
+        // Act
+        AccountReference first = get(instance);
+        AccountReference second = get(instance);
+
+        // Assert - a leitura é devolvida, mas nada fica no cache: cada consulta vai ao banco
+        assertThat(first.version()).isEqualTo(account.getVersion());
+        assertThat(second).isEqualTo(first);
+        verify(countingRepository, times(2)).findAllById(any());
+        assertThat(redisTemplate.opsForHash().get("account:" + account.getId(), "v")).isNull();
+    }
+
+    @Test
+    @DisplayName("Não deve ir ao banco para contas já em cache")
+    void shouldNotHitDatabase_WhenAccountIsCached() {
+        // Arrange
+        AccountCache warm = instance();
+        get(warm);
+        AccountCache cold = instance();
+        countingRepository = mock(AccountRepository.class, delegatesTo(accountRepository));
+
+        // Act
+        AccountReference reference = get(cold);
+
+        // Assert
+        assertThat(reference.accountNumber()).isEqualTo(account.getAccountNumber());
+        assertThat(reference.dailyLimit()).isEqualByComparingTo("1000.00");
+        verify(countingRepository, never()).findAllById(any());
+    }
+}
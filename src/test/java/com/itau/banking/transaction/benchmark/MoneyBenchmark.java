@@ -0,0 +1,78 @@
+package com.itau.banking.transaction.benchmark;
+
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.shared.money.MoneyRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabalho do limite diário por transferência (ler o total do Redis, somar o valor, comparar com o limite e gravar o
+ * novo total) com BigDecimal e com {@link Money}. Rodar com o profiler de GC para comparar a taxa de alocação
+ * (gc.alloc.rate.norm, bytes por operação).
+ *
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.benchmarks=MoneyBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int TOTALS = 1024;
+
+    private final GenericToStringSerializer<BigDecimal> bigDecimalSerializer = new GenericToStringSerializer<>(BigDecimal.class);
+    private final MoneyRedisSerializer moneySerializer = new MoneyRedisSerializer();
+
+    private byte[][] cachedTotals;
+    private BigDecimal bigDecimalAmount;
+    private BigDecimal bigDecimalLimit;
+    private Money moneyAmount;
+    private Money moneyLimit;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        cachedTotals = new byte[TOTALS][];
+        for (int i = 0; i < TOTALS; i++) {
+            cachedTotals[i] = bigDecimalSerializer.serialize(BigDecimal.valueOf(i * 97L, 2));
+        }
+        bigDecimalAmount = new BigDecimal("50.00");
+        bigDecimalLimit = new BigDecimal("1000.00");
+        moneyAmount = Money.of(bigDecimalAmount);
+        moneyLimit = Money.of(bigDecimalLimit);
+    }
+
+    @Benchmark
+    public byte[] bigDecimal() {
+        BigDecimal total = bigDecimalSerializer.deserialize(cachedTotals[index++ & (TOTALS - 1)]);
+        BigDecimal newTotal = total.add(bigDecimalAmount);
+        if (newTotal.compareTo(bigDecimalLimit) > 0) {
+            return null;
+        }
+        return bigDecimalSerializer.serialize(newTotal);
+    }
+
+    @Benchmark
+    public byte[] money() {
+        Money total = moneySerializer.deserialize(cachedTotals[index++ & (TOTALS - 1)]);
+        Money newTotal = total.plus(moneyAmount);
+        if (newTotal.isGreaterThan(moneyLimit)) {
+            return null;
+        }
+        return moneySerializer.serialize(newTotal);
+    }
+}
@@ -0,0 +1,84 @@
+package com.itau.banking.transaction.benchmark;
+
+import com.itau.banking.transaction.limit.RollingWindowCounter;
+import com.itau.banking.transaction.shared.enums.RollingWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Atualização da janela móvel de 24h por transferência (avançar o tempo, conferir a soma e somar o valor) com a soma
+ * mantida incrementalmente pelo {@link RollingWindowCounter} e recalculando o anel inteiro a cada consulta.
+ * O parâmetro stepMillis controla quantos buckets o tempo avança entre transferências.
+ *
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.benchmarks=RollingWindowBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollingWindowBenchmark {
+
+    private static final RollingWindow WINDOW = RollingWindow.AMOUNT_24H;
+    private static final long LIMIT = 100_000_000L;
+    private static final long AMOUNT = 5_000L;
+
+    // Uma transferência a cada 1s (mesmo bucket na maior parte das vezes) ou a cada 20min (um bucket novo por vez)
+    @Param({"1000", "1200000"})
+    private long stepMillis;
+
+    private RollingWindowCounter counter;
+    private long[] naiveValues;
+    private long naiveHead;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        counter = new RollingWindowCounter(WINDOW);
+        naiveValues = new long[WINDOW.getBuckets()];
+        naiveHead = 0;
+        now = 1_700_000_000_000L;
+    }
+
+    @Benchmark
+    public long incremental() {
+        now += stepMillis;
+        long used = counter.sum(now);
+        if (used + AMOUNT <= LIMIT) {
+            counter.add(now, AMOUNT);
+        }
+        return used;
+    }
+
+    @Benchmark
+    public long fullRecompute() {
+        now += stepMillis;
+        long bucket = now / WINDOW.bucketMillis();
+        int size = naiveValues.length;
+        for (long next = Math.max(naiveHead + 1, bucket - size + 1); next <= bucket; next++) {
+            naiveValues[(int) (next % size)] = 0;
+        }
+        naiveHead = Math.max(naiveHead, bucket);
+
+        long used = 0;
+        for (long value : naiveValues) {
+            used += value;
+        }
+        if (used + AMOUNT <= LIMIT) {
+            naiveValues[(int) (bucket % size)] += AMOUNT;
+        }
+        return used;
+    }
+}
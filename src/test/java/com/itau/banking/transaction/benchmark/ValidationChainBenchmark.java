@@ -0,0 +1,137 @@
+package com.itau.banking.transaction.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
+import com.itau.banking.transaction.transaction.validator.concrete.AccountActiveValidationStrategy;
+import com.itau.banking.transaction.transaction.validator.concrete.DailyLimitValidationStrategy;
+import com.itau.banking.transaction.transaction.validator.concrete.MinimumAmountValidationStrategy;
+import com.itau.banking.transaction.transaction.validator.concrete.SelfTransferValidationStrategy;
+import com.itau.banking.transaction.transaction.validator.concrete.SufficientBalanceValidationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da cadeia completa de validações (validateAll) para misturas de requisições majoritariamente aprovadas ou
+ * majoritariamente rejeitadas, com a ordem estática do @ValidationOrder e com a ordenação adaptativa.
+ *
+ * A consulta do total diário é simulada com Blackhole.consumeCPU (parâmetro dailyLookupTokens) no lugar do Redis.
+ *
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.benchmarks=ValidationChainBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationChainBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    @Param({"PASS_HEAVY", "REJECT_HEAVY"})
+    public String mix;
+
+    @Param({"false", "true"})
+    public boolean adaptiveOrdering;
+
+    @Param({"0", "2000"})
+    public long dailyLookupTokens;
+
+    private ValidationStrategyFactory factory;
+    private Request[] requests;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        // Os validadores logam em INFO/ERROR a cada chamada; o benchmark mede só a cadeia
+        ((Logger) LoggerFactory.getLogger("com.itau.banking")).setLevel(Level.OFF);
+
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getTransfer().getValidation().setAdaptiveOrdering(adaptiveOrdering);
+        bankingProperties.getTransfer().getValidation().setReorderInterval(REQUESTS);
+
+        long tokens = dailyLookupTokens;
+        DailyLimitService dailyLimitService = new DailyLimitService(null, null, null, bankingProperties) {
+            @Override
+            public Money getCurrentDailyTotal(Long accountId) {
+                Blackhole.consumeCPU(tokens);
+                return Money.parse("900.00");
+            }
+        };
+
+        factory = new ValidationStrategyFactory(List.of(
+                new AccountActiveValidationStrategy(),
+                new SelfTransferValidationStrategy(),
+                new MinimumAmountValidationStrategy(bankingProperties),
+                new SufficientBalanceValidationStrategy(),
+                new DailyLimitValidationStrategy(dailyLimitService)
+        ), new SimpleMeterRegistry(), bankingProperties);
+
+        Account rich = account(1L, "100000.00", AccountStatus.ACTIVE);
+        Account poor = account(2L, "10.00", AccountStatus.ACTIVE);
+        Account inactive = account(3L, "100000.00", AccountStatus.INACTIVE);
+        Account destination = account(4L, "0.00", AccountStatus.ACTIVE);
+
+        Random random = new Random(42);
+        requests = new Request[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int roll = random.nextInt(100);
+            // PASS_HEAVY: 95% aprovadas; REJECT_HEAVY: 20% aprovadas, o resto dividido entre saldo, limite e conta inativa
+            int passShare = "PASS_HEAVY".equals(mix) ? 95 : 20;
+            if (roll < passShare) {
+                requests[i] = new Request(rich, destination, new BigDecimal("50.00"));
+            } else if (roll < passShare + (100 - passShare) / 2) {
+                requests[i] = new Request(poor, destination, new BigDecimal("50.00"));
+            } else if (roll < passShare + (100 - passShare) * 3 / 4) {
+                requests[i] = new Request(rich, destination, new BigDecimal("500.00"));
+            } else {
+                requests[i] = new Request(inactive, destination, new BigDecimal("50.00"));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object validateChain() {
+        Request request = requests[index++ & (REQUESTS - 1)];
+        try {
+            factory.validateAll(request.source(), request.destination(), request.amount());
+            return Boolean.TRUE;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static Account account(Long id, String balance, AccountStatus status) {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(new BigDecimal(balance));
+        account.setDailyLimit(new BigDecimal("1000.00"));
+        account.setStatus(status);
+        return account;
+    }
+
+    private record Request(Account source, Account destination, BigDecimal amount) { }
+}
@@ -0,0 +1,220 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.exception.InactiveAccountException;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.Transaction;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("LedgerEngine - Unit Tests")
+class LedgerEngineTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private DailyLimitService dailyLimitService;
+
+    @Mock
+    private LedgerJournal journal;
+
+    @Mock
+    private CustomerApiClient customerApiClient;
+
+    private LedgerEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getLedger().setShards(2);
+        bankingProperties.getLedger().setWriteTimeoutMs(200);
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account(1L, "100.00", AccountStatus.ACTIVE)));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(account(2L, "0.00", AccountStatus.ACTIVE)));
+        when(accountRepository.findById(3L)).thenReturn(Optional.of(account(3L, "0.00", AccountStatus.INACTIVE)));
+        when(accountRepository.findById(99L)).thenReturn(Optional.empty());
+        when(dailyLimitService.getCurrentDailyTotal(anyLong())).thenReturn(Money.ZERO);
+        when(dailyLimitService.today()).thenReturn(LocalDate.now());
+        when(customerApiClient.findCustomerById(anyLong())).thenReturn(CustomerDto.builder().id(1L).name("João da Silva").build());
+        when(journal.append(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(new Transaction()));
+
+        engine = new LedgerEngine(accountRepository, dailyLimitService, journal, customerApiClient, bankingProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar transferência entre shards e enviar ao journal")
+    void shouldApplyCrossShardTransferAndAppendToJournal() {
+        // Act
+        LedgerReceipt receipt = engine.transfer(request(1L, 2L, "60.00"), "key-1");
+
+        // Assert
+        assertThat(receipt.customer().getName()).isEqualTo("João da Silva");
+        verify(journal, times(1)).append(any(LedgerJournalEntry.class));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quando o saldo em memória não cobre o valor")
+    void shouldReject_WhenInMemoryBalanceIsInsufficient() {
+        // Arrange
+        engine.transfer(request(1L, 2L, "60.00"), "key-1");
+
+        // Act & Assert
+        assertThatThrownBy(() -> engine.transfer(request(1L, 2L, "60.00"), "key-2"))
+                .isInstanceOf(InsufficientBalanceException.class);
+        verify(journal, times(1)).append(any(LedgerJournalEntry.class));
+    }
+
+    @Test
+    @DisplayName("Deve compensar o débito quando o crédito no destino falha")
+    void shouldCompensateDebit_WhenCreditFails() {
+        // Act & Assert
+        assertThatThrownBy(() -> engine.transfer(request(1L, 99L, "100.00"), "key-1"))
+                .isInstanceOf(AccountNotFoundException.class);
+        assertThatThrownBy(() -> engine.transfer(request(1L, 3L, "100.00"), "key-2"))
+                .isInstanceOf(InactiveAccountException.class);
+
+        // Saldo restaurado: a transferência integral volta a ser possível
+        LedgerReceipt receipt = engine.transfer(request(1L, 2L, "100.00"), "key-3");
+        assertThat(receipt).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve compensar os dois passos quando o journal falha")
+    void shouldCompensateBothLegs_WhenJournalFails() {
+        // Arrange
+        when(journal.append(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Journal do ledger cheio")))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(new Transaction()));
+
+        // Act & Assert
+        assertThatThrownBy(() -> engine.transfer(request(1L, 2L, "100.00"), "key-1"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(engine.transfer(request(1L, 2L, "100.00"), "key-2")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve compensar quando o journal não responde e a entrada ainda está na fila")
+    void shouldCompensate_WhenJournalTimesOutWhileQueued() {
+        // Arrange
+        when(journal.append(any()))
+                .thenReturn(new CompletableFuture<>())
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(new Transaction()));
+        when(journal.withdraw(any())).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> engine.transfer(request(1L, 2L, "100.00"), "key-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("não gravada");
+        assertThat(engine.transfer(request(1L, 2L, "100.00"), "key-2")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve manter o estado em memória quando a entrada sem resposta já está em gravação")
+    void shouldKeepInMemoryState_WhenJournalTimesOutWhileWriting() {
+        // Arrange
+        CompletableFuture<Transaction> writing = new CompletableFuture<>();
+        when(journal.append(any()))
+                .thenReturn(writing)
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(new Transaction()));
+        when(journal.withdraw(any())).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> engine.transfer(request(1L, 2L, "100.00"), "key-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("em gravação");
+        assertThatThrownBy(() -> engine.transfer(request(1L, 2L, "100.00"), "key-2"))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        // O commit do lote falha depois: só então o débito é compensado
+        writing.completeExceptionally(new IllegalStateException("commit falhou"));
+        assertThat(engine.transfer(request(1L, 2L, "100.00"), "key-3")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve atender as demais contas do shard enquanto uma conta fria é carregada")
+    void shouldServeOtherAccounts_WhileColdAccountLoads() throws Exception {
+        // Arrange - contas 1 e 5 ficam no mesmo shard
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(accountRepository.findById(5L)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(account(5L, "100.00", AccountStatus.ACTIVE));
+        });
+        engine.transfer(request(1L, 2L, "10.00"), "key-1");
+        CompletableFuture<LedgerReceipt> cold = CompletableFuture.supplyAsync(() -> engine.transfer(request(5L, 2L, "10.00"), "key-2"));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            // Act & Assert
+            assertThat(engine.transfer(request(1L, 2L, "10.00"), "key-3")).isNotNull();
+        } finally {
+            releaseLoad.countDown();
+        }
+        assertThat(cold.join()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite diário mantido pelo shard")
+    void shouldEnforceDailyLimitKeptByShard() {
+        // Arrange
+        when(dailyLimitService.getCurrentDailyTotal(1L)).thenReturn(Money.parse("950.00"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> engine.transfer(request(1L, 2L, "60.00"), "key-1"))
+                .isInstanceOf(DailyLimitExceededException.class);
+    }
+
+    private TransferRequest request(Long source, Long destination, String amount) {
+        return new TransferRequest(source, destination, new BigDecimal(amount), "Ledger test");
+    }
+
+    private Account account(Long id, String balance, AccountStatus status) {
+        Account account = new Account();
+        account.setId(id);
+        account.setAccountNumber("ACC-" + id);
+        account.setBalance(new BigDecimal(balance));
+        account.setDailyLimit(new BigDecimal("1000.00"));
+        account.setStatus(status);
+        account.setCustomerId(1L);
+        return account;
+    }
+}
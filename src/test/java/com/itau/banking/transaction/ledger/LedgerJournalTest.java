@@ -0,0 +1,75 @@
+package com.itau.banking.transaction.ledger;
+
+import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.transaction.Transaction;
+import com.itau.banking.transaction.transaction.TransferWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LedgerJournal - Unit Tests")
+class LedgerJournalTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransferWriter transferWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LedgerJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        journal = new LedgerJournal(accountRepository, transferWriter, transactionTemplate, new BankingProperties());
+        journal.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        journal.stop();
+    }
+
+    @Test
+    @DisplayName("Deve recusar entradas depois do stop")
+    void shouldRejectEntries_AfterStop() throws InterruptedException {
+        // Act
+        journal.stop();
+        CompletableFuture<Transaction> result = journal.append(entry("key-1"));
+
+        // Assert
+        assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS))
+                .hasMessageContaining("parado");
+        verifyNoInteractions(transactionTemplate, transferWriter);
+    }
+
+    @Test
+    @DisplayName("Não deve retirar da fila uma entrada desconhecida")
+    void shouldNotWithdraw_WhenEntryIsNotQueued() {
+        // Act & Assert
+        assertThat(journal.withdraw(new CompletableFuture<>())).isFalse();
+    }
+
+    private LedgerJournalEntry entry(String idempotencyKey) {
+        return new LedgerJournalEntry(1L, 2L, new BigDecimal("10.00"), "Ledger test", idempotencyKey,
+                CustomerDto.builder().id(1L).name("João da Silva").build());
+    }
+}
@@ -0,0 +1,75 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.shared.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DailyLimitControlRepository - Integration Tests")
+class DailyLimitControlRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private DailyLimitControlRepository dailyLimitRepository;
+
+    private Long accountId;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        accountId = ThreadLocalRandom.current().nextLong(2_000_000, 3_000_000);
+        today = LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("Não deve perder somas concorrentes no upsert do total diário")
+    void shouldNotLoseConcurrentAdditions() throws InterruptedException {
+        // Arrange - 20 somas de 10,00 para a mesma conta, sem linha prévia para o dia
+        int transfers = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(transfers);
+
+        // Act
+        for (int i = 0; i < transfers; i++) {
+            executor.submit(() -> {
+                start.await();
+                return dailyLimitRepository.addToDailyTotal(accountId, today, new BigDecimal("10.00"), 1);
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        DailyLimitControl control = dailyLimitRepository.findByAccountIdAndDate(accountId, today).orElseThrow();
+        assertThat(control.getTotalAmount()).isEqualTo(Money.parse("200.00"));
+        assertThat(control.getTransactionCount()).isEqualTo(transfers);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o novo total e manter o total existente na inicialização")
+    void shouldReturnNewTotal_AndKeepExistingTotalOnInitialize() {
+        // Act
+        BigDecimal first = dailyLimitRepository.addToDailyTotal(accountId, today, new BigDecimal("100.00"), 1);
+        BigDecimal second = dailyLimitRepository.addToDailyTotal(accountId, today, new BigDecimal("50.00"), 1);
+        BigDecimal initialized = dailyLimitRepository.initializeDailyTotal(accountId, today, new BigDecimal("999.00"));
+
+        // Assert
+        assertThat(first).isEqualByComparingTo("100.00");
+        assertThat(second).isEqualByComparingTo("150.00");
+        assertThat(initialized).isEqualByComparingTo("150.00");
+        assertThat(dailyLimitRepository.initializeDailyTotal(accountId, today.minusDays(1), new BigDecimal("30.00")))
+                .isEqualByComparingTo("30.00");
+    }
+}
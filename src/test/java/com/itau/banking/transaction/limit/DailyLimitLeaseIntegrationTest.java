@@ -0,0 +1,166 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada {@link DailyLimitService} criado aqui faz o papel de uma instância da aplicação, com os próprios leases locais,
+ * todas compartilhando o mesmo Redis e o mesmo banco.
+ */
+@DisplayName("DailyLimitService leases - Integration Tests")
+class DailyLimitLeaseIntegrationTest extends BaseIntegrationTest {
+
+    private static final Money DAILY_LIMIT = Money.parse("1000.00");
+    private static final Money AMOUNT = Money.parse("10.00");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DailyLimitControlRepository dailyLimitRepository;
+
+    @Autowired
+    private RedisTemplate<String, Money> redisTemplate;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        accountId = ThreadLocalRandom.current().nextLong(3_000_000, 4_000_000);
+    }
+
+    private DailyLimitService instance(int leaseTtlSeconds) {
+        BankingProperties properties = new BankingProperties();
+        BankingProperties.Cache.DailyLimit.Lease lease = properties.getCache().getDailyLimit().getLease();
+        lease.setEnabled(true);
+        lease.setMinDailyLimit(new BigDecimal("100.00"));
+        lease.setChunkFraction(0.1);
+        lease.setTtlSeconds(leaseTtlSeconds);
+        return new DailyLimitService(transactionRepository, dailyLimitRepository, redisTemplate, properties);
+    }
+
+    // Fluxo de uma transferência: reserva, soma no banco e confirmação após o commit
+    private void transfer(DailyLimitService instance, AtomicLong spentCents) {
+        DailyLimitReservation reservation = instance.reserve(accountId, DAILY_LIMIT, AMOUNT);
+        instance.recordReservedTransfer(reservation);
+        reservation.commit();
+        spentCents.addAndGet(AMOUNT.cents());
+    }
+
+    private void spendUntilRejected(DailyLimitService instance, AtomicLong spentCents) {
+        try {
+            while (true) {
+                transfer(instance, spentCents);
+            }
+        } catch (DailyLimitExceededException e) {
+            // limite (ou a parte dele ao alcance desta instância) esgotado
+        }
+    }
+
+    private Money databaseTotal() {
+        return dailyLimitRepository.findByAccountIdAndDate(accountId, LocalDate.now())
+                .map(DailyLimitControl::getTotalAmount)
+                .orElse(Money.ZERO);
+    }
+
+    @Test
+    @DisplayName("Não deve exceder o limite com várias instâncias gastando de leases ao mesmo tempo")
+    void shouldNotExceedLimit_WithSeveralInstancesSpendingFromLeases() throws InterruptedException {
+        // Arrange - 4 instâncias com 8 threads cada, tentando transferir 10x o limite
+        List<DailyLimitService> instances = IntStream.range(0, 4).mapToObj(i -> instance(60)).toList();
+        AtomicLong spentCents = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+
+        // Act - parte das transferências falha e devolve a reserva ao lote
+        for (DailyLimitService instance : instances) {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < 40; attempt++) {
+                        try {
+                            DailyLimitReservation reservation = instance.reserve(accountId, DAILY_LIMIT, AMOUNT);
+                            if (ThreadLocalRandom.current().nextInt(5) == 0) {
+                                reservation.release();
+                                continue;
+                            }
+                            instance.recordReservedTransfer(reservation);
+                            reservation.commit();
+                            spentCents.addAndGet(AMOUNT.cents());
+                        } catch (DailyLimitExceededException e) {
+                            // segue tentando: outra instância pode devolver a sobra do lote
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        instances.forEach(DailyLimitService::returnLeases);
+
+        // Assert
+        Money spent = Money.ofCents(spentCents.get());
+        assertThat(spent.isGreaterThan(DAILY_LIMIT)).isFalse();
+        assertThat(spent.isGreaterThan(Money.ZERO)).isTrue();
+        assertThat(databaseTotal()).isEqualTo(spent);
+
+        // Devolvidos os lotes, o Redis tem o total exato e o restante do limite volta a ficar disponível
+        assertThat(instances.get(0).getCurrentDailyTotal(accountId)).isEqualTo(spent);
+        if (spent.isLessThan(DAILY_LIMIT)) {
+            instances.get(1).reserve(accountId, DAILY_LIMIT, DAILY_LIMIT.minus(spent)).release();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve exceder o limite quando uma instância cai sem devolver o lease")
+    void shouldNotExceedLimit_WhenInstanceDiesHoldingLease() throws InterruptedException {
+        // Arrange - a instância A retira um lote, confirma uma transferência, deixa outra em andamento e cai
+        DailyLimitService crashed = instance(1);
+        DailyLimitService survivor = instance(1);
+        AtomicLong spentCents = new AtomicLong();
+        transfer(crashed, spentCents);
+        DailyLimitReservation inFlight = crashed.reserve(accountId, DAILY_LIMIT, AMOUNT);
+        crashed.recordReservedTransfer(inFlight);
+        spentCents.addAndGet(AMOUNT.cents());
+
+        // Act & Assert - enquanto o lease da instância A vale, o lote dela fica fora do alcance da instância B
+        spendUntilRejected(survivor, spentCents);
+        assertThat(databaseTotal()).isEqualTo(Money.ofCents(spentCents.get()));
+        assertThat(databaseTotal().isGreaterThan(DAILY_LIMIT)).isFalse();
+
+        // Expirado, o lote conta como gasto inteiro até a reconciliação
+        Thread.sleep(1_500);
+        spendUntilRejected(survivor, spentCents);
+        assertThat(databaseTotal().isGreaterThan(DAILY_LIMIT)).isFalse();
+
+        // A reconciliação devolve a sobra do lote perdido e o limite pode ser usado até o fim, nunca além
+        survivor.reconcile(LocalDate.now());
+        spendUntilRejected(survivor, spentCents);
+        assertThat(databaseTotal()).isEqualTo(DAILY_LIMIT);
+        assertThat(Money.ofCents(spentCents.get())).isEqualTo(DAILY_LIMIT);
+    }
+}
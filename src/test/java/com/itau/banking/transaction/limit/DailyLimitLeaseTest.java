@@ -0,0 +1,96 @@
+package com.itau.banking.transaction.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DailyLimitLease - Unit Tests")
+class DailyLimitLeaseTest {
+
+    private DailyLimitLease lease(long grantedCents, long firstCents) {
+        return new DailyLimitLease(1L, LocalDate.now(), "lease:1:" + grantedCents, grantedCents, firstCents);
+    }
+
+    @Test
+    @DisplayName("Não deve gastar além do lote com gastos concorrentes")
+    void shouldNotSpendBeyondLease_WithConcurrentTakes() throws InterruptedException {
+        // Arrange - lote de 100,00 (10,00 já em andamento) disputado por 200 gastos de 1,00
+        DailyLimitLease lease = lease(10_000, 1_000);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (lease.tryTake(100)) {
+                    taken.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(taken.get()).isEqualTo(90);
+        assertThat(lease.getInFlight()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Deve devolver ao lote o valor de um gasto desfeito")
+    void shouldReturnReleasedAmountToLease() {
+        // Arrange
+        DailyLimitLease lease = lease(1_000, 1_000);
+
+        // Act
+        lease.release(1_000);
+
+        // Assert
+        assertThat(lease.getInFlight()).isZero();
+        assertThat(lease.tryTake(1_000)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve liberar a devolução só quando o lote fechado não tiver gastos em andamento")
+    void shouldClaimReturn_OnlyWhenClosedAndDrained() {
+        // Arrange
+        DailyLimitLease lease = lease(1_000, 300);
+        assertThat(lease.tryTake(200)).isTrue();
+
+        // Act & Assert
+        assertThat(lease.claimReturn()).isFalse();
+        lease.close();
+        assertThat(lease.tryTake(100)).isFalse();
+        lease.commit(300, 5_000);
+        assertThat(lease.claimReturn()).isFalse();
+        lease.commit(200, 4_800);
+        assertThat(lease.claimReturn()).isTrue();
+        assertThat(lease.claimReturn()).isFalse();
+        assertThat(lease.getRecordedTotal()).isEqualTo(5_000);
+    }
+
+    @Test
+    @DisplayName("Deve acumular o valor confirmado sem total do banco")
+    void shouldAccumulateUnrecordedCommits() {
+        // Arrange
+        DailyLimitLease lease = lease(1_000, 300);
+
+        // Act
+        lease.commit(300, -1);
+
+        // Assert
+        assertThat(lease.getUnrecorded()).isEqualTo(300);
+        assertThat(lease.getRecordedTotal()).isEqualTo(-1);
+    }
+}
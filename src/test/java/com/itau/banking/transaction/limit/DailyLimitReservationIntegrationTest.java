@@ -0,0 +1,107 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DailyLimitService reservas - Integration Tests")
+class DailyLimitReservationIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private DailyLimitService dailyLimitService;
+
+    @Autowired
+    private DailyLimitControlRepository dailyLimitRepository;
+
+    @Autowired
+    private RedisTemplate<String, Money> redisTemplate;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        accountId = ThreadLocalRandom.current().nextLong(1_000_000, 2_000_000);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar reservas concorrentes só até o limite diário")
+    void shouldAcceptConcurrentReservations_OnlyUpToDailyLimit() throws InterruptedException {
+        // Arrange - 20 reservas de 100,00 disputando um limite de 1.000,00
+        int attempts = 20;
+        Money dailyLimit = Money.parse("1000.00");
+        Money amount = Money.parse("100.00");
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<DailyLimitReservation> accepted = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+
+        // Act
+        for (int i = 0; i < attempts; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    accepted.add(dailyLimitService.reserve(accountId, dailyLimit, amount));
+                } catch (DailyLimitExceededException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(accepted).hasSize(10);
+        assertThat(rejected.get()).isEqualTo(10);
+
+        // Devolvidas as reservas, o limite inteiro volta a ficar disponível
+        accepted.forEach(DailyLimitReservation::release);
+        dailyLimitService.reserve(accountId, dailyLimit, dailyLimit).release();
+    }
+
+    @Test
+    @DisplayName("Deve somar a reserva confirmada ao total e a reconciliação não deve baixá-lo abaixo do Redis")
+    void shouldAddCommittedReservation_AndReconcileWithoutLoweringTotal() {
+        // Arrange
+        Money dailyLimit = Money.parse("1000.00");
+        DailyLimitReservation reservation = dailyLimitService.reserve(accountId, dailyLimit, Money.parse("300.00"));
+
+        // Act - confirmação só no Redis, sem a transferência gravada no banco
+        reservation.commit();
+
+        // Assert
+        assertThat(dailyLimitService.getCurrentDailyTotal(accountId)).isEqualTo(Money.parse("300.00"));
+        assertThatThrownBy(() -> dailyLimitService.reserve(accountId, dailyLimit, Money.parse("800.00")))
+                .isInstanceOf(DailyLimitExceededException.class);
+
+        // Um total menor no banco (como numa página lida antes da confirmação) não a apaga
+        dailyLimitRepository.addToDailyTotal(accountId, dailyLimitService.today(), new BigDecimal("100.00"), 1);
+        dailyLimitService.reconcile(dailyLimitService.today());
+        assertThat(dailyLimitService.getCurrentDailyTotal(accountId)).isEqualTo(Money.parse("300.00"));
+
+        // Um total maior no banco prevalece
+        dailyLimitRepository.addToDailyTotal(accountId, dailyLimitService.today(), new BigDecimal("400.00"), 1);
+        dailyLimitService.reconcile(dailyLimitService.today());
+        assertThat(dailyLimitService.getCurrentDailyTotal(accountId)).isEqualTo(Money.parse("500.00"));
+        dailyLimitService.reserve(accountId, dailyLimit, Money.parse("500.00")).release();
+    }
+}
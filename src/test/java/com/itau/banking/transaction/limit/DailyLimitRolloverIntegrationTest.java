@@ -0,0 +1,139 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.RedisKeyLayout;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Carga da virada do dia: muitas contas fazendo a primeira consulta do dia ao mesmo tempo, com o Redis sem os totais.
+ * O repositório do banco é envolvido para contar as consultas que chegam a ele.
+ */
+@DisplayName("DailyLimitService virada do dia - Integration Tests")
+class DailyLimitRolloverIntegrationTest extends BaseIntegrationTest {
+
+    private static final int ACCOUNTS = 300;
+    private static final int CALLS_PER_ACCOUNT = 8;
+
+    @Autowired
+    private DailyLimitControlRepository dailyLimitRepository;
+
+    @Autowired
+    private RedisTemplate<String, Money> redisTemplate;
+
+    private TransactionRepository transactionRepository;
+    private DailyLimitControlRepository countingRepository;
+    private List<Long> accountIds;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        transactionRepository = mock(TransactionRepository.class);
+        countingRepository = mock(DailyLimitControlRepository.class, delegatesTo(dailyLimitRepository));
+        long base = ThreadLocalRandom.current().nextLong(4_000_000, 5_000_000);
+        accountIds = LongStream.range(base, base + ACCOUNTS).boxed().toList();
+    }
+
+    private DailyLimitService service(RedisKeyLayout layout) {
+        BankingProperties properties = new BankingProperties();
+        properties.getCache().setKeyLayout(layout);
+        return new DailyLimitService(transactionRepository, countingRepository, redisTemplate, properties);
+    }
+
+    private List<Money> firstCallsOfTheDay(DailyLimitService service) throws InterruptedException {
+        ConcurrentLinkedQueue<Money> totals = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        for (Long accountId : accountIds) {
+            for (int call = 0; call < CALLS_PER_ACCOUNT; call++) {
+                executor.submit(() -> {
+                    start.await();
+                    totals.add(service.getCurrentDailyTotal(accountId));
+                    return null;
+                });
+            }
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        return List.copyOf(totals);
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o banco na virada quando o dia seguinte foi iniciado em zero")
+    void shouldNotHitDatabaseOnRollover_WhenNextDayWasInitialized() throws InterruptedException {
+        // Arrange - todas as contas movimentaram ontem; o agendador iniciou o dia de hoje antes da virada
+        DailyLimitService service = service(RedisKeyLayout.LEGACY);
+        LocalDate yesterday = service.today().minusDays(1);
+        accountIds.forEach(accountId -> dailyLimitRepository.addToDailyTotal(accountId, yesterday, new BigDecimal("10.00"), 1));
+        assertThat(service.initializeNextDay(yesterday)).isEqualTo(ACCOUNTS);
+
+        // Act
+        List<Money> totals = firstCallsOfTheDay(service);
+
+        // Assert
+        assertThat(totals).hasSize(ACCOUNTS * CALLS_PER_ACCOUNT).containsOnly(Money.ZERO);
+        verify(countingRepository, never()).findByAccountIdAndDate(any(), any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Não deve sobrescrever total já gravado para o dia seguinte")
+    void shouldNotOverwriteExistingNextDayTotal() {
+        // Arrange - outra instância (com relógio adiantado) já gravou o total de hoje de uma conta
+        DailyLimitService service = service(RedisKeyLayout.COMPACT);
+        LocalDate yesterday = service.today().minusDays(1);
+        Long accountId = accountIds.get(0);
+        dailyLimitRepository.addToDailyTotal(accountId, yesterday, new BigDecimal("10.00"), 1);
+        service.refreshCachedTotal(accountId, service.today(), Money.parse("50.00"));
+
+        // Act
+        service.initializeNextDay(yesterday);
+
+        // Assert
+        assertThat(service.getCurrentDailyTotal(accountId)).isEqualTo(Money.parse("50.00"));
+    }
+
+    @Test
+    @DisplayName("Deve iniciar em zero e agrupar as consultas ao banco na virada sem inicialização prévia")
+    void shouldStartAtZero_AndCollapseDatabaseLookups_WithoutInitialization() throws InterruptedException {
+        // Arrange
+        DailyLimitService service = service(RedisKeyLayout.LEGACY);
+
+        // Act
+        List<Money> totals = firstCallsOfTheDay(service);
+
+        // Assert - nenhuma soma sobre transactions e no máximo uma ida ao banco por conta (com folga para a corrida
+        // entre a gravação no Redis e o fim da leitura)
+        assertThat(totals).hasSize(ACCOUNTS * CALLS_PER_ACCOUNT).containsOnly(Money.ZERO);
+        verifyNoInteractions(transactionRepository);
+        verify(countingRepository, atMost(ACCOUNTS * 2)).findByAccountIdAndDate(any(), any());
+        verify(countingRepository, never()).initializeDailyTotal(any(), any(), any());
+    }
+}
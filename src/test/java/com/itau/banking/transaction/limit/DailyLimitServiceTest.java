@@ -1,6 +1,7 @@
 package com.itau.banking.transaction.limit;
 
 import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.money.Money;
 import com.itau.banking.transaction.transaction.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,14 +12,24 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -33,10 +44,10 @@ class DailyLimitServiceTest {
     private DailyLimitControlRepository dailyLimitRepository;
 
     @Mock
-    private RedisTemplate<String, BigDecimal> redisTemplate;
+    private RedisTemplate<String, Money> redisTemplate;
 
     @Mock
-    private ValueOperations<String, BigDecimal> valueOperations;
+    private ValueOperations<String, Money> valueOperations;
 
     @Mock
     private BankingProperties bankingProperties;
@@ -55,7 +66,8 @@ class DailyLimitServiceTest {
         when(bankingProperties.getCache()).thenReturn(cacheProperties);
         when(cacheProperties.getDailyLimit()).thenReturn(dailyLimitCache);
         when(dailyLimitCache.getPrefix()).thenReturn("daily-limit:");
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Gravações de total vão por script; só as leituras usam opsForValue
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
     }
 
     @Test
@@ -63,9 +75,9 @@ class DailyLimitServiceTest {
     void shouldAllowTransfer_WhenWithinLimit() {
         // Arrange
         Long accountId = 1L;
-        BigDecimal dailyLimit = new BigDecimal("1000.00");
-        BigDecimal currentTotal = new BigDecimal("300.00");
-        BigDecimal transferAmount = new BigDecimal("500.00");
+        Money dailyLimit = Money.parse("1000.00");
+        Money currentTotal = Money.parse("300.00");
+        Money transferAmount = Money.parse("500.00");
 
         when(valueOperations.get(anyString())).thenReturn(currentTotal);
 
@@ -81,9 +93,9 @@ class DailyLimitServiceTest {
     void shouldBlockTransfer_WhenExceedsLimit() {
         // Arrange
         Long accountId = 1L;
-        BigDecimal dailyLimit = new BigDecimal("1000.00");
-        BigDecimal currentTotal = new BigDecimal("800.00");
-        BigDecimal transferAmount = new BigDecimal("300.00");
+        Money dailyLimit = Money.parse("1000.00");
+        Money currentTotal = Money.parse("800.00");
+        Money transferAmount = Money.parse("300.00");
 
         when(valueOperations.get(anyString())).thenReturn(currentTotal);
 
@@ -99,9 +111,9 @@ class DailyLimitServiceTest {
     void shouldAllow_WhenSumEqualsLimit() {
         // Arrange
         Long accountId = 1L;
-        BigDecimal dailyLimit = new BigDecimal("1000.00");
-        BigDecimal currentTotal = new BigDecimal("600.00");
-        BigDecimal transferAmount = new BigDecimal("400.00");
+        Money dailyLimit = Money.parse("1000.00");
+        Money currentTotal = Money.parse("600.00");
+        Money transferAmount = Money.parse("400.00");
 
         when(valueOperations.get(anyString())).thenReturn(currentTotal);
 
@@ -117,14 +129,14 @@ class DailyLimitServiceTest {
     void shouldGetTotalFromRedis_WhenAvailable() {
         // Arrange
         Long accountId = 1L;
-        BigDecimal cachedValue = new BigDecimal("250.00");
+        Money cachedValue = Money.parse("250.00");
         when(valueOperations.get(anyString())).thenReturn(cachedValue);
 
         // Act
-        BigDecimal result = dailyLimitService.getCurrentDailyTotal(accountId);
+        Money result = dailyLimitService.getCurrentDailyTotal(accountId);
 
         // Assert
-        assertThat(result).isEqualByComparingTo(cachedValue);
+        assertThat(result).isEqualTo(cachedValue);
         verify(valueOperations, times(1)).get(anyString());
         verify(dailyLimitRepository, never()).findByAccountIdAndDate(any(), any());
         verify(transactionRepository, never()).sumDailyTransactionsByAccountId(any(), any(), any());
@@ -136,7 +148,7 @@ class DailyLimitServiceTest {
         // Arrange
         Long accountId = 1L;
         LocalDate today = LocalDate.now();
-        BigDecimal dbValue = new BigDecimal("400.00");
+        Money dbValue = Money.parse("400.00");
 
         when(valueOperations.get(anyString())).thenThrow(new RuntimeException("Redis error"));
 
@@ -146,10 +158,10 @@ class DailyLimitServiceTest {
                 .thenReturn(Optional.of(control));
 
         // Act
-        BigDecimal result = dailyLimitService.getCurrentDailyTotal(accountId);
+        Money result = dailyLimitService.getCurrentDailyTotal(accountId);
 
         // Assert
-        assertThat(result).isEqualByComparingTo(dbValue);
+        assertThat(result).isEqualTo(dbValue);
         verify(dailyLimitRepository, times(1)).findByAccountIdAndDate(accountId, today);
     }
 
@@ -163,20 +175,49 @@ class DailyLimitServiceTest {
         LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
         BigDecimal calculatedTotal = new BigDecimal("150.00");
 
+        when(dailyLimitCache.isRecomputeOnMiss()).thenReturn(true);
         when(valueOperations.get(anyString())).thenReturn(null);
         when(dailyLimitRepository.findByAccountIdAndDate(accountId, today))
                 .thenReturn(Optional.empty());
         when(transactionRepository.sumDailyTransactionsByAccountId(accountId, startOfDay, endOfDay))
                 .thenReturn(calculatedTotal);
+        when(dailyLimitRepository.initializeDailyTotal(accountId, today, calculatedTotal))
+                .thenReturn(calculatedTotal);
 
         // Act
-        BigDecimal result = dailyLimitService.getCurrentDailyTotal(accountId);
+        Money result = dailyLimitService.getCurrentDailyTotal(accountId);
 
         // Assert
-        assertThat(result).isEqualByComparingTo(calculatedTotal);
+        assertThat(result).isEqualTo(Money.parse("150.00"));
         verify(transactionRepository, times(1))
                 .sumDailyTransactionsByAccountId(accountId, startOfDay, endOfDay);
-        verify(dailyLimitRepository, times(1)).save(any(DailyLimitControl.class));
+        verify(dailyLimitRepository, never()).save(any(DailyLimitControl.class));
+    }
+
+    @Test
+    @DisplayName("Deve usar o total já gravado quando outra transferência criou a linha do dia antes")
+    void shouldUseExistingTotal_WhenRowCreatedConcurrently() {
+        // Arrange
+        Long accountId = 1L;
+        LocalDate today = LocalDate.now();
+        LocalDateTime startOfDay = today.atStartOfDay();
+        LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
+
+        when(dailyLimitCache.isRecomputeOnMiss()).thenReturn(true);
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(dailyLimitRepository.findByAccountIdAndDate(accountId, today))
+                .thenReturn(Optional.empty());
+        when(transactionRepository.sumDailyTransactionsByAccountId(accountId, startOfDay, endOfDay))
+                .thenReturn(new BigDecimal("150.00"));
+        when(dailyLimitRepository.initializeDailyTotal(accountId, today, new BigDecimal("150.00")))
+                .thenReturn(new BigDecimal("350.00"));
+
+        // Act
+        Money result = dailyLimitService.getCurrentDailyTotal(accountId);
+
+        // Assert
+        assertThat(result).isEqualTo(Money.parse("350.00"));
+        verifyMergedTotal("35000");
     }
 
     @Test
@@ -184,40 +225,78 @@ class DailyLimitServiceTest {
     void shouldUpdateAfterTransfer() {
         // Arrange
         Long accountId = 1L;
-        BigDecimal currentTotal = new BigDecimal("500.00");
-        BigDecimal transferAmount = new BigDecimal("200.00");
-        BigDecimal expectedNewTotal = new BigDecimal("700.00");
+        Money transferAmount = Money.parse("200.00");
+        Money expectedNewTotal = Money.parse("700.00");
 
-        when(valueOperations.get(anyString())).thenReturn(currentTotal);
+        when(dailyLimitRepository.addToDailyTotal(accountId, LocalDate.now(), new BigDecimal("200.00"), 1))
+                .thenReturn(new BigDecimal("700.00"));
 
         // Act
         dailyLimitService.updateAfterTransfer(accountId, transferAmount);
 
-        // Assert
-        verify(valueOperations, times(1)).set(anyString(), eq(expectedNewTotal), any());
-        verify(dailyLimitRepository, times(1)).save(any(DailyLimitControl.class));
+        // Assert - o total devolvido pelo upsert vai direto ao Redis, sem reler o total atual
+        verifyMergedTotal(String.valueOf(expectedNewTotal.cents()));
+        verify(valueOperations, never()).get(anyString());
+        verify(dailyLimitRepository, never()).findByAccountIdAndDate(any(), any());
     }
 
     @Test
-    @DisplayName("Deve retornar zero quando não há transações")
-    void shouldReturnZero_WhenNoTransactions() {
+    @DisplayName("Deve iniciar o dia em zero sem somar as transações quando não há total")
+    void shouldStartDayAtZero_WhenNoTotalExists() {
         // Arrange
         Long accountId = 1L;
         LocalDate today = LocalDate.now();
-        LocalDateTime startOfDay = today.atStartOfDay();
-        LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
 
         when(valueOperations.get(anyString())).thenReturn(null);
         when(dailyLimitRepository.findByAccountIdAndDate(accountId, today))
                 .thenReturn(Optional.empty());
-        when(transactionRepository.sumDailyTransactionsByAccountId(accountId, startOfDay, endOfDay))
-                .thenReturn(BigDecimal.ZERO);
 
         // Act
-        BigDecimal result = dailyLimitService.getCurrentDailyTotal(accountId);
+        Money result = dailyLimitService.getCurrentDailyTotal(accountId);
 
         // Assert
-        assertThat(result).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(result).isEqualTo(Money.ZERO);
+        verifyMergedTotal("0");
+        verifyNoInteractions(transactionRepository);
+        verify(dailyLimitRepository, never()).initializeDailyTotal(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve fazer uma única leitura no banco para faltas simultâneas da mesma conta")
+    void shouldLoadOnce_WhenConcurrentMissesForSameAccount() throws Exception {
+        // Arrange - a primeira leitura no banco fica presa até as outras chamadas chegarem
+        Long accountId = 1L;
+        LocalDate today = LocalDate.now();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        DailyLimitControl control = new DailyLimitControl();
+        control.setTotalAmount(Money.parse("80.00"));
+
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(dailyLimitRepository.findByAccountIdAndDate(accountId, today)).thenAnswer(invocation -> {
+            loading.countDown();
+            finish.await();
+            return Optional.of(control);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<Money>> results = new ArrayList<>();
+        results.add(executor.submit(() -> dailyLimitService.getCurrentDailyTotal(accountId)));
+        loading.await();
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(() -> dailyLimitService.getCurrentDailyTotal(accountId)));
+        }
+        verify(valueOperations, timeout(1000).times(4)).get(anyString());
+        Thread.sleep(50);
+        finish.countDown();
+        executor.shutdown();
+
+        // Assert
+        for (Future<Money> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo(Money.parse("80.00"));
+        }
+        verify(dailyLimitRepository, times(1)).findByAccountIdAndDate(accountId, today);
     }
 
     @Test
@@ -226,10 +305,10 @@ class DailyLimitServiceTest {
         // Arrange
         Long account1 = 1L;
         Long account2 = 2L;
-        BigDecimal limit1 = new BigDecimal("1000.00");
-        BigDecimal limit2 = new BigDecimal("5000.00");
-        BigDecimal amount = new BigDecimal("1500.00");
-        BigDecimal currentTotal = new BigDecimal("0.00");
+        Money limit1 = Money.parse("1000.00");
+        Money limit2 = Money.parse("5000.00");
+        Money amount = Money.parse("1500.00");
+        Money currentTotal = Money.parse("0.00");
 
         when(valueOperations.get(anyString())).thenReturn(currentTotal);
 
@@ -247,9 +326,9 @@ class DailyLimitServiceTest {
     void shouldHandlePreciseDecimalValues() {
         // Arrange
         Long accountId = 1L;
-        BigDecimal dailyLimit = new BigDecimal("1000.00");
-        BigDecimal currentTotal = new BigDecimal("999.99");
-        BigDecimal transferAmount = new BigDecimal("0.01");
+        Money dailyLimit = Money.parse("1000.00");
+        Money currentTotal = Money.parse("999.99");
+        Money transferAmount = Money.parse("0.01");
 
         when(valueOperations.get(anyString())).thenReturn(currentTotal);
 
@@ -265,9 +344,9 @@ class DailyLimitServiceTest {
     void shouldBlock_WhenExceedsByPennies() {
         // Arrange
         Long accountId = 1L;
-        BigDecimal dailyLimit = new BigDecimal("1000.00");
-        BigDecimal currentTotal = new BigDecimal("999.99");
-        BigDecimal transferAmount = new BigDecimal("0.02");
+        Money dailyLimit = Money.parse("1000.00");
+        Money currentTotal = Money.parse("999.99");
+        Money transferAmount = Money.parse("0.02");
 
         when(valueOperations.get(anyString())).thenReturn(currentTotal);
 
@@ -277,4 +356,10 @@ class DailyLimitServiceTest {
         // Assert
         assertThat(result).isFalse();
     }
+
+    @SuppressWarnings("unchecked")
+    private void verifyMergedTotal(String cents) {
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                anyList(), any(), eq(cents), any(), eq("0"));
+    }
 }
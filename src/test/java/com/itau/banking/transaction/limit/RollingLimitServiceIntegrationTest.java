@@ -0,0 +1,164 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.TransferMode;
+import com.itau.banking.transaction.shared.exception.RollingLimitExceededException;
+import com.itau.banking.transaction.shared.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cada {@link RollingLimitService} criado aqui faz o papel de uma instância da aplicação, com o próprio espelho local,
+ * todas compartilhando o mesmo Redis.
+ */
+@DisplayName("RollingLimitService - Integration Tests")
+class RollingLimitServiceIntegrationTest extends BaseIntegrationTest {
+
+    private static final Money DAILY_LIMIT = Money.parse("1000.00");
+
+    @Autowired
+    private RedisTemplate<String, Money> redisTemplate;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        accountId = ThreadLocalRandom.current().nextLong(5_000_000, 6_000_000);
+    }
+
+    private RollingLimitService instance(String hourAmount, int minuteCount) {
+        BankingProperties properties = new BankingProperties();
+        BankingProperties.RollingLimit rollingLimit = properties.getRollingLimit();
+        rollingLimit.setEnabled(true);
+        rollingLimit.setHourAmount(hourAmount != null ? new BigDecimal(hourAmount) : null);
+        rollingLimit.setMinuteCount(minuteCount);
+        return new RollingLimitService(redisTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("Não deve exceder a contagem por minuto com várias instâncias ao mesmo tempo")
+    void shouldNotExceedMinuteCount_WithSeveralInstances() throws InterruptedException {
+        // Arrange - 4 instâncias com 8 threads cada, limite de 20 transferências por minuto
+        List<RollingLimitService> instances = IntStream.range(0, 4).mapToObj(i -> instance(null, 20)).toList();
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+
+        // Act
+        for (RollingLimitService instance : instances) {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < 5; attempt++) {
+                        try {
+                            instance.reserve(accountId, DAILY_LIMIT, Money.parse("1.00"));
+                            accepted.incrementAndGet();
+                        } catch (RollingLimitExceededException e) {
+                            // limite do minuto esgotado
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Assert - nada sai da janela de 1 minuto durante o teste
+        assertThat(accepted.get()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o espaço nas janelas quando a transferência é desfeita")
+    void shouldFreeWindows_WhenUsageIsReleased() {
+        // Arrange
+        RollingLimitService first = instance("300.00", 0);
+        RollingLimitService second = instance("300.00", 0);
+        RollingLimitUsage usage = first.reserve(accountId, DAILY_LIMIT, Money.parse("300.00"));
+        assertThatThrownBy(() -> second.reserve(accountId, DAILY_LIMIT, Money.parse("0.01")))
+                .isInstanceOf(RollingLimitExceededException.class)
+                .hasMessageContaining("da última hora");
+
+        // Act
+        usage.release();
+        usage.release();
+
+        // Assert - liberado no Redis e no espelho da instância que somou
+        second.reserve(accountId, DAILY_LIMIT, Money.parse("100.00"));
+        first.reserve(accountId, DAILY_LIMIT, Money.parse("200.00"));
+        assertThatThrownBy(() -> first.reserve(accountId, DAILY_LIMIT, Money.parse("0.01")))
+                .isInstanceOf(RollingLimitExceededException.class);
+    }
+
+    @Test
+    @DisplayName("Não deve somar a nenhuma janela quando uma delas rejeita")
+    void shouldNotRecordAnyWindow_WhenOneRejects() {
+        // Arrange - a janela de 24h usa o limite diário da conta
+        RollingLimitService service = instance("500.00", 0);
+        service.reserve(accountId, DAILY_LIMIT, Money.parse("400.00"));
+
+        // Act & Assert - rejeitada pela janela de 1h, a transferência não consome a de 24h
+        assertThatThrownBy(() -> service.reserve(accountId, DAILY_LIMIT, Money.parse("200.00")))
+                .isInstanceOf(RollingLimitExceededException.class)
+                .hasMessageContaining("da última hora");
+        assertThatThrownBy(() -> instance(null, 0).reserve(accountId, DAILY_LIMIT, Money.parse("600.01")))
+                .isInstanceOf(RollingLimitExceededException.class)
+                .hasMessageContaining("das últimas 24 horas");
+        instance(null, 0).reserve(accountId, DAILY_LIMIT, Money.parse("600.00"));
+    }
+
+    @Test
+    @DisplayName("Só conferir não deve somar às janelas")
+    void shouldNotRecord_WhenOnlyChecking() {
+        // Arrange
+        RollingLimitService service = instance(null, 1);
+
+        // Act
+        service.check(accountId, DAILY_LIMIT, Money.parse("10.00"));
+        service.check(accountId, DAILY_LIMIT, Money.parse("10.00"));
+
+        // Assert
+        service.reserve(accountId, DAILY_LIMIT, Money.parse("10.00"));
+        assertThatThrownBy(() -> service.check(accountId, DAILY_LIMIT, Money.parse("10.00")))
+                .isInstanceOf(RollingLimitExceededException.class)
+                .hasMessageContaining("de transferências por minuto");
+    }
+
+    @Test
+    @DisplayName("Não deve subir com os modos que validam fora da cadeia de validações")
+    void shouldRejectStartup_WhenTransferModeSkipsValidationChain() {
+        instance(null, 0).checkTransferMode();
+
+        for (TransferMode mode : List.of(TransferMode.LEDGER, TransferMode.DB_FUNCTION)) {
+            // Arrange
+            BankingProperties properties = new BankingProperties();
+            properties.getRollingLimit().setEnabled(true);
+            properties.getTransfer().setMode(mode);
+            RollingLimitService service = new RollingLimitService(redisTemplate, properties);
+
+            // Act & Assert
+            assertThatThrownBy(service::checkTransferMode)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining(mode.name());
+        }
+    }
+}
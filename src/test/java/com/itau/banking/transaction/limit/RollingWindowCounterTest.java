@@ -0,0 +1,81 @@
+package com.itau.banking.transaction.limit;
+
+import com.itau.banking.transaction.shared.enums.RollingWindow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RollingWindowCounter - Unit Tests")
+class RollingWindowCounterTest {
+
+    // Janela de 1 hora em 60 buckets de 1 minuto
+    private static final long MINUTE = 60_000;
+    private static final long START = 1_700_000_000_000L - 1_700_000_000_000L % MINUTE;
+
+    private final RollingWindowCounter counter = new RollingWindowCounter(RollingWindow.AMOUNT_1H);
+
+    @Test
+    @DisplayName("Deve somar os valores dentro da janela")
+    void shouldSumValuesWithinWindow() {
+        // Arrange
+        counter.add(START, 1_000);
+        counter.add(START + 10 * MINUTE, 2_000);
+
+        // Act & Assert
+        assertThat(counter.sum(START + 30 * MINUTE)).isEqualTo(3_000);
+    }
+
+    @Test
+    @DisplayName("Deve descontar da soma os buckets que saem da janela")
+    void shouldDropExpiredBucketsFromSum() {
+        // Arrange
+        counter.add(START, 1_000);
+        counter.add(START + 10 * MINUTE, 2_000);
+
+        // Act & Assert
+        assertThat(counter.sum(START + 59 * MINUTE)).isEqualTo(3_000);
+        assertThat(counter.sum(START + 60 * MINUTE)).isEqualTo(2_000);
+        assertThat(counter.sum(START + 70 * MINUTE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve zerar a janela depois de um intervalo maior que ela")
+    void shouldResetWindow_AfterLongIdleGap() {
+        // Arrange
+        counter.add(START, 1_000);
+
+        // Act
+        counter.add(START + 5 * 60 * MINUTE, 500);
+
+        // Assert
+        assertThat(counter.sum(START + 5 * 60 * MINUTE)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("Deve desfazer uma soma ainda dentro da janela")
+    void shouldUndoValue_WhenStillWithinWindow() {
+        // Arrange
+        counter.add(START, 1_000);
+        counter.add(START + 5 * MINUTE, 2_000);
+
+        // Act
+        counter.add(START, -1_000);
+
+        // Assert
+        assertThat(counter.sum(START + 5 * MINUTE)).isEqualTo(2_000);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar a soma de um instante que já saiu da janela")
+    void shouldIgnoreValue_WhenOutsideWindow() {
+        // Arrange
+        counter.add(START + 90 * MINUTE, 2_000);
+
+        // Act - o desfazer chega depois que o bucket original saiu da janela
+        counter.add(START, -1_000);
+
+        // Assert
+        assertThat(counter.sum(START + 90 * MINUTE)).isEqualTo(2_000);
+    }
+}
@@ -0,0 +1,190 @@
+package com.itau.banking.transaction.notification;
+
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.transaction.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BacenDispatcher - Unit Tests")
+class BacenDispatcherTest {
+
+    @Mock
+    private BacenNotificationService bacenNotificationService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Transaction transaction = new Transaction();
+    private final CustomerDto customer = CustomerDto.builder().id(1L).name("João da Silva").build();
+    private BacenDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve enviar ao BACEN somente após o commit")
+    void shouldSendOnlyAfterCommit() throws InterruptedException {
+        // Arrange
+        dispatcher = new BacenDispatcher(bacenNotificationService, meterRegistry, properties(1, 10, 2000), new MockEnvironment());
+        CountDownLatch sent = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sent.countDown();
+            return null;
+        }).when(bacenNotificationService).sendSync(transaction, customer);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        dispatcher.dispatchAfterCommit(transaction, customer);
+
+        // Assert - nada enviado antes do commit
+        verifyNoInteractions(bacenNotificationService);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve agendar as notificações de um lote em uma única sincronização")
+    void shouldDispatchBatchInSingleSynchronization() throws InterruptedException {
+        // Arrange
+        dispatcher = new BacenDispatcher(bacenNotificationService, meterRegistry, properties(2, 10, 2000), new MockEnvironment());
+        Transaction other = new Transaction();
+        CountDownLatch sent = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            sent.countDown();
+            return null;
+        }).when(bacenNotificationService).sendSync(any(), eq(customer));
+        TransactionSynchronizationManager.initSynchronization();
+        Map<Transaction, CustomerDto> notifications = new LinkedHashMap<>();
+        notifications.put(transaction, customer);
+        notifications.put(other, customer);
+
+        // Act
+        dispatcher.dispatchAllAfterCommit(notifications);
+
+        // Assert
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+        verifyNoInteractions(bacenNotificationService);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve enviar para o Kafka quando o orçamento de latência é excedido na fila")
+    void shouldFallbackToKafka_WhenLatencyBudgetExceeded() throws InterruptedException {
+        // Arrange - uma única thread ocupada por um envio lento, cujo fallback para o Kafka também demora
+        dispatcher = new BacenDispatcher(bacenNotificationService, meterRegistry, properties(1, 10, 50), new MockEnvironment());
+        Transaction slowTransaction = new Transaction();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fallback = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(bacenNotificationService).sendSync(slowTransaction, customer);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(bacenNotificationService).sendToKafka(slowTransaction, customer);
+        doAnswer(invocation -> {
+            fallback.countDown();
+            return null;
+        }).when(bacenNotificationService).sendToKafka(transaction, customer);
+
+        // Act
+        dispatcher.dispatchAfterCommit(slowTransaction, customer);
+        dispatcher.dispatchAfterCommit(transaction, customer);
+        Thread.sleep(150);
+        release.countDown();
+
+        // Assert
+        assertThat(fallback.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(bacenNotificationService, never()).sendSync(transaction, customer);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(meterRegistry.counter("banking.bacen.dispatch", "outcome", "budget_exceeded").count()).isEqualTo(1.0));
+    }
+
+    @Test
+    @DisplayName("Deve interromper a chamada ao BACEN que excede o orçamento e enviar para o Kafka")
+    void shouldFallbackToKafka_WhenCallExceedsLatencyBudget() throws InterruptedException {
+        // Arrange - BACEN responde só depois de 5s
+        dispatcher = new BacenDispatcher(bacenNotificationService, meterRegistry, properties(1, 10, 100), new MockEnvironment());
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch fallback = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }).when(bacenNotificationService).sendSync(transaction, customer);
+        doAnswer(invocation -> {
+            fallback.countDown();
+            return null;
+        }).when(bacenNotificationService).sendToKafka(transaction, customer);
+
+        // Act
+        long start = System.nanoTime();
+        dispatcher.dispatchAfterCommit(transaction, customer);
+
+        // Assert
+        assertThat(fallback.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(meterRegistry.counter("banking.bacen.dispatch", "outcome", "call_timeout").count()).isEqualTo(1.0));
+    }
+
+    @Test
+    @DisplayName("Deve enviar para o Kafka quando a fila de envio está cheia")
+    void shouldFallbackToKafka_WhenQueueIsFull() {
+        // Arrange - thread e fila de uma posição ocupadas
+        dispatcher = new BacenDispatcher(bacenNotificationService, meterRegistry, properties(1, 1, 2000), new MockEnvironment());
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(bacenNotificationService).sendSync(any(), any());
+
+        // Act
+        dispatcher.dispatchAfterCommit(new Transaction(), customer);
+        dispatcher.dispatchAfterCommit(new Transaction(), customer);
+        dispatcher.dispatchAfterCommit(transaction, customer);
+        release.countDown();
+
+        // Assert
+        verify(bacenNotificationService).sendToKafka(transaction, customer);
+        assertThat(meterRegistry.counter("banking.bacen.dispatch", "outcome", "queue_full").count()).isEqualTo(1.0);
+    }
+
+    private BankingProperties properties(int threads, int queueCapacity, long latencyBudgetMs) {
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getNotification().getDispatch().setThreads(threads);
+        bankingProperties.getNotification().getDispatch().setQueueCapacity(queueCapacity);
+        bankingProperties.getNotification().getDispatch().setLatencyBudgetMs(latencyBudgetMs);
+        return bankingProperties;
+    }
+}
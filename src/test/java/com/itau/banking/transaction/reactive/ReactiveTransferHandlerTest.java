@@ -0,0 +1,160 @@
+package com.itau.banking.transaction.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.notification.BacenDispatcher;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.ResultCode;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.TransferFunctionResult;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveTransferHandler - Unit Tests")
+class ReactiveTransferHandlerTest {
+
+    private static final String BODY = """
+            {"sourceAccountId": 1, "destinationAccountId": 2, "amount": 100.00, "description": "Pagamento"}
+            """;
+
+    @Mock
+    private ReactiveTransferRepository reactiveTransferRepository;
+
+    @Mock
+    private ValidationStrategyFactory validationStrategyFactory;
+
+    @Mock
+    private CustomerApiClient customerApiClient;
+
+    @Mock
+    private DailyLimitService dailyLimitService;
+
+    @Mock
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    @Mock
+    private BacenDispatcher bacenDispatcher;
+
+    private final LocalDate businessDate = LocalDate.of(2026, 1, 15);
+    private final CustomerDto customer = CustomerDto.builder().id(1L).name("João da Silva").cpf("12345678900").build();
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        BankingProperties bankingProperties = new BankingProperties();
+        ReactiveTransferHandler handler = new ReactiveTransferHandler(reactiveTransferRepository, validationStrategyFactory,
+                customerApiClient, dailyLimitService, reactiveStringRedisTemplate, bacenDispatcher, bankingProperties);
+        ReactiveTransferServer server = new ReactiveTransferServer(handler, new ReactiveErrorHandler(),
+                new ObjectMapper().findAndRegisterModules(), bankingProperties);
+        client = WebTestClient.bindToRouterFunction(server.routes()).build();
+    }
+
+    @Test
+    @DisplayName("Deve transferir pela função transfer_funds, atualizar o cache do limite e despachar o BACEN")
+    void shouldTransfer_WhenFunctionSucceeds() {
+        // Arrange
+        mockSourceAccount();
+        when(reactiveTransferRepository.transfer(eq(1L), eq(2L), any(), eq("key-1"), anyString(), any(), anyString(), anyString(), eq(businessDate)))
+                .thenReturn(Mono.just(result(ResultCode.OK, 10L)));
+        when(dailyLimitService.refreshCachedTotal(reactiveStringRedisTemplate, 1L, businessDate, Money.parse("600.00")))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        post("key-1")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.transactionId").isEqualTo(10)
+                .jsonPath("$.destinationAccount.accountNumber").isEqualTo("65432-1");
+        verify(validationStrategyFactory).validateRequest(1L, 2L, new BigDecimal("100.00"));
+        verify(bacenDispatcher).dispatchAfterCommit(any(), eq(customer));
+    }
+
+    @Test
+    @DisplayName("Deve responder 422 quando a função rejeita pelo limite diário")
+    void shouldReturnUnprocessable_WhenFunctionRejects() {
+        // Arrange
+        mockSourceAccount();
+        when(reactiveTransferRepository.transfer(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Mono.just(result(ResultCode.DAILY_LIMIT_EXCEEDED, null)));
+
+        // Act & Assert
+        post("key-1")
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Daily Limit Exceeded");
+        verify(dailyLimitService, never()).refreshCachedTotal(any(), any(), any(), any());
+        verifyNoInteractions(bacenDispatcher);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar pela validação sem estado antes de qualquer acesso ao banco")
+    void shouldRejectBeforeDatabase_WhenStatelessValidationFails() {
+        // Arrange
+        doThrow(new SelfTransferException()).when(validationStrategyFactory).validateRequest(any(), any(), any());
+
+        // Act & Assert
+        post("key-1")
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Self Transfer Not Allowed");
+        verifyNoInteractions(reactiveTransferRepository);
+    }
+
+    @Test
+    @DisplayName("Deve responder 400 quando falta o header Idempotency-Key")
+    void shouldReturnBadRequest_WhenIdempotencyKeyIsMissing() {
+        // Act & Assert
+        client.post().uri("/api/v1/transaction/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(BODY)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(reactiveTransferRepository);
+    }
+
+    private WebTestClient.ResponseSpec post(String idempotencyKey) {
+        return client.post().uri("/api/v1/transaction/transfer")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(BODY)
+                .exchange();
+    }
+
+    private void mockSourceAccount() {
+        Account source = new Account();
+        source.setId(1L);
+        source.setAccountNumber("12345-6");
+        source.setCustomerId(1L);
+        when(reactiveTransferRepository.findAccount(1L)).thenReturn(Mono.just(source));
+        when(customerApiClient.findCustomerById(1L)).thenReturn(customer);
+        when(dailyLimitService.today()).thenReturn(businessDate);
+    }
+
+    private TransferFunctionResult result(ResultCode code, Long transactionId) {
+        return new TransferFunctionResult(code, transactionId, new BigDecimal("1000.00"), new BigDecimal("1000.00"),
+                new BigDecimal("600.00"), "12345-6", "65432-1", LocalDateTime.now());
+    }
+}
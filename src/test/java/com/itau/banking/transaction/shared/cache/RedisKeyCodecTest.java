@@ -0,0 +1,38 @@
+package com.itau.banking.transaction.shared.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RedisKeyCodec - Unit Tests")
+class RedisKeyCodecTest {
+
+    @Test
+    @DisplayName("Deve codificar UUID canônico nos seus 16 bytes em 22 caracteres")
+    void shouldEncodeCanonicalUuid_As16Bytes() {
+        // Arrange
+        UUID uuid = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+        // Act
+        String compact = RedisKeyCodec.compact(uuid.toString());
+
+        // Assert
+        ByteBuffer decoded = ByteBuffer.wrap(Base64.getUrlDecoder().decode(compact));
+        assertThat(compact).hasSize(22);
+        assertThat(new UUID(decoded.getLong(), decoded.getLong())).isEqualTo(uuid);
+    }
+
+    @Test
+    @DisplayName("Deve manter como texto chaves que não são UUID canônico")
+    void shouldKeepNonCanonicalKeys_AsText() {
+        // Act & Assert
+        assertThat(RedisKeyCodec.compact("batch-key")).isEqualTo("=batch-key");
+        assertThat(RedisKeyCodec.compact("550E8400-E29B-41D4-A716-446655440000")).isEqualTo("=550E8400-E29B-41D4-A716-446655440000");
+        assertThat(RedisKeyCodec.compact("550e8400e29b41d4a716446655440000xxxx")).startsWith("=");
+    }
+}
@@ -0,0 +1,167 @@
+package com.itau.banking.transaction.shared.cache;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.RedisKeyLayout;
+import com.itau.banking.transaction.shared.idempotency.IdempotencyService;
+import com.itau.banking.transaction.shared.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede no Redis do Testcontainers a memória por conta de cada layout depois de gravar N contas: a soma do MEMORY USAGE
+ * de todas as chaves gravadas (SAMPLES 0, exato) e a variação de used_memory no INFO memory, que inclui o overhead do
+ * dicionário de chaves. Os dois valores vão para o log.
+ */
+@DisplayName("RedisKeyLayout - Memory Integration Tests")
+class RedisKeyLayoutMemoryIntegrationTest extends BaseIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisKeyLayoutMemoryIntegrationTest.class);
+    private static final int KEYS = 10_000;
+    private static final int ACCOUNTS_PER_BUCKET = 100;
+    private static final int SCAN_COUNT = 1_000;
+    private static final RedisScript<Long> MEMORY_USAGE_SCRIPT = new DefaultRedisScript<>("""
+            local total = 0
+            for _, key in ipairs(KEYS) do total = total + redis.call('MEMORY', 'USAGE', key, 'SAMPLES', '0') end
+            return total
+            """, Long.class);
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private DailyLimitService dailyLimitService;
+
+    @Autowired
+    private BankingProperties bankingProperties;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    private RedisKeyLayout originalLayout;
+    private int originalBuckets;
+
+    @BeforeEach
+    void setUp() {
+        originalLayout = bankingProperties.getCache().getKeyLayout();
+        originalBuckets = bankingProperties.getCache().getDailyLimit().getBuckets();
+        bankingProperties.getCache().getDailyLimit().setBuckets(KEYS / ACCOUNTS_PER_BUCKET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bankingProperties.getCache().setKeyLayout(originalLayout);
+        bankingProperties.getCache().getDailyLimit().setBuckets(originalBuckets);
+        flush();
+    }
+
+    @Test
+    @DisplayName("Deve ocupar menos memória por chave de idempotência no layout compacto")
+    void shouldUseLessMemoryPerIdempotencyKey_WhenCompact() {
+        // Act
+        LayoutMemory legacy = measure(RedisKeyLayout.LEGACY, this::writeIdempotencyKeys);
+        LayoutMemory compact = measure(RedisKeyLayout.COMPACT, this::writeIdempotencyKeys);
+        log.info("[RedisKeyLayoutMemoryIntegrationTest].[idempotency] - {} chaves - legado: {} - compacto: {}", KEYS, legacy, compact);
+
+        // Assert
+        assertThat(compact.memoryUsagePerKey())
+                .as("Idempotência - MEMORY USAGE por chave: legado %s / compacto %s", legacy, compact)
+                .isLessThan(legacy.memoryUsagePerKey());
+        assertThat(compact.usedMemoryPerKey()).isLessThan(legacy.usedMemoryPerKey());
+    }
+
+    @Test
+    @DisplayName("Deve ocupar menos da metade da memória por conta no limite diário em buckets")
+    void shouldUseLessThanHalfMemoryPerDailyTotal_WhenCompact() {
+        // Act
+        LayoutMemory legacy = measure(RedisKeyLayout.LEGACY, this::writeDailyTotals);
+        LayoutMemory compact = measure(RedisKeyLayout.COMPACT, this::writeDailyTotals);
+        log.info("[RedisKeyLayoutMemoryIntegrationTest].[dailyLimit] - {} contas - legado: {} - compacto: {}", KEYS, legacy, compact);
+
+        // Assert
+        assertThat(compact.memoryUsagePerKey())
+                .as("Limite diário - MEMORY USAGE por conta: legado %s / compacto %s", legacy, compact)
+                .isLessThan(legacy.memoryUsagePerKey() / 2);
+        assertThat(compact.usedMemoryPerKey()).isLessThan(legacy.usedMemoryPerKey() / 2);
+        assertThat(dailyLimitService.getCurrentDailyTotal(1L)).isEqualTo(Money.ofCents(1_00));
+    }
+
+    private LayoutMemory measure(RedisKeyLayout layout, Runnable writer) {
+        flush();
+        bankingProperties.getCache().setKeyLayout(layout);
+        long before = usedMemory();
+        writer.run();
+        long usedMemory = usedMemory() - before;
+        return new LayoutMemory((double) memoryUsage() / KEYS, (double) usedMemory / KEYS);
+    }
+
+    // Soma do MEMORY USAGE de todas as chaves do banco, que só contém as gravadas pela medição
+    private long memoryUsage() {
+        long total = 0;
+        List<String> batch = new ArrayList<>(SCAN_COUNT);
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().count(SCAN_COUNT).build())) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == SCAN_COUNT || !keys.hasNext()) {
+                    total += redisTemplate.execute(MEMORY_USAGE_SCRIPT, batch);
+                    batch.clear();
+                }
+            }
+        }
+        return total;
+    }
+
+    private void writeIdempotencyKeys() {
+        Map<String, Long> keys = new HashMap<>();
+        for (long i = 0; i < KEYS; i++) {
+            keys.put(UUID.randomUUID().toString(), 1_000_000 + i);
+        }
+        idempotencyService.registerIdempotencyKeys(keys);
+    }
+
+    private void writeDailyTotals() {
+        for (long accountId = 1; accountId <= KEYS; accountId++) {
+            dailyLimitService.refreshCachedTotal(accountId, dailyLimitService.today(), Money.ofCents(accountId * 100));
+        }
+    }
+
+    private long usedMemory() {
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection -> connection.serverCommands().info("memory"));
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+
+    private void flush() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    private record LayoutMemory(double memoryUsagePerKey, double usedMemoryPerKey) {
+        @Override
+        public String toString() {
+            return String.format("MEMORY USAGE %.1f B / used_memory %.1f B", memoryUsagePerKey, usedMemoryPerKey);
+        }
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.data.redis.core.RedisTemplate;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @DisplayName("IdempotencyService - Integration Tests")
@@ -28,22 +30,23 @@ class IdempotencyServiceIntegrationTest extends BaseIntegrationTest {
     }
 
     @Test
-    @DisplayName("Deve validar e registrar chave de idempotência no Redis")
-    void shouldValidateAndRegisterIdempotencyKey() {
+    @DisplayName("Deve reservar e registrar chave de idempotência no Redis")
+    void shouldReserveAndRegisterIdempotencyKey() {
         // Arrange
         String idempotencyKey = "test-key-" + System.currentTimeMillis();
         Long transactionId = 123L;
 
-        // Act - Primeira validação deve passar
-        boolean isValid = idempotencyService.isValidIdempotencyKey(idempotencyKey);
-        assertThat(isValid).isTrue();
+        // Act - Primeira reserva deve ser concedida
+        IdempotencyLookup<Object> reservation = idempotencyService.reserve(idempotencyKey, Object.class);
+        assertThat(reservation.state()).isEqualTo(IdempotencyLookup.State.RESERVED);
 
         // Registrar chave
         idempotencyService.registerIdempotencyKey(idempotencyKey, transactionId);
 
-        // Segunda validação deve falhar (chave duplicada)
-        boolean isValidAfter = idempotencyService.isValidIdempotencyKey(idempotencyKey);
-        assertThat(isValidAfter).isFalse();
+        // Segunda reserva deve devolver a transação original (chave duplicada)
+        IdempotencyLookup<Object> replay = idempotencyService.reserve(idempotencyKey, Object.class);
+        assertThat(replay.state()).isEqualTo(IdempotencyLookup.State.COMPLETED);
+        assertThat(replay.transactionId()).isEqualTo(transactionId);
     }
 
     @Test
@@ -55,10 +58,10 @@ class IdempotencyServiceIntegrationTest extends BaseIntegrationTest {
 
         // Act
         idempotencyService.registerIdempotencyKey(idempotencyKey, transactionId);
-        Long retrieved = idempotencyService.getTransactionByIdempotencyKey(idempotencyKey);
+        Map<String, Long> retrieved = idempotencyService.findProcessedKeys(List.of(idempotencyKey));
 
         // Assert
-        assertThat(retrieved).isEqualTo(transactionId);
+        assertThat(retrieved).containsExactly(Map.entry(idempotencyKey, transactionId));
     }
 
     @Test
@@ -75,28 +78,27 @@ class IdempotencyServiceIntegrationTest extends BaseIntegrationTest {
         idempotencyService.registerIdempotencyKey(key2, txId2);
 
         // Assert
-        assertThat(idempotencyService.getTransactionByIdempotencyKey(key1)).isEqualTo(txId1);
-        assertThat(idempotencyService.getTransactionByIdempotencyKey(key2)).isEqualTo(txId2);
-        assertThat(idempotencyService.isValidIdempotencyKey("key3-new")).isTrue();
+        assertThat(idempotencyService.findProcessedKeys(List.of(key1, key2, "key3-new")))
+                .containsOnly(Map.entry(key1, txId1), Map.entry(key2, txId2));
     }
 
     @Test
-    @DisplayName("Deve retornar null para chave não existente")
-    void shouldReturnNull_ForNonExistentKey() {
+    @DisplayName("Deve retornar vazio para chave não existente")
+    void shouldReturnEmpty_ForNonExistentKey() {
         // Act
-        Long result = idempotencyService.getTransactionByIdempotencyKey("non-existent-key");
+        Map<String, Long> result = idempotencyService.findProcessedKeys(List.of("non-existent-key"));
 
         // Assert
-        assertThat(result).isNull();
+        assertThat(result).isEmpty();
     }
 
     @Test
-    @DisplayName("Deve validar corretamente chaves nulas ou vazias")
-    void shouldValidateNullOrBlankKeys() {
+    @DisplayName("Deve tratar chaves nulas ou vazias como já usadas")
+    void shouldTreatNullOrBlankKeysAsUsed() {
         // Act & Assert
-        assertThat(idempotencyService.isValidIdempotencyKey(null)).isFalse();
-        assertThat(idempotencyService.isValidIdempotencyKey("")).isFalse();
-        assertThat(idempotencyService.isValidIdempotencyKey("   ")).isFalse();
+        assertThat(idempotencyService.reserve(null, Object.class).exists()).isTrue();
+        assertThat(idempotencyService.reserve("", Object.class).exists()).isTrue();
+        assertThat(idempotencyService.reserve("   ", Object.class).exists()).isTrue();
     }
 
     @Test
@@ -110,7 +112,7 @@ class IdempotencyServiceIntegrationTest extends BaseIntegrationTest {
         idempotencyService.registerIdempotencyKey(idempotencyKey, transactionId);
 
         // Assert - Verificar que chave existe no Redis
-        String redisKey = "idempotency:" + idempotencyKey;
+        String redisKey = idempotencyService.redisKey(idempotencyKey);
         Boolean exists = redisTemplate.hasKey(redisKey);
         assertThat(exists).isTrue();
 
@@ -1,19 +1,36 @@
 package com.itau.banking.transaction.shared.idempotency;
 
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.enums.RedisKeyLayout;
+import com.itau.banking.transaction.shared.exception.DuplicateTransactionException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +56,15 @@ class IdempotencyServiceTest {
     @Mock
     private BankingProperties.Cache.Idempotency idempotencyCache;
 
+    @Mock
+    private ObjectProvider<IdempotencyKeyFilter> keyFilter;
+
+    @Mock
+    private IdempotencyDatabaseStore databaseStore;
+
+    @Spy
+    private IdempotencyFailover failover = new IdempotencyFailover(CircuitBreakerRegistry.ofDefaults(), new SimpleMeterRegistry());
+
     @InjectMocks
     private IdempotencyService idempotencyService;
 
@@ -52,57 +78,118 @@ class IdempotencyServiceTest {
     }
 
     @Test
-    @DisplayName("Deve retornar true quando chave é válida e não existe no Redis")
-    void shouldReturnTrue_WhenKeyIsValidAndDoesNotExist() {
+    @DisplayName("Deve tratar chave nula ou vazia como já usada sem acessar o Redis")
+    void shouldTreatNullOrBlankKeyAsUsed() {
+        // Act
+        IdempotencyLookup<StoredResponse> nullKey = idempotencyService.reserve(null, StoredResponse.class);
+        IdempotencyLookup<StoredResponse> blankKey = idempotencyService.reserve("   ", StoredResponse.class);
+
+        // Assert
+        assertThat(nullKey.exists()).isTrue();
+        assertThat(blankKey.exists()).isTrue();
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta guardada junto da chave em um único GET")
+    void shouldReturnStoredResponse_WhenRegisteredWithResponse() {
         // Arrange
-        String idempotencyKey = "valid-key-123";
-        when(redisTemplate.hasKey(anyString())).thenReturn(false);
+        IdempotencyService service = new IdempotencyService(redisTemplate, bankingProperties, JsonMapper.builder().findAndAddModules().build(), keyFilter, failover, databaseStore);
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        service.registerResponse("replay-key", 300L, new StoredResponse(300L, new BigDecimal("150.00")));
+        verify(valueOperations).set(eq("idempotency:replay-key"), stored.capture(), any(Duration.class));
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("idempotency:replay-key")).thenReturn(stored.getValue());
 
         // Act
-        boolean result = idempotencyService.isValidIdempotencyKey(idempotencyKey);
+        IdempotencyLookup<StoredResponse> lookup = service.reserve("replay-key", StoredResponse.class);
 
         // Assert
-        assertThat(result).isTrue();
-        verify(redisTemplate, times(1)).hasKey("idempotency:" + idempotencyKey);
+        assertThat(stored.getValue()).startsWith("300|");
+        assertThat(lookup.state()).isEqualTo(IdempotencyLookup.State.COMPLETED);
+        assertThat(lookup.transactionId()).isEqualTo(300L);
+        assertThat(lookup.response()).isEqualTo(new StoredResponse(300L, new BigDecimal("150.00")));
     }
 
     @Test
-    @DisplayName("Deve retornar false quando chave já existe no Redis")
-    void shouldReturnFalse_WhenKeyAlreadyExists() {
+    @DisplayName("Deve indicar chave usada sem resposta quando só o id da transação foi registrado")
+    void shouldReturnTransactionIdOnly_WhenRegisteredWithoutResponse() {
         // Arrange
-        String idempotencyKey = "existing-key-456";
-        when(redisTemplate.hasKey(anyString())).thenReturn(true);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("idempotency:batch-key")).thenReturn("400");
 
         // Act
-        boolean result = idempotencyService.isValidIdempotencyKey(idempotencyKey);
+        IdempotencyLookup<StoredResponse> lookup = idempotencyService.reserve("batch-key", StoredResponse.class);
 
         // Assert
-        assertThat(result).isFalse();
-        verify(redisTemplate, times(1)).hasKey("idempotency:" + idempotencyKey);
+        assertThat(lookup.exists()).isTrue();
+        assertThat(lookup.hasResponse()).isFalse();
+        assertThat(lookup.transactionId()).isEqualTo(400L);
     }
 
     @Test
-    @DisplayName("Deve retornar false quando chave é nula")
-    void shouldReturnFalse_WhenKeyIsNull() {
+    @DisplayName("Deve reservar a chave com marcador IN_FLIGHT em um único SET NX")
+    void shouldReserveKeyWithInFlightMarker() {
+        // Arrange
+        when(valueOperations.setIfAbsent(eq("idempotency:reserve-key"), startsWith("IN_FLIGHT:"), any(Duration.class))).thenReturn(true);
+
         // Act
-        boolean result = idempotencyService.isValidIdempotencyKey(null);
+        IdempotencyLookup<StoredResponse> reservation = idempotencyService.reserve("reserve-key", StoredResponse.class);
 
         // Assert
-        assertThat(result).isFalse();
-        verify(redisTemplate, never()).hasKey(anyString());
+        assertThat(reservation.state()).isEqualTo(IdempotencyLookup.State.RESERVED);
+        assertThat(reservation.reservationToken()).startsWith("IN_FLIGHT:");
+        verify(valueOperations, never()).get(anyString());
     }
 
     @Test
-    @DisplayName("Deve retornar false quando chave é vazia")
-    void shouldReturnFalse_WhenKeyIsBlank() {
+    @DisplayName("Deve aguardar a requisição em andamento e devolver o resultado dela")
+    void shouldWaitForInFlightRequest_AndReturnItsResult() {
+        // Arrange
+        when(idempotencyCache.getInFlightWaitMs()).thenReturn(500L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("idempotency:busy-key")).thenReturn("IN_FLIGHT:other", "IN_FLIGHT:other", "500");
+
+        // Act
+        IdempotencyLookup<StoredResponse> reservation = idempotencyService.reserve("busy-key", StoredResponse.class);
+
+        // Assert
+        assertThat(reservation.state()).isEqualTo(IdempotencyLookup.State.COMPLETED);
+        assertThat(reservation.transactionId()).isEqualTo(500L);
+    }
+
+    @Test
+    @DisplayName("Deve devolver IN_FLIGHT quando a requisição concorrente não conclui no prazo")
+    void shouldReturnInFlight_WhenConcurrentRequestDoesNotFinishInTime() {
+        // Arrange
+        when(idempotencyCache.getInFlightWaitMs()).thenReturn(0L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("idempotency:busy-key")).thenReturn("IN_FLIGHT:other");
+
         // Act
-        boolean result1 = idempotencyService.isValidIdempotencyKey("");
-        boolean result2 = idempotencyService.isValidIdempotencyKey("   ");
+        IdempotencyLookup<StoredResponse> reservation = idempotencyService.reserve("busy-key", StoredResponse.class);
 
         // Assert
-        assertThat(result1).isFalse();
-        assertThat(result2).isFalse();
-        verify(redisTemplate, never()).hasKey(anyString());
+        assertThat(reservation.state()).isEqualTo(IdempotencyLookup.State.IN_FLIGHT);
+        assertThat(reservation.exists()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve registrar a chave somente após o commit da transação corrente")
+    void shouldRegisterIdempotencyKeyOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            idempotencyService.registerIdempotencyKeyAfterCommit("after-commit-key", 200L);
+
+            // Assert
+            verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(valueOperations).set("idempotency:after-commit-key", "200", Duration.ofHours(24));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -154,30 +241,29 @@ class IdempotencyServiceTest {
     void shouldGetTransactionIdByIdempotencyKey() {
         // Arrange
         String idempotencyKey = "existing-key";
-        String expectedTransactionId = "999";
-        when(valueOperations.get("idempotency:" + idempotencyKey))
-                .thenReturn(expectedTransactionId);
+        when(valueOperations.multiGet(List.of("idempotency:" + idempotencyKey)))
+                .thenReturn(List.of("999"));
 
         // Act
-        Long result = idempotencyService.getTransactionByIdempotencyKey(idempotencyKey);
+        Map<String, Long> result = idempotencyService.findProcessedKeys(List.of(idempotencyKey));
 
         // Assert
-        assertThat(result).isEqualTo(999L);
-        verify(valueOperations, times(1)).get("idempotency:" + idempotencyKey);
+        assertThat(result).containsExactly(Map.entry(idempotencyKey, 999L));
+        verify(valueOperations, times(1)).multiGet(List.of("idempotency:" + idempotencyKey));
     }
 
     @Test
-    @DisplayName("Deve retornar null quando chave não existe no Redis")
-    void shouldReturnNull_WhenKeyDoesNotExist() {
+    @DisplayName("Deve retornar vazio quando chave não existe no Redis")
+    void shouldReturnEmpty_WhenKeyDoesNotExist() {
         // Arrange
         String idempotencyKey = "non-existing-key";
-        when(valueOperations.get(anyString())).thenReturn(null);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
 
         // Act
-        Long result = idempotencyService.getTransactionByIdempotencyKey(idempotencyKey);
+        Map<String, Long> result = idempotencyService.findProcessedKeys(List.of(idempotencyKey));
 
         // Assert
-        assertThat(result).isNull();
+        assertThat(result).isEmpty();
     }
 
     @Test
@@ -186,13 +272,13 @@ class IdempotencyServiceTest {
         // Arrange
         when(idempotencyCache.getPrefix()).thenReturn("custom-prefix:");
         String idempotencyKey = "test-key";
-        when(redisTemplate.hasKey(anyString())).thenReturn(false);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
 
         // Act
-        idempotencyService.isValidIdempotencyKey(idempotencyKey);
+        idempotencyService.reserve(idempotencyKey, StoredResponse.class);
 
         // Assert
-        verify(redisTemplate, times(1)).hasKey("custom-prefix:test-key");
+        verify(valueOperations, times(1)).setIfAbsent(eq("custom-prefix:test-key"), anyString(), any(Duration.class));
     }
 
     @Test
@@ -213,4 +299,146 @@ class IdempotencyServiceTest {
                 eq(Duration.ofHours(48))
         );
     }
+
+    @Test
+    @DisplayName("Deve consultar no Redis apenas as chaves indicadas pelo filtro local")
+    void shouldQueryOnlyFilteredKeys_WhenKeyFilterIsEnabled() {
+        // Arrange
+        IdempotencyKeyFilter filter = mock(IdempotencyKeyFilter.class);
+        when(keyFilter.getIfAvailable()).thenReturn(filter);
+        when(filter.mightContain("novo")).thenReturn(false);
+        when(filter.mightContain("repetido")).thenReturn(true);
+        when(valueOperations.multiGet(List.of("idempotency:repetido"))).thenReturn(List.of("77"));
+
+        // Act
+        Map<String, Long> processed = idempotencyService.findProcessedKeys(List.of("novo", "repetido"));
+
+        // Assert
+        assertThat(processed).containsExactly(Map.entry("repetido", 77L));
+        verify(filter).recordRemoteResult(true);
+    }
+
+    @Test
+    @DisplayName("Deve dispensar o Redis quando o filtro local não contém a chave")
+    void shouldSkipRedis_WhenKeyFilterDoesNotContainKey() {
+        // Arrange
+        IdempotencyKeyFilter filter = mock(IdempotencyKeyFilter.class);
+        when(keyFilter.getIfAvailable()).thenReturn(filter);
+        when(filter.mightContain("novo")).thenReturn(false);
+
+        // Act
+        Map<String, Long> processed = idempotencyService.findProcessedKeys(List.of("novo"));
+
+        // Assert
+        assertThat(processed).isEmpty();
+        verify(valueOperations, never()).multiGet(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve reservar sem token e sem Redis quando o filtro local não contém a chave")
+    void shouldReserveWithoutRedis_WhenKeyFilterDoesNotContainKey() {
+        // Arrange
+        IdempotencyKeyFilter filter = mock(IdempotencyKeyFilter.class);
+        when(keyFilter.getIfAvailable()).thenReturn(filter);
+        when(filter.mightContain("novo")).thenReturn(false);
+
+        // Act
+        IdempotencyLookup<StoredResponse> reservation = idempotencyService.reserve("novo", StoredResponse.class);
+
+        // Assert
+        assertThat(reservation.state()).isEqualTo(IdempotencyLookup.State.RESERVED);
+        assertThat(reservation.reservationToken()).isNull();
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Deve reservar no Redis quando o filtro local talvez contenha a chave")
+    void shouldReserveInRedis_WhenKeyFilterMightContainKey() {
+        // Arrange
+        IdempotencyKeyFilter filter = mock(IdempotencyKeyFilter.class);
+        when(keyFilter.getIfAvailable()).thenReturn(filter);
+        when(filter.mightContain("repetido")).thenReturn(true);
+        when(idempotencyCache.getInFlightTtlSeconds()).thenReturn(30);
+        when(valueOperations.setIfAbsent(eq("idempotency:repetido"), startsWith("IN_FLIGHT:"), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("idempotency:repetido")).thenReturn("77");
+
+        // Act
+        IdempotencyLookup<StoredResponse> reservation = idempotencyService.reserve("repetido", StoredResponse.class);
+
+        // Assert
+        assertThat(reservation.state()).isEqualTo(IdempotencyLookup.State.COMPLETED);
+        assertThat(reservation.transactionId()).isEqualTo(77L);
+        verify(filter).recordRemoteResult(true);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o PostgreSQL quando o Redis falha")
+    void shouldFallBackToDatabase_WhenRedisFails() {
+        // Arrange
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("Redis down"));
+        when(databaseStore.findTransactionIds(List.of("chave"))).thenReturn(Map.of("chave", 55L));
+
+        // Act
+        Map<String, Long> processed = idempotencyService.findProcessedKeys(List.of("chave"));
+
+        // Assert
+        assertThat(processed).containsExactly(Map.entry("chave", 55L));
+        verify(databaseStore).findTransactionIds(List.of("chave"));
+    }
+
+    @Test
+    @DisplayName("Deve conceder reserva sem token e descartar escritas quando o Redis falha")
+    void shouldReserveWithoutToken_WhenRedisFails() {
+        // Arrange
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("Redis down"));
+        doThrow(new RedisConnectionFailureException("Redis down"))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+
+        // Act
+        IdempotencyLookup<StoredResponse> reservation = idempotencyService.reserve("chave", StoredResponse.class);
+        idempotencyService.registerIdempotencyKey("chave", 10L);
+
+        // Assert
+        assertThat(reservation.state()).isEqualTo(IdempotencyLookup.State.RESERVED);
+        assertThat(reservation.reservationToken()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve converter violação do índice único em transação duplicada")
+    void shouldTranslateUniqueViolation_IntoDuplicateTransaction() {
+        // Arrange
+        RuntimeException failure = new DataIntegrityViolationException("duplicate key",
+                new SQLException("duplicate key value violates unique constraint", "23505"));
+        when(databaseStore.findTransactionId("chave")).thenReturn(42L);
+
+        // Act
+        RuntimeException translated = idempotencyService.translateConflict("chave", failure);
+
+        // Assert
+        assertThat(translated).isInstanceOf(DuplicateTransactionException.class).hasMessageContaining("42");
+        assertThat(idempotencyService.translateConflict("chave", new IllegalStateException("outro erro")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Deve gravar no layout compacto e ler a chave legada durante a migração")
+    void shouldWriteCompactAndReadLegacy_WhenMigrating() {
+        // Arrange
+        String idempotencyKey = "550e8400-e29b-41d4-a716-446655440000";
+        when(cacheProperties.getKeyLayout()).thenReturn(RedisKeyLayout.MIGRATING);
+        when(idempotencyCache.getCompactPrefix()).thenReturn("i:");
+        when(valueOperations.multiGet(List.of("i:VQ6EAOKbQdSnFkRmVUQAAA", "idempotency:" + idempotencyKey)))
+                .thenReturn(Arrays.asList(null, "900"));
+
+        // Act
+        idempotencyService.registerIdempotencyKey("batch-key", 901L);
+        Map<String, Long> processed = idempotencyService.findProcessedKeys(List.of(idempotencyKey));
+
+        // Assert
+        verify(valueOperations).set("i:=batch-key", "901", Duration.ofHours(24));
+        assertThat(processed).containsExactly(Map.entry(idempotencyKey, 900L));
+    }
+
+    record StoredResponse(Long transactionId, BigDecimal amount) { }
 }
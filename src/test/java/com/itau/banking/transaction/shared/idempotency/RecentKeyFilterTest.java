@@ -0,0 +1,63 @@
+package com.itau.banking.transaction.shared.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RecentKeyFilter - Unit Tests")
+class RecentKeyFilterTest {
+
+    private static final Duration RETENTION = Duration.ofHours(24);
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(20_000).toMillis());
+    private final RecentKeyFilter filter = new RecentKeyFilter(40_000, 0.01, 4, RETENTION, now::get);
+
+    @Test
+    @DisplayName("Não deve ter falsos negativos e deve manter a taxa de falsos positivos próxima da configurada")
+    void shouldHaveNoFalseNegatives_AndBoundedFalsePositives() {
+        // Arrange
+        IntStream.range(0, 10_000).forEach(i -> filter.put("key-" + i));
+
+        // Act
+        long falseNegatives = IntStream.range(0, 10_000).filter(i -> !filter.mightContain("key-" + i)).count();
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("other-" + i)).count();
+
+        // Assert
+        assertThat(falseNegatives).isZero();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    @DisplayName("Deve manter a chave durante a retenção e descartá-la depois")
+    void shouldExpireKey_AfterRetention() {
+        // Arrange
+        filter.put("chave");
+
+        // Act
+        now.addAndGet(RETENTION.toMillis() - 1);
+        boolean withinRetention = filter.mightContain("chave");
+        now.addAndGet(RETENTION.toMillis() / 4 * 2);
+        boolean afterRetention = filter.mightContain("chave");
+
+        // Assert
+        assertThat(withinRetention).isTrue();
+        assertThat(afterRetention).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve posicionar chaves da carga inicial pela data de registro")
+    void shouldPlaceWarmUpKeys_ByRegistrationTime() {
+        // Arrange
+        filter.put("recente", now.get() - Duration.ofHours(2).toMillis());
+        filter.put("expirada", now.get() - Duration.ofHours(40).toMillis());
+
+        // Act & Assert
+        assertThat(filter.mightContain("recente")).isTrue();
+        assertThat(filter.mightContain("expirada")).isFalse();
+    }
+}
@@ -0,0 +1,57 @@
+package com.itau.banking.transaction.shared.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Money - Unit Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Deve converter textos decimais para centavos")
+    void shouldParseDecimalText() {
+        // Act & Assert
+        assertThat(Money.parse("150.00").cents()).isEqualTo(15000);
+        assertThat(Money.parse("150.5").cents()).isEqualTo(15050);
+        assertThat(Money.parse("150").cents()).isEqualTo(15000);
+        assertThat(Money.parse("-0.05").cents()).isEqualTo(-5);
+        assertThat(Money.parse("1E+3").cents()).isEqualTo(100000);
+    }
+
+    @Test
+    @DisplayName("Deve arredondar como DECIMAL(15,2) ao converter de BigDecimal")
+    void shouldRoundHalfUp_WhenConvertingFromBigDecimal() {
+        // Act & Assert
+        assertThat(Money.of(new BigDecimal("10.005"))).isEqualTo(Money.ofCents(1001));
+        assertThat(Money.parse("10.004").cents()).isEqualTo(1000);
+        assertThat(Money.ofCents(1001).toBigDecimal()).isEqualTo(new BigDecimal("10.01"));
+    }
+
+    @Test
+    @DisplayName("Deve manter o formato de texto gravado no Redis")
+    void shouldKeepRedisWireFormat() {
+        // Arrange
+        MoneyRedisSerializer serializer = new MoneyRedisSerializer();
+
+        // Act & Assert
+        assertThat(new String(serializer.serialize(Money.parse("700")), StandardCharsets.US_ASCII)).isEqualTo("700.00");
+        assertThat(Money.ofCents(-5).toString()).isEqualTo("-0.05");
+        assertThat(serializer.deserialize("999.99".getBytes(StandardCharsets.US_ASCII))).isEqualTo(Money.ofCents(99999));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar valores fora do intervalo DECIMAL(15,2)")
+    void shouldRejectOverflow() {
+        // Arrange
+        Money max = Money.parse("9999999999999.99");
+
+        // Act & Assert
+        assertThatThrownBy(() -> max.plus(Money.ofCents(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.parse("99999999999999.00")).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,223 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountService;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.exception.TransferOutcomeUnknownException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("GroupCommitWriter - Unit Tests")
+class GroupCommitWriterTest {
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private TransferWriter transferWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GroupCommitWriter writer;
+    private Account source;
+    private Account destination;
+    private final CustomerDto customer = CustomerDto.builder().id(1L).name("João da Silva").build();
+
+    @BeforeEach
+    void setUp() {
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getTransfer().getGroupCommit().setWindowMs(200);
+        bankingProperties.getTransfer().getGroupCommit().setMaxBatchSize(3);
+        bankingProperties.getTransfer().getGroupCommit().setFlushers(1);
+
+        source = account(1L, "100.00");
+        destination = account(2L, "0.00");
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(accountService.findAllForUpdate(any())).thenReturn(List.of(source, destination));
+        when(transferWriter.write(any(), any(), any(), any(), any(), anyString(), any())).thenAnswer(invocation -> {
+            Transaction transaction = new Transaction();
+            transaction.setIdempotencyKey(invocation.getArgument(5));
+            return transaction;
+        });
+
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new GroupCommitWriter(accountService, transferWriter, transactionTemplate, meterRegistry, bankingProperties);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    @DisplayName("Deve gravar transferências concorrentes em um único commit")
+    void shouldWriteConcurrentTransfersInSingleCommit() throws Exception {
+        // Act
+        List<CompletableFuture<Transaction>> results = submitConcurrently("30.00", "30.00", "30.00");
+
+        // Assert
+        for (CompletableFuture<Transaction> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isNotNull();
+        }
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(accountService, times(1)).findAllForUpdate(any());
+        assertThat(meterRegistry.get("banking.transfer.group.commit.batch.size").summary().max()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar apenas a transferência sem saldo dentro do lote")
+    void shouldRejectOnlyTransferWithoutBalanceInBatch() throws Exception {
+        // Act - 60 + 60 excede o saldo de 100
+        List<CompletableFuture<Transaction>> results = submitConcurrently("60.00", "60.00", "30.00");
+
+        // Assert
+        long failures = results.stream().filter(future -> {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                return false;
+            } catch (Exception e) {
+                assertThat(e.getCause()).isInstanceOf(InsufficientBalanceException.class);
+                return true;
+            }
+        }).count();
+
+        assertThat(failures).isEqualTo(1);
+        verify(transferWriter, times(2)).write(any(), any(), any(), any(), any(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve gravar individualmente quando o lote falha")
+    void shouldFallbackToIndividualCommits_WhenBatchFails() throws Exception {
+        // Arrange
+        when(transferWriter.write(any(), any(), any(), any(), any(), eq("key-1"), any()))
+                .thenThrow(new IllegalStateException("duplicate key"));
+
+        // Act
+        List<CompletableFuture<Transaction>> results = submitConcurrently("10.00", "10.00", "10.00");
+
+        // Assert
+        assertThatThrownBy(() -> results.get(1).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(meterRegistry.get("banking.transfer.group.commit.fallback").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve recusar escritas depois do stop")
+    void shouldRejectWrites_AfterStop() throws InterruptedException {
+        // Act
+        writer.stop();
+
+        // Assert
+        assertThatThrownBy(() -> writer.write(customer, source, destination, new BigDecimal("10.00"), "Group commit", "key-0"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("parado");
+        verifyNoInteractions(transferWriter);
+    }
+
+    @Test
+    @DisplayName("Deve desistir após o timeout, tirar da fila a transferência fora de lote e deixar a reserva da que está em lote com o commit dele")
+    void shouldTimeOutAndDequeue_WhenCommitDoesNotFinish() throws Exception {
+        // Arrange - o único flusher fica preso no commit do primeiro lote
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+        }).when(transactionTemplate).execute(any());
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getTransfer().getGroupCommit().setWindowMs(1);
+        bankingProperties.getTransfer().getGroupCommit().setMaxBatchSize(1);
+        bankingProperties.getTransfer().getGroupCommit().setFlushers(1);
+        bankingProperties.getTransfer().getGroupCommit().setWriteTimeoutMs(200);
+        GroupCommitWriter blocked = new GroupCommitWriter(accountService, transferWriter, transactionTemplate, meterRegistry, bankingProperties);
+        blocked.start();
+        DailyLimitReservation reservation = mock(DailyLimitReservation.class);
+
+        try {
+            CompletableFuture<Transaction> first = CompletableFuture.supplyAsync(() ->
+                    blocked.write(customer, source, destination, new BigDecimal("10.00"), "Group commit", "key-0", reservation));
+            assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act & Assert
+            assertThatThrownBy(() -> blocked.write(customer, source, destination, new BigDecimal("10.00"), "Group commit", "key-1"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("não gravada");
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(TransferOutcomeUnknownException.class);
+            verifyNoInteractions(reservation);
+        } finally {
+            release.countDown();
+            blocked.stop();
+        }
+        verify(transferWriter, never()).write(any(), any(), any(), any(), any(), eq("key-1"), any());
+        verify(reservation).commit();
+        verify(reservation, never()).release();
+    }
+
+    private List<CompletableFuture<Transaction>> submitConcurrently(String... amounts) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(amounts.length);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Transaction>> results = new ArrayList<>();
+        for (int i = 0; i < amounts.length; i++) {
+            String key = "key-" + i;
+            BigDecimal amount = new BigDecimal(amounts[i]);
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return writer.write(customer, source, destination, amount, "Group commit", key);
+            }, executor));
+        }
+        start.countDown();
+        executor.shutdown();
+        return results;
+    }
+
+    private Account account(Long id, String balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(new BigDecimal(balance));
+        return account;
+    }
+}
@@ -3,8 +3,15 @@ package com.itau.banking.transaction.transaction;
 import com.itau.banking.transaction.BaseIntegrationTest;
 import com.itau.banking.transaction.account.Account;
 import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.limit.DailyLimitService;
 import com.itau.banking.transaction.notification.BacenNotificationRepository;
 import com.itau.banking.transaction.shared.enums.AccountStatus;
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.enums.TransactionType;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.dto.BatchTransferItem;
+import com.itau.banking.transaction.transaction.dto.BatchTransferRequest;
 import com.itau.banking.transaction.transaction.dto.TransferRequest;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
@@ -15,9 +22,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.server.LocalServerPort;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.*;
 
 @DisplayName("TransactionController - Component Tests")
@@ -35,6 +52,9 @@ class TransactionControllerComponentTest extends BaseIntegrationTest {
     @Autowired
     private BacenNotificationRepository bacenNotificationRepository;
 
+    @Autowired
+    private DailyLimitService dailyLimitService;
+
     private Account sourceAccount;
     private Account destinationAccount;
 
@@ -85,8 +105,8 @@ class TransactionControllerComponentTest extends BaseIntegrationTest {
     }
 
     @Test
-    @DisplayName("Deve bloquear transferência duplicada com mesma chave de idempotência")
-    void shouldBlockDuplicateTransfer() {
+    @DisplayName("Deve devolver a resposta original para transferência repetida com mesma chave de idempotência")
+    void shouldReplayOriginalResponse_WhenTransferIsRepeated() {
         // Arrange
         TransferRequest request = new TransferRequest(
                 sourceAccount.getId(),
@@ -98,16 +118,17 @@ class TransactionControllerComponentTest extends BaseIntegrationTest {
         String idempotencyKey = UUID.randomUUID().toString();
 
         // Act - Primeira transferência
-        given()
+        String firstBody = given()
                 .contentType(ContentType.JSON)
                 .header("Idempotency-Key", idempotencyKey)
                 .body(request)
         .when()
                 .post("/transfer")
         .then()
-                .statusCode(200);
+                .statusCode(200)
+                .extract().asString();
 
-        // Assert - Segunda transferência deve falhar
+        // Assert - Segunda transferência devolve o mesmo corpo sem debitar de novo
         given()
                 .contentType(ContentType.JSON)
                 .header("Idempotency-Key", idempotencyKey)
@@ -115,8 +136,55 @@ class TransactionControllerComponentTest extends BaseIntegrationTest {
         .when()
                 .post("/transfer")
         .then()
-                .statusCode(409)
-                .body("message", containsString("already processed"));
+                .statusCode(200)
+                .body(equalTo(firstBody));
+
+        Account updatedSource = accountRepository.findById(sourceAccount.getId()).orElseThrow();
+        assertThat(updatedSource.getBalance()).isEqualByComparingTo(new BigDecimal("4900.00"));
+    }
+
+    @Test
+    @DisplayName("Deve executar uma única vez tentativas concorrentes com a mesma chave de idempotência")
+    void shouldExecuteOnce_WhenConcurrentRetriesShareIdempotencyKey() throws Exception {
+        // Arrange
+        TransferRequest request = new TransferRequest(
+                sourceAccount.getId(),
+                destinationAccount.getId(),
+                new BigDecimal("100.00"),
+                "Test transfer"
+        );
+        String idempotencyKey = UUID.randomUUID().toString();
+        int retries = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(retries);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> retriesDone = new ArrayList<>();
+
+        // Act & Assert - só 200 (executada ou repetida) ou 409 (ainda em andamento)
+        for (int i = 0; i < retries; i++) {
+            retriesDone.add(executor.submit(() -> {
+                start.await();
+                given()
+                        .contentType(ContentType.JSON)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .body(request)
+                .when()
+                        .post("/transfer")
+                .then()
+                        .statusCode(anyOf(equalTo(200), equalTo(409)));
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        for (Future<?> done : retriesDone) {
+            done.get();
+        }
+
+        // Assert - um único débito
+        Account updatedSource = accountRepository.findById(sourceAccount.getId()).orElseThrow();
+        assertThat(updatedSource.getBalance()).isEqualByComparingTo(new BigDecimal("4900.00"));
     }
 
     @Test
@@ -268,6 +336,204 @@ class TransactionControllerComponentTest extends BaseIntegrationTest {
         assertThat(updatedSource.getBalance()).isEqualByComparingTo(new BigDecimal("4700.00")); // 5000 - 300
     }
 
+    @Test
+    @DisplayName("Deve processar lote com resultado individual por transferência")
+    void shouldProcessBatchWithPerItemResults() {
+        // Arrange
+        String firstKey = UUID.randomUUID().toString();
+        BatchTransferRequest request = new BatchTransferRequest(List.of(
+                new BatchTransferItem(firstKey, sourceAccount.getId(), destinationAccount.getId(), new BigDecimal("300.00"), "Batch transfer"),
+                new BatchTransferItem(UUID.randomUUID().toString(), sourceAccount.getId(), destinationAccount.getId(), new BigDecimal("800.00"), "Batch transfer"),
+                new BatchTransferItem(firstKey, sourceAccount.getId(), destinationAccount.getId(), new BigDecimal("300.00"), "Batch transfer")
+        ));
+
+        // Act & Assert
+        given()
+                .contentType(ContentType.JSON)
+                .body(request)
+        .when()
+                .post("/transfers/batch")
+        .then()
+                .statusCode(200)
+                .body("total", equalTo(3))
+                .body("succeeded", equalTo(1))
+                .body("failed", equalTo(2))
+                .body("results[0].status", equalTo("SUCCESS"))
+                .body("results[0].transactionId", notNullValue())
+                .body("results[1].status", equalTo("REJECTED"))
+                .body("results[1].message", containsString("Limite diário excedido"))
+                .body("results[2].status", equalTo("DUPLICATE"));
+
+        Account updatedSource = accountRepository.findById(sourceAccount.getId()).orElseThrow();
+        Account updatedDestination = accountRepository.findById(destinationAccount.getId()).orElseThrow();
+        assertThat(updatedSource.getBalance()).isEqualByComparingTo(new BigDecimal("4700.00"));
+        assertThat(updatedDestination.getBalance()).isEqualByComparingTo(new BigDecimal("2300.00"));
+    }
+
+    @Test
+    @DisplayName("Deve marcar como duplicado o item cuja chave já está no banco mas não no Redis")
+    void shouldMarkDuplicate_WhenBatchKeyExistsOnlyInDatabase() {
+        // Arrange - transação gravada sem passar pelo Redis (como após a expiração da chave)
+        Transaction existing = new Transaction();
+        existing.setSourceAccount(sourceAccount);
+        existing.setDestinationAccount(destinationAccount);
+        existing.setAmount(new BigDecimal("100.00"));
+        existing.setStatus(TransactionStatus.COMPLETED);
+        existing.setType(TransactionType.TRANSFER);
+        existing.setIdempotencyKey(UUID.randomUUID().toString());
+        existing.setTransactionDate(LocalDateTime.now());
+        transactionRepository.save(existing);
+        BatchTransferRequest request = new BatchTransferRequest(List.of(
+                new BatchTransferItem(existing.getIdempotencyKey(), sourceAccount.getId(), destinationAccount.getId(), new BigDecimal("100.00"), "Batch transfer"),
+                new BatchTransferItem(UUID.randomUUID().toString(), sourceAccount.getId(), destinationAccount.getId(), new BigDecimal("200.00"), "Batch transfer")
+        ));
+
+        // Act & Assert
+        given()
+                .contentType(ContentType.JSON)
+                .body(request)
+        .when()
+                .post("/transfers/batch")
+        .then()
+                .statusCode(200)
+                .body("succeeded", equalTo(1))
+                .body("results[0].status", equalTo("DUPLICATE"))
+                .body("results[0].transactionId", equalTo(existing.getId().intValue()))
+                .body("results[1].status", equalTo("SUCCESS"));
+
+        // Só o item novo movimentou saldo
+        Account updatedSource = accountRepository.findById(sourceAccount.getId()).orElseThrow();
+        assertThat(updatedSource.getBalance()).isEqualByComparingTo(new BigDecimal("4800.00"));
+    }
+
+    @Test
+    @DisplayName("Deve considerar no lote as reservas pendentes do limite diário")
+    void shouldCountPendingReservations_InBatch() {
+        // Arrange - uma transferência individual ainda em andamento reservou 800,00 do limite de 1.000,00
+        DailyLimitReservation pending = dailyLimitService.reserve(sourceAccount.getId(),
+                Money.of(sourceAccount.getDailyLimit()), Money.parse("800.00"));
+        BatchTransferRequest request = new BatchTransferRequest(List.of(
+                new BatchTransferItem(UUID.randomUUID().toString(), sourceAccount.getId(), destinationAccount.getId(), new BigDecimal("300.00"), "Batch transfer"),
+                new BatchTransferItem(UUID.randomUUID().toString(), sourceAccount.getId(), destinationAccount.getId(), new BigDecimal("200.00"), "Batch transfer")
+        ));
+
+        // Act & Assert
+        try {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body(request)
+            .when()
+                    .post("/transfers/batch")
+            .then()
+                    .statusCode(200)
+                    .body("succeeded", equalTo(1))
+                    .body("results[0].status", equalTo("REJECTED"))
+                    .body("results[0].message", containsString("Limite diário excedido"))
+                    .body("results[1].status", equalTo("SUCCESS"));
+        } finally {
+            pending.release();
+        }
+
+        // A reserva do item aceito foi confirmada: o total do dia tem só ele
+        assertThat(dailyLimitService.getCurrentDailyTotal(sourceAccount.getId()).toBigDecimal())
+                .isEqualByComparingTo(new BigDecimal("200.00"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar lote vazio")
+    void shouldRejectEmptyBatch() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(new BatchTransferRequest(List.of()))
+        .when()
+                .post("/transfers/batch")
+        .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar transferência assíncrona e concluí-la em segundo plano")
+    void shouldAcceptAsyncTransferAndCompleteInBackground() {
+        // Arrange
+        TransferRequest request = new TransferRequest(
+                sourceAccount.getId(),
+                destinationAccount.getId(),
+                new BigDecimal("250.00"),
+                "Async transfer"
+        );
+
+        // Act
+        Integer transactionId = given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .body(request)
+        .when()
+                .post("/transfer/async")
+        .then()
+                .statusCode(202)
+                .header("Location", endsWith("/status"))
+                .body("status", equalTo("PENDING"))
+                .extract().path("transactionId");
+
+        // Assert
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                given()
+                .when()
+                        .get("/" + transactionId + "/status")
+                .then()
+                        .statusCode(200)
+                        .body("status", equalTo("COMPLETED")));
+
+        Account updatedSource = accountRepository.findById(sourceAccount.getId()).orElseThrow();
+        assertThat(updatedSource.getBalance()).isEqualByComparingTo(new BigDecimal("4750.00"));
+    }
+
+    @Test
+    @DisplayName("Deve marcar transferência assíncrona como FAILED quando o limite diário é excedido")
+    void shouldFailAsyncTransfer_WhenDailyLimitExceeded() {
+        // Arrange
+        TransferRequest request = new TransferRequest(
+                sourceAccount.getId(),
+                destinationAccount.getId(),
+                new BigDecimal("1500.00"),
+                "Async transfer"
+        );
+
+        // Act
+        Integer transactionId = given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .body(request)
+        .when()
+                .post("/transfer/async")
+        .then()
+                .statusCode(202)
+                .extract().path("transactionId");
+
+        // Assert
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                given()
+                .when()
+                        .get("/" + transactionId + "/status")
+                .then()
+                        .statusCode(200)
+                        .body("status", equalTo("FAILED"))
+                        .body("failureReason", containsString("Limite diário excedido")));
+
+        Account updatedSource = accountRepository.findById(sourceAccount.getId()).orElseThrow();
+        assertThat(updatedSource.getBalance()).isEqualByComparingTo(new BigDecimal("5000.00"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 ao consultar status de transação inexistente")
+    void shouldReturnNotFound_WhenTransactionStatusDoesNotExist() {
+        given()
+        .when()
+                .get("/999999/status")
+        .then()
+                .statusCode(404);
+    }
+
     private Account createAccount(String accountNumber, BigDecimal balance) {
         Account account = new Account();
         account.setAccountNumber(accountNumber);
@@ -0,0 +1,159 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.BaseIntegrationTest;
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountRepository;
+import com.itau.banking.transaction.notification.BacenNotificationRepository;
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+import com.itau.banking.transaction.shared.enums.TransactionStatus;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Transferências concorrentes - Integration Tests")
+class TransferConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final int TRANSFERS = 2000;
+    private static final int THREADS = 32;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("50.00");
+    private static final BigDecimal TRANSFER_AMOUNT = new BigDecimal("5.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BacenNotificationRepository bacenNotificationRepository;
+
+    private final List<Account> accounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bacenNotificationRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accounts.clear();
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(createAccount("CONC-" + i + "-" + System.nanoTime() % 1_000_000_000L));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve preservar o total de dinheiro entre as contas sob transferências paralelas")
+    void shouldPreserveTotalMoney_UnderParallelTransfers() throws InterruptedException {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(TRANSFERS);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    transactionService.transfer(randomTransfer(), UUID.randomUUID().toString());
+                    completed.incrementAndGet();
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    // Outras falhas fazem rollback completo da transferência e não afetam o saldo
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        // Act
+        start.countDown();
+        assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        executor.shutdown();
+
+        // Assert
+        List<Account> finalAccounts = accountRepository.findAllById(accountIds());
+        BigDecimal total = finalAccounts.stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertThat(total).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+        assertThat(finalAccounts).allSatisfy(account ->
+                assertThat(account.getBalance()).isGreaterThanOrEqualTo(BigDecimal.ZERO));
+        assertThat(completed.get()).isPositive();
+        assertThat(rejected.get()).isPositive();
+
+        assertBalancesMatchCompletedTransactions(finalAccounts, completed.get());
+    }
+
+    private void assertBalancesMatchCompletedTransactions(List<Account> finalAccounts, int expectedCompleted) {
+        Set<Long> ids = Set.copyOf(accountIds());
+        List<Transaction> transactions = transactionRepository.findAll().stream()
+                .filter(t -> t.getStatus() == TransactionStatus.COMPLETED)
+                .filter(t -> ids.contains(t.getSourceAccount().getId()))
+                .toList();
+
+        assertThat(transactions).hasSize(expectedCompleted);
+
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        ids.forEach(id -> expected.put(id, INITIAL_BALANCE));
+        transactions.forEach(t -> {
+            expected.merge(t.getSourceAccount().getId(), t.getAmount().negate(), BigDecimal::add);
+            expected.merge(t.getDestinationAccount().getId(), t.getAmount(), BigDecimal::add);
+        });
+
+        Map<Long, BigDecimal> actual = finalAccounts.stream()
+                .collect(Collectors.toMap(Account::getId, Account::getBalance));
+        expected.forEach((id, balance) -> assertThat(actual.get(id)).isEqualByComparingTo(balance));
+    }
+
+    private TransferRequest randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(ACCOUNTS);
+        int destination = (source + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        return new TransferRequest(
+                accounts.get(source).getId(),
+                accounts.get(destination).getId(),
+                TRANSFER_AMOUNT,
+                "Concurrency test"
+        );
+    }
+
+    private List<Long> accountIds() {
+        return accounts.stream().map(Account::getId).toList();
+    }
+
+    private Account createAccount(String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(INITIAL_BALANCE);
+        account.setDailyLimit(new BigDecimal("1000000.00"));
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setCustomerId(1L);
+        return accountRepository.save(account);
+    }
+}
@@ -0,0 +1,138 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.account.AccountService;
+import com.itau.banking.transaction.integration.customer.CustomerApiClient;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.AccountNotFoundException;
+import com.itau.banking.transaction.shared.exception.CustomerNotFoundException;
+import com.itau.banking.transaction.shared.exception.TransferDeadlineExceededException;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import com.itau.banking.transaction.transaction.validator.ValidationContext;
+import com.itau.banking.transaction.transaction.validator.ValidationStrategyFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferContextLoader - Unit Tests")
+class TransferContextLoaderTest {
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private CustomerApiClient customerApiClient;
+
+    @Mock
+    private ValidationStrategyFactory validationStrategyFactory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CustomerDto customer = CustomerDto.builder().id(1L).name("João da Silva").build();
+    private final TransferRequest request = new TransferRequest(1L, 2L, new BigDecimal("100.00"), "Pagamento");
+    private TransferContextLoader loader;
+    private Account source;
+    private Account destination;
+
+    @BeforeEach
+    void setUp() {
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getTransfer().setLookupDeadlineMs(200);
+        loader = new TransferContextLoader(accountService, customerApiClient, validationStrategyFactory, meterRegistry, bankingProperties);
+
+        source = account(1L);
+        destination = account(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve buscar as duas contas em uma única consulta e medir cada etapa")
+    void shouldLoadBothAccountsInSingleQuery() {
+        // Arrange
+        when(accountService.findAllForTransfer(List.of(1L, 2L))).thenReturn(List.of(destination, source));
+        when(customerApiClient.findCustomerById(1L)).thenReturn(customer);
+
+        // Act
+        TransferContextLoader.TransferContext context = loader.load(request);
+
+        // Assert
+        assertThat(context.sourceAccount()).isSameAs(source);
+        assertThat(context.destinationAccount()).isSameAs(destination);
+        assertThat(context.customer()).isSameAs(customer);
+        verify(accountService, times(1)).findAllForTransfer(List.of(1L, 2L));
+        verify(validationStrategyFactory).validateStateful(argThat((ValidationContext validation) ->
+                validation.getSource() == source && validation.getDestination() == destination && validation.isBalanceCheckedOnWrite()));
+        assertThat(meterRegistry.get(TransferContextLoader.STAGE_METRIC).tag("stage", "customer").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TransferContextLoader.STAGE_METRIC).tag("stage", "validation").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve lançar AccountNotFoundException quando a conta de destino não existe")
+    void shouldThrowAccountNotFound_WhenDestinationMissing() {
+        // Arrange
+        when(accountService.findAllForTransfer(List.of(1L, 2L))).thenReturn(List.of(source));
+
+        // Act & Assert
+        assertThatThrownBy(() -> loader.load(request))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("2");
+        verifyNoInteractions(customerApiClient, validationStrategyFactory);
+    }
+
+    @Test
+    @DisplayName("Deve lançar TransferDeadlineExceededException quando a busca do cliente excede o prazo")
+    void shouldThrowDeadlineExceeded_WhenCustomerLookupIsSlow() {
+        // Arrange
+        when(accountService.findAllForTransfer(List.of(1L, 2L))).thenReturn(List.of(source, destination));
+        when(customerApiClient.findCustomerById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return customer;
+        });
+
+        // Act & Assert
+        assertThatThrownBy(() -> loader.load(request))
+                .isInstanceOf(TransferDeadlineExceededException.class);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a reserva do limite diário quando a busca do cliente falha")
+    void shouldReleaseDailyLimitReservation_WhenCustomerLookupFails() {
+        // Arrange
+        DailyLimitReservation reservation = mock(DailyLimitReservation.class);
+        ValidationContext validated = new ValidationContext(source, destination, request.amount());
+        validated.setDailyLimitReservation(reservation);
+        when(accountService.findAllForTransfer(List.of(1L, 2L))).thenReturn(List.of(source, destination));
+        when(customerApiClient.findCustomerById(1L)).thenThrow(new CustomerNotFoundException(1L));
+        when(validationStrategyFactory.validateStateful(any(ValidationContext.class))).thenReturn(validated);
+
+        // Act & Assert
+        assertThatThrownBy(() -> loader.load(request))
+                .isInstanceOf(CustomerNotFoundException.class);
+        verify(reservation, timeout(1000)).release();
+    }
+
+    private Account account(Long id) {
+        Account account = new Account();
+        account.setId(id);
+        account.setCustomerId(id);
+        return account;
+    }
+}
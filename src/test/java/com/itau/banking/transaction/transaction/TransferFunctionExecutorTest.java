@@ -0,0 +1,110 @@
+package com.itau.banking.transaction.transaction;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.integration.customer.dto.CustomerDto;
+import com.itau.banking.transaction.limit.DailyLimitService;
+import com.itau.banking.transaction.notification.BacenDispatcher;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.DailyLimitExceededException;
+import com.itau.banking.transaction.shared.exception.DuplicateTransactionException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.ResultCode;
+import com.itau.banking.transaction.transaction.TransferFunctionRepository.TransferFunctionResult;
+import com.itau.banking.transaction.transaction.dto.TransferRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferFunctionExecutor - Unit Tests")
+class TransferFunctionExecutorTest {
+
+    @Mock
+    private TransferFunctionRepository transferFunctionRepository;
+
+    @Mock
+    private DailyLimitService dailyLimitService;
+
+    @Mock
+    private BacenDispatcher bacenDispatcher;
+
+    private TransferFunctionExecutor executor;
+    private Account source;
+    private final CustomerDto customer = CustomerDto.builder().id(1L).name("João da Silva").cpf("12345678900").build();
+    private final TransferRequest request = new TransferRequest(1L, 2L, new BigDecimal("100.00"), "Pagamento");
+    private final LocalDate businessDate = LocalDate.of(2026, 1, 15);
+
+    @BeforeEach
+    void setUp() {
+        executor = new TransferFunctionExecutor(transferFunctionRepository, dailyLimitService,
+                bacenDispatcher, new BankingProperties());
+
+        source = new Account();
+        source.setId(1L);
+        source.setAccountNumber("12345-6");
+        lenient().when(dailyLimitService.today()).thenReturn(businessDate);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o cache do limite no mesmo dia de negócio enviado à função e despachar o BACEN quando a função conclui")
+    void shouldRecordSideEffects_WhenFunctionSucceeds() {
+        // Arrange
+        when(transferFunctionRepository.transfer(eq(1L), eq(2L), any(), eq("key-1"), anyString(), any(), anyString(), anyString(), eq(businessDate)))
+                .thenReturn(result(ResultCode.OK, 10L));
+
+        // Act
+        Transaction transaction = executor.transfer(customer, source, request, "key-1");
+
+        // Assert
+        assertThat(transaction.getId()).isEqualTo(10L);
+        assertThat(transaction.getDestinationAccount().getAccountNumber()).isEqualTo("65432-1");
+        verify(dailyLimitService).refreshCachedTotal(1L, businessDate, Money.parse("600.00"));
+        verify(bacenDispatcher).dispatchAfterCommit(transaction, customer);
+    }
+
+    @Test
+    @DisplayName("Deve lançar DailyLimitExceededException quando a função rejeita pelo limite diário")
+    void shouldThrowDailyLimitExceeded_WhenFunctionRejects() {
+        // Arrange
+        when(transferFunctionRepository.transfer(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(result(ResultCode.DAILY_LIMIT_EXCEEDED, null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> executor.transfer(customer, source, request, "key-1"))
+                .isInstanceOf(DailyLimitExceededException.class);
+        verify(dailyLimitService, never()).refreshCachedTotal(any(), any(), any());
+        verifyNoInteractions(bacenDispatcher);
+    }
+
+    @Test
+    @DisplayName("Deve lançar DuplicateTransactionException com o id existente quando a chave já foi processada")
+    void shouldThrowDuplicate_WhenKeyAlreadyProcessed() {
+        // Arrange
+        when(transferFunctionRepository.transfer(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(result(ResultCode.DUPLICATE, 7L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> executor.transfer(customer, source, request, "key-1"))
+                .isInstanceOf(DuplicateTransactionException.class)
+                .hasMessageContaining("7");
+    }
+
+    private TransferFunctionResult result(ResultCode code, Long transactionId) {
+        return new TransferFunctionResult(code, transactionId, new BigDecimal("1000.00"), new BigDecimal("1000.00"),
+                new BigDecimal("600.00"), "12345-6", "65432-1", LocalDateTime.now());
+    }
+}
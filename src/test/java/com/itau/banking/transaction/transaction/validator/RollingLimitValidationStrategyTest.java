@@ -0,0 +1,105 @@
+package com.itau.banking.transaction.transaction.validator;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.limit.RollingLimitService;
+import com.itau.banking.transaction.limit.RollingLimitUsage;
+import com.itau.banking.transaction.shared.enums.AccountStatus;
+import com.itau.banking.transaction.shared.exception.RollingLimitExceededException;
+import com.itau.banking.transaction.shared.money.Money;
+import com.itau.banking.transaction.transaction.validator.concrete.RollingLimitValidationStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RollingLimitValidationStrategy - Unit Tests")
+class RollingLimitValidationStrategyTest {
+
+    @Mock
+    private RollingLimitService rollingLimitService;
+
+    @Mock
+    private RollingLimitUsage usage;
+
+    @InjectMocks
+    private RollingLimitValidationStrategy validator;
+
+    private Account sourceAccount;
+    private Account destinationAccount;
+
+    @BeforeEach
+    void setUp() {
+        sourceAccount = new Account();
+        sourceAccount.setId(1L);
+        sourceAccount.setDailyLimit(new BigDecimal("1000.00"));
+        sourceAccount.setStatus(AccountStatus.ACTIVE);
+
+        destinationAccount = new Account();
+        destinationAccount.setId(2L);
+        destinationAccount.setStatus(AccountStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Deve somar a transferência às janelas e guardar o uso no contexto")
+    void shouldReserveAndKeepUsageInContext() {
+        // Arrange
+        ValidationContext context = new ValidationContext(sourceAccount, destinationAccount, new BigDecimal("100.00"));
+        when(rollingLimitService.reserve(1L, Money.parse("1000.00"), Money.parse("100.00"))).thenReturn(usage);
+
+        // Act
+        validator.validate(context);
+
+        // Assert
+        assertThat(context.getRollingLimitUsage()).isSameAs(usage);
+    }
+
+    @Test
+    @DisplayName("Não deve somar de novo quando o contexto já tem o uso")
+    void shouldNotReserveTwice_WhenContextAlreadyHasUsage() {
+        // Arrange
+        ValidationContext context = new ValidationContext(sourceAccount, destinationAccount, new BigDecimal("100.00"));
+        context.setRollingLimitUsage(usage);
+
+        // Act
+        validator.validate(context);
+
+        // Assert
+        verifyNoInteractions(rollingLimitService);
+    }
+
+    @Test
+    @DisplayName("Deve só conferir as janelas na validação sem contexto")
+    void shouldOnlyCheck_WhenValidatingWithoutContext() {
+        // Act
+        validator.validate(sourceAccount, destinationAccount, new BigDecimal("100.00"));
+
+        // Assert
+        verify(rollingLimitService).check(1L, Money.parse("1000.00"), Money.parse("100.00"));
+        verify(rollingLimitService, never()).reserve(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve propagar a exceção quando uma janela é excedida")
+    void shouldThrowException_WhenRollingLimitExceeded() {
+        // Arrange
+        ValidationContext context = new ValidationContext(sourceAccount, destinationAccount, new BigDecimal("100.00"));
+        when(rollingLimitService.reserve(any(), any(), any()))
+                .thenThrow(new RollingLimitExceededException("Limite da última hora excedido."));
+
+        // Act & Assert
+        assertThatThrownBy(() -> validator.validate(context))
+                .isInstanceOf(RollingLimitExceededException.class)
+                .hasMessageContaining("última hora");
+        assertThat(context.getRollingLimitUsage()).isNull();
+    }
+}
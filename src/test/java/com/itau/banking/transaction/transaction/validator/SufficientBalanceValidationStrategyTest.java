@@ -59,6 +59,43 @@ class SufficientBalanceValidationStrategyTest {
         assertDoesNotThrow(() -> validator.validate(sourceAccount, destinationAccount, transferAmount));
     }
 
+    @Test
+    @DisplayName("Deve deixar a conferência para a escrita quando a conta vem sem saldo em fluxo que confere na escrita")
+    void shouldSkipCheck_WhenBalanceIsNotLoadedAndCheckedOnWrite() {
+        // Arrange - conta montada a partir do cache de contas
+        sourceAccount.setBalance(null);
+        ValidationContext context = new ValidationContext(sourceAccount, destinationAccount, new BigDecimal("1500.00"));
+        context.setBalanceCheckedOnWrite(true);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> validator.validate(context));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção quando a conta vem sem saldo fora de fluxo que confere na escrita")
+    void shouldThrowException_WhenBalanceIsNotLoadedOutsideWriteCheckedFlow() {
+        // Arrange
+        sourceAccount.setBalance(null);
+        ValidationContext context = new ValidationContext(sourceAccount, destinationAccount, new BigDecimal("1500.00"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> validator.validate(context))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Saldo da conta de origem não carregado");
+    }
+
+    @Test
+    @DisplayName("Deve conferir o saldo carregado mesmo em fluxo que confere na escrita")
+    void shouldCheckLoadedBalance_EvenWhenCheckedOnWrite() {
+        // Arrange
+        ValidationContext context = new ValidationContext(sourceAccount, destinationAccount, new BigDecimal("1500.00"));
+        context.setBalanceCheckedOnWrite(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> validator.validate(context))
+                .isInstanceOf(InsufficientBalanceException.class);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção quando saldo é insuficiente")
     void shouldThrowException_WhenBalanceIsInsufficient() {
@@ -0,0 +1,245 @@
+package com.itau.banking.transaction.transaction.validator;
+
+import com.itau.banking.transaction.account.Account;
+import com.itau.banking.transaction.limit.DailyLimitReservation;
+import com.itau.banking.transaction.shared.config.BankingProperties;
+import com.itau.banking.transaction.shared.exception.InsufficientBalanceException;
+import com.itau.banking.transaction.shared.exception.MinimumAmountException;
+import com.itau.banking.transaction.shared.exception.SelfTransferException;
+import com.itau.banking.transaction.transaction.validator.concrete.MinimumAmountValidationStrategy;
+import com.itau.banking.transaction.transaction.validator.concrete.SelfTransferValidationStrategy;
+import com.itau.banking.transaction.transaction.validator.concrete.SufficientBalanceValidationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("ValidationStrategyFactory - Unit Tests")
+class ValidationStrategyFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ValidationStrategyFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        factory = new ValidationStrategyFactory(List.of(
+                new SufficientBalanceValidationStrategy(),
+                new MinimumAmountValidationStrategy(new BankingProperties()),
+                new SelfTransferValidationStrategy()
+        ), meterRegistry, new BankingProperties());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar transferência para a mesma conta apenas com os dados da requisição")
+    void shouldRejectSelfTransfer_WithRequestDataOnly() {
+        // Act & Assert
+        assertThatThrownBy(() -> factory.validateRequest(1L, 1L, new BigDecimal("10.00")))
+                .isInstanceOf(SelfTransferException.class);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar a ordem das validações sem estado")
+    void shouldRunStatelessValidatorsInOrder() {
+        // Act & Assert - SelfTransfer (2) roda antes de MinimumAmount (3)
+        assertThatThrownBy(() -> factory.validateRequest(1L, 1L, new BigDecimal("0.00")))
+                .isInstanceOf(SelfTransferException.class);
+        assertThatThrownBy(() -> factory.validateRequest(1L, 2L, new BigDecimal("0.00")))
+                .isInstanceOf(MinimumAmountException.class);
+    }
+
+    @Test
+    @DisplayName("Não deve repetir as validações sem estado na etapa com estado")
+    void shouldSkipStatelessValidators_InStatefulStage() {
+        // Arrange - mesma conta e valor abaixo do mínimo, mas com saldo suficiente
+        Account account = new Account();
+        account.setId(1L);
+        account.setBalance(new BigDecimal("100.00"));
+
+        // Act & Assert
+        assertThatCode(() -> factory.validateStateful(account, account, new BigDecimal("0.00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Deve registrar latência e rejeições por validador")
+    void shouldRecordLatencyAndRejectionsPerValidator() {
+        // Act
+        factory.validateRequest(1L, 2L, new BigDecimal("10.00"));
+        assertThatThrownBy(() -> factory.validateRequest(1L, 1L, new BigDecimal("10.00")))
+                .isInstanceOf(SelfTransferException.class);
+
+        // Assert
+        assertThat(meterRegistry.get("banking.validation.duration").tag("validator", "SelfTransferValidationStrategy").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("banking.validation.rejections").tag("validator", "SelfTransferValidationStrategy").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve antecipar a validação barata que mais rejeita quando a ordenação adaptativa está ligada")
+    void shouldMoveCheapRejectingValidatorFirst_WhenAdaptiveOrderingEnabled() {
+        // Arrange - validação lenta que nunca rejeita antes de uma barata que sempre rejeita
+        AtomicInteger slowCalls = new AtomicInteger();
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getTransfer().getValidation().setAdaptiveOrdering(true);
+        bankingProperties.getTransfer().getValidation().setReorderInterval(10);
+        factory = new ValidationStrategyFactory(List.of(
+                new SlowPassingValidationStrategy(slowCalls),
+                new SufficientBalanceValidationStrategy()
+        ), meterRegistry, bankingProperties);
+
+        Account source = new Account();
+        source.setId(1L);
+        source.setBalance(BigDecimal.ZERO);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> factory.validateAll(source, source, BigDecimal.TEN))
+                    .isInstanceOf(InsufficientBalanceException.class);
+        }
+
+        // Assert - após a reordenação a validação lenta deixa de ser executada
+        assertThat(slowCalls.get()).isLessThan(20);
+    }
+
+    @Test
+    @DisplayName("Não deve antecipar validação cujas rejeições têm outro status HTTP")
+    void shouldKeepDeclaredOrder_AcrossDifferentRejectionStatus() {
+        // Arrange - a validação lenta responde 404 e tem precedência sobre a de saldo (422)
+        AtomicInteger slowCalls = new AtomicInteger();
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getTransfer().getValidation().setAdaptiveOrdering(true);
+        bankingProperties.getTransfer().getValidation().setReorderInterval(10);
+        factory = new ValidationStrategyFactory(List.of(
+                new SlowPassingNotFoundValidationStrategy(slowCalls),
+                new SufficientBalanceValidationStrategy()
+        ), meterRegistry, bankingProperties);
+
+        Account source = new Account();
+        source.setId(1L);
+        source.setBalance(BigDecimal.ZERO);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> factory.validateAll(source, source, BigDecimal.TEN))
+                    .isInstanceOf(InsufficientBalanceException.class);
+        }
+
+        // Assert
+        assertThat(slowCalls.get()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Deve antecipar validação barata que ainda não rejeitou sobre uma cara que rejeitou uma vez")
+    void shouldRankNeverRejectingCheapValidator_AheadOfExpensiveOneRejectedOnce() {
+        // Arrange
+        List<String> calls = new CopyOnWriteArrayList<>();
+        BankingProperties bankingProperties = new BankingProperties();
+        bankingProperties.getTransfer().getValidation().setAdaptiveOrdering(true);
+        bankingProperties.getTransfer().getValidation().setReorderInterval(10);
+        factory = new ValidationStrategyFactory(List.of(
+                new SlowRejectingOnceValidationStrategy(calls, new AtomicInteger()),
+                new CheapPassingValidationStrategy(calls)
+        ), meterRegistry, bankingProperties);
+
+        Account account = new Account();
+        account.setId(1L);
+
+        assertThatThrownBy(() -> factory.validateAll(account, account, BigDecimal.TEN))
+                .isInstanceOf(IllegalStateException.class);
+        for (int i = 0; i < 9; i++) {
+            factory.validateAll(account, account, BigDecimal.TEN);
+        }
+        calls.clear();
+
+        // Act
+        factory.validateAll(account, account, BigDecimal.TEN);
+
+        // Assert
+        assertThat(calls).containsExactly("cheap", "slow");
+    }
+
+    @Test
+    @DisplayName("Deve devolver a reserva do limite diário quando uma validação posterior rejeita")
+    void shouldReleaseDailyLimitReservation_WhenLaterValidatorRejects() {
+        // Arrange - a reserva é feita antes da validação de saldo, que rejeita
+        DailyLimitReservation reservation = mock(DailyLimitReservation.class);
+        factory = new ValidationStrategyFactory(List.of(
+                new ReservingValidationStrategy(reservation),
+                new SufficientBalanceValidationStrategy()
+        ), meterRegistry, new BankingProperties());
+
+        Account source = new Account();
+        source.setId(1L);
+        source.setBalance(BigDecimal.ZERO);
+
+        // Act & Assert
+        assertThatThrownBy(() -> factory.validateAll(source, source, BigDecimal.TEN))
+                .isInstanceOf(InsufficientBalanceException.class);
+        verify(reservation).release();
+    }
+
+    @ValidationOrder(0)
+    private record ReservingValidationStrategy(DailyLimitReservation reservation) implements ValidationStrategy {
+        @Override
+        public void validate(Account source, Account destination, BigDecimal amount) {
+        }
+
+        @Override
+        public void validate(ValidationContext context) {
+            context.setDailyLimitReservation(reservation);
+        }
+    }
+
+    @ValidationOrder(1)
+    private record SlowPassingValidationStrategy(AtomicInteger calls) implements ValidationStrategy {
+        @Override
+        public void validate(Account source, Account destination, BigDecimal amount) {
+            calls.incrementAndGet();
+            long until = System.nanoTime() + 200_000;
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @ValidationOrder(value = 1, status = HttpStatus.NOT_FOUND)
+    private record SlowPassingNotFoundValidationStrategy(AtomicInteger calls) implements ValidationStrategy {
+        @Override
+        public void validate(Account source, Account destination, BigDecimal amount) {
+            new SlowPassingValidationStrategy(calls).validate(source, destination, amount);
+        }
+    }
+
+    @ValidationOrder(1)
+    private record SlowRejectingOnceValidationStrategy(List<String> calls, AtomicInteger executions) implements ValidationStrategy {
+        @Override
+        public void validate(Account source, Account destination, BigDecimal amount) {
+            calls.add("slow");
+            new SlowPassingValidationStrategy(new AtomicInteger()).validate(source, destination, amount);
+            if (executions.getAndIncrement() == 0) {
+                throw new IllegalStateException("rejeição única");
+            }
+        }
+    }
+
+    @ValidationOrder(2)
+    private record CheapPassingValidationStrategy(List<String> calls) implements ValidationStrategy {
+        @Override
+        public void validate(Account source, Account destination, BigDecimal amount) {
+            calls.add("cheap");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package simulations
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import scala.concurrent.duration._
+import scala.util.Random
+
+/**
+ * Muitas conexões keep-alive simultâneas com baixa taxa de requisições por conexão (perfil da borda), comparando a
+ * stack MVC (Tomcat + JPA) com a stack reativa (Reactor Netty + R2DBC + Lettuce reativo)
+ *
+ * Cada usuário virtual mantém a própria conexão aberta e faz uma consulta de conta ou uma transferência a cada
+ * poucos segundos, na porta da stack escolhida. Em paralelo, um monitor lê o /actuator/prometheus (sempre no Tomcat)
+ * e confere as threads vivas da JVM e as conexões de banco ativas contra os tetos informados; a simulação falha se
+ * algum teto for ultrapassado. Os mesmos valores ficam no Prometheus para comparar as duas execuções em detalhe.
+ *
+ * Executar com a aplicação no perfil reactive (as duas stacks sobem juntas) e uma vez por stack:
+ *   ./mvnw spring-boot:run -Dspring-boot.run.profiles=reactive
+ *   ./mvnw gatling:test -Dgatling.simulationClass=simulations.KeepAliveConnectionsTest -Dstack=mvc -Dconnections=20000
+ *   ./mvnw gatling:test -Dgatling.simulationClass=simulations.KeepAliveConnectionsTest -Dstack=reactive -Dconnections=20000
+ *
+ * Parâmetros: -Dstack (mvc ou reactive, padrão mvc), -Dconnections (padrão 10000), -DrampSeconds (padrão 60),
+ * -DholdSeconds (padrão 120), -DthinkSeconds (padrão 5), -DmaxLiveThreads (padrão 1000), -DmaxDbConnections (padrão 50)
+ */
+class KeepAliveConnectionsTest extends Simulation {
+
+  val stack = System.getProperty("stack", "mvc")
+  val connections = Integer.getInteger("connections", 10000).intValue
+  val rampSeconds = Integer.getInteger("rampSeconds", 60).intValue
+  val holdSeconds = Integer.getInteger("holdSeconds", 120).intValue
+  val thinkSeconds = Integer.getInteger("thinkSeconds", 5).intValue
+  val maxLiveThreads = Integer.getInteger("maxLiveThreads", 1000).intValue
+  val maxDbConnections = Integer.getInteger("maxDbConnections", 50).intValue
+
+  val baseUrl = if (stack == "reactive") "http://localhost:8081" else "http://localhost:8080"
+  val dbConnectionsMetric = if (stack == "reactive") "r2dbc_pool_acquired_connections" else "hikaricp_connections_active"
+
+  val httpProtocol = http
+    .baseUrl(baseUrl)
+    .acceptHeader("application/json")
+    .contentTypeHeader("application/json")
+
+  val accountIds = (1 to 4).toList
+
+  def gauge(metric: String) = regex(metric + """(?:\{[^}]*\})? ([0-9.E+-]+)""").findAll.transform(_.map(_.toDouble).sum)
+
+  val clientScenario = scenario(s"Keep-alive Clients ($stack)")
+    .during(holdSeconds.seconds + rampSeconds.seconds) {
+      randomSwitch(
+        80.0 -> exec(
+          http("GET Account")
+            .get(_ => s"/api/v1/account?accountId=${accountIds(Random.nextInt(accountIds.length))}")
+            .check(status.is(200))
+        ),
+        20.0 -> exec(
+          http("POST Transfer")
+            .post("/api/v1/transaction/transfer")
+            .header("Idempotency-Key", _ => java.util.UUID.randomUUID().toString)
+            .body(StringBody(_ => {
+              val sourceId = accountIds(Random.nextInt(accountIds.length))
+              val destId = accountIds.filterNot(_ == sourceId)(Random.nextInt(accountIds.length - 1))
+              s"""{
+                "sourceAccountId": $sourceId,
+                "destinationAccountId": $destId,
+                "amount": 0.01
+              }"""
+            }))
+            .check(status.in(200, 400, 409, 422))
+        )
+      ).pause(thinkSeconds.seconds)
+    }
+
+  val monitorScenario = scenario("Server Resource Monitor")
+    .during(holdSeconds.seconds + rampSeconds.seconds) {
+      exec(
+        http("GET Prometheus")
+          .get("http://localhost:8080/actuator/prometheus")
+          .check(
+            gauge("jvm_threads_live_threads").lte(maxLiveThreads.toDouble),
+            gauge(dbConnectionsMetric).lte(maxDbConnections.toDouble)
+          )
+      ).pause(5.seconds)
+    }
+
+  setUp(
+    clientScenario.inject(rampUsers(connections) during (rampSeconds.seconds)),
+    monitorScenario.inject(atOnceUsers(1))
+  ).protocols(httpProtocol)
+    .assertions(
+      global.successfulRequests.percent.gt(99),
+      details("GET Prometheus").failedRequests.count.is(0)
+    )
+}
@@ -0,0 +1,64 @@
+package simulations
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import scala.concurrent.duration._
+import scala.util.Random
+
+/**
+ * Comparação entre threads de plataforma e threads virtuais
+ *
+ * Executa três patamares de carga em sequência (150, 500 e 2000 RPS), cada um em seu próprio grupo no relatório,
+ * para comparar p99 e throughput entre as duas execuções:
+ *   plataforma: ./mvnw spring-boot:run                                   ->  ./mvnw gatling:test -Pthread-model-benchmark -DthreadModel=platform
+ *   virtuais:   ./mvnw spring-boot:run -Dspring-boot.run.profiles=vt     ->  ./mvnw gatling:test -Pthread-model-benchmark -DthreadModel=virtual
+ *
+ * Parâmetros: -DstageDuration em segundos por patamar (padrão 60)
+ */
+class ThreadModelComparisonTest extends Simulation {
+
+  val threadModel = System.getProperty("threadModel", "platform")
+  val stageDuration = Integer.getInteger("stageDuration", 60).intValue
+  val stages = List(150, 500, 2000)
+
+  val httpProtocol = http
+    .baseUrl("http://localhost:8080")
+    .acceptHeader("application/json")
+    .contentTypeHeader("application/json")
+
+  val accountIds = (1 to 4).toList
+
+  def transferScenario(rps: Int) = scenario(s"$threadModel - $rps RPS")
+    .group(s"$rps RPS") {
+      exec(
+        http(s"POST Transfer ($threadModel)")
+          .post("/api/v1/transaction/transfer")
+          .header("Idempotency-Key", _ => java.util.UUID.randomUUID().toString)
+          .body(StringBody(_ => {
+            val sourceId = accountIds(Random.nextInt(accountIds.length))
+            val destId = accountIds.filterNot(_ == sourceId)(Random.nextInt(accountIds.length - 1))
+            s"""{
+              "sourceAccountId": $sourceId,
+              "destinationAccountId": $destId,
+              "amount": 0.01
+            }"""
+          }))
+          .check(status.in(200, 400, 409, 422))
+      )
+    }
+
+  // Cada patamar só começa quando o anterior termina
+  val phases = stages.map(rps =>
+    transferScenario(rps).inject(
+      rampUsersPerSec(rps / 10.0) to rps during (10.seconds),
+      constantUsersPerSec(rps) during (stageDuration.seconds)
+    )
+  )
+
+  setUp(
+    phases.reduceRight((current, remaining) => current.andThen(remaining))
+  ).protocols(httpProtocol)
+    .assertions(
+      global.successfulRequests.percent.gt(95)
+    )
+}
@@ -0,0 +1,57 @@
+package simulations
+
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import scala.concurrent.duration._
+import scala.util.Random
+
+/**
+ * Comparação entre motores de transferência (STANDARD x LEDGER x GROUP_COMMIT)
+ *
+ * Executar a mesma carga duas vezes, uma com a aplicação em cada modo:
+ *   banking.transfer.mode=STANDARD  ->  ./mvnw gatling:test -Dgatling.simulationClass=simulations.TransferEngineComparisonTest -Dengine=standard
+ *   banking.transfer.mode=LEDGER    ->  ./mvnw gatling:test -Dgatling.simulationClass=simulations.TransferEngineComparisonTest -Dengine=ledger
+ *   banking.transfer.mode=GROUP_COMMIT -> ./mvnw gatling:test -Dgatling.simulationClass=simulations.TransferEngineComparisonTest -Dengine=group_commit
+ *   banking.transfer.mode=DB_FUNCTION  -> ./mvnw gatling:test -Dgatling.simulationClass=simulations.TransferEngineComparisonTest -Dengine=db_function
+ *
+ * Parâmetros: -Drps (padrão 300) e -Dduration em segundos (padrão 60)
+ */
+class TransferEngineComparisonTest extends Simulation {
+
+  val engine = System.getProperty("engine", "standard")
+  val rps = Integer.getInteger("rps", 300).toDouble
+  val duration = Integer.getInteger("duration", 60).intValue
+
+  val httpProtocol = http
+    .baseUrl("http://localhost:8080")
+    .acceptHeader("application/json")
+    .contentTypeHeader("application/json")
+
+  val accountIds = (1 to 4).toList
+
+  val transferScenario = scenario(s"Transfer Engine - $engine")
+    .exec(
+      http(s"POST Transfer ($engine)")
+        .post("/api/v1/transaction/transfer")
+        .header("Idempotency-Key", _ => java.util.UUID.randomUUID().toString)
+        .body(StringBody(_ => {
+          val sourceId = accountIds(Random.nextInt(accountIds.length))
+          val destId = accountIds.filterNot(_ == sourceId)(Random.nextInt(accountIds.length - 1))
+          s"""{
+            "sourceAccountId": $sourceId,
+            "destinationAccountId": $destId,
+            "amount": 0.10
+          }"""
+        }))
+        .check(status.in(200, 409, 422))
+    )
+
+  setUp(
+    transferScenario.inject(
+      rampUsersPerSec(rps / 10) to rps during (10.seconds),
+      constantUsersPerSec(rps) during (duration.seconds)
+    ).protocols(httpProtocol)
+  ).assertions(
+    global.successfulRequests.percent.gt(95)
+  )
+}